@@ -19,6 +19,7 @@ package com.couchbase.client.core.endpoint;
 import com.couchbase.client.core.Core;
 import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.env.IoConfig;
 import com.couchbase.client.core.io.CollectionIdentifier;
 import com.couchbase.client.core.msg.kv.NoopRequest;
 import com.couchbase.client.core.msg.kv.NoopResponse;
@@ -111,4 +112,52 @@ class KeyValueEndpointIntegrationTest extends CoreIntegrationTest {
     waitUntilCondition(() -> endpoint.state() == EndpointState.DISCONNECTED);
   }
 
+  /**
+   * Same as {@link #connectNoopAndDisconnect()}, but with the opt-in pipelined bootstrap enabled so that the
+   * bootstrap requests are flushed to the server together.
+   *
+   * @throws Exception if waiting on the response fails.
+   */
+  @Test
+  void connectNoopAndDisconnectWithPipelinedBootstrap() throws Exception {
+    TestNodeConfig node = config().nodes().get(0);
+
+    CoreEnvironment pipelinedEnv = environment().ioConfig(IoConfig.enablePipelinedKvBootstrap(true)).build();
+    Core pipelinedCore = Core.create(pipelinedEnv, authenticator(), seedNodes());
+    try {
+      ServiceContext pipelinedContext = new ServiceContext(
+        new CoreContext(pipelinedCore, 1, pipelinedEnv, authenticator()),
+        node.hostname(),
+        node.ports().get(Services.KV),
+        ServiceType.KV,
+        Optional.empty()
+      );
+
+      KeyValueEndpoint endpoint = new KeyValueEndpoint(
+        pipelinedContext,
+        node.hostname(),
+        node.ports().get(Services.KV),
+        Optional.of(config().bucketname()),
+        authenticator()
+      );
+
+      endpoint.connect();
+      waitUntilCondition(() -> endpoint.state() == EndpointState.CONNECTED);
+
+      NoopRequest request = new NoopRequest(Duration.ofSeconds(2), pipelinedContext, null,
+        CollectionIdentifier.fromDefault(config().bucketname())
+      );
+      endpoint.send(request);
+
+      NoopResponse response = request.response().get(1, TimeUnit.SECONDS);
+      assertTrue(response.status().success());
+
+      endpoint.disconnect();
+      waitUntilCondition(() -> endpoint.state() == EndpointState.DISCONNECTED);
+    } finally {
+      pipelinedCore.shutdown().block();
+      pipelinedEnv.shutdown();
+    }
+  }
+
 }
@@ -30,15 +30,18 @@ import com.couchbase.client.core.cnc.events.core.ReconfigurationIgnoredEvent;
 import com.couchbase.client.core.cnc.events.core.ServiceReconfigurationFailedEvent;
 import com.couchbase.client.core.cnc.events.core.ShutdownCompletedEvent;
 import com.couchbase.client.core.cnc.events.core.ShutdownInitiatedEvent;
+import com.couchbase.client.core.cnc.metrics.LatencyHistograms;
 import com.couchbase.client.core.config.AlternateAddress;
 import com.couchbase.client.core.config.BucketConfig;
 import com.couchbase.client.core.config.ClusterConfig;
 import com.couchbase.client.core.config.ConfigurationProvider;
 import com.couchbase.client.core.config.DefaultConfigurationProvider;
 import com.couchbase.client.core.config.GlobalConfig;
+import com.couchbase.client.core.io.netty.kv.sasl.SaltedPasswordCache;
 import com.couchbase.client.core.diagnostics.EndpointDiagnostics;
 import com.couchbase.client.core.env.Authenticator;
 import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.env.KvTimeoutTracking;
 import com.couchbase.client.core.env.SeedNode;
 import com.couchbase.client.core.error.ConfigException;
 import com.couchbase.client.core.error.GlobalConfigNotFoundException;
@@ -49,6 +52,7 @@ import com.couchbase.client.core.msg.CancellationReason;
 import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.msg.RequestContext;
 import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.kv.KeyValueRequest;
 import com.couchbase.client.core.node.KeyValueLocator;
 import com.couchbase.client.core.node.Locator;
 import com.couchbase.client.core.node.Node;
@@ -58,6 +62,7 @@ import com.couchbase.client.core.node.ViewLocator;
 import com.couchbase.client.core.service.ServiceScope;
 import com.couchbase.client.core.service.ServiceState;
 import com.couchbase.client.core.service.ServiceType;
+import com.couchbase.client.core.service.kv.ObserveProbes;
 import com.couchbase.client.core.util.HostAndPort;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -102,11 +107,6 @@ public class Core {
    */
   private static final AtomicInteger CORE_IDS = new AtomicInteger();
 
-  /**
-   * Locates the right node for the KV service.
-   */
-  private static final KeyValueLocator KEY_VALUE_LOCATOR = new KeyValueLocator();
-
   /**
    * Locates the right node for the manager service.
    */
@@ -152,6 +152,19 @@ public class Core {
    */
   private volatile ClusterConfig currentConfig;
 
+  /**
+   * Locates the right node for the KV service.
+   *
+   * <p>Unlike the other locators this one is not shared across instances, since it caches routing tables
+   * per bucket which are only valid for the configs and nodes of this core.</p>
+   */
+  private final KeyValueLocator keyValueLocator = new KeyValueLocator();
+
+  /**
+   * Serializes the rebuilds of the KV routing tables.
+   */
+  private final Object routingTablesLock = new Object();
+
   /**
    * The list of currently managed nodes against the cluster.
    */
@@ -190,6 +203,26 @@ public class Core {
    */
   private final Map<ResponseMetricIdentifier, ValueRecorder> responseMetrics = new ConcurrentHashMap<>();
 
+  /**
+   * Holds the per node and operation latency histograms, null if disabled.
+   */
+  private final LatencyHistograms latencyHistograms;
+
+  /**
+   * Caches the SCRAM salted passwords of this core, cleared on shutdown.
+   */
+  private final SaltedPasswordCache saltedPasswordCache = new SaltedPasswordCache();
+
+  /**
+   * Shares the observe probes of concurrent durability polls and tracks their latencies per bucket.
+   */
+  private final ObserveProbes observeProbes = new ObserveProbes(this);
+
+  /**
+   * True if the timeouts of KV requests are tracked by the endpoints instead of the wheel timer.
+   */
+  private final boolean kvEndpointDeadlines;
+
   /**
    * Creates a new {@link Core} with the given environment.
    *
@@ -218,9 +251,13 @@ public class Core {
     this.nodes = new CopyOnWriteArrayList<>();
     this.eventBus = environment.eventBus();
     this.timer = environment.timer();
+    this.latencyHistograms = environment.ioConfig().latencyHistogramsEnabled() ? new LatencyHistograms() : null;
+    this.kvEndpointDeadlines = environment.ioConfig().kvTimeoutTracking() == KvTimeoutTracking.ENDPOINT_DEADLINES;
     this.currentConfig = configurationProvider.config();
     this.configurationProvider.configs().subscribe(c -> {
       currentConfig = c;
+      updateRoutingTables();
+      observeProbes.retainBuckets(c.bucketConfigs().keySet());
       reconfigure();
     });
     eventBus.publish(new CoreCreatedEvent(coreContext, environment, seedNodes));
@@ -287,7 +324,9 @@ public class Core {
       return;
     }
 
-    if (registerForTimeout) {
+    if (registerForTimeout && !(kvEndpointDeadlines && request instanceof KeyValueRequest)) {
+      // With endpoint deadlines, KV requests are timed out by the connection they are written to
+      // (or by their retry on the timer if they cannot be written).
       timer.register((Request<Response>) request);
     }
 
@@ -439,6 +478,7 @@ public class Core {
       .switchIfEmpty(Mono.defer(() -> {
         Node node = createNode(identifier, alternateAddress);
         nodes.add(node);
+        updateRoutingTables();
         return Mono.just(node);
       }))
       .flatMap(node -> node.addService(serviceType, port, bucket))
@@ -456,6 +496,36 @@ public class Core {
     });
   }
 
+  /**
+   * Returns the latency histograms per node and operation, if enabled through the
+   * {@link com.couchbase.client.core.env.IoConfig}.
+   *
+   * @return the latency histograms if enabled, empty otherwise.
+   */
+  @Stability.Volatile
+  public Optional<LatencyHistograms> latencyHistograms() {
+    return Optional.ofNullable(latencyHistograms);
+  }
+
+  /**
+   * Returns the cache which holds the SCRAM salted passwords derived by the connections of this core.
+   *
+   * @return the salted password cache.
+   */
+  @Stability.Internal
+  public SaltedPasswordCache saltedPasswordCache() {
+    return saltedPasswordCache;
+  }
+
+  /**
+   * Returns the observe probes which are shared by the durability polls of this core.
+   *
+   * @return the observe probes.
+   */
+  @Stability.Internal
+  public ObserveProbes observeProbes() {
+    return observeProbes;
+  }
 
   /**
    * Create a {@link Node} from the given identifier.
@@ -499,7 +569,10 @@ public class Core {
       }
 
       if ((!stillPresentInBuckets && !stillPresentInGlobal) || !node.hasServicesEnabled()) {
-        return node.disconnect().doOnTerminate(() -> nodes.remove(node));
+        return node.disconnect().doOnTerminate(() -> {
+          nodes.remove(node);
+          updateRoutingTables();
+        });
       }
 
       return Mono.empty();
@@ -545,9 +618,13 @@ public class Core {
           // every 10ms check if all nodes have been cleared, and then move on.
           // this links the config provider shutdown with our core reconfig logic
           .then(Flux.interval(Duration.ofMillis(10), coreContext.environment().scheduler()).takeUntil(i -> nodes.isEmpty()).then())
-          .doOnTerminate(() -> eventBus.publish(
-            new ShutdownCompletedEvent(Duration.ofNanos(System.nanoTime() - start), coreContext)
-          ))
+          .doOnTerminate(() -> {
+            saltedPasswordCache.clear();
+            observeProbes.clear();
+            eventBus.publish(
+              new ShutdownCompletedEvent(Duration.ofNanos(System.nanoTime() - start), coreContext)
+            );
+          })
           .then();
       }
       return Mono.empty();
@@ -617,7 +694,10 @@ public class Core {
     Flux
       .fromIterable(new ArrayList<>(nodes))
       .flatMap(Node::disconnect)
-      .doOnComplete(nodes::clear)
+      .doOnComplete(() -> {
+        nodes.clear();
+        updateRoutingTables();
+      })
       .subscribe(
         v -> {},
         e -> {
@@ -634,6 +714,18 @@ public class Core {
       );
   }
 
+  /**
+   * Rebuilds the KV routing tables from the current config and nodes.
+   *
+   * <p>Both are read while holding the lock, so that the last update to run always publishes tables for the latest
+   * state, even if configs and node changes race each other.</p>
+   */
+  private void updateRoutingTables() {
+    synchronized (routingTablesLock) {
+      keyValueLocator.updateRoutingTables(currentConfig, nodes);
+    }
+  }
+
   /**
    * Clean reconfiguration in progress and check if there is a new one we need to try.
    */
@@ -806,10 +898,10 @@ public class Core {
    * @param serviceType the service type for which a locator should be returned.
    * @return the locator for the service type, or an exception if unknown.
    */
-  private static Locator locator(final ServiceType serviceType) {
+  private Locator locator(final ServiceType serviceType) {
     switch (serviceType) {
       case KV:
-        return KEY_VALUE_LOCATOR;
+        return keyValueLocator;
       case MANAGER:
         return MANAGER_LOCATOR;
       case QUERY:
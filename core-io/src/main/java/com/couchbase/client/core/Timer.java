@@ -25,6 +25,11 @@ import com.couchbase.client.core.deps.io.netty.util.Timeout;
 import com.couchbase.client.core.deps.io.netty.util.concurrent.DefaultThreadFactory;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -126,7 +131,14 @@ public class Timer {
     outstandingForRetry.incrementAndGet();
     schedule(() -> {
       outstandingForRetry.decrementAndGet();
-      if (!request.completed()) {
+      if (request.completed()) {
+        return;
+      }
+      if (request.timeoutElapsed()) {
+        // Requests which are not registered with a timeout of their own (i.e. KV requests tracked by their
+        // endpoint) rely on their retry to time them out.
+        request.cancel(CancellationReason.TIMEOUT);
+      } else {
         core.send(request, false);
       }
     }, runAfter);
@@ -161,6 +173,46 @@ public class Timer {
     request.response().whenComplete((r, throwable) -> registration.cancel());
   }
 
+  /**
+   * Registers all given requests to be tracked with shared timeouts.
+   *
+   * <p>Instead of allocating one timeout per request, the requests are grouped by their timeout value and a single
+   * timeout is scheduled for each group. Once it fires, all requests of the group which are not completed yet are
+   * cancelled, so every request still times out after exactly its own timeout.</p>
+   *
+   * <p>No callback is attached to the individual requests. The caller is expected to cancel the returned
+   * registrations once it knows that all requests are completed.</p>
+   *
+   * @param requests the requests to track.
+   * @return the registrations, one for each distinct timeout value.
+   */
+  public List<Timeout> registerBatch(final List<? extends Request<? extends Response>> requests) {
+    if (stopped) {
+      for (Request<? extends Response> request : requests) {
+        request.cancel(CancellationReason.SHUTDOWN);
+      }
+      return Collections.emptyList();
+    }
+
+    final Map<Duration, List<Request<? extends Response>>> byTimeout = new HashMap<>();
+    for (Request<? extends Response> request : requests) {
+      byTimeout.computeIfAbsent(request.timeout(), t -> new ArrayList<>()).add(request);
+    }
+
+    final List<Timeout> registrations = new ArrayList<>(byTimeout.size());
+    for (Map.Entry<Duration, List<Request<? extends Response>>> group : byTimeout.entrySet()) {
+      final List<Request<? extends Response>> groupRequests = group.getValue();
+      registrations.add(wheelTimer.newTimeout(timeout -> {
+        for (Request<? extends Response> request : groupRequests) {
+          if (!request.completed()) {
+            request.cancel(CancellationReason.TIMEOUT);
+          }
+        }
+      }, group.getKey().toNanos(), TimeUnit.NANOSECONDS));
+    }
+    return registrations;
+  }
+
   /**
    * Starts this timer.
    */
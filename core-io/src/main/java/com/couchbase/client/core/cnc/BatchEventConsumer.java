@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.cnc;
+
+import com.couchbase.client.core.annotation.Stability;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Consumer} of events which prefers to receive them in batches.
+ *
+ * <p>If subscribed to the {@link DefaultEventBus}, all events which have been drained from the queue in one go
+ * are handed over through {@link #acceptBatch(List)} instead of calling {@link #accept(Object)} for each of them.
+ * This allows i.e. consumers which write to a log or a socket to amortize their per-event overhead.</p>
+ *
+ * @since 2.1.4
+ */
+@Stability.Volatile
+@FunctionalInterface
+public interface BatchEventConsumer extends Consumer<Event> {
+
+  /**
+   * Consumes a batch of events.
+   *
+   * <p>The list is reused by the event bus once this method returns, so it must not be stored or modified.</p>
+   *
+   * @param events the events in the order they have been published.
+   */
+  void acceptBatch(List<Event> events);
+
+  @Override
+  default void accept(final Event event) {
+    acceptBatch(Collections.singletonList(event));
+  }
+
+}
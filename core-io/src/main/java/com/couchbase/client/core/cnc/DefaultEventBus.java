@@ -16,6 +16,7 @@
 
 package com.couchbase.client.core.cnc;
 
+import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.deps.org.jctools.queues.QueueFactory;
 import com.couchbase.client.core.deps.org.jctools.queues.spec.ConcurrentQueueSpec;
 import reactor.core.publisher.Flux;
@@ -24,12 +25,18 @@ import reactor.core.scheduler.Scheduler;
 
 import java.io.PrintStream;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
 
+import static com.couchbase.client.core.util.Validators.notNull;
+
 /**
  * The {@link DefaultEventBus} provides the default and very efficient implementation
  * of the {@link EventBus}.
@@ -38,7 +45,8 @@ import java.util.function.Consumer;
  * queue which allows to quickly send events into the bus without blocking the sender.</p>
  *
  * <p>Subscribers of this API are considered to be non-blocking and if they have to blocking
- * tasks need to fan them out into their own thread pool.</p>
+ * tasks need to fan them out into their own thread pool. How long each subscriber takes to
+ * consume its events can be inspected through {@link #subscriberMetrics(EventSubscription)}.</p>
  *
  * <p>Keep in mind to properly {@link #start()} and {@link #stop(Duration)} since it runs in its
  * own thread!</p>
@@ -52,15 +60,35 @@ public class DefaultEventBus implements EventBus {
   private static final int DEFAULT_QUEUE_CAPACITY = 16384;
 
   /**
-   * If there are no events to process, the event bus will sleep for 100ms before checking the queue
+   * If there are no events to process, the event bus will wait for at most 100ms before checking the queue
    * again.
    */
   private static final Duration DEFAULT_IDLE_SLEEP_DURATION = Duration.ofMillis(100);
 
   /**
-   * Holds all current event subscribers.
+   * By default, the consumer thread parks when idle and is woken up by the next publisher.
+   */
+  private static final WaitStrategy DEFAULT_WAIT_STRATEGY = WaitStrategy.PARK;
+
+  /**
+   * By default, up to 256 events are drained from the queue before they are dispatched to the subscribers.
+   */
+  private static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+  /**
+   * The number of busy spins the {@link WaitStrategy#SPIN_YIELD_PARK} strategy performs before yielding.
+   */
+  private static final int SPIN_ITERATIONS = 100;
+
+  /**
+   * The number of yields the {@link WaitStrategy#SPIN_YIELD_PARK} strategy performs before parking.
+   */
+  private static final int YIELD_ITERATIONS = 10;
+
+  /**
+   * Holds all current event subscribers and their dispatch metrics.
    */
-  private final CopyOnWriteArraySet<Consumer<Event>> subscribers;
+  private final Map<Consumer<Event>, SubscriberMetrics> subscribers;
 
   /**
    * Holds the bounded event mpsc queue dealing with all the events.
@@ -84,10 +112,20 @@ public class DefaultEventBus implements EventBus {
   private final String threadName;
 
   /**
-   * The duration to sleep when no events are consumable.
+   * The maximum duration to wait when no events are consumable.
    */
   private final Duration idleSleepDuration;
 
+  /**
+   * How the consumer thread waits for new events when the queue is empty.
+   */
+  private final WaitStrategy waitStrategy;
+
+  /**
+   * The maximum number of events drained from the queue in one go.
+   */
+  private final int maxBatchSize;
+
   /**
    * The scheduler used during i.e. shutdown.
    */
@@ -98,6 +136,12 @@ public class DefaultEventBus implements EventBus {
    */
   private volatile Thread runningThread;
 
+  /**
+   * Set by the consumer thread right before it parks, so publishers only need to unpark it if it is
+   * actually waiting.
+   */
+  private volatile boolean consumerParked;
+
   public static DefaultEventBus.Builder builder(final Scheduler scheduler) {
     return new Builder(scheduler);
   }
@@ -108,7 +152,7 @@ public class DefaultEventBus implements EventBus {
 
   private DefaultEventBus(final Builder builder) {
     scheduler = builder.scheduler;
-    subscribers = new CopyOnWriteArraySet<>();
+    subscribers = new ConcurrentHashMap<>();
     running = new AtomicBoolean(false);
 
     eventQueue = QueueFactory.newQueue(
@@ -117,11 +161,13 @@ public class DefaultEventBus implements EventBus {
     errorLogging = builder.errorLogging.orElse(null);
     threadName = builder.threadName;
     idleSleepDuration = builder.idleSleepDuration;
+    waitStrategy = builder.waitStrategy;
+    maxBatchSize = builder.maxBatchSize;
   }
 
   @Override
   public EventSubscription subscribe(final Consumer<Event> consumer) {
-    subscribers.add(consumer);
+    subscribers.putIfAbsent(consumer, new SubscriberMetrics());
     return new EventSubscription(this, consumer);
   }
 
@@ -135,6 +181,9 @@ public class DefaultEventBus implements EventBus {
     if (!isRunning()) {
       return PublishResult.SHUTDOWN;
     } else if (eventQueue.offer(event)) {
+      if (consumerParked) {
+        LockSupport.unpark(runningThread);
+      }
       return PublishResult.SUCCESS;
     } else {
       if (errorLogging != null) {
@@ -152,34 +201,13 @@ public class DefaultEventBus implements EventBus {
     return Mono.defer(() -> {
       if (running.compareAndSet(false, true)) {
         runningThread = new Thread(() -> {
-          long idleSleepTime = idleSleepDuration.toMillis();
+          final List<Event> batch = new ArrayList<>(Math.min(maxBatchSize, DEFAULT_MAX_BATCH_SIZE));
+          int idleIterations = 0;
           while (isRunning() || !eventQueue.isEmpty()) {
-            Event event = eventQueue.poll();
-            while (event != null) {
-              for (Consumer<Event> subscriber : subscribers) {
-                try {
-                  subscriber.accept(event);
-                } catch (Throwable t) {
-                  // any exception thrown in the event consumer is
-                  // ignored, since it would otherwise kill the
-                  // event bus thread!
-                  if (errorLogging != null) {
-                    errorLogging.println("Exception caught in EventBus Consumer: " + t);
-                    t.printStackTrace();
-                  }
-                }
-              }
-              event = eventQueue.poll();
-            }
-
-            try {
-              if (isRunning()) {
-                Thread.sleep(idleSleepTime);
-              }
-            } catch (InterruptedException e) {
-              // If this thread is interrupted, we continue
-              // into the loop early. so if interrupted for
-              // shutdown it completes quickly while sleeping
+            if (drain(batch)) {
+              idleIterations = 0;
+            } else if (isRunning()) {
+              idle(idleIterations++);
             }
           }
         });
@@ -192,6 +220,114 @@ public class DefaultEventBus implements EventBus {
     });
   }
 
+  /**
+   * Drains up to {@link #maxBatchSize} events from the queue and dispatches them to all subscribers.
+   *
+   * @param batch the reusable list to drain into.
+   * @return true if at least one event has been dispatched.
+   */
+  private boolean drain(final List<Event> batch) {
+    Event event;
+    while (batch.size() < maxBatchSize && (event = eventQueue.poll()) != null) {
+      batch.add(event);
+    }
+    if (batch.isEmpty()) {
+      return false;
+    }
+
+    for (Map.Entry<Consumer<Event>, SubscriberMetrics> subscriber : subscribers.entrySet()) {
+      Consumer<Event> consumer = subscriber.getKey();
+      long start = System.nanoTime();
+      if (consumer instanceof BatchEventConsumer) {
+        dispatch((BatchEventConsumer) consumer, batch);
+      } else {
+        for (Event e : batch) {
+          dispatch(consumer, e);
+        }
+      }
+      subscriber.getValue().record(batch.size(), System.nanoTime() - start);
+    }
+
+    batch.clear();
+    return true;
+  }
+
+  private void dispatch(final Consumer<Event> consumer, final Event event) {
+    try {
+      consumer.accept(event);
+    } catch (Throwable t) {
+      handleConsumerFailure(t);
+    }
+  }
+
+  private void dispatch(final BatchEventConsumer consumer, final List<Event> batch) {
+    try {
+      consumer.acceptBatch(batch);
+    } catch (Throwable t) {
+      handleConsumerFailure(t);
+    }
+  }
+
+  /**
+   * Any exception thrown in the event consumer is ignored, since it would otherwise kill the event bus thread!
+   */
+  private void handleConsumerFailure(final Throwable t) {
+    if (errorLogging != null) {
+      errorLogging.println("Exception caught in EventBus Consumer: " + t);
+      t.printStackTrace();
+    }
+  }
+
+  /**
+   * Waits for new events according to the configured {@link WaitStrategy}.
+   *
+   * <p>If this thread is interrupted (or unparked), it continues into the loop early. So if interrupted for
+   * shutdown it completes quickly while waiting.</p>
+   *
+   * @param idleIterations how many times in a row the queue has been found empty.
+   */
+  private void idle(final int idleIterations) {
+    switch (waitStrategy) {
+      case SLEEP:
+        try {
+          Thread.sleep(idleSleepDuration.toMillis());
+        } catch (InterruptedException e) {
+          // continue into the loop early
+        }
+        break;
+      case SPIN_YIELD_PARK:
+        if (idleIterations < SPIN_ITERATIONS) {
+          return;
+        } else if (idleIterations < SPIN_ITERATIONS + YIELD_ITERATIONS) {
+          Thread.yield();
+          return;
+        }
+        park();
+        break;
+      case PARK:
+      default:
+        park();
+    }
+  }
+
+  /**
+   * Parks the consumer thread until a publisher unparks it or the idle duration elapses.
+   *
+   * <p>The queue is checked again after announcing the park, so an event published in between is never
+   * left waiting for the full idle duration.</p>
+   */
+  private void park() {
+    consumerParked = true;
+    try {
+      if (eventQueue.isEmpty() && isRunning()) {
+        LockSupport.parkNanos(this, idleSleepDuration.toNanos());
+      }
+    } finally {
+      consumerParked = false;
+    }
+    Thread.interrupted();
+  }
+
   /**
    * Stops the {@link DefaultEventBus} from running.
    */
@@ -208,6 +344,28 @@ public class DefaultEventBus implements EventBus {
       .timeout(timeout, scheduler);
   }
 
+  /**
+   * Returns the dispatch metrics for the subscriber of the given subscription.
+   *
+   * <p>These allow to spot subscribers which are slow to consume their events before the bounded queue
+   * fills up and starts rejecting further events.</p>
+   *
+   * @param subscription the subscription returned from {@link #subscribe(Consumer)}.
+   * @return the metrics if the subscription is still active, empty otherwise.
+   */
+  @Stability.Volatile
+  public Optional<SubscriberMetrics> subscriberMetrics(final EventSubscription subscription) {
+    return Optional.ofNullable(subscribers.get(subscription.consumer()));
+  }
+
+  /**
+   * Returns the number of events currently waiting in the queue to be dispatched.
+   */
+  @Stability.Volatile
+  public int queueSize() {
+    return eventQueue.size();
+  }
+
   /**
    * True if running, false otherwise.
    */
@@ -222,6 +380,80 @@ public class DefaultEventBus implements EventBus {
     return !subscribers.isEmpty();
   }
 
+  /**
+   * Describes how the consumer thread of the {@link DefaultEventBus} waits for new events if the queue is empty.
+   */
+  @Stability.Volatile
+  public enum WaitStrategy {
+    /**
+     * Sleeps for the idle duration before checking the queue again (the behavior of older versions).
+     */
+    SLEEP,
+    /**
+     * Parks the thread until it is signalled by the next publisher (or the idle duration elapses).
+     */
+    PARK,
+    /**
+     * Busy spins and yields for a short time before parking like {@link #PARK}, trading cpu for latency
+     * on bursty workloads.
+     */
+    SPIN_YIELD_PARK
+  }
+
+  /**
+   * Dispatch metrics for a single subscriber.
+   *
+   * <p>The values are only written by the event bus thread, but can be read from any thread.</p>
+   */
+  @Stability.Volatile
+  public static class SubscriberMetrics {
+
+    private volatile long dispatchedEvents;
+    private volatile long totalDispatchNanos;
+    private volatile long maxDispatchNanos;
+
+    SubscriberMetrics() {
+    }
+
+    void record(final int events, final long dispatchNanos) {
+      dispatchedEvents = dispatchedEvents + events;
+      totalDispatchNanos = totalDispatchNanos + dispatchNanos;
+      if (dispatchNanos > maxDispatchNanos) {
+        maxDispatchNanos = dispatchNanos;
+      }
+    }
+
+    /**
+     * The total number of events dispatched to this subscriber.
+     */
+    public long dispatchedEvents() {
+      return dispatchedEvents;
+    }
+
+    /**
+     * The total time spent inside this subscriber.
+     */
+    public Duration totalDispatchTime() {
+      return Duration.ofNanos(totalDispatchNanos);
+    }
+
+    /**
+     * The longest time this subscriber took to consume a single batch of events.
+     */
+    public Duration maxDispatchTime() {
+      return Duration.ofNanos(maxDispatchNanos);
+    }
+
+    @Override
+    public String toString() {
+      return "SubscriberMetrics{" +
+        "dispatchedEvents=" + dispatchedEvents +
+        ", totalDispatchTime=" + totalDispatchTime() +
+        ", maxDispatchTime=" + maxDispatchTime() +
+        '}';
+    }
+  }
+
   /**
    * Allows to modify the default configuration of the {@link DefaultEventBus}.
    */
@@ -233,6 +465,8 @@ public class DefaultEventBus implements EventBus {
     Optional<PrintStream> errorLogging;
     String threadName;
     Duration idleSleepDuration;
+    WaitStrategy waitStrategy;
+    int maxBatchSize;
 
     Builder(Scheduler scheduler) {
       this.scheduler = scheduler;
@@ -241,6 +475,8 @@ public class DefaultEventBus implements EventBus {
       errorLogging = Optional.of(System.err);
       threadName = "cb-events";
       idleSleepDuration = DEFAULT_IDLE_SLEEP_DURATION;
+      waitStrategy = DEFAULT_WAIT_STRATEGY;
+      maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
     }
 
     public Builder queueCapacity(final int queueCapacity) {
@@ -263,6 +499,33 @@ public class DefaultEventBus implements EventBus {
       return this;
     }
 
+    /**
+     * Configures how the consumer thread waits for new events if the queue is empty.
+     *
+     * @param waitStrategy the wait strategy to use.
+     * @return this builder for chaining purposes.
+     */
+    @Stability.Volatile
+    public Builder waitStrategy(final WaitStrategy waitStrategy) {
+      this.waitStrategy = notNull(waitStrategy, "WaitStrategy");
+      return this;
+    }
+
+    /**
+     * Configures the maximum number of events drained from the queue before they are dispatched.
+     *
+     * @param maxBatchSize the maximum batch size, must be greater than 0.
+     * @return this builder for chaining purposes.
+     */
+    @Stability.Volatile
+    public Builder maxBatchSize(final int maxBatchSize) {
+      if (maxBatchSize < 1) {
+        throw new IllegalArgumentException("The maximum batch size must be greater than 0");
+      }
+      this.maxBatchSize = maxBatchSize;
+      return this;
+    }
+
     public DefaultEventBus build() {
       return new DefaultEventBus(this);
     }
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.cnc.metrics;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.deps.org.HdrHistogram.Histogram;
+import com.couchbase.client.core.service.ServiceType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps dispatch, server and encode latency histograms for every operation on every node.
+ *
+ * <p>Unlike the {@link AggregatingMeter}, the recorders are not looked up by name and tags on every response: each
+ * connection registers its {@link NodeLatencies} once when it becomes active and then records straight into the
+ * recorders indexed by opcode. This allows to export i.e. per-node percentiles and to spot a single slow node
+ * without enabling a tracer.</p>
+ *
+ * <p>Calling {@link #snapshot()} returns the latencies recorded since the last snapshot and resets the interval,
+ * without blocking the recording threads.</p>
+ *
+ * @since 2.1.4
+ */
+@Stability.Volatile
+public class LatencyHistograms {
+
+  /**
+   * The number of opcodes which can be tracked per node.
+   */
+  static final int MAX_OPCODES = 256;
+
+  private final Map<NodeKey, NodeLatencies> nodes = new ConcurrentHashMap<>();
+
+  /**
+   * Returns (and registers if needed) the latencies for the given service on the given node.
+   *
+   * <p>Every call registers the caller (usually a connection) with the node, and needs to be paired with a call
+   * to {@link #remove(ServiceType, String)} once it goes away.</p>
+   *
+   * @param serviceType the service type.
+   * @param node the address of the node in the form of {@code host:port}, since multiple nodes can share a host.
+   * @return the latencies to record into.
+   */
+  public NodeLatencies node(final ServiceType serviceType, final String node) {
+    return nodes.compute(new NodeKey(serviceType, node), (key, latencies) -> {
+      if (latencies == null) {
+        latencies = new NodeLatencies(key);
+      }
+      latencies.registrations++;
+      return latencies;
+    });
+  }
+
+  /**
+   * Removes a registration obtained through {@link #node(ServiceType, String)}.
+   *
+   * <p>Once the last connection to the node is gone, the node and its latencies are removed, so that nodes which
+   * left the cluster are not part of the snapshots anymore.</p>
+   *
+   * @param serviceType the service type.
+   * @param node the address of the node in the form of {@code host:port}.
+   */
+  public void remove(final ServiceType serviceType, final String node) {
+    nodes.computeIfPresent(new NodeKey(serviceType, node),
+      (key, latencies) -> --latencies.registrations == 0 ? null : latencies);
+  }
+
+  /**
+   * Collects the latencies recorded since the last snapshot.
+   *
+   * <p>Only operations which have been recorded at least once during the interval are part of the result.</p>
+   *
+   * @return the latencies per service, node and operation.
+   */
+  public synchronized List<LatencySnapshot> snapshot() {
+    List<LatencySnapshot> result = new ArrayList<>();
+    Histogram dispatch = new Histogram(StripedLatencyRecorder.SIGNIFICANT_DIGITS);
+    Histogram server = new Histogram(StripedLatencyRecorder.SIGNIFICANT_DIGITS);
+    Histogram encode = new Histogram(StripedLatencyRecorder.SIGNIFICANT_DIGITS);
+
+    for (NodeLatencies nodeLatencies : nodes.values()) {
+      for (int opcode = 0; opcode < MAX_OPCODES; opcode++) {
+        OperationLatencies operation = nodeLatencies.operations.get(opcode);
+        if (operation == null) {
+          continue;
+        }
+
+        dispatch.reset();
+        server.reset();
+        encode.reset();
+        operation.dispatch.intervalInto(dispatch);
+        operation.server.intervalInto(server);
+        operation.encode.intervalInto(encode);
+        if (dispatch.getTotalCount() == 0 && server.getTotalCount() == 0 && encode.getTotalCount() == 0) {
+          continue;
+        }
+
+        result.add(new LatencySnapshot(
+          nodeLatencies.key.serviceType,
+          nodeLatencies.key.node,
+          opcode,
+          operation.name,
+          LatencySnapshot.Summary.of(dispatch),
+          LatencySnapshot.Summary.of(server),
+          LatencySnapshot.Summary.of(encode)
+        ));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * The latency recorders for all operations of one service on one node.
+   */
+  public static class NodeLatencies {
+
+    private final NodeKey key;
+    private final AtomicReferenceArray<OperationLatencies> operations = new AtomicReferenceArray<>(MAX_OPCODES);
+
+    /**
+     * The number of connections which are registered with this node, only accessed while holding its map entry.
+     */
+    private int registrations;
+
+    private NodeLatencies(final NodeKey key) {
+      this.key = key;
+    }
+
+    /**
+     * Records the latencies of one completed operation.
+     *
+     * @param opcode the opcode of the operation, must be between 0 and 255.
+     * @param name the name of the operation, only used the first time the opcode is recorded.
+     * @param dispatchNanos the dispatch latency in nanoseconds.
+     * @param serverMicros the server latency in microseconds (as reported by the server), 0 if not available.
+     */
+    public void record(final int opcode, final String name, final long dispatchNanos, final long serverMicros) {
+      OperationLatencies operation = operation(opcode, name);
+      operation.dispatch.recordMicros(TimeUnit.NANOSECONDS.toMicros(dispatchNanos));
+      operation.server.recordMicros(serverMicros);
+    }
+
+    /**
+     * Records the time it took to encode the request of an operation into its wire frame.
+     *
+     * @param opcode the opcode of the operation, must be between 0 and 255.
+     * @param name the name of the operation, only used the first time the opcode is recorded.
+     * @param encodeNanos the frame encode latency in nanoseconds.
+     */
+    public void recordEncode(final int opcode, final String name, final long encodeNanos) {
+      operation(opcode, name).encode.recordMicros(TimeUnit.NANOSECONDS.toMicros(encodeNanos));
+    }
+
+    private OperationLatencies operation(final int opcode, final String name) {
+      OperationLatencies operation = operations.get(opcode);
+      if (operation == null) {
+        operations.compareAndSet(opcode, null, new OperationLatencies(name));
+        operation = operations.get(opcode);
+      }
+      return operation;
+    }
+  }
+
+  private static class OperationLatencies {
+
+    private final String name;
+    private final StripedLatencyRecorder dispatch = new StripedLatencyRecorder();
+    private final StripedLatencyRecorder server = new StripedLatencyRecorder();
+    private final StripedLatencyRecorder encode = new StripedLatencyRecorder();
+
+    private OperationLatencies(final String name) {
+      this.name = name;
+    }
+  }
+
+  private static class NodeKey {
+
+    private final ServiceType serviceType;
+    private final String node;
+
+    private NodeKey(final ServiceType serviceType, final String node) {
+      this.serviceType = serviceType;
+      this.node = node;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      NodeKey nodeKey = (NodeKey) o;
+      return serviceType == nodeKey.serviceType && Objects.equals(node, nodeKey.node);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(serviceType, node);
+    }
+  }
+
+}
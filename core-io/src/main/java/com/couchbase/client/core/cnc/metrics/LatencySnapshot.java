@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.cnc.metrics;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.deps.org.HdrHistogram.Histogram;
+import com.couchbase.client.core.service.ServiceType;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The latencies of one operation on one node, recorded by the {@link LatencyHistograms} during a single interval.
+ *
+ * @since 2.1.4
+ */
+@Stability.Volatile
+public class LatencySnapshot {
+
+  private final ServiceType serviceType;
+  private final String node;
+  private final int opcode;
+  private final String operationName;
+  private final Summary dispatch;
+  private final Summary server;
+  private final Summary encode;
+
+  LatencySnapshot(final ServiceType serviceType, final String node, final int opcode, final String operationName,
+                  final Summary dispatch, final Summary server, final Summary encode) {
+    this.serviceType = serviceType;
+    this.node = node;
+    this.opcode = opcode;
+    this.operationName = operationName;
+    this.dispatch = dispatch;
+    this.server = server;
+    this.encode = encode;
+  }
+
+  /**
+   * The service the operation has been performed against.
+   */
+  public ServiceType serviceType() {
+    return serviceType;
+  }
+
+  /**
+   * The address of the node ({@code host:port}) the operation has been dispatched to.
+   */
+  public String node() {
+    return node;
+  }
+
+  /**
+   * The opcode of the operation (the memcache opcode for the KV service).
+   */
+  public int opcode() {
+    return opcode;
+  }
+
+  /**
+   * The name of the operation (i.e. "get").
+   */
+  public String operationName() {
+    return operationName;
+  }
+
+  /**
+   * The time between writing the request and receiving its response.
+   */
+  public Summary dispatch() {
+    return dispatch;
+  }
+
+  /**
+   * The time the server reported to spend on the operation (only present if the server sent it).
+   */
+  public Summary server() {
+    return server;
+  }
+
+  /**
+   * The time spent encoding the request into its wire frame.
+   */
+  public Summary encode() {
+    return encode;
+  }
+
+  @Override
+  public String toString() {
+    return "LatencySnapshot{" +
+      "serviceType=" + serviceType +
+      ", node='" + node + '\'' +
+      ", opcode=" + opcode +
+      ", operationName='" + operationName + '\'' +
+      ", dispatch=" + dispatch +
+      ", server=" + server +
+      ", encode=" + encode +
+      '}';
+  }
+
+  /**
+   * A summary of the recorded values of a single latency histogram.
+   */
+  public static class Summary {
+
+    static final Summary EMPTY = new Summary(0, 0, 0, 0, 0, 0);
+
+    private final long count;
+    private final long p50Micros;
+    private final long p90Micros;
+    private final long p99Micros;
+    private final long p999Micros;
+    private final long maxMicros;
+
+    private Summary(final long count, final long p50Micros, final long p90Micros, final long p99Micros,
+                    final long p999Micros, final long maxMicros) {
+      this.count = count;
+      this.p50Micros = p50Micros;
+      this.p90Micros = p90Micros;
+      this.p99Micros = p99Micros;
+      this.p999Micros = p999Micros;
+      this.maxMicros = maxMicros;
+    }
+
+    static Summary of(final Histogram histogram) {
+      if (histogram.getTotalCount() == 0) {
+        return EMPTY;
+      }
+      return new Summary(
+        histogram.getTotalCount(),
+        histogram.getValueAtPercentile(50.0),
+        histogram.getValueAtPercentile(90.0),
+        histogram.getValueAtPercentile(99.0),
+        histogram.getValueAtPercentile(99.9),
+        histogram.getMaxValue()
+      );
+    }
+
+    private static Duration micros(final long micros) {
+      return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(micros));
+    }
+
+    /**
+     * The number of values recorded during the interval.
+     */
+    public long count() {
+      return count;
+    }
+
+    public Duration p50() {
+      return micros(p50Micros);
+    }
+
+    public Duration p90() {
+      return micros(p90Micros);
+    }
+
+    public Duration p99() {
+      return micros(p99Micros);
+    }
+
+    public Duration p999() {
+      return micros(p999Micros);
+    }
+
+    public Duration max() {
+      return micros(maxMicros);
+    }
+
+    @Override
+    public String toString() {
+      return "Summary{" +
+        "count=" + count +
+        ", p50=" + p50() +
+        ", p90=" + p90() +
+        ", p99=" + p99() +
+        ", p999=" + p999() +
+        ", max=" + max() +
+        '}';
+    }
+  }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.cnc.metrics;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.deps.org.HdrHistogram.Histogram;
+import com.couchbase.client.core.deps.org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Records latencies (in microseconds) into a set of striped HdrHistogram {@link Recorder Recorders}.
+ *
+ * <p>Every recording thread is mapped to one stripe based on its id, so that the event loops recording into the
+ * same histogram do not contend on the same counters. Each stripe is wait-free for writers, and reading an
+ * interval swaps the active histograms instead of blocking the writers. Stripes are only allocated once a
+ * thread records into them, so a histogram that is only written from a single event loop keeps a single
+ * stripe.</p>
+ *
+ * @since 2.1.4
+ */
+@Stability.Internal
+public class StripedLatencyRecorder {
+
+  /**
+   * The number of significant digits each histogram tracks (1% precision is plenty for percentiles and keeps the
+   * histograms small).
+   */
+  static final int SIGNIFICANT_DIGITS = 2;
+
+  /**
+   * The default number of stripes, the next power of two of the available cpus (but at most 8).
+   */
+  static final int STRIPES = Math.min(8, Integer.highestOneBit(Math.max(1,
+    Runtime.getRuntime().availableProcessors() - 1)) << 1);
+
+  private final AtomicReferenceArray<Recorder> stripes;
+  private final Histogram[] recycled;
+  private final int mask;
+
+  public StripedLatencyRecorder() {
+    this(STRIPES);
+  }
+
+  StripedLatencyRecorder(final int numStripes) {
+    if (Integer.bitCount(numStripes) != 1) {
+      throw new IllegalArgumentException("The number of stripes must be a power of two");
+    }
+    stripes = new AtomicReferenceArray<>(numStripes);
+    recycled = new Histogram[numStripes];
+    mask = numStripes - 1;
+  }
+
+  /**
+   * Records the given latency, ignoring values which are 0 or negative (i.e. not available).
+   *
+   * @param micros the latency in microseconds.
+   */
+  public void recordMicros(final long micros) {
+    if (micros > 0) {
+      stripe((int) Thread.currentThread().getId() & mask).recordValue(micros);
+    }
+  }
+
+  private Recorder stripe(final int index) {
+    Recorder recorder = stripes.get(index);
+    if (recorder == null) {
+      stripes.compareAndSet(index, null, new Recorder(SIGNIFICANT_DIGITS));
+      recorder = stripes.get(index);
+    }
+    return recorder;
+  }
+
+  /**
+   * Collects all values recorded since the last call into the given histogram.
+   *
+   * @param target the histogram to add the interval values to.
+   */
+  synchronized void intervalInto(final Histogram target) {
+    for (int i = 0; i < recycled.length; i++) {
+      Recorder recorder = stripes.get(i);
+      if (recorder != null) {
+        Histogram interval = recorder.getIntervalHistogram(recycled[i]);
+        target.add(interval);
+        recycled[i] = interval;
+      }
+    }
+  }
+
+}
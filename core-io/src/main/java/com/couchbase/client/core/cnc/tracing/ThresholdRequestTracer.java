@@ -30,11 +30,9 @@ import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -63,7 +61,7 @@ public class ThresholdRequestTracer implements RequestTracer {
   private static final String KEY_LAST_LOCAL_ID = "last_local_id";
 
   private final AtomicBoolean running = new AtomicBoolean(false);
-  private final Queue<Request<?>> overThresholdQueue;
+  private final Queue<ThresholdSample> overThresholdQueue;
   private final EventBus eventBus;
   private final Thread worker;
 
@@ -141,8 +139,10 @@ public class ThresholdRequestTracer implements RequestTracer {
   void finish(final ThresholdRequestSpan span) {
     if (span.requestContext() != null) {
       final Request<?> request = span.requestContext().request();
-      if (isOverThreshold(request)) {
-        if (!overThresholdQueue.offer(request)) {
+      final long tookNanos = request.context().logicalRequestLatency();
+      if (isOverThreshold(request.serviceType(), tookNanos)) {
+        // Only a compact sample is queued, so the request and its payload can be collected right away.
+        if (!overThresholdQueue.offer(ThresholdSample.capture(request, tookNanos))) {
           // TODO: what to do if dropped because queue full? raise event?
         }
       }
@@ -150,14 +150,13 @@ public class ThresholdRequestTracer implements RequestTracer {
   }
 
   /**
-   * Helper method to calculate if the given request is over the configured threshold for this service.
+   * Helper method to calculate if the given latency is over the configured threshold for this service.
    *
-   * @param request the request to check.
+   * @param serviceType the service type of the request.
+   * @param tookNanos the logical request latency.
    * @return true if over threshold, false otherwise.
    */
-  private boolean isOverThreshold(final Request<?> request) {
-    final long tookNanos = request.context().logicalRequestLatency();
-    final ServiceType serviceType = request.serviceType();
+  private boolean isOverThreshold(final ServiceType serviceType, final long tookNanos) {
     if (serviceType == ServiceType.KV && tookNanos >= kvThreshold) {
       return true;
     } else if (serviceType == ServiceType.QUERY && tookNanos >= queryThreshold) {
@@ -192,7 +191,7 @@ public class ThresholdRequestTracer implements RequestTracer {
   }
 
   /**
-   * The worker picks up requests from the queue and stores it in the per-service queues so that they can be dumped
+   * The worker picks up samples from the queue and stores them in the per-service heaps so that they can be dumped
    * when configured.
    */
   private class Worker implements Runnable {
@@ -209,24 +208,11 @@ public class ThresholdRequestTracer implements RequestTracer {
       System.getProperty("com.couchbase.thresholdRequestTracerNewOutputFormat", "false")
     );
 
-    /**
-     * Compares request by their logical request latency for the priority threshold queues.
-     */
-    private final Comparator<Request<?>> THRESHOLD_COMPARATOR = Comparator.comparingLong(
-      o -> o.context().logicalRequestLatency()
-    );
-
-    private final Queue<Request<?>> kvThresholds = new PriorityQueue<>(THRESHOLD_COMPARATOR);
-    private final Queue<Request<?>> n1qlThresholds = new PriorityQueue<>(THRESHOLD_COMPARATOR);
-    private final Queue<Request<?>> viewThresholds = new PriorityQueue<>(THRESHOLD_COMPARATOR);
-    private final Queue<Request<?>> ftsThresholds = new PriorityQueue<>(THRESHOLD_COMPARATOR);
-    private final Queue<Request<?>> analyticsThresholds = new PriorityQueue<>(THRESHOLD_COMPARATOR);
-
-    private long kvThresholdCount = 0;
-    private long n1qlThresholdCount = 0;
-    private long viewThresholdCount = 0;
-    private long ftsThresholdCount = 0;
-    private long analyticsThresholdCount = 0;
+    private final ThresholdSampleHeap kvThresholds = new ThresholdSampleHeap(sampleSize);
+    private final ThresholdSampleHeap n1qlThresholds = new ThresholdSampleHeap(sampleSize);
+    private final ThresholdSampleHeap viewThresholds = new ThresholdSampleHeap(sampleSize);
+    private final ThresholdSampleHeap ftsThresholds = new ThresholdSampleHeap(sampleSize);
+    private final ThresholdSampleHeap analyticsThresholds = new ThresholdSampleHeap(sampleSize);
 
     private long lastThresholdLog;
     private boolean hasThresholdWritten;
@@ -267,26 +253,21 @@ public class ThresholdRequestTracer implements RequestTracer {
       }
 
       while (true) {
-        Request<?> request = overThresholdQueue.poll();
-        if (request == null) {
+        ThresholdSample sample = overThresholdQueue.poll();
+        if (sample == null) {
           return;
         }
-        final ServiceType serviceType = request.serviceType();
+        final ServiceType serviceType = sample.serviceType();
         if (serviceType == ServiceType.KV) {
-          updateThreshold(kvThresholds, request);
-          kvThresholdCount += 1;
+          updateThreshold(kvThresholds, sample);
         } else if (serviceType == ServiceType.QUERY) {
-          updateThreshold(n1qlThresholds, request);
-          n1qlThresholdCount += 1;
+          updateThreshold(n1qlThresholds, sample);
         } else if (serviceType == ServiceType.VIEWS) {
-          updateThreshold(viewThresholds, request);
-          viewThresholdCount += 1;
+          updateThreshold(viewThresholds, sample);
         } else if (serviceType == ServiceType.SEARCH) {
-          updateThreshold(ftsThresholds, request);
-          ftsThresholdCount += 1;
+          updateThreshold(ftsThresholds, sample);
         } else if (serviceType == ServiceType.ANALYTICS) {
-          updateThreshold(analyticsThresholds, request);
-          analyticsThresholdCount += 1;
+          updateThreshold(analyticsThresholds, sample);
         } else {
           // TODO: log error
           // LOGGER.warn("Unknown service in span {}", service);
@@ -307,42 +288,37 @@ public class ThresholdRequestTracer implements RequestTracer {
       if (!kvThresholds.isEmpty()) {
         output.put(
           TracingIdentifiers.SERVICE_KV,
-          convertThresholdMetadataNew(kvThresholds, kvThresholdCount)
+          convertThresholdMetadataNew(kvThresholds)
         );
         kvThresholds.clear();
-        kvThresholdCount = 0;
       }
       if (!n1qlThresholds.isEmpty()) {
         output.put(
           TracingIdentifiers.SERVICE_QUERY,
-          convertThresholdMetadataNew(n1qlThresholds, n1qlThresholdCount)
+          convertThresholdMetadataNew(n1qlThresholds)
         );
         n1qlThresholds.clear();
-        n1qlThresholdCount = 0;
       }
       if (!viewThresholds.isEmpty()) {
         output.put(
           TracingIdentifiers.SERVICE_VIEWS,
-          convertThresholdMetadataNew(viewThresholds, viewThresholdCount)
+          convertThresholdMetadataNew(viewThresholds)
         );
         viewThresholds.clear();
-        viewThresholdCount = 0;
       }
       if (!ftsThresholds.isEmpty()) {
         output.put(
           TracingIdentifiers.SERVICE_SEARCH,
-          convertThresholdMetadataNew(ftsThresholds, ftsThresholdCount)
+          convertThresholdMetadataNew(ftsThresholds)
         );
         ftsThresholds.clear();
-        ftsThresholdCount = 0;
       }
       if (!analyticsThresholds.isEmpty()) {
         output.put(
           TracingIdentifiers.SERVICE_ANALYTICS,
-          convertThresholdMetadataNew(analyticsThresholds, analyticsThresholdCount)
+          convertThresholdMetadataNew(analyticsThresholds)
         );
         analyticsThresholds.clear();
-        analyticsThresholdCount = 0;
       }
       logOverThreshold(output, null);
     }
@@ -355,56 +331,50 @@ public class ThresholdRequestTracer implements RequestTracer {
 
       List<Map<String, Object>> output = new ArrayList<>();
       if (!kvThresholds.isEmpty()) {
-        output.add(convertThresholdMetadataOld(kvThresholds, kvThresholdCount, TracingIdentifiers.SERVICE_KV));
+        output.add(convertThresholdMetadataOld(kvThresholds, TracingIdentifiers.SERVICE_KV));
         kvThresholds.clear();
-        kvThresholdCount = 0;
       }
       if (!n1qlThresholds.isEmpty()) {
-        output.add(convertThresholdMetadataOld(n1qlThresholds, n1qlThresholdCount, TracingIdentifiers.SERVICE_QUERY));
+        output.add(convertThresholdMetadataOld(n1qlThresholds, TracingIdentifiers.SERVICE_QUERY));
         n1qlThresholds.clear();
-        n1qlThresholdCount = 0;
       }
       if (!viewThresholds.isEmpty()) {
-        output.add(convertThresholdMetadataOld(viewThresholds, viewThresholdCount, TracingIdentifiers.SERVICE_VIEWS));
+        output.add(convertThresholdMetadataOld(viewThresholds, TracingIdentifiers.SERVICE_VIEWS));
         viewThresholds.clear();
-        viewThresholdCount = 0;
       }
       if (!ftsThresholds.isEmpty()) {
-        output.add(convertThresholdMetadataOld(ftsThresholds, ftsThresholdCount, TracingIdentifiers.SERVICE_SEARCH));
+        output.add(convertThresholdMetadataOld(ftsThresholds, TracingIdentifiers.SERVICE_SEARCH));
         ftsThresholds.clear();
-        ftsThresholdCount = 0;
       }
       if (!analyticsThresholds.isEmpty()) {
-        output.add(convertThresholdMetadataOld(analyticsThresholds, analyticsThresholdCount, TracingIdentifiers.SERVICE_ANALYTICS));
+        output.add(convertThresholdMetadataOld(analyticsThresholds, TracingIdentifiers.SERVICE_ANALYTICS));
         analyticsThresholds.clear();
-        analyticsThresholdCount = 0;
       }
       logOverThreshold(null, output);
     }
 
     /**
-     * Converts the metadata of the requests into the format that is suitable for dumping.
+     * Converts the metadata of the samples into the format that is suitable for dumping.
      *
-     * @param requests the request data to convert
-     * @param count the total count
+     * @param samples the sample data (and total count) to convert
      * @return the converted map
      */
-    private Map<String, Object> convertThresholdMetadataNew(final Queue<Request<?>> requests, final long count) {
+    private Map<String, Object> convertThresholdMetadataNew(final ThresholdSampleHeap samples) {
       Map<String, Object> output = new HashMap<>();
-      List<Map<String, Object>> top = new ArrayList<>();
-      for (Request<?> request : requests) {
+      List<Map<String, Object>> top = new ArrayList<>(samples.size());
+      for (ThresholdSample sample : samples.slowestFirst()) {
         Map<String, Object> entry = new HashMap<>();
-        entry.put(KEY_TOTAL_MICROS, TimeUnit.NANOSECONDS.toMicros(request.context().logicalRequestLatency()));
+        entry.put(KEY_TOTAL_MICROS, TimeUnit.NANOSECONDS.toMicros(sample.totalNanos()));
 
-        String operationId = request.operationId();
+        String operationId = sample.operationId();
         if (operationId != null) {
           entry.put(KEY_OPERATION_ID, operationId);
         }
 
-        entry.put(KEY_OPERATION_NAME, request.name());
+        entry.put(KEY_OPERATION_NAME, sample.operationName());
 
-        HostAndPort local = request.context().lastDispatchedFrom();
-        HostAndPort peer = request.context().lastDispatchedTo();
+        HostAndPort local = sample.lastLocalSocket();
+        HostAndPort peer = sample.lastRemoteSocket();
         if (local != null) {
           entry.put(KEY_LAST_LOCAL_SOCKET, redactSystem(local).toString());
         }
@@ -412,30 +382,30 @@ public class ThresholdRequestTracer implements RequestTracer {
           entry.put(KEY_LAST_REMOTE_SOCKET, redactSystem(peer).toString());
         }
 
-        String localId = request.context().lastChannelId();
+        String localId = sample.lastChannelId();
         if (localId != null) {
           entry.put(KEY_LAST_LOCAL_ID, redactSystem(localId).toString());
         }
 
-        long encodeDuration = request.context().encodeLatency();
+        long encodeDuration = sample.encodeNanos();
         if (encodeDuration > 0) {
           entry.put(KEY_ENCODE_MICROS, TimeUnit.NANOSECONDS.toMicros(encodeDuration));
         }
 
-        long dispatchDuration = request.context().dispatchLatency();
+        long dispatchDuration = sample.dispatchNanos();
         if (dispatchDuration > 0) {
           entry.put(KEY_DISPATCH_MICROS, TimeUnit.NANOSECONDS.toMicros(dispatchDuration));
         }
-        long totalDispatchDuration = request.context().totalDispatchLatency();
+        long totalDispatchDuration = sample.totalDispatchNanos();
         if (totalDispatchDuration > 0) {
           entry.put(KEY_TOTAL_DISPATCH_MICROS, TimeUnit.NANOSECONDS.toMicros(totalDispatchDuration));
         }
 
-        long serverDuration = request.context().serverLatency();
+        long serverDuration = sample.serverMicros();
         if (serverDuration > 0) {
           entry.put(KEY_SERVER_MICROS, serverDuration);
         }
-        long totalServerDuration = request.context().totalServerLatency();
+        long totalServerDuration = sample.totalServerMicros();
         if (totalServerDuration > 0) {
           entry.put(KEY_TOTAL_SERVER_MICROS, totalServerDuration);
         }
@@ -443,33 +413,27 @@ public class ThresholdRequestTracer implements RequestTracer {
         top.add(entry);
       }
 
-      // The queue will keep the most expensive at the top, but sorted in ascending order.
-      // this final sort will bring it into descending order as per spec so that the longest
-      // calls will be shown first.
-      top.sort((o1, o2) -> ((Long) o2.get(KEY_TOTAL_MICROS)).compareTo((Long) o1.get(KEY_TOTAL_MICROS)));
-
-      output.put("total_count", count);
+      output.put("total_count", samples.totalCount());
       output.put("top_requests", top);
       return output;
     }
 
-    private Map<String, Object> convertThresholdMetadataOld(final Queue<Request<?>> requests, final long count,
-                                                            final String ident) {
+    private Map<String, Object> convertThresholdMetadataOld(final ThresholdSampleHeap samples, final String ident) {
       Map<String, Object> output = new HashMap<>();
-      List<Map<String, Object>> top = new ArrayList<>();
-      for (Request<?> request : requests) {
+      List<Map<String, Object>> top = new ArrayList<>(samples.size());
+      for (ThresholdSample sample : samples.slowestFirst()) {
         Map<String, Object> entry = new HashMap<>();
-        entry.put("total_us", TimeUnit.NANOSECONDS.toMicros(request.context().logicalRequestLatency()));
+        entry.put("total_us", TimeUnit.NANOSECONDS.toMicros(sample.totalNanos()));
 
-        String operationId = request.operationId();
+        String operationId = sample.operationId();
         if (operationId != null) {
           entry.put("last_operation_id", operationId);
         }
 
-        entry.put("operation_name", request.getClass().getSimpleName());
+        entry.put("operation_name", sample.requestClassName());
 
-        HostAndPort local = request.context().lastDispatchedFrom();
-        HostAndPort peer = request.context().lastDispatchedTo();
+        HostAndPort local = sample.lastLocalSocket();
+        HostAndPort peer = sample.lastRemoteSocket();
         if (local != null) {
           entry.put("last_local_address", redactSystem(local).toString());
         }
@@ -477,22 +441,22 @@ public class ThresholdRequestTracer implements RequestTracer {
           entry.put("last_remote_address", redactSystem(peer).toString());
         }
 
-        String localId = request.context().lastChannelId();
+        String localId = sample.lastChannelId();
         if (localId != null) {
           entry.put("last_local_id", redactSystem(localId).toString());
         }
 
-        long encodeDuration = request.context().encodeLatency();
+        long encodeDuration = sample.encodeNanos();
         if (encodeDuration > 0) {
           entry.put("encode_us", TimeUnit.NANOSECONDS.toMicros(encodeDuration));
         }
 
-        long dispatchDuration = request.context().dispatchLatency();
+        long dispatchDuration = sample.dispatchNanos();
         if (dispatchDuration > 0) {
           entry.put("last_dispatch_us", TimeUnit.NANOSECONDS.toMicros(dispatchDuration));
         }
 
-        long serverDuration = request.context().serverLatency();
+        long serverDuration = sample.serverMicros();
         if (serverDuration > 0) {
           entry.put("server_us", serverDuration);
         }
@@ -500,13 +464,8 @@ public class ThresholdRequestTracer implements RequestTracer {
         top.add(entry);
       }
 
-      // The queue will keep the most expensive at the top, but sorted in ascending order.
-      // this final sort will bring it into descending order as per spec so that the longest
-      // calls will be shown first.
-      top.sort((o1, o2) -> ((Long) o2.get("total_us")).compareTo((Long) o1.get("total_us")));
-
       output.put("service", ident);
-      output.put("count", count);
+      output.put("count", samples.totalCount());
       output.put("top", top);
       return output;
     }
@@ -520,15 +479,11 @@ public class ThresholdRequestTracer implements RequestTracer {
     }
 
     /**
-     * Helper method which updates the list with the span and ensures that the sample
-     * size is respected.
+     * Helper method which records the sample in the per-service heap, which only keeps the
+     * slowest ones up to the sample size.
      */
-    private void updateThreshold(final Queue<Request<?>> thresholds, final Request<?> request) {
-      thresholds.add(request);
-      // Remove the element with the lowest duration, so we only keep the highest ones consistently
-      while(thresholds.size() > sampleSize) {
-        thresholds.remove();
-      }
+    private void updateThreshold(final ThresholdSampleHeap thresholds, final ThresholdSample sample) {
+      thresholds.record(sample);
       hasThresholdWritten = true;
     }
   }
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.cnc.tracing;
+
+import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.RequestContext;
+import com.couchbase.client.core.service.ServiceType;
+import com.couchbase.client.core.util.HostAndPort;
+
+/**
+ * A compact, immutable snapshot of an over-threshold request captured when the request completes.
+ *
+ * <p>Only the latencies, identifiers and endpoints needed for the threshold report are copied over, so that the
+ * request itself (and its potentially large payload) does not need to stay reachable until the tracer worker
+ * gets to process it.</p>
+ *
+ * @since 2.1.4
+ */
+final class ThresholdSample {
+
+  private final ServiceType serviceType;
+  private final long totalNanos;
+  private final String operationId;
+  private final String operationName;
+  private final String requestClassName;
+  private final HostAndPort lastLocalSocket;
+  private final HostAndPort lastRemoteSocket;
+  private final String lastChannelId;
+  private final long encodeNanos;
+  private final long dispatchNanos;
+  private final long totalDispatchNanos;
+  private final long serverMicros;
+  private final long totalServerMicros;
+
+  private ThresholdSample(final Request<?> request, final long totalNanos) {
+    final RequestContext context = request.context();
+    this.serviceType = request.serviceType();
+    this.totalNanos = totalNanos;
+    this.operationId = request.operationId();
+    this.operationName = request.name();
+    this.requestClassName = request.getClass().getSimpleName();
+    this.lastLocalSocket = context.lastDispatchedFrom();
+    this.lastRemoteSocket = context.lastDispatchedTo();
+    this.lastChannelId = context.lastChannelId();
+    this.encodeNanos = context.encodeLatency();
+    this.dispatchNanos = context.dispatchLatency();
+    this.totalDispatchNanos = context.totalDispatchLatency();
+    this.serverMicros = context.serverLatency();
+    this.totalServerMicros = context.totalServerLatency();
+  }
+
+  /**
+   * Captures the sample from the given (completed) request.
+   *
+   * @param request the request to capture.
+   * @param totalNanos the logical request latency, already read by the caller.
+   * @return the captured sample.
+   */
+  static ThresholdSample capture(final Request<?> request, final long totalNanos) {
+    return new ThresholdSample(request, totalNanos);
+  }
+
+  ServiceType serviceType() {
+    return serviceType;
+  }
+
+  long totalNanos() {
+    return totalNanos;
+  }
+
+  String operationId() {
+    return operationId;
+  }
+
+  String operationName() {
+    return operationName;
+  }
+
+  String requestClassName() {
+    return requestClassName;
+  }
+
+  HostAndPort lastLocalSocket() {
+    return lastLocalSocket;
+  }
+
+  HostAndPort lastRemoteSocket() {
+    return lastRemoteSocket;
+  }
+
+  String lastChannelId() {
+    return lastChannelId;
+  }
+
+  long encodeNanos() {
+    return encodeNanos;
+  }
+
+  long dispatchNanos() {
+    return dispatchNanos;
+  }
+
+  long totalDispatchNanos() {
+    return totalDispatchNanos;
+  }
+
+  long serverMicros() {
+    return serverMicros;
+  }
+
+  long totalServerMicros() {
+    return totalServerMicros;
+  }
+
+}
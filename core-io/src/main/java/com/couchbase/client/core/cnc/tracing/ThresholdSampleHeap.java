@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.cnc.tracing;
+
+import java.util.Arrays;
+
+/**
+ * A bounded min-heap which keeps the N slowest {@link ThresholdSample ThresholdSamples} of a single service.
+ *
+ * <p>The backing array is allocated once with the configured sample size. Once full, a new sample only replaces
+ * the fastest retained one if it is slower, so recording is O(log n) and never allocates. It also keeps track of
+ * how many samples have been recorded in total since the last {@link #clear()}.</p>
+ *
+ * <p>This class is not thread safe, it is only meant to be used from the tracer worker thread.</p>
+ *
+ * @since 2.1.4
+ */
+final class ThresholdSampleHeap {
+
+  private final ThresholdSample[] samples;
+  private int size;
+  private long totalCount;
+
+  /**
+   * Creates a new heap which retains up to the given number of samples.
+   *
+   * <p>A capacity of 0 (or less) is valid and retains no samples at all, but still counts them.</p>
+   *
+   * @param capacity the maximum number of samples to retain.
+   */
+  ThresholdSampleHeap(final int capacity) {
+    this.samples = new ThresholdSample[Math.max(0, capacity)];
+  }
+
+  /**
+   * Records the sample, keeping it only if it is among the N slowest seen so far.
+   *
+   * @param sample the sample to record.
+   */
+  void record(final ThresholdSample sample) {
+    totalCount++;
+    if (size < samples.length) {
+      samples[size] = sample;
+      siftUp(size++);
+    } else if (size > 0 && sample.totalNanos() > samples[0].totalNanos()) {
+      samples[0] = sample;
+      siftDown(0);
+    }
+  }
+
+  /**
+   * Returns the retained samples, sorted with the slowest first.
+   */
+  ThresholdSample[] slowestFirst() {
+    ThresholdSample[] sorted = Arrays.copyOf(samples, size);
+    Arrays.sort(sorted, (o1, o2) -> Long.compare(o2.totalNanos(), o1.totalNanos()));
+    return sorted;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns the number of samples recorded since the last clear, including the ones not retained.
+   */
+  long totalCount() {
+    return totalCount;
+  }
+
+  /**
+   * Drops all retained samples and resets the total count.
+   */
+  void clear() {
+    Arrays.fill(samples, 0, size, null);
+    size = 0;
+    totalCount = 0;
+  }
+
+  private void siftUp(int idx) {
+    ThresholdSample sample = samples[idx];
+    while (idx > 0) {
+      int parent = (idx - 1) >>> 1;
+      if (samples[parent].totalNanos() <= sample.totalNanos()) {
+        break;
+      }
+      samples[idx] = samples[parent];
+      idx = parent;
+    }
+    samples[idx] = sample;
+  }
+
+  private void siftDown(int idx) {
+    ThresholdSample sample = samples[idx];
+    int half = size >>> 1;
+    while (idx < half) {
+      int child = (idx << 1) + 1;
+      int right = child + 1;
+      if (right < size && samples[right].totalNanos() < samples[child].totalNanos()) {
+        child = right;
+      }
+      if (sample.totalNanos() <= samples[child].totalNanos()) {
+        break;
+      }
+      samples[idx] = samples[child];
+      idx = child;
+    }
+    samples[idx] = sample;
+  }
+
+}
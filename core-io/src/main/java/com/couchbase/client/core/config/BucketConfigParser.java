@@ -19,6 +19,8 @@ package com.couchbase.client.core.config;
 import com.couchbase.client.core.env.CoreEnvironment;
 import com.couchbase.client.core.error.CouchbaseException;
 import com.couchbase.client.core.json.Mapper;
+import com.couchbase.client.core.deps.com.fasterxml.jackson.core.JsonParser;
+import com.couchbase.client.core.deps.com.fasterxml.jackson.core.JsonToken;
 import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.DeserializationFeature;
 import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.InjectableValues;
 
@@ -53,4 +55,32 @@ public final class BucketConfigParser {
             throw new CouchbaseException("Could not parse configuration", e);
         }
     }
+
+    /**
+     * Scans the raw configuration for its top-level revision without building the full config.
+     * <p>
+     * Nested objects and arrays (like the partition map) are only tokenized and skipped, and the scan stops as soon
+     * as the revision has been found. This allows to reject stale configs cheaply before doing the full parse.
+     *
+     * @param input the raw string input.
+     * @return the revision if found, or -1 if the input has no (numeric) revision or could not be scanned.
+     */
+    static long parseRevision(final String input) {
+        try (JsonParser parser = Mapper.reader().getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return -1;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("rev".equals(field)) {
+                    return value == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : -1;
+                }
+                parser.skipChildren();
+            }
+            return -1;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
 }
@@ -64,6 +64,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
@@ -122,6 +123,11 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
   private final FluxSink<ClusterConfig> configsSink = configs.sink();
   private final ClusterConfig currentConfig = new ClusterConfig();
 
+  /**
+   * Holds the raw config which has been applied last for each bucket, so identical proposals can be skipped.
+   */
+  private final Map<String, AppliedBucketConfig> lastAppliedBucketConfigs = new ConcurrentHashMap<>();
+
   private final AtomicBoolean shutdown = new AtomicBoolean(false);
   private final CollectionMap collectionMap = new CollectionMap();
 
@@ -391,12 +397,25 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
   public void proposeBucketConfig(final ProposedBucketConfigContext ctx) {
     if (!shutdown.get()) {
       try {
+        if (isOldOrSameBucketConfig(ctx)) {
+          eventBus.publish(new ConfigIgnoredEvent(
+            core.context(),
+            ConfigIgnoredEvent.Reason.OLD_OR_SAME_REVISION,
+            Optional.empty(),
+            Optional.empty()
+          ));
+          return;
+        }
+
         BucketConfig config = BucketConfigParser.parse(
           ctx.config(),
           core.context().environment(),
           ctx.origin()
         );
         checkAndApplyConfig(config);
+        if (currentConfig.bucketConfig(ctx.bucketName()) == config) {
+          lastAppliedBucketConfigs.put(ctx.bucketName(), new AppliedBucketConfig(ctx, config));
+        }
       } catch (Exception ex) {
         eventBus.publish(new ConfigIgnoredEvent(
           core.context(),
@@ -415,6 +434,32 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
     }
   }
 
+  /**
+   * Checks if the proposed config can be ignored without parsing it fully.
+   *
+   * <p>During a rebalance every "not my vbucket" response and every config poll proposes a config, so most of them
+   * are either identical to the one already applied or carry an older (or the same) revision. Identical bodies are
+   * detected by comparing against the raw config which has been applied last, and for everything else only the
+   * revision is scanned from the raw input.</p>
+   *
+   * @param ctx the proposed config context.
+   * @return true if the config is old or the same as the current one and can be ignored.
+   */
+  private boolean isOldOrSameBucketConfig(final ProposedBucketConfigContext ctx) {
+    final BucketConfig oldConfig = currentConfig.bucketConfig(ctx.bucketName());
+    if (oldConfig == null) {
+      return false;
+    }
+
+    final AppliedBucketConfig lastApplied = lastAppliedBucketConfigs.get(ctx.bucketName());
+    if (lastApplied != null && lastApplied.config == oldConfig && lastApplied.matches(ctx)) {
+      return true;
+    }
+
+    final long rev = BucketConfigParser.parseRevision(ctx.config());
+    return rev > 0 && rev <= oldConfig.rev();
+  }
+
   @Override
   public void proposeGlobalConfig(final ProposedGlobalConfigContext ctx) {
     if (!shutdown.get()) {
@@ -462,6 +507,7 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
     return Mono
       .defer(() -> {
         currentConfig.deleteBucketConfig(name);
+        lastAppliedBucketConfigs.remove(name);
         pushConfig();
         return Mono.empty();
       })
@@ -867,4 +913,33 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
     }
   }
 
+  /**
+   * The raw input of an applied bucket config together with the parsed config.
+   */
+  private static class AppliedBucketConfig {
+
+    private final String raw;
+    private final int rawHash;
+    private final String origin;
+    private final BucketConfig config;
+
+    AppliedBucketConfig(final ProposedBucketConfigContext ctx, final BucketConfig config) {
+      this.raw = ctx.config();
+      this.rawHash = raw.hashCode();
+      this.origin = ctx.origin();
+      this.config = config;
+    }
+
+    /**
+     * Checks if the proposed config has the same raw input (and origin) as this applied one.
+     */
+    boolean matches(final ProposedBucketConfigContext ctx) {
+      final String proposed = ctx.config();
+      return proposed.length() == raw.length()
+        && proposed.hashCode() == rawHash
+        && Objects.equals(origin, ctx.origin())
+        && proposed.equals(raw);
+    }
+  }
+
 }
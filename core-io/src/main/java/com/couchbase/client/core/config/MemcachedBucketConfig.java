@@ -26,8 +26,10 @@ import com.couchbase.client.core.deps.com.fasterxml.jackson.annotation.JsonCreat
 import com.couchbase.client.core.deps.com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.couchbase.client.core.deps.com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -43,10 +45,36 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class MemcachedBucketConfig extends AbstractBucketConfig {
 
+    /**
+     * Holds a MD5 digest per thread so that hashing a key on the hot path does not need to look it up every time.
+     */
+    private static final ThreadLocal<MessageDigest> MD5 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not encode ketama hash.", e);
+        }
+    });
+
+    /**
+     * Holds the per-thread buffer the key digest is written into, so no array needs to be allocated per key.
+     */
+    private static final ThreadLocal<byte[]> DIGEST_BUFFER = ThreadLocal.withInitial(() -> new byte[16]);
+
     private final long rev;
     private final TreeMap<Long, NodeInfo> ketamaNodes;
     private final MemcachedHashingStrategy hashingStrategy;
 
+    /**
+     * The sorted hashes of the ketama ring, flattened from {@link #ketamaNodes} for fast lookups.
+     */
+    private final long[] ketamaHashes;
+
+    /**
+     * The nodes of the ketama ring, where each node sits at the same index as its hash in {@link #ketamaHashes}.
+     */
+    private final NodeInfo[] ketamaRing;
+
     /**
      * Creates a new {@link MemcachedBucketConfig}.
      *
@@ -77,6 +105,15 @@ public class MemcachedBucketConfig extends AbstractBucketConfig {
         this.ketamaNodes = new TreeMap<>();
         this.hashingStrategy = StandardMemcachedHashingStrategy.INSTANCE;
         populateKetamaNodes();
+
+        this.ketamaHashes = new long[ketamaNodes.size()];
+        this.ketamaRing = new NodeInfo[ketamaNodes.size()];
+        int i = 0;
+        for (Map.Entry<Long, NodeInfo> entry : ketamaNodes.entrySet()) {
+            ketamaHashes[i] = entry.getKey();
+            ketamaRing[i] = entry.getValue();
+            i++;
+        }
     }
 
     @Override
@@ -105,20 +142,16 @@ public class MemcachedBucketConfig extends AbstractBucketConfig {
             }
 
             for (int i = 0; i < 40; i++) {
-                MessageDigest md5;
-                try {
-                    md5 = MessageDigest.getInstance("MD5");
-                    md5.update(hashingStrategy.hash(node, i).getBytes(UTF_8));
-                    byte[] digest = md5.digest();
-                    for (int j = 0; j < 4; j++) {
-                        Long key = ((long) (digest[3 + j * 4] & 0xFF) << 24)
-                            | ((long) (digest[2 + j * 4] & 0xFF) << 16)
-                            | ((long) (digest[1 + j * 4] & 0xFF) << 8)
-                            | (digest[j * 4] & 0xFF);
-                        ketamaNodes.put(key, node);
-                    }
-                } catch (NoSuchAlgorithmException e) {
-                    throw new IllegalStateException("Could not populate ketama nodes.", e);
+                MessageDigest md5 = MD5.get();
+                md5.reset();
+                md5.update(hashingStrategy.hash(node, i).getBytes(UTF_8));
+                byte[] digest = md5.digest();
+                for (int j = 0; j < 4; j++) {
+                    Long key = ((long) (digest[3 + j * 4] & 0xFF) << 24)
+                        | ((long) (digest[2 + j * 4] & 0xFF) << 16)
+                        | ((long) (digest[1 + j * 4] & 0xFF) << 8)
+                        | (digest[j * 4] & 0xFF);
+                    ketamaNodes.put(key, node);
                 }
             }
         }
@@ -127,16 +160,16 @@ public class MemcachedBucketConfig extends AbstractBucketConfig {
     public NodeIdentifier nodeForId(final byte[] id) {
         long hash = calculateKetamaHash(id);
 
-        if (!ketamaNodes.containsKey(hash)) {
-            SortedMap<Long, NodeInfo> tailMap = ketamaNodes.tailMap(hash);
-            if (tailMap.isEmpty()) {
-                hash = ketamaNodes.firstKey();
-            } else {
-                hash = tailMap.firstKey();
+        int index = Arrays.binarySearch(ketamaHashes, hash);
+        if (index < 0) {
+            // Not an exact match, so pick the next node on the ring and wrap around at the end.
+            index = -(index + 1);
+            if (index == ketamaHashes.length) {
+                index = 0;
             }
         }
 
-        return ketamaNodes.get(hash).identifier();
+        return ketamaRing[index].identifier();
     }
 
     @Override
@@ -151,18 +184,20 @@ public class MemcachedBucketConfig extends AbstractBucketConfig {
      * @return the calculated hash.
      */
     private static long calculateKetamaHash(final byte[] key) {
+        MessageDigest md5 = MD5.get();
+        byte[] digest = DIGEST_BUFFER.get();
+        md5.reset();
+        md5.update(key);
         try {
-            MessageDigest md5 = MessageDigest.getInstance("MD5");
-            md5.update(key);
-            byte[] digest = md5.digest();
-            long rv = ((long) (digest[3] & 0xFF) << 24)
-                    | ((long) (digest[2] & 0xFF) << 16)
-                    | ((long) (digest[1] & 0xFF) << 8)
-                    | (digest[0] & 0xFF);
-            return rv & 0xffffffffL;
-        } catch (NoSuchAlgorithmException e) {
+            md5.digest(digest, 0, digest.length);
+        } catch (DigestException e) {
             throw new IllegalStateException("Could not encode ketama hash.", e);
         }
+        long rv = ((long) (digest[3] & 0xFF) << 24)
+                | ((long) (digest[2] & 0xFF) << 16)
+                | ((long) (digest[1] & 0xFF) << 8)
+                | (digest[0] & 0xFF);
+        return rv & 0xffffffffL;
     }
 
     /**
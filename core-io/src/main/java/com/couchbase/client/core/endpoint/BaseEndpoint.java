@@ -19,6 +19,7 @@ package com.couchbase.client.core.endpoint;
 import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.cnc.Counter;
 import com.couchbase.client.core.cnc.Event;
+import com.couchbase.client.core.cnc.ValueRecorder;
 import com.couchbase.client.core.cnc.events.endpoint.EndpointConnectionAbortedEvent;
 import com.couchbase.client.core.cnc.events.endpoint.EndpointConnectionFailedEvent;
 import com.couchbase.client.core.cnc.events.endpoint.EndpointConnectedEvent;
@@ -158,6 +159,11 @@ public abstract class BaseEndpoint implements Endpoint {
 
   private final Map<Class<?>, Counter> requestCounters = new ConcurrentHashMap<>();
 
+  /**
+   * Holds the response metric per request type, resolved once so completing a request does not need a lookup.
+   */
+  private final Map<Class<?>, ValueRecorder> responseMetrics = new ConcurrentHashMap<>();
+
   /**
    * Once connected, contains the channel to work with.
    */
@@ -168,6 +174,12 @@ public abstract class BaseEndpoint implements Endpoint {
    */
   private volatile long lastResponseTimestamp;
 
+  /**
+   * Holds an exponentially weighted moving average of the response latencies (in nanoseconds), only updated by
+   * handlers which report them through {@link #recordResponseLatency(long)}.
+   */
+  private volatile long averageResponseLatency;
+
   /**
    * Holds the timestamp this endpoint was last successfully connected.
    */
@@ -541,7 +553,8 @@ public abstract class BaseEndpoint implements Endpoint {
       request.context()
         .lastDispatchedFrom(ctx.localSocket().orElse(null))
         .lastDispatchedTo(ctx.remoteSocket())
-        .lastChannelId(ctx.channelId().orElse(null));
+        .lastChannelId(ctx.channelId().orElse(null))
+        .responseMetric(responseMetric(request));
 
       if (!pipelined) {
         outstandingRequests.incrementAndGet();
@@ -587,6 +600,23 @@ public abstract class BaseEndpoint implements Endpoint {
     counter.incrementBy(1);
   }
 
+  /**
+   * Returns the response metric for the type of the given request on this endpoint, resolving it on first use.
+   */
+  private <R extends Request<? extends Response>> ValueRecorder responseMetric(final R request) {
+    ValueRecorder recorder = responseMetrics.get(request.getClass());
+    if (recorder == null) {
+      recorder = responseMetrics.computeIfAbsent(request.getClass(), key -> {
+        Map<String, String> tags = new HashMap<>(4);
+        tags.put("cb.service", serviceType.ident());
+        tags.put("cb.remote_hostname", hostname);
+        tags.put("cb.request_type", request.name());
+        return context().environment().meter().valueRecorder("cb.responses", tags);
+      });
+    }
+    return recorder;
+  }
+
   @Override
   public boolean freeToWrite() {
     return pipelined || outstandingRequests.get() == 0;
@@ -597,6 +627,11 @@ public abstract class BaseEndpoint implements Endpoint {
     return outstandingRequests.get();
   }
 
+  @Override
+  public long averageResponseLatency() {
+    return averageResponseLatency;
+  }
+
   @Override
   public long lastResponseReceived() {
     return lastResponseTimestamp;
@@ -614,6 +649,34 @@ public abstract class BaseEndpoint implements Endpoint {
     lastResponseTimestamp = System.nanoTime();
   }
 
+  /**
+   * Called from the event loop of a pipelined endpoint to report how many requests are currently in-flight.
+   *
+   * <p>Pipelined endpoints do not track their outstanding requests on send, since more than one request is in-flight
+   * at the same time and only the handler knows when a response has been matched.</p>
+   *
+   * @param inFlight the number of requests currently written and waiting for a response.
+   */
+  @Stability.Internal
+  public void updateOutstandingRequests(final int inFlight) {
+    if (pipelined) {
+      outstandingRequests.lazySet(inFlight);
+    }
+  }
+
+  /**
+   * Called from the event loop handler to record the latency of a response into the moving average.
+   *
+   * <p>Since this is only called from the event loop of the channel, the average is not updated atomically.</p>
+   *
+   * @param latencyNanos the latency of the response in nanoseconds.
+   */
+  @Stability.Internal
+  public void recordResponseLatency(final long latencyNanos) {
+    long average = averageResponseLatency;
+    averageResponseLatency = average == 0 ? latencyNanos : average + ((latencyNanos - average) >> 3);
+  }
+
   /**
    * Helper method to decrement outstanding requests, even if they haven't finished yet.
    */
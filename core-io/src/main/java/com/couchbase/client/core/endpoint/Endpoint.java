@@ -74,6 +74,13 @@ public interface Endpoint extends Stateful<EndpointState> {
    */
   long outstandingRequests();
 
+  /**
+   * Returns a moving average of the recent response latencies of this endpoint (or 0 if not tracked).
+   *
+   * @return the average response latency, in nanoseconds.
+   */
+  long averageResponseLatency();
+
   /**
    * Holds the timestamp of the last response received (or 0 if no request ever sent).
    *
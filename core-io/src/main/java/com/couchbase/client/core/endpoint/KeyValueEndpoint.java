@@ -18,19 +18,25 @@ package com.couchbase.client.core.endpoint;
 
 import com.couchbase.client.core.deps.io.netty.channel.ChannelPipeline;
 import com.couchbase.client.core.deps.io.netty.handler.flush.FlushConsolidationHandler;
+import com.couchbase.client.core.cnc.Meter;
 import com.couchbase.client.core.env.Authenticator;
+import com.couchbase.client.core.env.IoConfig;
+import com.couchbase.client.core.io.netty.AdaptiveFlushConsolidationHandler;
 import com.couchbase.client.core.io.netty.kv.ErrorMapLoadingHandler;
 import com.couchbase.client.core.io.netty.kv.FeatureNegotiatingHandler;
 import com.couchbase.client.core.io.netty.kv.KeyValueMessageHandler;
 import com.couchbase.client.core.io.netty.kv.MemcacheProtocolDecodeHandler;
 import com.couchbase.client.core.io.netty.kv.MemcacheProtocolVerificationHandler;
+import com.couchbase.client.core.io.netty.kv.PipelinedBootstrapHandler;
 import com.couchbase.client.core.io.netty.kv.SelectBucketHandler;
 import com.couchbase.client.core.io.netty.kv.ServerFeature;
 import com.couchbase.client.core.service.ServiceContext;
 import com.couchbase.client.core.service.ServiceType;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -39,11 +45,6 @@ public class KeyValueEndpoint extends BaseEndpoint {
   private final Optional<String> bucketname;
   private final Authenticator authenticator;
 
-  private static final int FLUSH_CONSOLIDATION_LIMIT = Integer.parseInt(System.getProperty(
-    "com.couchbase.experimental.flushConsolidationLimit",
-    Integer.toString(FlushConsolidationHandler.DEFAULT_EXPLICIT_FLUSH_AFTER_FLUSHES)
-  ));
-
   public KeyValueEndpoint(final ServiceContext ctx, final String hostname,
                           final int port, final Optional<String> bucketname, final Authenticator authenticator) {
     super(hostname, port, ctx.environment().ioEnvironment().kvEventLoopGroup().get(),
@@ -71,20 +72,54 @@ public class KeyValueEndpoint extends BaseEndpoint {
 
     @Override
     public void init(BaseEndpoint endpoint, ChannelPipeline pipeline) {
-      if (FLUSH_CONSOLIDATION_LIMIT > 0) {
-        pipeline.addLast(new FlushConsolidationHandler(FLUSH_CONSOLIDATION_LIMIT, true));
-      }
+      KeyValueMessageHandler messageHandler = new KeyValueMessageHandler(endpoint, ctx, bucketname);
+      addFlushBatchingHandler(endpoint, pipeline, messageHandler);
 
       pipeline.addLast(new MemcacheProtocolDecodeHandler());
       pipeline.addLast(new MemcacheProtocolVerificationHandler(ctx));
 
+      if (ctx.environment().ioConfig().pipelinedKvBootstrapEnabled()) {
+        pipeline.addLast(new PipelinedBootstrapHandler());
+      }
       pipeline.addLast(new FeatureNegotiatingHandler(ctx, serverFeatures()));
       pipeline.addLast(new ErrorMapLoadingHandler(ctx));
 
       authenticator.authKeyValueConnection(ctx, pipeline);
 
       bucketname.ifPresent(s -> pipeline.addLast(new SelectBucketHandler(ctx, s)));
-      pipeline.addLast(new KeyValueMessageHandler(endpoint, ctx, bucketname));
+      pipeline.addLast(messageHandler);
+    }
+
+    /**
+     * Adds the flush batching handler as configured in the {@link IoConfig}, if enabled.
+     */
+    private void addFlushBatchingHandler(final BaseEndpoint endpoint, final ChannelPipeline pipeline,
+                                         final KeyValueMessageHandler messageHandler) {
+      IoConfig ioConfig = ctx.environment().ioConfig();
+      int maxBatchSize = ioConfig.maxKvFlushBatchSize();
+      if (maxBatchSize <= 0) {
+        return;
+      }
+
+      switch (ioConfig.kvFlushBatchingMode()) {
+        case FIXED:
+          pipeline.addLast(new FlushConsolidationHandler(maxBatchSize, true));
+          break;
+        case ADAPTIVE:
+          Map<String, String> tags = new HashMap<>(4);
+          tags.put("cb.service", ServiceType.KV.ident());
+          tags.put("cb.remote_hostname", endpoint.remoteHostname());
+          Meter meter = ctx.environment().meter();
+          pipeline.addLast(new AdaptiveFlushConsolidationHandler(
+            maxBatchSize,
+            messageHandler::outstandingRequests,
+            meter.valueRecorder("cb.flush.batch_size", tags),
+            meter.valueRecorder("cb.flush.flushes_per_write", tags)
+          ));
+          break;
+        default:
+          break;
+      }
     }
 
     /**
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.env;
+
+import com.couchbase.client.core.annotation.Stability;
+
+/**
+ * Describes how writes on a pipelined connection are batched into socket flushes.
+ *
+ * <p>Only the KV connections are pipelined, so this is configured through
+ * {@link IoConfig.Builder#kvFlushBatchingMode(FlushBatchingMode)}.</p>
+ *
+ * @since 2.1.4
+ */
+@Stability.Volatile
+public enum FlushBatchingMode {
+
+  /**
+   * Every write is flushed to the socket right away.
+   */
+  NONE,
+
+  /**
+   * Flushes are consolidated up to a fixed number of flushes, and always right away once no read is in progress.
+   */
+  FIXED,
+
+  /**
+   * The number of writes per flush adapts to the current outstanding-request depth and the length of the
+   * event loop queue, bounded by the configured maximum batch size per event loop tick.
+   */
+  ADAPTIVE
+
+}
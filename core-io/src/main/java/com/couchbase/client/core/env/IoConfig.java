@@ -19,6 +19,7 @@ package com.couchbase.client.core.env;
 import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.endpoint.CircuitBreaker;
 import com.couchbase.client.core.endpoint.CircuitBreakerConfig;
+import com.couchbase.client.core.error.InvalidArgumentException;
 import com.couchbase.client.core.service.AbstractPooledEndpointServiceConfig;
 import com.couchbase.client.core.service.ServiceType;
 
@@ -31,6 +32,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
+import static com.couchbase.client.core.util.Validators.notNull;
+
 public class IoConfig {
 
   public static final boolean DEFAULT_MUTATION_TOKENS_ENABLED = true;
@@ -41,8 +44,19 @@ public class IoConfig {
   public static final NetworkResolution DEFAULT_NETWORK_RESOLUTION = NetworkResolution.AUTO;
   public static final int DEFAULT_NUM_KV_CONNECTIONS = 1;
   public static final int DEFAULT_MAX_HTTP_CONNECTIONS = AbstractPooledEndpointServiceConfig.DEFAULT_MAX_ENDPOINTS;
+  public static final int DEFAULT_MIN_HTTP_CONNECTIONS = AbstractPooledEndpointServiceConfig.DEFAULT_MIN_ENDPOINTS;
+  public static final double DEFAULT_HTTP_PRECONNECT_THRESHOLD = AbstractPooledEndpointServiceConfig.DEFAULT_PRECONNECT_THRESHOLD;
   public static final Duration DEFAULT_IDLE_HTTP_CONNECTION_TIMEOUT = AbstractPooledEndpointServiceConfig.DEFAULT_IDLE_TIME;
   public static final Duration DEFAULT_CONFIG_IDLE_REDIAL_TIMEOUT = Duration.ofMinutes(5);
+  public static final FlushBatchingMode DEFAULT_KV_FLUSH_BATCHING_MODE = FlushBatchingMode.FIXED;
+  public static final int DEFAULT_MAX_KV_FLUSH_BATCH_SIZE = Integer.parseInt(System.getProperty(
+    "com.couchbase.experimental.flushConsolidationLimit",
+    "256"
+  ));
+  public static final boolean DEFAULT_LATENCY_HISTOGRAMS_ENABLED = false;
+  public static final KvTimeoutTracking DEFAULT_KV_TIMEOUT_TRACKING = KvTimeoutTracking.WHEEL_TIMER;
+  public static final KvEndpointSelection DEFAULT_KV_ENDPOINT_SELECTION = KvEndpointSelection.PARTITION;
+  public static final boolean DEFAULT_PIPELINED_KV_BOOTSTRAP_ENABLED = false;
 
   private final boolean mutationTokensEnabled;
   private final Duration configPollInterval;
@@ -59,8 +73,16 @@ public class IoConfig {
   private final Duration tcpKeepAliveTime;
   private final int numKvConnections;
   private final int maxHttpConnections;
+  private final int minHttpConnections;
+  private final double httpPreconnectThreshold;
   private final Duration idleHttpConnectionTimeout;
   private final Duration configIdleRedialTimeout;
+  private final FlushBatchingMode kvFlushBatchingMode;
+  private final int maxKvFlushBatchSize;
+  private final boolean latencyHistogramsEnabled;
+  private final KvTimeoutTracking kvTimeoutTracking;
+  private final KvEndpointSelection kvEndpointSelection;
+  private final boolean pipelinedKvBootstrapEnabled;
 
   private IoConfig(Builder builder) {
     mutationTokensEnabled = builder.mutationTokensEnabled;
@@ -82,8 +104,16 @@ public class IoConfig {
     tcpKeepAliveTime = builder.tcpKeepAliveTime;
     numKvConnections = builder.numKvConnections;
     maxHttpConnections = builder.maxHttpConnections;
+    minHttpConnections = builder.minHttpConnections;
+    httpPreconnectThreshold = builder.httpPreconnectThreshold;
     idleHttpConnectionTimeout = builder.idleHttpConnectionTimeout;
     configIdleRedialTimeout = builder.configIdleRedialTimeout;
+    kvFlushBatchingMode = builder.kvFlushBatchingMode;
+    maxKvFlushBatchSize = builder.maxKvFlushBatchSize;
+    latencyHistogramsEnabled = builder.latencyHistogramsEnabled;
+    kvTimeoutTracking = builder.kvTimeoutTracking;
+    kvEndpointSelection = builder.kvEndpointSelection;
+    pipelinedKvBootstrapEnabled = builder.pipelinedKvBootstrapEnabled;
   }
 
   public static IoConfig create() {
@@ -169,10 +199,50 @@ public class IoConfig {
     return builder().idleHttpConnectionTimeout(idleHttpConnectionTimeout);
   }
 
+  @Stability.Volatile
+  public static Builder minHttpConnections(int minHttpConnections) {
+    return builder().minHttpConnections(minHttpConnections);
+  }
+
+  @Stability.Volatile
+  public static Builder httpPreconnectThreshold(double httpPreconnectThreshold) {
+    return builder().httpPreconnectThreshold(httpPreconnectThreshold);
+  }
+
   public static Builder configIdleRedialTimeout(Duration configIdleRedialTimeout) {
     return builder().configIdleRedialTimeout(configIdleRedialTimeout);
   }
 
+  @Stability.Volatile
+  public static Builder kvFlushBatchingMode(FlushBatchingMode kvFlushBatchingMode) {
+    return builder().kvFlushBatchingMode(kvFlushBatchingMode);
+  }
+
+  @Stability.Volatile
+  public static Builder maxKvFlushBatchSize(int maxKvFlushBatchSize) {
+    return builder().maxKvFlushBatchSize(maxKvFlushBatchSize);
+  }
+
+  @Stability.Volatile
+  public static Builder enableLatencyHistograms(boolean latencyHistogramsEnabled) {
+    return builder().enableLatencyHistograms(latencyHistogramsEnabled);
+  }
+
+  @Stability.Volatile
+  public static Builder kvTimeoutTracking(KvTimeoutTracking kvTimeoutTracking) {
+    return builder().kvTimeoutTracking(kvTimeoutTracking);
+  }
+
+  @Stability.Volatile
+  public static Builder kvEndpointSelection(KvEndpointSelection kvEndpointSelection) {
+    return builder().kvEndpointSelection(kvEndpointSelection);
+  }
+
+  @Stability.Volatile
+  public static Builder enablePipelinedKvBootstrap(boolean pipelinedKvBootstrapEnabled) {
+    return builder().enablePipelinedKvBootstrap(pipelinedKvBootstrapEnabled);
+  }
+
   public CircuitBreakerConfig kvCircuitBreakerConfig() {
     return kvCircuitBreakerConfig;
   }
@@ -242,10 +312,50 @@ public class IoConfig {
     return idleHttpConnectionTimeout;
   }
 
+  @Stability.Volatile
+  public int minHttpConnections() {
+    return minHttpConnections;
+  }
+
+  @Stability.Volatile
+  public double httpPreconnectThreshold() {
+    return httpPreconnectThreshold;
+  }
+
   public Duration configIdleRedialTimeout() {
     return configIdleRedialTimeout;
   }
 
+  @Stability.Volatile
+  public FlushBatchingMode kvFlushBatchingMode() {
+    return kvFlushBatchingMode;
+  }
+
+  @Stability.Volatile
+  public int maxKvFlushBatchSize() {
+    return maxKvFlushBatchSize;
+  }
+
+  @Stability.Volatile
+  public boolean latencyHistogramsEnabled() {
+    return latencyHistogramsEnabled;
+  }
+
+  @Stability.Volatile
+  public KvTimeoutTracking kvTimeoutTracking() {
+    return kvTimeoutTracking;
+  }
+
+  @Stability.Volatile
+  public KvEndpointSelection kvEndpointSelection() {
+    return kvEndpointSelection;
+  }
+
+  @Stability.Volatile
+  public boolean pipelinedKvBootstrapEnabled() {
+    return pipelinedKvBootstrapEnabled;
+  }
+
   /**
    * Returns this config as a map so it can be exported into i.e. JSON for display.
    */
@@ -267,8 +377,16 @@ public class IoConfig {
     export.put("managerCircuitBreakerConfig", managerCircuitBreakerConfig.enabled() ? managerCircuitBreakerConfig.exportAsMap() : "disabled");
     export.put("numKvConnections", numKvConnections);
     export.put("maxHttpConnections", maxHttpConnections);
+    export.put("minHttpConnections", minHttpConnections);
+    export.put("httpPreconnectThreshold", httpPreconnectThreshold);
     export.put("idleHttpConnectionTimeoutMs", idleHttpConnectionTimeout.toMillis());
     export.put("configIdleRedialTimeoutMs", configIdleRedialTimeout.toMillis());
+    export.put("kvFlushBatchingMode", kvFlushBatchingMode.name());
+    export.put("maxKvFlushBatchSize", maxKvFlushBatchSize);
+    export.put("latencyHistogramsEnabled", latencyHistogramsEnabled);
+    export.put("kvTimeoutTracking", kvTimeoutTracking.name());
+    export.put("kvEndpointSelection", kvEndpointSelection.name());
+    export.put("pipelinedKvBootstrapEnabled", pipelinedKvBootstrapEnabled);
     return export;
   }
 
@@ -289,8 +407,16 @@ public class IoConfig {
     private Duration tcpKeepAliveTime = DEFAULT_TCP_KEEPALIVE_TIME;
     private int numKvConnections = DEFAULT_NUM_KV_CONNECTIONS;
     private int maxHttpConnections = DEFAULT_MAX_HTTP_CONNECTIONS;
+    private int minHttpConnections = DEFAULT_MIN_HTTP_CONNECTIONS;
+    private double httpPreconnectThreshold = DEFAULT_HTTP_PRECONNECT_THRESHOLD;
     private Duration idleHttpConnectionTimeout = DEFAULT_IDLE_HTTP_CONNECTION_TIMEOUT;
     private Duration configIdleRedialTimeout = DEFAULT_CONFIG_IDLE_REDIAL_TIMEOUT;
+    private FlushBatchingMode kvFlushBatchingMode = DEFAULT_KV_FLUSH_BATCHING_MODE;
+    private int maxKvFlushBatchSize = DEFAULT_MAX_KV_FLUSH_BATCH_SIZE;
+    private boolean latencyHistogramsEnabled = DEFAULT_LATENCY_HISTOGRAMS_ENABLED;
+    private KvTimeoutTracking kvTimeoutTracking = DEFAULT_KV_TIMEOUT_TRACKING;
+    private KvEndpointSelection kvEndpointSelection = DEFAULT_KV_ENDPOINT_SELECTION;
+    private boolean pipelinedKvBootstrapEnabled = DEFAULT_PIPELINED_KV_BOOTSTRAP_ENABLED;
 
     public IoConfig build() {
       return new IoConfig(this);
@@ -458,9 +584,162 @@ public class IoConfig {
       return this;
     }
 
+    /**
+     * Configures the number of connections per node which are kept open for each HTTP service (query, search,
+     * analytics and views), even if they are idle.
+     *
+     * <p>These connections are opened when the service is connected, so the first requests after a quiet period
+     * do not need to pay for the connection setup. The value is capped at {@link #maxHttpConnections(int)}.
+     * The default is 0.</p>
+     *
+     * @param minHttpConnections the number of connections to keep open per node and service.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    @Stability.Volatile
+    public Builder minHttpConnections(final int minHttpConnections) {
+      if (minHttpConnections < 0) {
+        throw InvalidArgumentException.fromMessage("minHttpConnections must be >= 0 but got " + minHttpConnections);
+      }
+      this.minHttpConnections = minHttpConnections;
+      return this;
+    }
+
+    /**
+     * Configures the share of busy HTTP connections (between 0 and 1) at which another connection is opened
+     * ahead of time.
+     *
+     * <p>If a request has been dispatched and at least this share of the connections to the node is busy, one
+     * more connection is opened in the background (up to {@link #maxHttpConnections(int)}), so that the next
+     * request of a burst does not need to wait for it. A value of 0 disables pre-connecting, which is the
+     * default.</p>
+     *
+     * @param httpPreconnectThreshold the share of busy connections which triggers a new connection.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    @Stability.Volatile
+    public Builder httpPreconnectThreshold(final double httpPreconnectThreshold) {
+      if (httpPreconnectThreshold < 0 || httpPreconnectThreshold > 1) {
+        throw InvalidArgumentException.fromMessage("httpPreconnectThreshold must be between 0 and 1 but got "
+          + httpPreconnectThreshold);
+      }
+      this.httpPreconnectThreshold = httpPreconnectThreshold;
+      return this;
+    }
+
     public Builder configIdleRedialTimeout(final Duration configIdleRedialTimeout) {
       this.configIdleRedialTimeout = configIdleRedialTimeout;
       return this;
     }
+
+    /**
+     * Configures how writes on the KV connections are batched into socket flushes.
+     *
+     * <p>{@link FlushBatchingMode#FIXED} consolidates up to {@link #maxKvFlushBatchSize(int)} flushes,
+     * {@link FlushBatchingMode#ADAPTIVE} sizes the batches based on the outstanding requests and the event loop
+     * queue length (bounded by {@link #maxKvFlushBatchSize(int)}), and {@link FlushBatchingMode#NONE} flushes
+     * every write right away.</p>
+     *
+     * <p>This only applies to the KV service. The HTTP based services (query, search, analytics, views and
+     * management) are not pipelined: each connection carries a single request at a time, so there is never more
+     * than one write to consolidate and batching would only delay the flush.</p>
+     *
+     * <p>The default is {@link FlushBatchingMode#FIXED}.</p>
+     *
+     * @param kvFlushBatchingMode the flush batching mode to use.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    @Stability.Volatile
+    public Builder kvFlushBatchingMode(final FlushBatchingMode kvFlushBatchingMode) {
+      this.kvFlushBatchingMode = notNull(kvFlushBatchingMode, "KvFlushBatchingMode");
+      return this;
+    }
+
+    /**
+     * Configures the maximum number of writes on a KV connection which are batched into a single flush.
+     *
+     * <p>The default is 256 (or the value of the {@code com.couchbase.experimental.flushConsolidationLimit} system
+     * property if set). A value of 0 or less disables flush batching.</p>
+     *
+     * @param maxKvFlushBatchSize the maximum number of writes per flush.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    @Stability.Volatile
+    public Builder maxKvFlushBatchSize(final int maxKvFlushBatchSize) {
+      this.maxKvFlushBatchSize = maxKvFlushBatchSize;
+      return this;
+    }
+
+    /**
+     * Configures whether dispatch, server and encode latencies are recorded per node and operation.
+     *
+     * <p>If enabled, the latencies can be retrieved through the
+     * {@link com.couchbase.client.core.cnc.metrics.LatencyHistograms} of the core. The
+     * default is false.</p>
+     *
+     * @param latencyHistogramsEnabled true if the latency histograms should be recorded.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    @Stability.Volatile
+    public Builder enableLatencyHistograms(final boolean latencyHistogramsEnabled) {
+      this.latencyHistogramsEnabled = latencyHistogramsEnabled;
+      return this;
+    }
+
+    /**
+     * Configures how the timeouts of key value requests are tracked.
+     *
+     * <p>{@link KvTimeoutTracking#WHEEL_TIMER} registers a timeout per request on the shared timer, while
+     * {@link KvTimeoutTracking#ENDPOINT_DEADLINES} lets each KV connection sweep the deadlines of its in-flight
+     * requests on its own event loop, which avoids the per-request timer registration.</p>
+     *
+     * <p>The default is {@link KvTimeoutTracking#WHEEL_TIMER}.</p>
+     *
+     * @param kvTimeoutTracking the timeout tracking to use.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    @Stability.Volatile
+    public Builder kvTimeoutTracking(final KvTimeoutTracking kvTimeoutTracking) {
+      this.kvTimeoutTracking = notNull(kvTimeoutTracking, "KvTimeoutTracking");
+      return this;
+    }
+
+    /**
+     * Configures how a KV request picks one of the connections to a node, if more than one is configured through
+     * {@link #numKvConnections(int)}.
+     *
+     * <p>{@link KvEndpointSelection#PARTITION} always uses the connection the partition of the request maps to,
+     * while {@link KvEndpointSelection#LEAST_LOADED} spreads idempotent requests across the less loaded
+     * connections, so that a hot partition does not queue up on a single connection.</p>
+     *
+     * <p>The default is {@link KvEndpointSelection#PARTITION}.</p>
+     *
+     * @param kvEndpointSelection the endpoint selection to use.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    @Stability.Volatile
+    public Builder kvEndpointSelection(final KvEndpointSelection kvEndpointSelection) {
+      this.kvEndpointSelection = notNull(kvEndpointSelection, "KvEndpointSelection");
+      return this;
+    }
+
+    /**
+     * Configures whether the independent KV connection bootstrap requests are sent with a single write.
+     *
+     * <p>If enabled, the HELLO, error map, SASL list mechanisms and the first SASL auth request are flushed
+     * together instead of one by one, so a new connection needs fewer packets (and does not depend on flush
+     * batching being enabled) before the server can answer all of them.</p>
+     *
+     * <p>This is an opt-in, experimental setting which is disabled by default until it has been validated against
+     * more server versions. Without it, the bootstrap handlers still send their requests without waiting for each
+     * other, they are only flushed one by one.</p>
+     *
+     * @param pipelinedKvBootstrapEnabled true if the bootstrap requests should be flushed together.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    @Stability.Volatile
+    public Builder enablePipelinedKvBootstrap(final boolean pipelinedKvBootstrapEnabled) {
+      this.pipelinedKvBootstrapEnabled = pipelinedKvBootstrapEnabled;
+      return this;
+    }
   }
 }
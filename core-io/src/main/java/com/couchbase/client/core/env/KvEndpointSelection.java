@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.env;
+
+import com.couchbase.client.core.annotation.Stability;
+
+/**
+ * Describes how a KV request picks one of the connections to a node, if more than one is configured.
+ *
+ * @since 2.1.4
+ */
+@Stability.Volatile
+public enum KvEndpointSelection {
+
+  /**
+   * Every request is sent over the connection its partition maps to, so all requests of a partition share the
+   * same connection.
+   */
+  PARTITION,
+
+  /**
+   * Idempotent requests (like reads) are sent over the less loaded of two randomly picked connections, while all
+   * other requests are still sent over the connection of their partition to keep the order of mutations.
+   */
+  LEAST_LOADED
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.env;
+
+import com.couchbase.client.core.annotation.Stability;
+
+/**
+ * Describes how the timeouts of key value requests are tracked.
+ *
+ * @since 2.1.4
+ */
+@Stability.Volatile
+public enum KvTimeoutTracking {
+
+  /**
+   * Every request is registered with its own timeout on the shared hashed wheel timer when it is sent.
+   */
+  WHEEL_TIMER,
+
+  /**
+   * Requests are not registered with the wheel timer. Once written, a request is tracked by the connection it has
+   * been written to and swept on a tick by the event loop of that connection. While a request waits for a retry,
+   * the scheduled retry on the wheel timer takes care of timing it out.
+   */
+  ENDPOINT_DEADLINES
+
+}
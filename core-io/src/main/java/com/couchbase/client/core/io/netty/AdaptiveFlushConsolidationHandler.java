@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty;
+
+import com.couchbase.client.core.cnc.ValueRecorder;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelDuplexHandler;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelHandlerContext;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelPromise;
+import com.couchbase.client.core.deps.io.netty.util.concurrent.EventExecutor;
+import com.couchbase.client.core.deps.io.netty.util.concurrent.SingleThreadEventExecutor;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Consolidates flushes on a pipelined connection, adapting the batch size to the current load.
+ *
+ * <p>Unlike the netty FlushConsolidationHandler which always waits for a fixed number of flushes, this handler
+ * flushes right away if the event loop has no other work queued up (so a single request at low load does not pay
+ * any extra latency). If more tasks are queued, which usually means more writes are about to come in, the flush is
+ * deferred to the end of the current event loop tick, but only until as many writes are pending as there are
+ * requests already waiting for a response on the socket (with at least one and at most the configured maximum
+ * batch size). This way, the batch grows with the outstanding-request depth while the server is busy anyway.</p>
+ *
+ * <p>If a read is in progress, the flush is performed once the read completes.</p>
+ *
+ * @since 2.1.4
+ */
+public class AdaptiveFlushConsolidationHandler extends ChannelDuplexHandler {
+
+  /**
+   * The maximum number of writes which are batched into a single flush per event loop tick.
+   */
+  private final int maxBatchSize;
+
+  /**
+   * Returns the number of requests which are written and still waiting for their response.
+   */
+  private final IntSupplier outstandingRequests;
+
+  /**
+   * Records the number of writes which went out with a single flush.
+   */
+  private final ValueRecorder batchSizeRecorder;
+
+  /**
+   * Records the flushes per write in percent (100 meaning every write has been flushed on its own).
+   */
+  private final ValueRecorder flushesPerWriteRecorder;
+
+  private ChannelHandlerContext ctx;
+  private Runnable flushTask;
+  private int pendingWrites;
+  private int pendingFlushes;
+  private boolean readInProgress;
+  private boolean flushScheduled;
+
+  /**
+   * Creates a new {@link AdaptiveFlushConsolidationHandler}.
+   *
+   * @param maxBatchSize the maximum number of writes which are batched into a single flush per tick.
+   * @param outstandingRequests returns the number of written requests still waiting for a response.
+   * @param batchSizeRecorder records the number of writes per flush.
+   * @param flushesPerWriteRecorder records the flushes per write in percent.
+   */
+  public AdaptiveFlushConsolidationHandler(final int maxBatchSize, final IntSupplier outstandingRequests,
+                                           final ValueRecorder batchSizeRecorder,
+                                           final ValueRecorder flushesPerWriteRecorder) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("The maximum batch size must be greater than 0");
+    }
+    this.maxBatchSize = maxBatchSize;
+    this.outstandingRequests = outstandingRequests;
+    this.batchSizeRecorder = batchSizeRecorder;
+    this.flushesPerWriteRecorder = flushesPerWriteRecorder;
+  }
+
+  @Override
+  public void handlerAdded(final ChannelHandlerContext ctx) {
+    this.ctx = ctx;
+    this.flushTask = () -> {
+      flushScheduled = false;
+      if (pendingFlushes > 0 && !readInProgress) {
+        flushNow(this.ctx);
+      }
+    };
+  }
+
+  @Override
+  public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) {
+    pendingWrites++;
+    ctx.write(msg, promise);
+  }
+
+  @Override
+  public void flush(final ChannelHandlerContext ctx) {
+    pendingFlushes++;
+    if (readInProgress) {
+      return;
+    }
+
+    if (queuedTasks(ctx) == 0 || pendingWrites >= batchLimit()) {
+      flushNow(ctx);
+    } else if (!flushScheduled) {
+      flushScheduled = true;
+      scheduleFlush(ctx, flushTask);
+    }
+  }
+
+  /**
+   * Calculates the number of writes after which the flush is not deferred anymore.
+   */
+  private int batchLimit() {
+    int onTheWire = outstandingRequests.getAsInt() - pendingWrites;
+    return Math.max(1, Math.min(maxBatchSize, onTheWire));
+  }
+
+  /**
+   * Returns the number of tasks queued up on the event loop of this channel.
+   *
+   * @param ctx the channel handler context.
+   * @return the number of queued tasks, or 0 if it cannot be determined.
+   */
+  int queuedTasks(final ChannelHandlerContext ctx) {
+    EventExecutor executor = ctx.executor();
+    return executor instanceof SingleThreadEventExecutor
+      ? ((SingleThreadEventExecutor) executor).pendingTasks()
+      : 0;
+  }
+
+  /**
+   * Schedules the deferred flush at the end of the currently queued event loop tasks.
+   *
+   * @param ctx the channel handler context.
+   * @param flushTask the task which performs the flush.
+   */
+  void scheduleFlush(final ChannelHandlerContext ctx, final Runnable flushTask) {
+    ctx.executor().execute(flushTask);
+  }
+
+  @Override
+  public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
+    readInProgress = true;
+    ctx.fireChannelRead(msg);
+  }
+
+  @Override
+  public void channelReadComplete(final ChannelHandlerContext ctx) {
+    readInProgress = false;
+    flushIfNeeded(ctx);
+    ctx.fireChannelReadComplete();
+  }
+
+  @Override
+  public void channelWritabilityChanged(final ChannelHandlerContext ctx) {
+    if (!ctx.channel().isWritable()) {
+      flushIfNeeded(ctx);
+    }
+    ctx.fireChannelWritabilityChanged();
+  }
+
+  @Override
+  public void exceptionCaught(final ChannelHandlerContext ctx, final Throwable cause) {
+    flushIfNeeded(ctx);
+    ctx.fireExceptionCaught(cause);
+  }
+
+  @Override
+  public void disconnect(final ChannelHandlerContext ctx, final ChannelPromise promise) {
+    flushIfNeeded(ctx);
+    ctx.disconnect(promise);
+  }
+
+  @Override
+  public void close(final ChannelHandlerContext ctx, final ChannelPromise promise) {
+    flushIfNeeded(ctx);
+    ctx.close(promise);
+  }
+
+  @Override
+  public void handlerRemoved(final ChannelHandlerContext ctx) {
+    flushIfNeeded(ctx);
+  }
+
+  private void flushIfNeeded(final ChannelHandlerContext ctx) {
+    if (pendingFlushes > 0) {
+      flushNow(ctx);
+    }
+  }
+
+  private void flushNow(final ChannelHandlerContext ctx) {
+    if (pendingWrites > 0) {
+      batchSizeRecorder.recordValue(pendingWrites);
+      flushesPerWriteRecorder.recordValue(100 / pendingWrites);
+    }
+    pendingWrites = 0;
+    pendingFlushes = 0;
+    ctx.flush();
+  }
+
+}
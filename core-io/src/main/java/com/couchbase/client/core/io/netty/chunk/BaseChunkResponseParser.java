@@ -22,8 +22,8 @@ import com.couchbase.client.core.deps.io.netty.channel.ChannelConfig;
 import com.couchbase.client.core.deps.io.netty.handler.codec.http.HttpResponse;
 import com.couchbase.client.core.error.CouchbaseException;
 import com.couchbase.client.core.error.DecodingFailureException;
-import com.couchbase.client.core.json.stream.CopyingStreamWindow;
 import com.couchbase.client.core.json.stream.JsonStreamParser;
+import com.couchbase.client.core.json.stream.SlicingStreamWindow;
 import com.couchbase.client.core.msg.RequestContext;
 import com.couchbase.client.core.msg.chunk.ChunkHeader;
 import com.couchbase.client.core.msg.chunk.ChunkRow;
@@ -167,7 +167,7 @@ public abstract class BaseChunkResponseParser<H extends ChunkHeader, ROW extends
   @Override
   public void initialize(final ChannelConfig channelConfig) {
     cleanup();
-    parser = parserBuilder().build(scratchBuffer, new CopyingStreamWindow(channelConfig.getAllocator()));
+    parser = parserBuilder().build(scratchBuffer, new SlicingStreamWindow());
     this.channelConfig = channelConfig;
     this.trailer = MonoProcessor.create();
     this.requested.set(0);
@@ -20,16 +20,20 @@ import com.couchbase.client.core.deps.com.fasterxml.jackson.annotation.JsonCreat
 import com.couchbase.client.core.deps.com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.couchbase.client.core.deps.com.fasterxml.jackson.annotation.JsonProperty;
 import com.couchbase.client.core.deps.com.fasterxml.jackson.annotation.JsonValue;
+import com.couchbase.client.core.deps.com.fasterxml.jackson.core.JsonParser;
+import com.couchbase.client.core.deps.com.fasterxml.jackson.core.JsonToken;
 import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.DeserializationFeature;
 import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.ObjectReader;
 import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.couchbase.client.core.json.Mapper;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The {@link ErrorMap} contains mappings from errors to their attributes, negotiated
@@ -59,10 +63,26 @@ public class ErrorMap implements Comparable<ErrorMap> {
     .with(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_AS_NULL)
     .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
 
+  /**
+   * The maximum number of different error maps which are kept in the {@link #CACHE}.
+   */
+  private static final int MAX_CACHED_MAPS = 16;
+
+  /**
+   * Holds the already parsed error maps by version and revision, shared across all KV channels, since every
+   * connection loads the same error map from the server.
+   */
+  private static final Map<Long, ErrorMap> CACHE = new ConcurrentHashMap<>();
+
   private final int version;
   private final int revision;
   private final Map<Short, ErrorCode> errors;
 
+  /**
+   * The error codes indexed by their unsigned status code, so lookups do not need to box the status.
+   */
+  private final ErrorCode[] errorsByStatus;
+
   /**
    * Creates a new ErrorMap by parsing the json representation.
    *
@@ -72,6 +92,66 @@ public class ErrorMap implements Comparable<ErrorMap> {
     return objectReader.readValue(jsonBytes);
   }
 
+  /**
+   * Returns the ErrorMap for the json representation, reusing an already parsed one if the version and revision
+   * match.
+   *
+   * @throws IOException if parsing failed
+   */
+  public static ErrorMap fromJsonCached(byte[] jsonBytes) throws IOException {
+    Long key = cacheKey(jsonBytes);
+    if (key != null) {
+      ErrorMap cached = CACHE.get(key);
+      if (cached != null) {
+        return cached;
+      }
+    }
+
+    ErrorMap parsed = fromJson(jsonBytes);
+    if (CACHE.size() < MAX_CACHED_MAPS) {
+      ErrorMap existing = CACHE.putIfAbsent(cacheKey(parsed.version(), parsed.revision()), parsed);
+      if (existing != null) {
+        return existing;
+      }
+    }
+    return parsed;
+  }
+
+  /**
+   * Reads only the top level version and revision fields from the json representation, without binding
+   * the errors themselves.
+   *
+   * @return the cache key, or null if version or revision could not be found.
+   */
+  private static Long cacheKey(byte[] jsonBytes) throws IOException {
+    Integer version = null;
+    Integer revision = null;
+    try (JsonParser parser = objectReader.getFactory().createParser(jsonBytes)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return null;
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.getCurrentName();
+        JsonToken value = parser.nextToken();
+        if ("version".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+          version = parser.getIntValue();
+        } else if ("revision".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+          revision = parser.getIntValue();
+        } else {
+          parser.skipChildren();
+        }
+        if (version != null && revision != null) {
+          return cacheKey(version, revision);
+        }
+      }
+    }
+    return null;
+  }
+
+  private static long cacheKey(int version, int revision) {
+    return ((long) version << 32) | (revision & 0xFFFFFFFFL);
+  }
+
   /**
    * Creates a new Error Map, usually called from jackson.
    *
@@ -86,7 +166,9 @@ public class ErrorMap implements Comparable<ErrorMap> {
     @JsonProperty("errors") Map<String, ErrorCode> errors) {
     this.version = version;
     this.revision = revision;
-    this.errors = toShortKeys(errors);
+    // Parsed error maps are cached and shared across all connections, so they must not be modifiable.
+    this.errors = Collections.unmodifiableMap(toShortKeys(errors));
+    this.errorsByStatus = indexByStatus(this.errors);
   }
 
   private static Map<Short, ErrorCode> toShortKeys(Map<String, ErrorCode> errors) {
@@ -97,6 +179,18 @@ public class ErrorMap implements Comparable<ErrorMap> {
     return result;
   }
 
+  private static ErrorCode[] indexByStatus(Map<Short, ErrorCode> errors) {
+    int maxStatus = -1;
+    for (short status : errors.keySet()) {
+      maxStatus = Math.max(maxStatus, status & 0xFFFF);
+    }
+    ErrorCode[] result = new ErrorCode[maxStatus + 1];
+    for (Map.Entry<Short, ErrorCode> entry : errors.entrySet()) {
+      result[entry.getKey() & 0xFFFF] = entry.getValue();
+    }
+    return result;
+  }
+
   @Override
   public int compareTo(ErrorMap o) {
     if (version < o.version()) {
@@ -126,6 +220,17 @@ public class ErrorMap implements Comparable<ErrorMap> {
     return errors;
   }
 
+  /**
+   * Returns the error code for the given status, or null if the error map does not contain it.
+   *
+   * @param status the status code from the server response.
+   * @return the error code if found, null otherwise.
+   */
+  public ErrorCode errorCode(short status) {
+    int index = status & 0xFFFF;
+    return index < errorsByStatus.length ? errorsByStatus[index] : null;
+  }
+
   @JsonIgnoreProperties(ignoreUnknown = true)
   public static class ErrorCode {
     private final String name;
@@ -149,7 +254,7 @@ public class ErrorMap implements Comparable<ErrorMap> {
       @JsonProperty("retry") RetrySpecification retrySpec) {
       this.name = name;
       this.description = description;
-      this.attributes = attributes;
+      this.attributes = attributes == null ? null : Collections.unmodifiableSet(attributes);
       this.retrySpec = retrySpec;
     }
 
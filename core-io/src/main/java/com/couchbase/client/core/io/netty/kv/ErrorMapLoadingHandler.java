@@ -190,7 +190,7 @@ public class ErrorMapLoadingHandler extends ChannelDuplexHandler {
     if (body.isPresent()) {
       byte[] input = ByteBufUtil.getBytes(body.get());
       try {
-        return Optional.of(ErrorMap.fromJson(input));
+        return Optional.of(ErrorMap.fromJsonCached(input));
       } catch (IOException e) {
         endpointContext.environment().eventBus().publish(new ErrorMapUndecodableEvent(
           ioContext, e.getMessage(), new String(input, UTF_8)
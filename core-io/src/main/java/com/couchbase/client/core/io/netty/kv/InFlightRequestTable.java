@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty.kv;
+
+import com.couchbase.client.core.cnc.RequestSpan;
+import com.couchbase.client.core.msg.CancellationReason;
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.kv.KeyValueRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds all requests which are in-flight on a single KV channel, keyed by their opaque.
+ *
+ * <p>Every slot stores the request together with its (optional) dispatch span and the dispatch start
+ * timestamp, so writing and decoding a request only needs a single insert and a single remove. The table uses
+ * open addressing with linear probing on primitive int keys and parallel arrays, so no entry objects or boxed
+ * timestamps are allocated on the hot path.</p>
+ *
+ * <p>The table also keeps a lower bound of the earliest deadline of its requests, so that sweeping it for timed
+ * out requests on every tick is a single comparison unless a request is actually about to time out.</p>
+ *
+ * <p>This class is not thread safe, it is meant to be owned and only accessed by the channel's event loop.</p>
+ *
+ * @since 2.1.4
+ */
+class InFlightRequestTable {
+
+  /**
+   * The default number of slots allocated up-front (must be a power of two).
+   */
+  static final int DEFAULT_INITIAL_CAPACITY = 256;
+
+  /**
+   * Used to spread sequential (and strided) opaques across the table.
+   */
+  private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+  private int[] opaques;
+  private KeyValueRequest<Response>[] requests;
+  private RequestSpan[] dispatchSpans;
+  private long[] dispatchStarts;
+  private long[] deadlines;
+
+  private int mask;
+  private int shift;
+  private int size;
+
+  /**
+   * A lower bound of the deadlines of all requests in the table, only valid if {@link #hasEarliestDeadline}.
+   */
+  private long earliestDeadline;
+  private boolean hasEarliestDeadline;
+
+  /**
+   * Creates a new table with the {@link #DEFAULT_INITIAL_CAPACITY}.
+   */
+  InFlightRequestTable() {
+    this(DEFAULT_INITIAL_CAPACITY);
+  }
+
+  /**
+   * Creates a new table with the given initial capacity (rounded up to the next power of two).
+   *
+   * @param initialCapacity the number of slots to allocate up-front.
+   */
+  InFlightRequestTable(final int initialCapacity) {
+    if (initialCapacity < 1) {
+      throw new IllegalArgumentException("The initial capacity must be greater than 0");
+    }
+    allocate(Math.max(2, Integer.highestOneBit(initialCapacity - 1) << 1));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void allocate(final int capacity) {
+    opaques = new int[capacity];
+    requests = (KeyValueRequest<Response>[]) new KeyValueRequest[capacity];
+    dispatchSpans = new RequestSpan[capacity];
+    dispatchStarts = new long[capacity];
+    deadlines = new long[capacity];
+    mask = capacity - 1;
+    shift = Integer.SIZE - Integer.numberOfTrailingZeros(capacity);
+  }
+
+  private int indexOf(final int opaque) {
+    return (opaque * HASH_MULTIPLIER) >>> shift;
+  }
+
+  /**
+   * Stores a written request in the table, replacing any previous entry with the same opaque.
+   *
+   * @param opaque the opaque of the request.
+   * @param request the request itself.
+   * @param dispatchSpan the dispatch span, might be null.
+   * @param dispatchStart the nano timestamp when the request got dispatched.
+   */
+  void put(final int opaque, final KeyValueRequest<Response> request, final RequestSpan dispatchSpan,
+           final long dispatchStart) {
+    if (request == null) {
+      throw new IllegalArgumentException("The request must not be null");
+    }
+
+    int slot = indexOf(opaque);
+    while (requests[slot] != null) {
+      if (opaques[slot] == opaque) {
+        break;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    if (requests[slot] == null) {
+      size++;
+    }
+    opaques[slot] = opaque;
+    requests[slot] = request;
+    dispatchSpans[slot] = dispatchSpan;
+    dispatchStarts[slot] = dispatchStart;
+    long deadline = request.absoluteTimeout();
+    deadlines[slot] = deadline;
+    if (!hasEarliestDeadline || deadline - earliestDeadline < 0) {
+      earliestDeadline = deadline;
+      hasEarliestDeadline = true;
+    }
+
+    if (size > (mask + 1) >>> 1) {
+      grow();
+    }
+  }
+
+  /**
+   * Returns the slot which holds the given opaque, or -1 if not present.
+   *
+   * <p>The returned slot is only valid until the table is modified the next time.</p>
+   *
+   * @param opaque the opaque to look up.
+   * @return the slot or -1 if not found.
+   */
+  int slot(final int opaque) {
+    int slot = indexOf(opaque);
+    while (requests[slot] != null) {
+      if (opaques[slot] == opaque) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the request stored in the given slot.
+   */
+  KeyValueRequest<Response> request(final int slot) {
+    return requests[slot];
+  }
+
+  /**
+   * Returns the dispatch span stored in the given slot, might be null.
+   */
+  RequestSpan dispatchSpan(final int slot) {
+    return dispatchSpans[slot];
+  }
+
+  /**
+   * Returns the dispatch start timestamp (in nanoseconds) stored in the given slot.
+   */
+  long dispatchStart(final int slot) {
+    return dispatchStarts[slot];
+  }
+
+  /**
+   * Removes the entry at the given slot and closes the gap it leaves behind in the probe sequence.
+   *
+   * @param slot the slot to remove.
+   */
+  void removeAt(int slot) {
+    clear(slot);
+    if (--size == 0) {
+      hasEarliestDeadline = false;
+    }
+
+    int next = (slot + 1) & mask;
+    while (requests[next] != null) {
+      int ideal = indexOf(opaques[next]);
+      // Only move the entry into the gap if its ideal slot is not cyclically within (slot, next].
+      boolean inRange = slot <= next ? (slot < ideal && ideal <= next) : (slot < ideal || ideal <= next);
+      if (!inRange) {
+        opaques[slot] = opaques[next];
+        requests[slot] = requests[next];
+        dispatchSpans[slot] = dispatchSpans[next];
+        dispatchStarts[slot] = dispatchStarts[next];
+        deadlines[slot] = deadlines[next];
+        clear(next);
+        slot = next;
+      }
+      next = (next + 1) & mask;
+    }
+  }
+
+  /**
+   * Removes the request with the given opaque if present.
+   *
+   * @param opaque the opaque to remove.
+   * @return the removed request or null if not found.
+   */
+  KeyValueRequest<Response> remove(final int opaque) {
+    int slot = slot(opaque);
+    if (slot < 0) {
+      return null;
+    }
+    KeyValueRequest<Response> request = requests[slot];
+    removeAt(slot);
+    return request;
+  }
+
+  /**
+   * Cancels all requests in the table whose deadline has passed with {@link CancellationReason#TIMEOUT}.
+   *
+   * <p>Timed out requests are cancelled but stay in the table, so that a late response can still be matched and
+   * reported as an orphan. If no deadline can have passed yet, this method returns right away without looking at
+   * the individual requests.</p>
+   *
+   * @param now the current nano timestamp.
+   * @return the number of requests which have been cancelled.
+   */
+  int cancelExpired(final long now) {
+    if (!hasEarliestDeadline || now - earliestDeadline < 0) {
+      return 0;
+    }
+
+    int cancelled = 0;
+    hasEarliestDeadline = false;
+    for (int slot = 0; slot < requests.length; slot++) {
+      KeyValueRequest<Response> request = requests[slot];
+      if (request == null || request.completed()) {
+        continue;
+      }
+      long deadline = deadlines[slot];
+      if (now - deadline >= 0) {
+        request.cancel(CancellationReason.TIMEOUT);
+        cancelled++;
+      } else if (!hasEarliestDeadline || deadline - earliestDeadline < 0) {
+        earliestDeadline = deadline;
+        hasEarliestDeadline = true;
+      }
+    }
+    return cancelled;
+  }
+
+  /**
+   * Returns true if the table holds at least one request whose deadline might not have passed yet, which means
+   * it still needs to be swept for timed out requests.
+   */
+  boolean hasPendingDeadlines() {
+    return hasEarliestDeadline;
+  }
+
+  /**
+   * Returns a copy of all requests currently in-flight.
+   */
+  List<KeyValueRequest<Response>> requests() {
+    List<KeyValueRequest<Response>> result = new ArrayList<>(size);
+    for (KeyValueRequest<Response> request : requests) {
+      if (request != null) {
+        result.add(request);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of requests currently in-flight.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns the number of slots currently allocated.
+   */
+  int capacity() {
+    return mask + 1;
+  }
+
+  private void clear(final int slot) {
+    requests[slot] = null;
+    dispatchSpans[slot] = null;
+  }
+
+  private void grow() {
+    int[] oldOpaques = opaques;
+    KeyValueRequest<Response>[] oldRequests = requests;
+    RequestSpan[] oldSpans = dispatchSpans;
+    long[] oldStarts = dispatchStarts;
+    long[] oldDeadlines = deadlines;
+
+    allocate(oldOpaques.length << 1);
+    for (int i = 0; i < oldRequests.length; i++) {
+      if (oldRequests[i] != null) {
+        int slot = indexOf(oldOpaques[i]);
+        while (requests[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        opaques[slot] = oldOpaques[i];
+        requests[slot] = oldRequests[i];
+        dispatchSpans[slot] = oldSpans[i];
+        dispatchStarts[slot] = oldStarts[i];
+        deadlines[slot] = oldDeadlines[i];
+      }
+    }
+  }
+
+}
@@ -26,6 +26,7 @@ import com.couchbase.client.core.cnc.events.io.KeyValueErrorMapCodeHandledEvent;
 import com.couchbase.client.core.cnc.events.io.UnknownResponseReceivedEvent;
 import com.couchbase.client.core.cnc.events.io.UnknownResponseStatusReceivedEvent;
 import com.couchbase.client.core.cnc.events.io.UnsupportedResponseTypeReceivedEvent;
+import com.couchbase.client.core.cnc.metrics.LatencyHistograms;
 import com.couchbase.client.core.config.ProposedBucketConfigContext;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
@@ -33,11 +34,11 @@ import com.couchbase.client.core.deps.io.netty.channel.ChannelDuplexHandler;
 import com.couchbase.client.core.deps.io.netty.channel.ChannelHandlerContext;
 import com.couchbase.client.core.deps.io.netty.channel.ChannelPromise;
 import com.couchbase.client.core.deps.io.netty.util.ReferenceCountUtil;
-import com.couchbase.client.core.deps.io.netty.util.collection.IntObjectHashMap;
-import com.couchbase.client.core.deps.io.netty.util.collection.IntObjectMap;
+import com.couchbase.client.core.deps.io.netty.util.concurrent.ScheduledFuture;
 import com.couchbase.client.core.endpoint.BaseEndpoint;
 import com.couchbase.client.core.endpoint.EndpointContext;
 import com.couchbase.client.core.env.CompressionConfig;
+import com.couchbase.client.core.env.KvTimeoutTracking;
 import com.couchbase.client.core.error.CollectionNotFoundException;
 import com.couchbase.client.core.error.DecodingFailureException;
 import com.couchbase.client.core.io.IoContext;
@@ -50,9 +51,12 @@ import com.couchbase.client.core.msg.kv.UnlockRequest;
 import com.couchbase.client.core.retry.RetryOrchestrator;
 import com.couchbase.client.core.retry.RetryReason;
 import com.couchbase.client.core.service.ServiceType;
+import com.couchbase.client.core.util.HostAndPort;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import static com.couchbase.client.core.io.netty.HandlerUtils.closeChannelWithReason;
 import static com.couchbase.client.core.io.netty.TracingUtils.setCommonDispatchSpanAttributes;
@@ -75,24 +79,20 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 public class KeyValueMessageHandler extends ChannelDuplexHandler {
 
   /**
-   * Stores the {@link CoreContext} for use.
+   * How often the in-flight requests are swept for timeouts if {@link KvTimeoutTracking#ENDPOINT_DEADLINES}
+   * is used (the same resolution as the wheel timer).
    */
-  private final EndpointContext endpointContext;
+  static final Duration DEADLINE_SWEEP_INTERVAL = Duration.ofMillis(10);
 
   /**
-   * Holds all outstanding requests based on their opaque.
-   */
-  private final IntObjectMap<KeyValueRequest<Response>> writtenRequests;
-
-  /**
-   * Holds all outstanding requests based on their opaque.
+   * Stores the {@link CoreContext} for use.
    */
-  private final IntObjectMap<RequestSpan> writtenRequestDispatchSpans;
+  private final EndpointContext endpointContext;
 
   /**
-   * Holds the start timestamps for the outstanding dispatched requests.
+   * Holds all outstanding requests, their dispatch spans and start timestamps based on their opaque.
    */
-  private final IntObjectMap<Long> writtenRequestDispatchTimings;
+  private final InFlightRequestTable writtenRequests;
 
   /**
    * The compression config used for this handler.
@@ -129,6 +129,26 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
    */
   private ErrorMap errorMap;
 
+  /**
+   * If latency histograms are enabled, holds the recorders for the node this connection is attached to.
+   */
+  private LatencyHistograms.NodeLatencies nodeLatencies;
+
+  /**
+   * The address the {@link #nodeLatencies} are registered under, so they can be removed once the channel closes.
+   */
+  private String nodeLatenciesAddress;
+
+  /**
+   * True if the timeouts of the written requests are swept by this handler.
+   */
+  private final boolean sweepDeadlines;
+
+  /**
+   * If deadlines are swept, holds the next scheduled sweep while requests with pending deadlines are in flight.
+   */
+  private ScheduledFuture<?> deadlineSweep;
+
   /**
    * Creates a new {@link KeyValueMessageHandler}.
    *
@@ -138,12 +158,12 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
                                 final Optional<String> bucketName) {
     this.endpoint = endpoint;
     this.endpointContext = endpointContext;
-    this.writtenRequests = new IntObjectHashMap<>();
-    this.writtenRequestDispatchTimings = new IntObjectHashMap<>();
-    this.writtenRequestDispatchSpans = new IntObjectHashMap<>();
+    this.writtenRequests = new InFlightRequestTable();
     this.compressionConfig = endpointContext.environment().compressionConfig();
     this.eventBus = endpointContext.environment().eventBus();
     this.bucketName = bucketName;
+    this.sweepDeadlines = endpointContext.environment().ioConfig().kvTimeoutTracking()
+      == KvTimeoutTracking.ENDPOINT_DEADLINES;
   }
 
   /**
@@ -166,6 +186,13 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
 
     errorMap = ctx.channel().attr(ChannelAttributes.ERROR_MAP_KEY).get();
 
+    Optional<LatencyHistograms> latencyHistograms = ioContext.core().latencyHistograms();
+    if (latencyHistograms.isPresent() && endpointContext.remoteSocket() != null && nodeLatencies == null) {
+      HostAndPort remote = endpointContext.remoteSocket();
+      nodeLatenciesAddress = remote.hostname() + ":" + remote.port();
+      nodeLatencies = latencyHistograms.get().node(ServiceType.KV, nodeLatenciesAddress);
+    }
+
     List<ServerFeature> features = ctx.channel().attr(ChannelAttributes.SERVER_FEATURE_KEY).get();
     boolean compression = features != null && features.contains(ServerFeature.SNAPPY);
     boolean collections = features != null && features.contains(ServerFeature.COLLECTIONS);
@@ -203,12 +230,17 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
       KeyValueRequest<Response> request = (KeyValueRequest<Response>) msg;
 
       int opaque = request.opaque();
-      writtenRequests.put(opaque, request);
       try {
-        ctx.write(request.encode(ctx.alloc(), opaque, channelContext), promise);
-        writtenRequestDispatchTimings.put(opaque, (Long) System.nanoTime());
+        long encodeStart = nodeLatencies != null ? System.nanoTime() : 0;
+        ByteBuf encoded = request.encode(ctx.alloc(), opaque, channelContext);
+        long dispatchStart = System.nanoTime();
+        if (nodeLatencies != null) {
+          nodeLatencies.recordEncode(MemcacheProtocol.opcode(encoded) & 0xFF, request.name(), dispatchStart - encodeStart);
+        }
+        ctx.write(encoded, promise);
+        RequestSpan dispatchSpan = null;
         if (request.requestSpan() != null) {
-          RequestSpan dispatchSpan = endpointContext
+          dispatchSpan = endpointContext
             .environment()
             .requestTracer()
             .requestSpan(TracingIdentifiers.SPAN_DISPATCH, request.requestSpan());
@@ -223,12 +255,16 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
             null
           );
           setNumericOperationId(dispatchSpan, request.opaque());
-
-          writtenRequestDispatchSpans.put(opaque, dispatchSpan);
         }
 
+        writtenRequests.put(opaque, request, dispatchSpan, dispatchStart);
+        if (endpoint != null) {
+          endpoint.updateOutstandingRequests(writtenRequests.size());
+        }
+        if (sweepDeadlines && deadlineSweep == null) {
+          scheduleDeadlineSweep(ctx);
+        }
       } catch (Throwable err) {
-        writtenRequests.remove(opaque);
         if (err instanceof CollectionNotFoundException) {
           if (channelContext.collectionsEnabled()) {
             if (ioContext.core().configurationProvider().collectionMapRefreshInProgress()) {
@@ -269,14 +305,67 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
     }
   }
 
+  /**
+   * Returns the number of requests which have been written and are still waiting for their response.
+   *
+   * <p>Must only be called from the event loop of the channel this handler is attached to.</p>
+   */
+  public int outstandingRequests() {
+    return writtenRequests.size();
+  }
+
   @Override
   public void channelInactive(final ChannelHandlerContext ctx) {
-    for (KeyValueRequest<Response> request : writtenRequests.values()) {
+    cancelDeadlineSweep();
+    removeNodeLatencies();
+    for (KeyValueRequest<Response> request : writtenRequests.requests()) {
       RetryOrchestrator.maybeRetry(ioContext, request, RetryReason.CHANNEL_CLOSED_WHILE_IN_FLIGHT);
     }
     ctx.fireChannelInactive();
   }
 
+  @Override
+  public void handlerRemoved(final ChannelHandlerContext ctx) {
+    cancelDeadlineSweep();
+    removeNodeLatencies();
+  }
+
+  /**
+   * Removes the registration of this channel from the latency histograms, if registered.
+   */
+  private void removeNodeLatencies() {
+    if (nodeLatencies != null) {
+      nodeLatencies = null;
+      ioContext.core().latencyHistograms().ifPresent(h -> h.remove(ServiceType.KV, nodeLatenciesAddress));
+    }
+  }
+
+  /**
+   * Schedules the next sweep for timed out requests, as long as the channel is still active.
+   *
+   * <p>The sweep only re-arms itself while the in-flight table holds requests with pending deadlines, so idle
+   * channels do not keep a periodic task running on their event loop.</p>
+   */
+  private void scheduleDeadlineSweep(final ChannelHandlerContext ctx) {
+    if (!ctx.channel().isActive()) {
+      return;
+    }
+    deadlineSweep = ctx.executor().schedule(() -> {
+      deadlineSweep = null;
+      writtenRequests.cancelExpired(System.nanoTime());
+      if (writtenRequests.hasPendingDeadlines()) {
+        scheduleDeadlineSweep(ctx);
+      }
+    }, DEADLINE_SWEEP_INTERVAL.toNanos(), TimeUnit.NANOSECONDS);
+  }
+
+  private void cancelDeadlineSweep() {
+    if (deadlineSweep != null) {
+      deadlineSweep.cancel(false);
+      deadlineSweep = null;
+    }
+  }
+
   /**
    * Main method to start dispatching the decode.
    *
@@ -285,20 +374,30 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
    */
   private void decode(final ChannelHandlerContext ctx, final ByteBuf response) {
     int opaque = MemcacheProtocol.opaque(response);
-    KeyValueRequest<Response> request = writtenRequests.remove(opaque);
+    int slot = writtenRequests.slot(opaque);
 
-    if (request == null) {
+    if (slot < 0) {
       handleUnknownResponseReceived(ctx, response);
       return;
     }
 
+    KeyValueRequest<Response> request = writtenRequests.request(slot);
+    long start = writtenRequests.dispatchStart(slot);
+    RequestSpan dispatchSpan = writtenRequests.dispatchSpan(slot);
+    writtenRequests.removeAt(slot);
+
     long serverTime = MemcacheProtocol.parseServerDurationFromResponse(response);
+    long dispatchLatency = System.nanoTime() - start;
+    if (endpoint != null) {
+      endpoint.updateOutstandingRequests(writtenRequests.size());
+      endpoint.recordResponseLatency(dispatchLatency);
+    }
     request.context().serverLatency(serverTime);
+    request.context().dispatchLatency(dispatchLatency);
+    if (nodeLatencies != null) {
+      nodeLatencies.record(MemcacheProtocol.opcode(response) & 0xFF, request.name(), dispatchLatency, serverTime);
+    }
 
-    long start = writtenRequestDispatchTimings.remove(opaque);
-    request.context().dispatchLatency(System.nanoTime() - start);
-
-    RequestSpan dispatchSpan = writtenRequestDispatchSpans.remove(opaque);
     if (dispatchSpan != null) {
       TracingUtils.setServerDurationAttribute(dispatchSpan, serverTime);
       dispatchSpan.end();
@@ -456,7 +555,7 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
    * @return the error code if found, null otherwise.
    */
   private ErrorMap.ErrorCode decodeErrorCode(final short statusCode) {
-    return errorMap != null ? errorMap.errors().get(statusCode) : null;
+    return errorMap != null ? errorMap.errorCode(statusCode) : null;
   }
 
   /**
@@ -31,6 +31,7 @@ import com.couchbase.client.core.msg.kv.DurabilityLevel;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
 import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.deps.io.netty.buffer.UnpooledByteBufAllocator;
 import com.couchbase.client.core.deps.org.iq80.snappy.Snappy;
 
 import java.time.Duration;
@@ -118,7 +119,7 @@ public enum MemcacheProtocol {
     int framingExtrasSize = framingExtras.readableBytes();
     int totalBodySize = framingExtrasSize + extrasSize + keySize + body.readableBytes();
     return alloc
-      .buffer(HEADER_SIZE + totalBodySize)
+      .ioBuffer(HEADER_SIZE + totalBodySize)
       .writeByte(Magic.FLEXIBLE_REQUEST.magic())
       .writeByte(opcode.opcode())
       .writeByte(framingExtrasSize)
@@ -145,7 +146,7 @@ public enum MemcacheProtocol {
     int extrasSize = extras.readableBytes();
     int totalBodySize = extrasSize + keySize + body.readableBytes();
     return alloc
-      .buffer(HEADER_SIZE + totalBodySize)
+      .ioBuffer(HEADER_SIZE + totalBodySize)
       .writeByte(Magic.REQUEST.magic())
       .writeByte(opcode.opcode())
       .writeShort(keySize)
@@ -247,6 +248,47 @@ public enum MemcacheProtocol {
     return message.getLong(CAS_OFFSET);
   }
 
+  /**
+   * Returns a retained, read-only view of the (potentially decompressed) body without copying it.
+   *
+   * <p>If the body is snappy compressed it needs to be inflated into a new buffer anyways, otherwise the
+   * returned view shares the memory of the original message. In both cases the caller owns the returned
+   * buffer and is responsible for releasing it.</p>
+   *
+   * @param message the message to extract the body from.
+   * @return the retained body view, or an empty buffer if there is no body.
+   */
+  public static ByteBuf bodyAsRetainedView(final ByteBuf message) {
+    Optional<ByteBuf> maybeBody = body(message);
+    if (!maybeBody.isPresent()) {
+      return Unpooled.EMPTY_BUFFER;
+    }
+
+    ByteBuf body = maybeBody.get();
+    if ((datatype(message) & Datatype.SNAPPY.datatype()) == Datatype.SNAPPY.datatype()) {
+      return SnappyCodec.decompress(body, message.alloc()).asReadOnly();
+    }
+    return body.retainedSlice().asReadOnly();
+  }
+
+  /**
+   * Returns the body of the message as a byte array, decompressing it first if the datatype has the snappy
+   * flag set.
+   *
+   * <p>Compared to {@link #bodyAsBytes(ByteBuf)} followed by {@link #tryDecompression(byte[], byte)}, the
+   * compressed body is not copied into its own array first.</p>
+   *
+   * @param message the message to extract the body from.
+   * @return the (decompressed) body, or null if there is no body.
+   */
+  public static byte[] decompressedBodyAsBytes(final ByteBuf message) {
+    if (message == null || (datatype(message) & Datatype.SNAPPY.datatype()) != Datatype.SNAPPY.datatype()) {
+      return bodyAsBytes(message);
+    }
+    Optional<ByteBuf> body = body(message);
+    return body.isPresent() ? SnappyCodec.decompressToArray(body.get()) : null;
+  }
+
   /**
    * Returns the body of the message if available.
    *
@@ -725,11 +767,23 @@ public enum MemcacheProtocol {
    * @return a {@link ByteBuf} if compressed, or null if below the min ratio.
    */
   public static ByteBuf tryCompression(byte[] input, double minRatio) {
-    byte[] compressed = Snappy.compress(input);
-    if (((double) compressed.length / input.length) > minRatio) {
-      return null;
-    }
-    return Unpooled.wrappedBuffer(compressed);
+    return SnappyCodec.compress(Unpooled.wrappedBuffer(input), minRatio, UnpooledByteBufAllocator.DEFAULT);
+  }
+
+  /**
+   * Try to compress the readable bytes of the input into a new buffer, but if it is below the min ratio (or
+   * unlikely to compress at all) then it will return null.
+   *
+   * <p>See {@link SnappyCodec#compress(ByteBuf, double, ByteBufAllocator)} for the details.</p>
+   *
+   * @param input the input buffer.
+   * @param minRatio the minimum ratio to accept and return the buffer.
+   * @param alloc the allocator for the output buffer.
+   * @return a {@link ByteBuf} if compressed (which needs to be released by the caller), or null if below the
+   *   min ratio.
+   */
+  public static ByteBuf tryCompression(final ByteBuf input, final double minRatio, final ByteBufAllocator alloc) {
+    return SnappyCodec.compress(input, minRatio, alloc);
   }
 
   /**
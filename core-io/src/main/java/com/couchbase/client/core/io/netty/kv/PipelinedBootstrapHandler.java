@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.io.netty.kv;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelDuplexHandler;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelHandlerContext;
+
+/**
+ * Sends all KV bootstrap requests which do not depend on each other with a single flush.
+ *
+ * <p>The bootstrap handlers further up the pipeline (HELLO, error map loading, SASL list mechanisms and the
+ * first SASL auth request with the allowed mechanisms) each write their request and propagate the channel active
+ * signal right away, so they do not wait for each others responses. Without this handler though every one of
+ * them flushes on its own, which can result in one packet per step. This handler holds back those flushes while
+ * the channel active signal travels through the pipeline and then flushes them all at once, so the whole batch
+ * goes out in a single write.</p>
+ *
+ * <p>The time it took to prepare the batch is recorded in the {@link ConnectTimings}, next to the timings of the
+ * individual bootstrap steps.</p>
+ *
+ * @since 2.1.4
+ */
+@Stability.Internal
+public class PipelinedBootstrapHandler extends ChannelDuplexHandler {
+
+  /**
+   * True while the channel active signal is propagated and flushes are held back.
+   */
+  private boolean holdingFlushes;
+
+  /**
+   * True if at least one flush has been held back and needs to be performed.
+   */
+  private boolean flushPending;
+
+  @Override
+  public void channelActive(final ChannelHandlerContext ctx) {
+    ConnectTimings.start(ctx.channel(), this.getClass());
+    holdingFlushes = true;
+    try {
+      ctx.fireChannelActive();
+    } finally {
+      holdingFlushes = false;
+      if (flushPending) {
+        flushPending = false;
+        ctx.flush();
+      }
+      ConnectTimings.stop(ctx.channel(), this.getClass(), false);
+      ctx.pipeline().remove(this);
+    }
+  }
+
+  @Override
+  public void flush(final ChannelHandlerContext ctx) {
+    if (holdingFlushes) {
+      flushPending = true;
+    } else {
+      ctx.flush();
+    }
+  }
+
+}
@@ -17,6 +17,7 @@
 package com.couchbase.client.core.io.netty.kv;
 
 import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.Core;
 import com.couchbase.client.core.cnc.events.io.SaslAuthenticationCompletedEvent;
 import com.couchbase.client.core.cnc.events.io.SaslAuthenticationFailedEvent;
 import com.couchbase.client.core.cnc.events.io.SaslAuthenticationRestartedEvent;
@@ -35,6 +36,7 @@ import com.couchbase.client.core.error.AuthenticationFailureException;
 import com.couchbase.client.core.error.context.KeyValueIoErrorContext;
 import com.couchbase.client.core.io.IoContext;
 import com.couchbase.client.core.io.netty.kv.sasl.CouchbaseSaslClientFactory;
+import com.couchbase.client.core.io.netty.kv.sasl.SaltedPasswordCache;
 import com.couchbase.client.core.json.Mapper;
 import com.couchbase.client.core.msg.kv.BaseKeyValueRequest;
 import com.couchbase.client.core.util.Bytes;
@@ -48,6 +50,7 @@ import javax.security.sasl.SaslClient;
 import javax.security.sasl.SaslException;
 import java.net.SocketAddress;
 import java.time.Duration;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -124,6 +127,11 @@ public class SaslAuthenticationHandler extends ChannelDuplexHandler implements C
    */
   private int roundtripsToGo;
 
+  /**
+   * True once the challenge evaluation of this handshake has been timed.
+   */
+  private boolean challengeTimed;
+
   public SaslAuthenticationHandler(final EndpointContext endpointContext, final String username,
                                    final String password, final Set<SaslMechanism> allowedSaslMechanisms) {
     this.endpointContext = endpointContext;
@@ -349,12 +357,16 @@ public class SaslAuthenticationHandler extends ChannelDuplexHandler implements C
    * @throws SaslException if something went wrong during the creation.
    */
   private SaslClient createSaslClient(final Set<SaslMechanism> selected) throws SaslException {
+    Core core = endpointContext.core();
+    SaltedPasswordCache saltedPasswordCache = core == null ? null : core.saltedPasswordCache();
     return new CouchbaseSaslClientFactory().createSaslClient(
       selected.stream().map(SaslMechanism::mech).toArray(String[]::new),
       null,
       "couchbase",
       ioContext.remoteSocket().toString(),
-      null,
+      saltedPasswordCache == null
+        ? null
+        : Collections.singletonMap(SaltedPasswordCache.SASL_PROPERTY, saltedPasswordCache),
       this
     );
   }
@@ -375,7 +387,20 @@ public class SaslAuthenticationHandler extends ChannelDuplexHandler implements C
     byte[] payload = ByteBufUtil.getBytes(responseBody);
 
     try {
-      byte[] evaluatedBytes = saslClient.evaluateChallenge(payload);
+      // Evaluating the first server challenge is where the client does the (potentially expensive) password
+      // derivation, so it is recorded (once per handshake) separately from the overall SASL handler timing.
+      byte[] evaluatedBytes;
+      if (challengeTimed) {
+        evaluatedBytes = saslClient.evaluateChallenge(payload);
+      } else {
+        challengeTimed = true;
+        ConnectTimings.start(ctx.channel(), saslClient.getClass());
+        try {
+          evaluatedBytes = saslClient.evaluateChallenge(payload);
+        } finally {
+          ConnectTimings.stop(ctx.channel(), saslClient.getClass(), false);
+        }
+      }
       if (evaluatedBytes != null && evaluatedBytes.length > 0) {
         ctx.writeAndFlush(buildStepRequest(ctx, evaluatedBytes));
         maybePropagateChannelActive(ctx);
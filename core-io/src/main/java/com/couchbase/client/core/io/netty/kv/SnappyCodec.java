@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty.kv;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.util.concurrent.FastThreadLocal;
+import com.couchbase.client.core.deps.org.iq80.snappy.Snappy;
+
+import java.util.Arrays;
+
+/**
+ * Compresses and decompresses KV bodies with snappy, working on {@link ByteBuf ByteBufs} directly.
+ *
+ * <p>Snappy itself only operates on arrays, so buffers which have a backing array are read in place. Everything
+ * else is copied into a thread-local scratch array (up to {@link #MAX_SCRATCH_SIZE}) which is reused for all
+ * subsequent operations on the same thread, so that neither the event loops nor the callers need to allocate
+ * temporary arrays for every compressed document.</p>
+ *
+ * <p>Before compressing, a small sample of the input is taken to estimate its byte entropy. Data which looks
+ * random (i.e. already compressed or encrypted) will not shrink with snappy, so it is not even tried.</p>
+ *
+ * @since 2.1.4
+ */
+public class SnappyCodec {
+
+  /**
+   * Scratch arrays above this size are not kept around per thread, but allocated for the operation only.
+   */
+  static final int MAX_SCRATCH_SIZE = 1024 * 1024;
+
+  /**
+   * The number of bytes sampled to estimate the entropy of the input.
+   */
+  static final int ENTROPY_SAMPLE_SIZE = 1024;
+
+  /**
+   * Inputs with a sampled entropy above this value (in bits per byte) are considered incompressible.
+   *
+   * <p>Uniformly random data sampled with {@link #ENTROPY_SAMPLE_SIZE} bytes lands at around 7.8, while
+   * JSON documents are usually well below 6.</p>
+   */
+  static final double MAX_SAMPLE_ENTROPY = 7.5;
+
+  private static final double LOG_2 = Math.log(2);
+
+  private static final FastThreadLocal<byte[]> SCRATCH = new FastThreadLocal<byte[]>() {
+    @Override
+    protected byte[] initialValue() {
+      return new byte[0];
+    }
+  };
+
+  private static final FastThreadLocal<int[]> HISTOGRAM = new FastThreadLocal<int[]>() {
+    @Override
+    protected int[] initialValue() {
+      return new int[256];
+    }
+  };
+
+  private SnappyCodec() {}
+
+  /**
+   * Tries to compress the readable bytes of the input into a new buffer.
+   *
+   * <p>The readable bytes of the input are not consumed.</p>
+   *
+   * @param input the input buffer.
+   * @param minRatio the minimum ratio to accept and return the buffer.
+   * @param alloc the allocator for the output buffer.
+   * @return the compressed buffer (which needs to be released by the caller), or null if the input is unlikely
+   *   to compress or the result did not meet the min ratio.
+   */
+  public static ByteBuf compress(final ByteBuf input, final double minRatio, final ByteBufAllocator alloc) {
+    final int length = input.readableBytes();
+    if (length == 0 || !likelyCompressible(input)) {
+      return null;
+    }
+
+    final byte[] inputArray;
+    final int inputOffset;
+    if (input.hasArray()) {
+      inputArray = input.array();
+      inputOffset = input.arrayOffset() + input.readerIndex();
+    } else {
+      inputArray = scratch(length);
+      input.getBytes(input.readerIndex(), inputArray, 0, length);
+      inputOffset = 0;
+    }
+
+    ByteBuf output = alloc.heapBuffer(Snappy.maxCompressedLength(length));
+    try {
+      int compressedLength = Snappy.compress(inputArray, inputOffset, length, output.array(),
+        output.arrayOffset() + output.writerIndex());
+      if (((double) compressedLength / length) > minRatio) {
+        output.release();
+        return null;
+      }
+      return output.writerIndex(output.writerIndex() + compressedLength);
+    } catch (RuntimeException ex) {
+      output.release();
+      throw ex;
+    }
+  }
+
+  /**
+   * Decompresses the readable bytes of the input into a new buffer.
+   *
+   * @param input the snappy compressed input.
+   * @param alloc the allocator for the output buffer.
+   * @return the decompressed buffer, which needs to be released by the caller.
+   */
+  public static ByteBuf decompress(final ByteBuf input, final ByteBufAllocator alloc) {
+    final int length = input.readableBytes();
+    final byte[] inputArray;
+    final int inputOffset;
+    if (input.hasArray()) {
+      inputArray = input.array();
+      inputOffset = input.arrayOffset() + input.readerIndex();
+    } else {
+      inputArray = scratch(length);
+      input.getBytes(input.readerIndex(), inputArray, 0, length);
+      inputOffset = 0;
+    }
+
+    int uncompressedLength = Snappy.getUncompressedLength(inputArray, inputOffset);
+    ByteBuf output = alloc.heapBuffer(uncompressedLength);
+    try {
+      int written = Snappy.uncompress(inputArray, inputOffset, length, output.array(),
+        output.arrayOffset() + output.writerIndex());
+      return output.writerIndex(output.writerIndex() + written);
+    } catch (RuntimeException ex) {
+      output.release();
+      throw ex;
+    }
+  }
+
+  /**
+   * Decompresses the readable bytes of the input into an exactly sized array.
+   *
+   * @param input the snappy compressed input.
+   * @return the decompressed bytes.
+   */
+  public static byte[] decompressToArray(final ByteBuf input) {
+    final int length = input.readableBytes();
+    if (input.hasArray()) {
+      return Snappy.uncompress(input.array(), input.arrayOffset() + input.readerIndex(), length);
+    }
+
+    byte[] inputArray = scratch(length);
+    input.getBytes(input.readerIndex(), inputArray, 0, length);
+    return Snappy.uncompress(inputArray, 0, length);
+  }
+
+  /**
+   * Estimates if the input is worth compressing by sampling its byte entropy.
+   *
+   * @param input the input to check.
+   * @return false if the sample looks like random data, true otherwise.
+   */
+  static boolean likelyCompressible(final ByteBuf input) {
+    final int length = input.readableBytes();
+    if (length < ENTROPY_SAMPLE_SIZE) {
+      return true;
+    }
+
+    final int[] histogram = HISTOGRAM.get();
+    Arrays.fill(histogram, 0);
+    final int stride = length / ENTROPY_SAMPLE_SIZE;
+    final int start = input.readerIndex();
+    for (int i = 0; i < ENTROPY_SAMPLE_SIZE; i++) {
+      histogram[input.getByte(start + i * stride) & 0xFF]++;
+    }
+
+    double entropy = 0;
+    for (int count : histogram) {
+      if (count > 0) {
+        double p = (double) count / ENTROPY_SAMPLE_SIZE;
+        entropy -= p * Math.log(p);
+      }
+    }
+    return entropy / LOG_2 <= MAX_SAMPLE_ENTROPY;
+  }
+
+  /**
+   * Returns a scratch array with at least the given length, reusing the thread-local one if possible.
+   */
+  private static byte[] scratch(final int length) {
+    if (length > MAX_SCRATCH_SIZE) {
+      return new byte[length];
+    }
+    byte[] scratch = SCRATCH.get();
+    if (scratch.length < length) {
+      scratch = new byte[Math.min(MAX_SCRATCH_SIZE, Math.max(length, scratch.length << 1))];
+      SCRATCH.set(scratch);
+    }
+    return scratch;
+  }
+
+}
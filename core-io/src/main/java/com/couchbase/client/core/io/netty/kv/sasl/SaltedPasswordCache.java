@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty.kv.sasl;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.util.ConcurrentLruCache;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Caches SCRAM salted passwords across the connection bootstraps of a single core.
+ *
+ * <p>The server hands out the same salt and iteration count to every connection of a user, so running the PBKDF2
+ * rounds again for each of them is wasted work. Since a salted password is enough to authenticate, the cache is
+ * owned by the core and cleared when it shuts down.</p>
+ *
+ * <p>A cached entry must not be reused if the password changed in the meantime, but the password itself must not
+ * be kept either. So each entry carries an HMAC of the password under a random key which only lives as long as this
+ * cache, which (unlike a plain digest) cannot be brute-forced without knowing the key.</p>
+ *
+ * @since 2.1.4
+ */
+@Stability.Internal
+public class SaltedPasswordCache {
+
+  /**
+   * The SASL property under which the cache is passed to the {@link ScramSaslClientFactory}.
+   */
+  public static final String SASL_PROPERTY = "com.couchbase.client.core.saltedPasswordCache";
+
+  /**
+   * The default maximum number of salted passwords kept.
+   */
+  static final int DEFAULT_CAPACITY = 128;
+
+  private static final String FINGERPRINT_ALGORITHM = "HmacSHA256";
+
+  private final ConcurrentLruCache<Key, Entry> entries;
+  private final SecretKeySpec fingerprintKey;
+
+  public SaltedPasswordCache() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  SaltedPasswordCache(final int capacity) {
+    this.entries = new ConcurrentLruCache<>(capacity, key -> { });
+    byte[] key = new byte[32];
+    new SecureRandom().nextBytes(key);
+    this.fingerprintKey = new SecretKeySpec(key, FINGERPRINT_ALGORITHM);
+  }
+
+  /**
+   * Returns the cached salted password if it has been derived from the same password, salt and iteration count.
+   *
+   * @param username the name of the user.
+   * @param password the current password of the user.
+   * @param salt the salt sent by the server.
+   * @param iterations the iteration count sent by the server.
+   * @param algorithm the HMAC algorithm used for the derivation.
+   * @return the salted password or null if not cached.
+   */
+  byte[] get(final String username, final String password, final byte[] salt, final int iterations,
+             final String algorithm) {
+    Entry entry = entries.get(new Key(username, salt, iterations, algorithm));
+    if (entry != null && MessageDigest.isEqual(entry.fingerprint, fingerprint(password))) {
+      return entry.saltedPassword;
+    }
+    return null;
+  }
+
+  /**
+   * Stores a freshly derived salted password.
+   *
+   * @param username the name of the user.
+   * @param password the password the salted password has been derived from.
+   * @param salt the salt sent by the server.
+   * @param iterations the iteration count sent by the server.
+   * @param algorithm the HMAC algorithm used for the derivation.
+   * @param saltedPassword the derived salted password.
+   */
+  void put(final String username, final String password, final byte[] salt, final int iterations,
+           final String algorithm, final byte[] saltedPassword) {
+    entries.put(new Key(username, salt, iterations, algorithm), new Entry(fingerprint(password), saltedPassword));
+  }
+
+  /**
+   * Drops all cached salted passwords.
+   */
+  public void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Returns the number of cached salted passwords.
+   */
+  int size() {
+    return entries.size();
+  }
+
+  private byte[] fingerprint(final String password) {
+    try {
+      Mac mac = Mac.getInstance(FINGERPRINT_ALGORITHM);
+      mac.init(fingerprintKey);
+      return mac.doFinal(password.getBytes(UTF_8));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Could not compute the password fingerprint", e);
+    }
+  }
+
+  /**
+   * Identifies a salted password by everything the server sent which goes into its derivation.
+   */
+  private static class Key {
+    private final String username;
+    private final byte[] salt;
+    private final int iterations;
+    private final String algorithm;
+
+    Key(final String username, final byte[] salt, final int iterations, final String algorithm) {
+      this.username = username;
+      this.salt = salt;
+      this.iterations = iterations;
+      this.algorithm = algorithm;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      Key that = (Key) o;
+      return iterations == that.iterations &&
+        Objects.equals(username, that.username) &&
+        Arrays.equals(salt, that.salt) &&
+        Objects.equals(algorithm, that.algorithm);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = Objects.hash(username, iterations, algorithm);
+      result = 31 * result + Arrays.hashCode(salt);
+      return result;
+    }
+  }
+
+  /**
+   * Holds a cached salted password together with the fingerprint of the password it has been derived from.
+   */
+  private static class Entry {
+    private final byte[] fingerprint;
+    private final byte[] saltedPassword;
+
+    Entry(final byte[] fingerprint, final byte[] saltedPassword) {
+      this.fingerprint = fingerprint;
+      this.saltedPassword = saltedPassword;
+    }
+  }
+
+}
@@ -50,8 +50,11 @@ class ScramSaslClient implements SaslClient  {
   private final String hmacAlgorithm;
   private final CallbackHandler callbacks;
   private final MessageDigest digest;
+  private final Mac mac;
+  private final SaltedPasswordCache saltedPasswordCache;
 
   private String clientNonce;
+  private String username;
   private byte[] salt;
   private byte[] saltedPassword;
   private int iterationCount;
@@ -62,9 +65,24 @@ class ScramSaslClient implements SaslClient  {
   private String serverFinalMessage;
   private String nonce;
 
-  ScramSaslClient(final ScramSaslClientFactory.Mode mode, final CallbackHandler callbackHandler)
+  ScramSaslClient(final ScramSaslClientFactory.Mode mode, final CallbackHandler callbackHandler,
+                  final SaltedPasswordCache saltedPasswordCache) throws NoSuchAlgorithmException  {
+    this(mode, callbackHandler, saltedPasswordCache, randomNonce());
+  }
+
+  /**
+   * Creates a new SCRAM client.
+   *
+   * @param mode the SCRAM mode to use.
+   * @param callbackHandler the handler which provides the username and password.
+   * @param saltedPasswordCache the cache to reuse salted passwords from, null if they should not be cached.
+   * @param clientNonce the client nonce to use.
+   */
+  ScramSaslClient(final ScramSaslClientFactory.Mode mode, final CallbackHandler callbackHandler,
+                  final SaltedPasswordCache saltedPasswordCache, final String clientNonce)
     throws NoSuchAlgorithmException  {
     callbacks = callbackHandler;
+    this.saltedPasswordCache = saltedPasswordCache;
 
     switch (mode) {
       case SCRAM_SHA512:
@@ -86,11 +104,15 @@ class ScramSaslClient implements SaslClient  {
         throw new RuntimeException("Unsupported SHA version specified");
     }
 
+    this.mac = Mac.getInstance(hmacAlgorithm);
+    this.clientNonce = clientNonce;
+  }
 
+  private static String randomNonce() {
     SecureRandom random = new SecureRandom();
     byte[] random_nonce = new byte[21];
     random.nextBytes(random_nonce);
-    clientNonce = Base64.getEncoder().encodeToString(random_nonce);
+    return Base64.getEncoder().encodeToString(random_nonce);
   }
 
   @Override
@@ -110,7 +132,8 @@ class ScramSaslClient implements SaslClient  {
         throw new SaslException("Initial challenge should be without input data");
       }
 
-      clientFirstMessage = "n,,n=" + getUserName() + ",r=" + clientNonce;
+      username = getUserName();
+      clientFirstMessage = "n,,n=" + username + ",r=" + clientNonce;
       clientFirstMessageBare = clientFirstMessage.substring(3);
       return clientFirstMessage.getBytes(UTF_8);
     } else if (serverFirstMessage == null) {
@@ -225,7 +248,6 @@ class ScramSaslClient implements SaslClient  {
    */
   private byte[] hmac(byte[] key, byte[] data) {
     try {
-      final Mac mac = Mac.getInstance(hmacAlgorithm);
       mac.init(new SecretKeySpec(key, mac.getAlgorithm()));
       return mac.doFinal(data);
     } catch (InvalidKeyException e) {
@@ -253,7 +275,6 @@ class ScramSaslClient implements SaslClient  {
    */
   private byte[] pbkdf2(final String password, final byte[] salt, int iterations) {
     try {
-      Mac mac = Mac.getInstance(hmacAlgorithm);
       Key key;
       if (password == null || password.isEmpty()) {
         key = new EmptySecretKey(hmacAlgorithm);
@@ -314,8 +335,19 @@ class ScramSaslClient implements SaslClient  {
     }
 
     String password = new String(pw);
-    saltedPassword = pbkdf2(password, salt, iterationCount);
     passwordCallback.clearPassword();
+
+    byte[] cached = saltedPasswordCache == null
+      ? null
+      : saltedPasswordCache.get(username, password, salt, iterationCount, hmacAlgorithm);
+    if (cached != null) {
+      saltedPassword = cached;
+    } else {
+      saltedPassword = pbkdf2(password, salt, iterationCount);
+      if (saltedPasswordCache != null) {
+        saltedPasswordCache.put(username, password, salt, iterationCount, hmacAlgorithm, saltedPassword);
+      }
+    }
   }
 
   /**
@@ -33,6 +33,9 @@ import java.util.stream.Stream;
  * <p>See Mode for information which are supported and how they map to their
  * network representation.</p>
  *
+ * <p>If a {@link SaltedPasswordCache} is passed in the properties under {@link SaltedPasswordCache#SASL_PROPERTY},
+ * the created clients reuse the salted passwords from it.</p>
+ *
  * @since 1.2.5
  */
 public class ScramSaslClientFactory implements SaslClientFactory {
@@ -56,7 +59,12 @@ public class ScramSaslClientFactory implements SaslClientFactory {
     }
 
     try {
-      return new ScramSaslClient(mode.get(), cbh);
+      Object cache = props == null ? null : props.get(SaltedPasswordCache.SASL_PROPERTY);
+      return new ScramSaslClient(
+        mode.get(),
+        cbh,
+        cache instanceof SaltedPasswordCache ? (SaltedPasswordCache) cache : null
+      );
     } catch (NoSuchAlgorithmException e) {
       throw new SaslException("Selected algorithm not supported.", e);
     }
@@ -66,6 +66,13 @@ public class CopyingStreamWindow implements StreamWindow {
     return result;
   }
 
+  @Override
+  public ByteBuf getSlice(long startStreamOffset, long endStreamOffset) {
+    final int localStartOffset = toLocalOffset(startStreamOffset);
+    final int localEndOffset = toLocalOffset(endStreamOffset);
+    return window.slice(window.readerIndex() + localStartOffset, localEndOffset - localStartOffset);
+  }
+
   /**
    * @param streamOffset offset from the beginning of the stream
    * @return corresponding offset from window's reader index
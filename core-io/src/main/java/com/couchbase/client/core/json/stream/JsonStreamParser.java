@@ -209,7 +209,7 @@ public class JsonStreamParser implements Closeable {
   }
 
   void emitCapturedValue(String jsonPointer, Consumer<MatchedValue> consumer) {
-    final byte[] capturedValue = window.getBytes(captureStartOffset, tokenEndOffset());
+    final ByteBuf capturedValue = window.getSlice(captureStartOffset, tokenEndOffset());
     consumer.accept(new MatchedValue(jsonPointer, capturedValue));
   }
 
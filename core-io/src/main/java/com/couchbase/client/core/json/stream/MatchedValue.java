@@ -17,32 +17,43 @@
 package com.couchbase.client.core.json.stream;
 
 import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.JsonNode;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufInputStream;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
 import com.couchbase.client.core.error.DecodingFailureException;
 import com.couchbase.client.core.json.Mapper;
 
+import java.io.InputStream;
+
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Objects.requireNonNull;
 
+/**
+ * A value matched by the {@link JsonStreamParser}.
+ * <p>
+ * The value is a view into the stream window of the parser, so it is only valid while the callback which
+ * received it is running. Read it into the desired representation before the callback returns.
+ */
 public class MatchedValue {
   private final String jsonPointer;
-  private final byte[] json;
+  private final ByteBuf json;
 
-  MatchedValue(String jsonPointer, byte[] json) {
+  MatchedValue(String jsonPointer, ByteBuf json) {
     this.jsonPointer = jsonPointer;
     this.json = requireNonNull(json);
   }
 
   public boolean isNull() {
-    return json[0] == 'n';
+    return json.getByte(json.readerIndex()) == 'n';
   }
 
   public byte[] readBytes() {
-    return json;
+    return ByteBufUtil.getBytes(json);
   }
 
   public JsonNode readTree() {
     try {
-      return requireNonNull(Mapper.decodeIntoTree(json));
+      return requireNonNull(Mapper.reader().readTree(stream()));
     } catch (Exception shouldNeverHappen) {
       throw new AssertionError("Value at " + jsonPointer + " is not JSON.", shouldNeverHappen);
     }
@@ -66,17 +77,24 @@ public class MatchedValue {
 
   private <T> T read(Class<T> type) {
     try {
-      return requireNonNull(Mapper.decodeInto(json, type));
+      return requireNonNull(Mapper.reader().forType(type).<T>readValue(stream()));
     } catch (Exception e) {
       throw new DecodingFailureException("Value at " + jsonPointer + " is not a " + type.getSimpleName(), e);
     }
   }
 
+  /**
+   * Returns a stream over the value which does not modify the reader index of the underlying buffer.
+   */
+  private InputStream stream() {
+    return new ByteBufInputStream(json.duplicate());
+  }
+
   @Override
   public String toString() {
     return "JsonValue{" +
       "jsonPointer='" + jsonPointer + '\'' +
-      ", json=" + new String(json, UTF_8) +
+      ", json=" + json.toString(UTF_8) +
       '}';
   }
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.json.stream;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+
+import java.util.ArrayDeque;
+
+/**
+ * A stream window implementation that holds on to the input buffers instead of copying them.
+ * <p>
+ * Values which lie within a single input buffer are handed out as slices of that buffer, so they are only copied
+ * once by the consumer. The input buffers are released as soon as the window has moved past them.
+ *
+ * @since 2.1.4
+ */
+public class SlicingStreamWindow implements StreamWindow {
+
+  /**
+   * The input buffers which are still (partially) within the window, in stream order.
+   */
+  private final ArrayDeque<ByteBuf> buffers = new ArrayDeque<>();
+
+  /**
+   * Offset from the beginning of the stream to the start of the first buffer in the window.
+   */
+  private long windowStartOffset;
+
+  /**
+   * Offset from the beginning of the stream to the end of the window.
+   */
+  private long streamOffset;
+
+  @Override
+  public void add(ByteBuf buf) {
+    if (!buf.isReadable()) {
+      buf.release();
+      return;
+    }
+    buffers.addLast(buf);
+    streamOffset += buf.readableBytes();
+  }
+
+  @Override
+  public void releaseBefore(long releaseStreamOffset) {
+    if (releaseStreamOffset <= 0) {
+      return;
+    }
+    if (releaseStreamOffset > streamOffset) {
+      throw new IndexOutOfBoundsException("Offset " + releaseStreamOffset + " is outside of " + this);
+    }
+
+    while (!buffers.isEmpty()) {
+      ByteBuf first = buffers.peekFirst();
+      long firstEndOffset = windowStartOffset + first.readableBytes();
+      if (firstEndOffset > releaseStreamOffset) {
+        return;
+      }
+      buffers.removeFirst().release();
+      windowStartOffset = firstEndOffset;
+    }
+  }
+
+  @Override
+  public byte[] getBytes(long startStreamOffset, long endStreamOffset) {
+    checkRegion(startStreamOffset, endStreamOffset);
+    final byte[] result = new byte[(int) (endStreamOffset - startStreamOffset)];
+    copyRegion(startStreamOffset, endStreamOffset, result);
+    return result;
+  }
+
+  @Override
+  public ByteBuf getSlice(long startStreamOffset, long endStreamOffset) {
+    checkRegion(startStreamOffset, endStreamOffset);
+
+    long bufferStartOffset = windowStartOffset;
+    for (ByteBuf buffer : buffers) {
+      long bufferEndOffset = bufferStartOffset + buffer.readableBytes();
+      if (startStreamOffset < bufferEndOffset) {
+        if (endStreamOffset <= bufferEndOffset) {
+          return buffer.slice(
+            buffer.readerIndex() + (int) (startStreamOffset - bufferStartOffset),
+            (int) (endStreamOffset - startStreamOffset)
+          );
+        }
+        break;
+      }
+      bufferStartOffset = bufferEndOffset;
+    }
+
+    // The region spans more than one input buffer, so it needs to be copied into a contiguous one.
+    return Unpooled.wrappedBuffer(getBytes(startStreamOffset, endStreamOffset));
+  }
+
+  /**
+   * Copies the given region of the stream into the target array, which must be exactly as large as the region.
+   */
+  private void copyRegion(long startStreamOffset, long endStreamOffset, byte[] target) {
+    int targetIndex = 0;
+    long bufferStartOffset = windowStartOffset;
+    for (ByteBuf buffer : buffers) {
+      long bufferEndOffset = bufferStartOffset + buffer.readableBytes();
+      if (startStreamOffset < bufferEndOffset && endStreamOffset > bufferStartOffset) {
+        long from = Math.max(startStreamOffset, bufferStartOffset);
+        long to = Math.min(endStreamOffset, bufferEndOffset);
+        int length = (int) (to - from);
+        buffer.getBytes(buffer.readerIndex() + (int) (from - bufferStartOffset), target, targetIndex, length);
+        targetIndex += length;
+      }
+      if (bufferEndOffset >= endStreamOffset) {
+        return;
+      }
+      bufferStartOffset = bufferEndOffset;
+    }
+  }
+
+  private void checkRegion(long startStreamOffset, long endStreamOffset) {
+    if (startStreamOffset < windowStartOffset || endStreamOffset > streamOffset || startStreamOffset > endStreamOffset) {
+      throw new IndexOutOfBoundsException(
+        "Region [" + startStreamOffset + "," + endStreamOffset + ") is outside of " + this
+      );
+    }
+  }
+
+  @Override
+  public void close() {
+    while (!buffers.isEmpty()) {
+      ByteBuf buffer = buffers.removeFirst();
+      if (buffer.refCnt() > 0) {
+        buffer.release();
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "SlicingStreamWindow{windowStartOffset=" + windowStartOffset + ", streamOffset=" + streamOffset
+      + ", buffers=" + buffers.size() + "}";
+  }
+}
@@ -18,6 +18,7 @@ package com.couchbase.client.core.msg;
 
 import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.ValueRecorder;
 import com.couchbase.client.core.node.NodeIdentifier;
 import com.couchbase.client.core.retry.RetryReason;
 import com.couchbase.client.core.util.HostAndPort;
@@ -103,6 +104,11 @@ public class RequestContext extends CoreContext {
    */
   private volatile HostAndPort lastDispatchedFrom;
 
+  /**
+   * The response metric resolved by the endpoint this request got last dispatched to, if any.
+   */
+  private volatile ValueRecorder responseMetric;
+
   /**
    * Holds a set of retry reasons.
    */
@@ -205,7 +211,10 @@ public class RequestContext extends CoreContext {
     if (request.requestSpan() != null) {
       request.requestSpan().end();
     }
-    if (lastDispatchedTo() != null) {
+    final ValueRecorder recorder = responseMetric;
+    if (recorder != null) {
+      recorder.recordValue(logicalRequestLatency());
+    } else if (lastDispatchedTo() != null) {
       core().responseMetric(request).recordValue(logicalRequestLatency());
     }
     return this;
@@ -274,6 +283,19 @@ public class RequestContext extends CoreContext {
     return this;
   }
 
+  /**
+   * Sets the response metric of the endpoint the request got dispatched to, so that it does not need to be looked
+   * up again once the request completes.
+   *
+   * @param responseMetric the pre-resolved response metric for this request and endpoint.
+   * @return this {@link RequestContext} for chaining purposes.
+   */
+  @Stability.Internal
+  public RequestContext responseMetric(final ValueRecorder responseMetric) {
+    this.responseMetric = responseMetric;
+    return this;
+  }
+
   @Stability.Internal
   public RequestContext lastDispatchedToNode(final NodeIdentifier lastDispatchedToNode) {
     this.lastDispatchedToNode = lastDispatchedToNode;
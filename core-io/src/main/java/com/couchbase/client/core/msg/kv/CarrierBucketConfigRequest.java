@@ -26,7 +26,6 @@ import com.couchbase.client.core.node.NodeIdentifier;
 import com.couchbase.client.core.retry.RetryStrategy;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
-import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
 import com.couchbase.client.core.util.Bytes;
 
 import java.time.Duration;
@@ -53,10 +52,10 @@ public class CarrierBucketConfigRequest extends BaseKeyValueRequest<CarrierBucke
 
   @Override
   public CarrierBucketConfigResponse decode(final ByteBuf response, KeyValueChannelContext ctx) {
-    byte[] content = body(response)
-      .map(ByteBufUtil::getBytes)
-      .map(bytes -> tryDecompression(bytes, datatype(response)))
-      .orElse(Bytes.EMPTY_BYTE_ARRAY);
+    byte[] content = decompressedBodyAsBytes(response);
+    if (content == null) {
+      content = Bytes.EMPTY_BYTE_ARRAY;
+    }
     return new CarrierBucketConfigResponse(decodeStatus(response), content);
   }
 
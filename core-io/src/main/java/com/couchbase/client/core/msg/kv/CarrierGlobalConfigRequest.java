@@ -19,7 +19,6 @@ package com.couchbase.client.core.msg.kv;
 import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
-import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
 import com.couchbase.client.core.io.netty.kv.KeyValueChannelContext;
 import com.couchbase.client.core.io.netty.kv.MemcacheProtocol;
 import com.couchbase.client.core.msg.TargetedRequest;
@@ -32,16 +31,14 @@ import java.time.Duration;
 import java.util.Map;
 
 import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.Opcode;
-import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.body;
-import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.datatype;
 import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.decodeStatus;
+import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.decompressedBodyAsBytes;
 import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.noBody;
 import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.noCas;
 import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.noDatatype;
 import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.noExtras;
 import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.noKey;
 import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.noPartition;
-import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.tryDecompression;
 import static com.couchbase.client.core.logging.RedactableArgument.redactSystem;
 
 /**
@@ -75,10 +72,10 @@ public class CarrierGlobalConfigRequest
 
   @Override
   public CarrierGlobalConfigResponse decode(final ByteBuf response, final KeyValueChannelContext ctx) {
-    byte[] content = body(response)
-      .map(ByteBufUtil::getBytes)
-      .map(bytes -> tryDecompression(bytes, datatype(response)))
-      .orElse(Bytes.EMPTY_BYTE_ARRAY);
+    byte[] content = decompressedBodyAsBytes(response);
+    if (content == null) {
+      content = Bytes.EMPTY_BYTE_ARRAY;
+    }
     return new CarrierGlobalConfigResponse(decodeStatus(response), content);
   }
 
@@ -30,17 +30,17 @@ import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
 import com.couchbase.client.core.util.Bytes;
 
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
-import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.bodyAsBytes;
+import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.bodyAsRetainedView;
 import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.cas;
-import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.datatype;
 import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.decodeStatus;
+import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.decompressedBodyAsBytes;
 import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.extrasAsInt;
 import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.noBody;
 import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.noCas;
 import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.noDatatype;
 import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.noExtras;
-import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.tryDecompression;
 
 /**
  * Represents a KV Get (full document) operation.
@@ -49,10 +49,29 @@ import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.tryDecompre
  */
 public class GetRequest extends BaseKeyValueRequest<GetResponse> {
 
+  /**
+   * If the response content should be kept as a retained buffer view instead of being copied.
+   */
+  private final boolean retainContent;
+
   public GetRequest(final String key, final Duration timeout, final CoreContext ctx,
                     final CollectionIdentifier collectionIdentifier, final RetryStrategy retryStrategy,
                     final RequestSpan span) {
+    this(key, timeout, ctx, collectionIdentifier, retryStrategy, span, false);
+  }
+
+  /**
+   * Creates a new {@link GetRequest}.
+   *
+   * <p>If retainContent is set to true, the {@link GetResponse} will not copy the document body into a byte array
+   * but rather expose a read-only view of the network buffer through {@link GetResponse#contentBuffer()}. In this
+   * case whoever consumes the response is responsible for releasing the buffer.</p>
+   */
+  public GetRequest(final String key, final Duration timeout, final CoreContext ctx,
+                    final CollectionIdentifier collectionIdentifier, final RetryStrategy retryStrategy,
+                    final RequestSpan span, final boolean retainContent) {
     super(timeout, ctx, retryStrategy, key, collectionIdentifier, span);
+    this.retainContent = retainContent;
 
     if (span != null) {
       span.setAttribute(TracingIdentifiers.ATTR_OPERATION, TracingIdentifiers.SPAN_REQUEST_KV_GET);
@@ -76,16 +95,43 @@ public class GetRequest extends BaseKeyValueRequest<GetResponse> {
     ResponseStatus status = decodeStatus(response);
     long cas = cas(response);
 
-    if (status.success()) {
-      byte[] bytes = bodyAsBytes(response);
-      byte[] content = bytes != null ? tryDecompression(bytes, datatype(response)) : Bytes.EMPTY_BYTE_ARRAY;
+    if (status.success() && retainContent) {
+      return new GetResponse(status, bodyAsRetainedView(response), cas, extrasAsInt(response, 0, 0));
+    } else if (status.success()) {
+      byte[] bytes = decompressedBodyAsBytes(response);
+      byte[] content = bytes != null ? bytes : Bytes.EMPTY_BYTE_ARRAY;
       int flags = extrasAsInt(response, 0, 0);
       return new GetResponse(status, content, cas, flags);
     } else {
-      return new GetResponse(status, null, cas, 0);
+      return new GetResponse(status, (byte[]) null, cas, 0);
     }
   }
 
+  @Override
+  public void succeed(final GetResponse result) {
+    super.succeed(result);
+    if (result.contentBuffer() != null && !handedOver(result)) {
+      // The request has been completed in the meantime (i.e. timed out or already succeeded), or the response
+      // future has been cancelled by the caller, so nobody will ever release it.
+      result.contentBuffer().release();
+    }
+  }
+
+  /**
+   * Checks if the given result is the one the response future has been completed with.
+   */
+  private boolean handedOver(final GetResponse result) {
+    CompletableFuture<GetResponse> response = response();
+    return response.isDone() && !response.isCompletedExceptionally() && response.getNow(null) == result;
+  }
+
+  /**
+   * Returns true if the response content is exposed as a retained buffer view.
+   */
+  public boolean retainContent() {
+    return retainContent;
+  }
+
   @Override
   public boolean idempotent() {
     return true;
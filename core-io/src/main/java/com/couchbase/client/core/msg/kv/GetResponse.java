@@ -16,6 +16,8 @@
 
 package com.couchbase.client.core.msg.kv;
 
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
 import com.couchbase.client.core.msg.BaseResponse;
 import com.couchbase.client.core.msg.ResponseStatus;
 
@@ -27,23 +29,49 @@ import com.couchbase.client.core.msg.ResponseStatus;
 public class GetResponse extends BaseResponse {
 
   private final byte[] content;
+  private final ByteBuf contentBuffer;
   private final long cas;
   private final int flags;
 
   GetResponse(final ResponseStatus status, final byte[] content, final long cas, final int flags) {
     super(status);
     this.content = content;
+    this.contentBuffer = null;
+    this.cas = cas;
+    this.flags = flags;
+  }
+
+  GetResponse(final ResponseStatus status, final ByteBuf contentBuffer, final long cas, final int flags) {
+    super(status);
+    this.content = null;
+    this.contentBuffer = contentBuffer;
     this.cas = cas;
     this.flags = flags;
   }
 
   /**
    * Returns the content, but might be empty or null.
+   *
+   * <p>If the content is held as a buffer view (see {@link #contentBuffer()}), this method copies it into a new
+   * array on every invocation.</p>
    */
   public byte[] content() {
+    if (contentBuffer != null) {
+      return ByteBufUtil.getBytes(contentBuffer);
+    }
     return content;
   }
 
+  /**
+   * Returns the content as a reference-counted, read-only view of the network buffer, or null if the request
+   * did not ask to retain it (see {@link GetRequest#retainContent()}).
+   *
+   * <p>The consumer of this response owns the buffer and must release it once done.</p>
+   */
+  public ByteBuf contentBuffer() {
+    return contentBuffer;
+  }
+
   /**
    * Returns the CAS value of the document at the time of the fetch.
    */
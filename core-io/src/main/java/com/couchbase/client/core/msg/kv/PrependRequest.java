@@ -67,7 +67,9 @@ public class PrependRequest extends BaseKeyValueRequest<PrependResponse> impleme
       byte datatype = 0;
       CompressionConfig config = ctx.compressionConfig();
       if (config != null && config.enabled() && this.content.length >= config.minSize()) {
-        ByteBuf maybeCompressed = MemcacheProtocol.tryCompression(this.content, config.minRatio());
+        ByteBuf maybeCompressed = MemcacheProtocol.tryCompression(
+          Unpooled.wrappedBuffer(this.content), config.minRatio(), alloc
+        );
         if (maybeCompressed != null) {
           datatype |= MemcacheProtocol.Datatype.SNAPPY.datatype();
           content = maybeCompressed;
@@ -46,6 +46,7 @@ import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.*;
 public class UpsertRequest extends BaseKeyValueRequest<UpsertResponse> implements SyncDurabilityRequest {
 
   private final byte[] content;
+  private final ByteBuf contentBuffer;
   private final long expiration;
   private final int flags;
   private final Optional<DurabilityLevel> syncReplicationType;
@@ -55,8 +56,34 @@ public class UpsertRequest extends BaseKeyValueRequest<UpsertResponse> implement
                        final CoreContext ctx, CollectionIdentifier collectionIdentifier,
                        final RetryStrategy retryStrategy,
                        final Optional<DurabilityLevel> syncReplicationType, final RequestSpan span) {
+    this(key, content, null, expiration, flags, timeout, ctx, collectionIdentifier, retryStrategy,
+      syncReplicationType, span);
+  }
+
+  /**
+   * Creates a new {@link UpsertRequest} with content which has already been encoded into a buffer.
+   *
+   * <p>The request takes ownership of the buffer and releases it once this request completes. On every encode its
+   * bytes are written straight into the (direct) request frame, so they are only copied once on the way out.</p>
+   */
+  public UpsertRequest(final String key, final ByteBuf contentBuffer,
+                       final long expiration, final int flags, final Duration timeout,
+                       final CoreContext ctx, CollectionIdentifier collectionIdentifier,
+                       final RetryStrategy retryStrategy,
+                       final Optional<DurabilityLevel> syncReplicationType, final RequestSpan span) {
+    this(key, null, contentBuffer, expiration, flags, timeout, ctx, collectionIdentifier, retryStrategy,
+      syncReplicationType, span);
+    response().whenComplete((r, t) -> contentBuffer.release());
+  }
+
+  private UpsertRequest(final String key, final byte[] content, final ByteBuf contentBuffer,
+                        final long expiration, final int flags, final Duration timeout,
+                        final CoreContext ctx, CollectionIdentifier collectionIdentifier,
+                        final RetryStrategy retryStrategy,
+                        final Optional<DurabilityLevel> syncReplicationType, final RequestSpan span) {
     super(timeout, ctx, retryStrategy, key, collectionIdentifier, span);
     this.content = content;
+    this.contentBuffer = contentBuffer;
     this.expiration = expiration;
     this.flags = flags;
     this.syncReplicationType = syncReplicationType;
@@ -77,17 +104,15 @@ public class UpsertRequest extends BaseKeyValueRequest<UpsertResponse> implement
       key = encodedKeyWithCollection(alloc, ctx);
 
       byte datatype = 0;
+      content = contentBuffer != null ? contentBuffer.retainedDuplicate() : Unpooled.wrappedBuffer(this.content);
       CompressionConfig config = ctx.compressionConfig();
-      if (config != null && config.enabled() && this.content.length >= config.minSize()) {
-        ByteBuf maybeCompressed = MemcacheProtocol.tryCompression(this.content, config.minRatio());
+      if (config != null && config.enabled() && content.readableBytes() >= config.minSize()) {
+        ByteBuf maybeCompressed = MemcacheProtocol.tryCompression(content, config.minRatio(), alloc);
         if (maybeCompressed != null) {
           datatype |= MemcacheProtocol.Datatype.SNAPPY.datatype();
+          content.release();
           content = maybeCompressed;
-        } else {
-          content = Unpooled.wrappedBuffer(this.content);
         }
-      } else {
-        content = Unpooled.wrappedBuffer(this.content);
       }
 
       extras = alloc.buffer(Integer.BYTES * 2);
@@ -17,6 +17,7 @@
 package com.couchbase.client.core.node;
 
 import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.cnc.events.node.NodePartitionLengthNotEqualEvent;
 import com.couchbase.client.core.config.BucketCapabilities;
 import com.couchbase.client.core.config.BucketConfig;
@@ -37,7 +38,10 @@ import com.couchbase.client.core.msg.kv.SyncDurabilityRequest;
 import com.couchbase.client.core.retry.RetryOrchestrator;
 import com.couchbase.client.core.retry.RetryReason;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.zip.CRC32;
 
@@ -52,6 +56,14 @@ import java.util.zip.CRC32;
  */
 public class KeyValueLocator implements Locator {
 
+  /**
+   * Holds the precomputed partition to node routing tables for each couchbase bucket.
+   *
+   * <p>The map is never modified once published, {@link #updateRoutingTables(ClusterConfig, List)} swaps it as
+   * a whole.</p>
+   */
+  private volatile Map<String, KeyValueRoutingTable> routingTables = Collections.emptyMap();
+
   @Override
   public void dispatch(final Request<? extends Response> request, final List<Node> nodes,
                        final ClusterConfig config, final CoreContext ctx) {
@@ -82,6 +94,27 @@ public class KeyValueLocator implements Locator {
     }
   }
 
+  /**
+   * Rebuilds the routing tables of all couchbase buckets and publishes them for dispatching.
+   *
+   * <p>This needs to be called whenever a new config is applied or the list of managed nodes changes. Buckets which
+   * are not part of the config anymore do not get a table, so closed buckets do not keep their old configs and
+   * nodes alive.</p>
+   *
+   * @param config the current cluster config.
+   * @param nodes the currently managed nodes.
+   */
+  @Stability.Internal
+  public void updateRoutingTables(final ClusterConfig config, final List<Node> nodes) {
+    Map<String, KeyValueRoutingTable> tables = new HashMap<>();
+    for (Map.Entry<String, BucketConfig> entry : config.bucketConfigs().entrySet()) {
+      if (entry.getValue() instanceof CouchbaseBucketConfig) {
+        tables.put(entry.getKey(), KeyValueRoutingTable.build((CouchbaseBucketConfig) entry.getValue(), nodes));
+      }
+    }
+    routingTables = Collections.unmodifiableMap(tables);
+  }
+
   @SuppressWarnings({ "unchecked" })
   private static void dispatchTargeted(final TargetedRequest request, final List<Node> nodes,
                                        final CoreContext ctx) {
@@ -122,8 +155,8 @@ public class KeyValueLocator implements Locator {
     ((Request<?>) request).cancel(CancellationReason.TARGET_NODE_REMOVED);
   }
 
-  private static void couchbaseBucket(final KeyValueRequest<?> request, final List<Node> nodes,
-                                      final CouchbaseBucketConfig config, CoreContext ctx) {
+  private void couchbaseBucket(final KeyValueRequest<?> request, final List<Node> nodes,
+                               final CouchbaseBucketConfig config, CoreContext ctx) {
     if(!precheckCouchbaseBucket(request, config)) {
       return;
     }
@@ -131,7 +164,17 @@ public class KeyValueLocator implements Locator {
     int partitionId = partitionForKey(request.key(), config.numberOfPartitions());
     request.partition((short) partitionId);
 
-    int nodeId = calculateNodeId(partitionId, request, config);
+    boolean useFastForward = useFastForward(request, config);
+    KeyValueRoutingTable table = routingTables.get(request.bucket());
+    if (table != null && table.builtFor(config)) {
+      Node routed = table.node(partitionId, replica(request), useFastForward);
+      if (routed != null) {
+        routed.send(request);
+        return;
+      }
+    }
+
+    int nodeId = calculateNodeId(partitionId, request, config, useFastForward);
     if (nodeId < 0) {
       RetryOrchestrator.maybeRetry(ctx, request, RetryReason.NODE_NOT_AVAILABLE);
       return;
@@ -170,27 +213,45 @@ public class KeyValueLocator implements Locator {
     return true;
   }
 
+  /**
+   * Helper method to decide if the fast forward map should be used for the given request.
+   *
+   * <p>Note that number of retry attempts module 2 has been chosen so that the "fast path" if no retry
+   * attempts have been made always goes tot he active first. And then since it might or might not have
+   * been switched over yet on the server the modulo will make sure that it "alternates" between fast-forward
+   * and non-fast-forward maps to give it the greatest chance of eventually completing.</p>
+   */
+  private static boolean useFastForward(final KeyValueRequest<?> request, final CouchbaseBucketConfig config) {
+    return config.hasFastForwardMap() && request.context().retryAttempts() % 2 == 1;
+  }
+
+  /**
+   * Returns the replica the request needs to be routed to (0 for the active, 1 to n for replicas).
+   */
+  private static int replica(final KeyValueRequest<?> request) {
+    if (request instanceof ReplicaGetRequest) {
+      return ((ReplicaGetRequest) request).replica();
+    } else if (request instanceof ObserveViaSeqnoRequest) {
+      return Math.max(0, ((ObserveViaSeqnoRequest) request).replica());
+    } else {
+      return 0;
+    }
+  }
+
   /**
    * Helper method to calculate the node if for the given partition and request type.
    *
    * @param partitionId the partition id.
    * @param request the request used.
    * @param config the current bucket configuration.
+   * @param useFastForward if the fast forward map should be used.
    * @return the calculated node id.
    */
   private static int calculateNodeId(int partitionId, final KeyValueRequest<?> request,
-                                     final CouchbaseBucketConfig config) {
-
-    // Note that number of retry attempts module 2 has been chosen so that the "fast path" if no retry
-    // attempts have been made always goes tot he active first. And then since it might or might not have
-    // been switched over yet on the server the modulo will make sure that it "alternates" between fast-forward
-    // and non-fast-forward maps to give it the greatest chance of eventually completing.
-    boolean useFastForward = config.hasFastForwardMap() && request.context().retryAttempts() % 2 == 1;
-
-    if (request instanceof ReplicaGetRequest) {
-      return config.nodeIndexForReplica(partitionId, ((ReplicaGetRequest) request).replica() - 1, useFastForward);
-    } else if (request instanceof ObserveViaSeqnoRequest && ((ObserveViaSeqnoRequest) request).replica() > 0) {
-      return config.nodeIndexForReplica(partitionId, ((ObserveViaSeqnoRequest) request).replica() - 1, useFastForward);
+                                     final CouchbaseBucketConfig config, final boolean useFastForward) {
+    int replica = replica(request);
+    if (replica > 0) {
+      return config.nodeIndexForReplica(partitionId, replica - 1, useFastForward);
     } else {
       return config.nodeIndexForActive(partitionId, useFastForward);
     }
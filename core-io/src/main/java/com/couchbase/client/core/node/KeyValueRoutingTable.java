@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.node;
+
+import com.couchbase.client.core.config.CouchbaseBucketConfig;
+import com.couchbase.client.core.config.NodeInfo;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable routing table which maps a partition (and replica) of a couchbase bucket straight to the
+ * {@link Node} that owns it.
+ *
+ * <p>The table is built once for a specific {@link CouchbaseBucketConfig} and list of nodes when either of them
+ * changes, so that dispatching a KV request is a plain array lookup instead of a scan over the node list. Slots for
+ * partitions where no matching node could be resolved are left empty, in which case the caller needs to fall back
+ * to the regular lookup (and error handling).</p>
+ *
+ * @since 2.1.4
+ */
+class KeyValueRoutingTable {
+
+  /**
+   * The config this table has been built from.
+   */
+  private final CouchbaseBucketConfig config;
+
+  /**
+   * Routing for the active partitions (index 0) and the replicas (index 1 to n) from the regular map.
+   */
+  private final Node[][] regular;
+
+  /**
+   * Routing for the active partitions (index 0) and the replicas (index 1 to n) from the fast forward map,
+   * null if the config does not have one.
+   */
+  private final Node[][] fastForward;
+
+  private KeyValueRoutingTable(final CouchbaseBucketConfig config, final Node[][] regular,
+                               final Node[][] fastForward) {
+    this.config = config;
+    this.regular = regular;
+    this.fastForward = fastForward;
+  }
+
+  /**
+   * Builds a new routing table for the given config and nodes.
+   *
+   * @param config the bucket config to build the table from.
+   * @param nodes the currently managed nodes.
+   * @return the built routing table.
+   */
+  static KeyValueRoutingTable build(final CouchbaseBucketConfig config, final List<Node> nodes) {
+    Map<NodeIdentifier, Node> nodesByIdentifier = new HashMap<>();
+    for (Node node : nodes) {
+      nodesByIdentifier.put(node.identifier(), node);
+    }
+
+    Map<Short, Node> nodesByIndex = new HashMap<>();
+    Node[][] regular = buildMap(config, false, nodesByIdentifier, nodesByIndex);
+    Node[][] fastForward = config.hasFastForwardMap()
+      ? buildMap(config, true, nodesByIdentifier, nodesByIndex)
+      : null;
+    return new KeyValueRoutingTable(config, regular, fastForward);
+  }
+
+  private static Node[][] buildMap(final CouchbaseBucketConfig config, final boolean useFastForward,
+                                   final Map<NodeIdentifier, Node> nodesByIdentifier,
+                                   final Map<Short, Node> nodesByIndex) {
+    int numPartitions = config.numberOfPartitions();
+    int numReplicas = Math.max(0, config.numberOfReplicas());
+
+    Node[][] map = new Node[numReplicas + 1][numPartitions];
+    for (int partition = 0; partition < numPartitions; partition++) {
+      map[0][partition] = resolve(config, config.nodeIndexForActive(partition, useFastForward), nodesByIdentifier,
+        nodesByIndex);
+      for (int replica = 0; replica < numReplicas; replica++) {
+        map[replica + 1][partition] = resolve(config, config.nodeIndexForReplica(partition, replica, useFastForward),
+          nodesByIdentifier, nodesByIndex);
+      }
+    }
+    return map;
+  }
+
+  private static Node resolve(final CouchbaseBucketConfig config, final short nodeIndex,
+                              final Map<NodeIdentifier, Node> nodesByIdentifier,
+                              final Map<Short, Node> nodesByIndex) {
+    if (nodeIndex < 0) {
+      return null;
+    }
+    return nodesByIndex.computeIfAbsent(nodeIndex, idx -> {
+      try {
+        NodeInfo nodeInfo = config.nodeAtIndex(idx);
+        return nodeInfo == null ? null : nodesByIdentifier.get(nodeInfo.identifier());
+      } catch (IndexOutOfBoundsException ex) {
+        return null;
+      }
+    });
+  }
+
+  /**
+   * Checks if this table has been built from the given config.
+   *
+   * @param config the current bucket config.
+   * @return true if the table has been built from exactly this config instance.
+   */
+  boolean builtFor(final CouchbaseBucketConfig config) {
+    return this.config == config;
+  }
+
+  /**
+   * Returns the node for the given partition.
+   *
+   * @param partition the partition of the request.
+   * @param replica 0 for the active, 1 to n for the replicas.
+   * @param useFastForward if the fast forward map should be used.
+   * @return the node if resolved, null otherwise.
+   */
+  Node node(final int partition, final int replica, final boolean useFastForward) {
+    Node[][] map = useFastForward && fastForward != null ? fastForward : regular;
+    if (replica < 0 || replica >= map.length || partition < 0 || partition >= map[replica].length) {
+      return null;
+    }
+    return map[replica][partition];
+  }
+
+}
@@ -436,27 +436,35 @@ public class Node implements Stateful<NodeState> {
         return new ManagerService(ctx, address, port);
       case QUERY:
         return new QueryService(QueryServiceConfig
+          .minEndpoints(env.ioConfig().minHttpConnections())
           .maxEndpoints(env.ioConfig().maxHttpConnections())
           .idleTime(env.ioConfig().idleHttpConnectionTimeout())
+          .preconnectThreshold(env.ioConfig().httpPreconnectThreshold())
           .build(),
           ctx, address, port
         );
       case VIEWS:
         return new ViewService(ViewServiceConfig
+          .minEndpoints(env.ioConfig().minHttpConnections())
           .maxEndpoints(env.ioConfig().maxHttpConnections())
           .idleTime(env.ioConfig().idleHttpConnectionTimeout())
+          .preconnectThreshold(env.ioConfig().httpPreconnectThreshold())
           .build(),
           ctx, address, port);
       case SEARCH:
         return new SearchService(SearchServiceConfig
+          .minEndpoints(env.ioConfig().minHttpConnections())
           .maxEndpoints(env.ioConfig().maxHttpConnections())
           .idleTime(env.ioConfig().idleHttpConnectionTimeout())
+          .preconnectThreshold(env.ioConfig().httpPreconnectThreshold())
           .build(),
           ctx, address, port);
       case ANALYTICS:
         return new AnalyticsService(AnalyticsServiceConfig
+          .minEndpoints(env.ioConfig().minHttpConnections())
           .maxEndpoints(env.ioConfig().maxHttpConnections())
           .idleTime(env.ioConfig().idleHttpConnectionTimeout())
+          .preconnectThreshold(env.ioConfig().httpPreconnectThreshold())
           .build(),
           ctx, address, port);
       default:
@@ -23,6 +23,8 @@ import com.couchbase.client.core.retry.reactor.Backoff;
 import com.couchbase.client.core.retry.reactor.IterationContext;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -40,27 +42,52 @@ import java.util.concurrent.CompletableFuture;
  */
 public class BestEffortRetryStrategy implements RetryStrategy {
 
+  private static final Duration DEFAULT_LOWER_BACKOFF = Duration.ofMillis(1);
+  private static final Duration DEFAULT_UPPER_BACKOFF = Duration.ofMillis(500);
+  private static final int DEFAULT_BACKOFF_FACTOR = 2;
+
   /**
    * The default backoff is an exponential backoff from 1 to 500 millis with a factor of 2.
    */
   private static final Backoff DEFAULT_EXPONENTIAL_BACKOFF = Backoff.exponential(
-    Duration.ofMillis(1), Duration.ofMillis(500), 2, false);
+    DEFAULT_LOWER_BACKOFF, DEFAULT_UPPER_BACKOFF, DEFAULT_BACKOFF_FACTOR, false);
+
+  /**
+   * The maximum number of retry attempts for which the actions are precomputed.
+   */
+  private static final int MAX_PRECOMPUTED_ATTEMPTS = 64;
 
   /**
    * Returns the default {@link BestEffortRetryStrategy} instance.
    */
-  public static final BestEffortRetryStrategy INSTANCE = new BestEffortRetryStrategy(DEFAULT_EXPONENTIAL_BACKOFF);
+  public static final BestEffortRetryStrategy INSTANCE = new BestEffortRetryStrategy();
 
   /**
    * Holds the backoff delay algorithm for the retry strategy.
    */
   private final Backoff backoff;
 
+  /**
+   * If the exponential backoff parameters are known and {@link #shouldRetry(Request, RetryReason)} is not
+   * overridden, holds the retry action for every retry attempt until the upper boundary is reached.
+   */
+  private final RetryAction[] precomputedActions;
+
+  /**
+   * The retry action with the upper backoff boundary, used once the last retry reached it.
+   */
+  private final RetryAction upperAction;
+
+  /**
+   * The upper backoff boundary (only set if the actions are precomputed).
+   */
+  private final Duration upper;
+
   /**
    * Creates a new {@link BestEffortRetryStrategy} with the {@link #DEFAULT_EXPONENTIAL_BACKOFF}.
    */
   protected BestEffortRetryStrategy() {
-    this(DEFAULT_EXPONENTIAL_BACKOFF);
+    this(DEFAULT_EXPONENTIAL_BACKOFF, DEFAULT_LOWER_BACKOFF, DEFAULT_UPPER_BACKOFF, DEFAULT_BACKOFF_FACTOR);
   }
 
   /**
@@ -69,7 +96,55 @@ public class BestEffortRetryStrategy implements RetryStrategy {
    * @param backoff the custom backoff that should be used.
    */
   protected BestEffortRetryStrategy(final Backoff backoff) {
+    this(backoff, null, null, 0);
+  }
+
+  private BestEffortRetryStrategy(final Backoff backoff, final Duration lower, final Duration upper,
+                                  final int factor) {
     this.backoff = backoff;
+    if (lower != null && !overridesShouldRetry()) {
+      this.precomputedActions = precomputeExponential(lower, upper, factor);
+      this.upperAction = RetryAction.withDuration(upper);
+      this.upper = upper;
+    } else {
+      this.precomputedActions = null;
+      this.upperAction = null;
+      this.upper = null;
+    }
+  }
+
+  /**
+   * Computes the actions for every retry attempt the same way the exponential {@link Backoff} does (when the
+   * last backoff did not reach the upper boundary yet), up to and including the first one which reaches it.
+   */
+  private static RetryAction[] precomputeExponential(final Duration lower, final Duration upper, final int factor) {
+    List<RetryAction> actions = new ArrayList<>();
+    for (int attempt = 0; attempt < MAX_PRECOMPUTED_ATTEMPTS; attempt++) {
+      Duration delay;
+      try {
+        delay = lower.multipliedBy((long) Math.pow(factor, attempt - 1));
+      } catch (ArithmeticException e) {
+        delay = upper;
+      }
+      actions.add(RetryAction.withDuration(delay));
+      if (delay.compareTo(upper) >= 0) {
+        break;
+      }
+    }
+    return actions.toArray(new RetryAction[0]);
+  }
+
+  /**
+   * Checks if a subclass customized the retry decision, in which case the synchronous fast path must not be used
+   * so that the custom logic is always applied.
+   */
+  private boolean overridesShouldRetry() {
+    try {
+      return getClass().getMethod("shouldRetry", Request.class, RetryReason.class).getDeclaringClass()
+        != BestEffortRetryStrategy.class;
+    } catch (NoSuchMethodException e) {
+      return true;
+    }
   }
 
   /**
@@ -82,7 +157,7 @@ public class BestEffortRetryStrategy implements RetryStrategy {
    */
   public static BestEffortRetryStrategy withExponentialBackoff(final Duration lower, final Duration upper,
                                                                final int factor) {
-    return new BestEffortRetryStrategy(Backoff.exponential(lower, upper, factor, false));
+    return new BestEffortRetryStrategy(Backoff.exponential(lower, upper, factor, false), lower, upper, factor);
   }
 
   /**
@@ -117,6 +192,35 @@ public class BestEffortRetryStrategy implements RetryStrategy {
     return CompletableFuture.completedFuture(RetryAction.noRetry());
   }
 
+  /**
+   * Returns the same decision as {@link #shouldRetry(Request, RetryReason)} without allocating, if the backoff is a
+   * plain exponential one and the decision has been precomputed.
+   * <p>
+   * If the backoff is custom or {@link #shouldRetry(Request, RetryReason)} is overridden, null is returned so that
+   * the async variant is used instead.
+   *
+   * @param request the request that is affected.
+   * @param reason the reason why the operation should be retried in the first place.
+   * @return the retry action if precomputed, null otherwise.
+   */
+  @Override
+  public RetryAction shouldRetrySync(final Request<? extends Response> request, final RetryReason reason) {
+    if (precomputedActions == null) {
+      return null;
+    }
+    if (!request.idempotent() && !reason.allowsNonIdempotentRetry()) {
+      return RetryAction.noRetry();
+    }
+
+    RequestContext ctx = request.context();
+    Duration lastRetryDuration = ctx.lastRetryDuration();
+    if (lastRetryDuration != null && lastRetryDuration.compareTo(upper) >= 0) {
+      return upperAction;
+    }
+    int attempt = ctx.retryAttempts();
+    return attempt < precomputedActions.length ? precomputedActions[attempt] : null;
+  }
+
   @Override
   public String toString() {
     return "BestEffort{backoff=" + backoff + "}";
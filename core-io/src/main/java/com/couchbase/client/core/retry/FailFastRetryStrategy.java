@@ -42,6 +42,11 @@ public class FailFastRetryStrategy implements RetryStrategy {
     return CompletableFuture.completedFuture(RetryAction.noRetry());
   }
 
+  @Override
+  public RetryAction shouldRetrySync(Request<? extends Response> request, RetryReason reason) {
+    return RetryAction.noRetry();
+  }
+
   @Override
   public String toString() {
     return "FailFast";
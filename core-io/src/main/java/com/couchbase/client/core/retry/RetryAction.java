@@ -21,6 +21,8 @@ import java.util.Optional;
 
 /**
  * The {@link RetryAction} describes how and when a request should be retried.
+ *
+ * <p>Actions are immutable, so they can be precomputed and shared across requests.</p>
  */
 public class RetryAction {
 
@@ -55,32 +55,51 @@ public class RetryOrchestrator {
     }
 
     if (reason.alwaysRetry()) {
-      retryWithDuration(ctx, request, controlledBackoff(request.context().retryAttempts()), reason);
+      retryWithDuration(ctx, request, capDuration(controlledBackoff(request.context().retryAttempts()), request), reason);
       return;
     }
 
-    request.retryStrategy().shouldRetry(request, reason).whenComplete((retryAction, throwable) -> {
+    final RetryStrategy retryStrategy = request.retryStrategy();
+    final RetryAction syncAction = retryStrategy.shouldRetrySync(request, reason);
+    if (syncAction != null) {
+      handleRetryAction(ctx, request, reason, syncAction);
+      return;
+    }
+
+    retryStrategy.shouldRetry(request, reason).whenComplete((retryAction, throwable) -> {
       if (throwable != null) {
         ctx.environment().eventBus().publish(
           new RequestNotRetriedEvent(Event.Severity.INFO, request.getClass(), request.context(), reason, throwable)
         );
       }
-
-      Optional<Duration> duration = retryAction.duration();
-      if (duration.isPresent()) {
-        final Duration cappedDuration = capDuration(duration.get(), request);
-        retryWithDuration(ctx, request, cappedDuration, reason);
-      } else {
-        // unmonitored request's severity is downgraded to debug to not spam the info-level logs
-        Event.Severity severity = request instanceof UnmonitoredRequest ? Event.Severity.DEBUG : Event.Severity.INFO;
-        ctx.environment().eventBus().publish(
-          new RequestNotRetriedEvent(severity, request.getClass(), request.context(), reason, null)
-        );
-        request.cancel(CancellationReason.noMoreRetries(reason));
-      }
+      handleRetryAction(ctx, request, reason, retryAction);
     });
   }
 
+  /**
+   * Retries or cancels the request based on the action the retry strategy decided on.
+   *
+   * @param ctx the core context into which timer the request is submitted.
+   * @param request the request in question.
+   * @param reason the reason why the request is being retried.
+   * @param retryAction the action to perform.
+   */
+  private static void handleRetryAction(final CoreContext ctx, final Request<? extends Response> request,
+                                        final RetryReason reason, final RetryAction retryAction) {
+    Optional<Duration> duration = retryAction.duration();
+    if (duration.isPresent()) {
+      final Duration cappedDuration = capDuration(duration.get(), request);
+      retryWithDuration(ctx, request, cappedDuration, reason);
+    } else {
+      // unmonitored request's severity is downgraded to debug to not spam the info-level logs
+      Event.Severity severity = request instanceof UnmonitoredRequest ? Event.Severity.DEBUG : Event.Severity.INFO;
+      ctx.environment().eventBus().publish(
+        new RequestNotRetriedEvent(severity, request.getClass(), request.context(), reason, null)
+      );
+      request.cancel(CancellationReason.noMoreRetries(reason));
+    }
+  }
+
   /**
    * Calculates the potentially capped retry duration so we do not schedule a longer retry than the actual
    * total timeout.
@@ -16,6 +16,7 @@
 
 package com.couchbase.client.core.retry;
 
+import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.msg.Response;
 
@@ -35,4 +36,23 @@ public interface RetryStrategy {
    */
   CompletableFuture<RetryAction> shouldRetry(Request<? extends Response> request, RetryReason reason);
 
+  /**
+   * Checks synchronously if the given request should be retried, if the strategy is able to decide right away.
+   *
+   * <p>This is an optional fast path which is consulted before {@link #shouldRetry(Request, RetryReason)}: if a
+   * {@link RetryAction} is returned it is used directly, avoiding the future and callback allocations of the async
+   * variant (which matters if i.e. many requests are retried during a rebalance). Implementations should return
+   * shared, precomputed actions where possible. Strategies which need to perform async work should not override
+   * this method.</p>
+   *
+   * @param request the request to be checked.
+   * @param reason the reason why the request should be retried.
+   * @return the retry action if it can be decided synchronously, null if {@link #shouldRetry(Request, RetryReason)}
+   *         must be used instead.
+   */
+  @Stability.Volatile
+  default RetryAction shouldRetrySync(Request<? extends Response> request, RetryReason reason) {
+    return null;
+  }
+
 }
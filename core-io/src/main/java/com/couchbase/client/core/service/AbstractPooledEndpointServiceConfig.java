@@ -40,14 +40,21 @@ public abstract class AbstractPooledEndpointServiceConfig implements ServiceConf
    */
   public static final Duration DEFAULT_IDLE_TIME = Duration.ofMillis(4500);
 
+  /**
+   * By default, pooled endpoints are only connected once a request needs them.
+   */
+  public static final double DEFAULT_PRECONNECT_THRESHOLD = 0;
+
   private final int minEndpoints;
   private final int maxEndpoints;
   private final Duration idleTime;
+  private final double preconnectThreshold;
 
   AbstractPooledEndpointServiceConfig(Builder<?> builder) {
     this.minEndpoints = builder.minEndpoints;
     this.maxEndpoints = builder.maxEndpoints;
     this.idleTime = requireNonNull(builder.idleTime);
+    this.preconnectThreshold = builder.preconnectThreshold;
   }
 
   @Override
@@ -70,12 +77,18 @@ public abstract class AbstractPooledEndpointServiceConfig implements ServiceConf
     return false;
   }
 
+  @Override
+  public double preconnectThreshold() {
+    return preconnectThreshold;
+  }
+
   // public so methods can be invoked via reflection without requiring Method.setAccessible(true)
   public abstract static class Builder<SELF extends Builder<?>> {
 
     private int minEndpoints;
     private int maxEndpoints;
     private Duration idleTime;
+    private double preconnectThreshold = DEFAULT_PRECONNECT_THRESHOLD;
 
     public SELF minEndpoints(int minEndpoints) {
       if (minEndpoints < 0) {
@@ -103,6 +116,15 @@ public abstract class AbstractPooledEndpointServiceConfig implements ServiceConf
       return self();
     }
 
+    public SELF preconnectThreshold(double preconnectThreshold) {
+      if (preconnectThreshold < 0 || preconnectThreshold > 1) {
+        throw InvalidArgumentException.fromMessage("preconnectThreshold must be between 0 and 1 but got "
+          + preconnectThreshold);
+      }
+      this.preconnectThreshold = preconnectThreshold;
+      return self();
+    }
+
     @SuppressWarnings("unchecked")
     private SELF self() {
       return (SELF) this;
@@ -115,6 +137,7 @@ public abstract class AbstractPooledEndpointServiceConfig implements ServiceConf
       "minEndpoints=" + minEndpoints +
       ", maxEndpoints=" + maxEndpoints +
       ", idleTime=" + idleTime +
+      ", preconnectThreshold=" + preconnectThreshold +
       '}';
   }
 }
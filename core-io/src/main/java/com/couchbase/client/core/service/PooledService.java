@@ -16,6 +16,8 @@
 
 package com.couchbase.client.core.service;
 
+import com.couchbase.client.core.cnc.Counter;
+import com.couchbase.client.core.cnc.Meter;
 import com.couchbase.client.core.cnc.events.service.IdleEndpointRemovedEvent;
 import com.couchbase.client.core.cnc.events.service.ServiceConnectInitiatedEvent;
 import com.couchbase.client.core.cnc.events.service.ServiceDisconnectInitiatedEvent;
@@ -60,6 +62,11 @@ abstract class PooledService implements Service {
    */
   public static final Duration DEFAULT_IDLE_TIME_CHECK_INTERVAL = Duration.ofMillis(100);
 
+  /**
+   * The name of the counters which track waits, creations and idle evictions of the pooled endpoints.
+   */
+  private static final String POOL_METRIC_NAME = "cb.endpoint_pool";
+
   /**
    * Holds the config for this service.
    */
@@ -95,6 +102,11 @@ abstract class PooledService implements Service {
    */
   private final List<Endpoint> reservedEndpoints;
 
+  /**
+   * The pool metrics, resolved on first use.
+   */
+  private volatile PoolMetrics metrics;
+
   /**
    * Creates a new {@link PooledService}.
    *
@@ -226,6 +238,7 @@ abstract class PooledService implements Service {
         endpointStates.deregister(endpoint);
         if (!receivedDisconnect) {
           endpoint.disconnect();
+          metrics().idleEvictions.incrementBy(1);
         }
         publishIdleEndpointRemovedEvent(endpoint, actualIdleTime);
       }
@@ -283,9 +296,11 @@ abstract class PooledService implements Service {
 
     if (found != null) {
       found.send(request);
+      maybePreconnect();
       return;
     }
 
+    metrics().waits.incrementBy(1);
     if (!fixedPool && (endpoints.size() + reservedEndpoints.size()) < serviceConfig.maxEndpoints()) {
       connectReservedEndpoint(request);
     } else {
@@ -293,17 +308,51 @@ abstract class PooledService implements Service {
     }
   }
 
+  /**
+   * Connects another endpoint ahead of time if enough of the current endpoints are busy, so that the next request
+   * of a burst finds a connected endpoint instead of waiting for one.
+   * <p>
+   * Only one endpoint is pre-connected at a time, and not while other endpoints are still connecting.
+   */
+  private void maybePreconnect() {
+    final double threshold = serviceConfig.preconnectThreshold();
+    if (threshold <= 0 || fixedPool || !reservedEndpoints.isEmpty()) {
+      return;
+    }
+
+    final int total = endpoints.size();
+    if (total == 0 || total >= serviceConfig.maxEndpoints()) {
+      return;
+    }
+
+    int busy = 0;
+    for (Endpoint endpoint : endpoints) {
+      if (endpoint.outstandingRequests() > 0) {
+        busy++;
+      }
+    }
+
+    if (busy >= threshold * total) {
+      synchronized (this) {
+        if (reservedEndpoints.isEmpty() && endpoints.size() < serviceConfig.maxEndpoints()) {
+          connectReservedEndpoint(null);
+        }
+      }
+    }
+  }
+
   /**
    * Connect the reserved endpoint and dispatch the request into it if possible.
    * <p>
    * Note that there are two synchronized sections in this method, because the subscription callback works on
    * a different thread.
    *
-   * @param request the request that needs to bee dispatched.
+   * @param request the request that needs to bee dispatched, or null if the endpoint is connected ahead of time.
    */
   private synchronized <R extends Request<? extends Response>> void connectReservedEndpoint(final R request) {
     if (!disconnected.get()) {
       Endpoint endpoint = createEndpoint();
+      metrics().creations.incrementBy(1);
       endpointStates.register(endpoint, endpoint);
 
       endpoint
@@ -323,10 +372,15 @@ abstract class PooledService implements Service {
             if (disconnected.get()) {
               endpoint.disconnect();
               endpointStates.deregister(endpoint);
-              RetryOrchestrator.maybeRetry(serviceContext, request, RetryReason.ENDPOINT_NOT_AVAILABLE);
+              if (request != null) {
+                RetryOrchestrator.maybeRetry(serviceContext, request, RetryReason.ENDPOINT_NOT_AVAILABLE);
+              }
             } else {
               endpoints.add(endpoint);
 
+              if (request == null) {
+                return;
+              }
               if (s == EndpointState.CONNECTED) {
                 endpoint.send(request);
               } else if (s == EndpointState.DISCONNECTED) {
@@ -351,6 +405,7 @@ abstract class PooledService implements Service {
 
       for (int i = 0; i < serviceConfig.minEndpoints(); i++) {
         Endpoint endpoint = createEndpoint();
+        metrics().creations.incrementBy(1);
         endpointStates.register(endpoint, endpoint);
         endpoint.connect();
         endpoints.add(endpoint);
@@ -384,6 +439,15 @@ abstract class PooledService implements Service {
     return serviceContext;
   }
 
+  private PoolMetrics metrics() {
+    PoolMetrics metrics = this.metrics;
+    if (metrics == null) {
+      metrics = new PoolMetrics(serviceContext);
+      this.metrics = metrics;
+    }
+    return metrics;
+  }
+
   @Override
   public ServiceState state() {
     return endpointStates.state();
@@ -401,4 +465,40 @@ abstract class PooledService implements Service {
       .map(Endpoint::diagnostics);
   }
 
+  /**
+   * Holds the counters which track how requests are served by the pool.
+   */
+  private static class PoolMetrics {
+
+    /**
+     * Requests which did not find a free endpoint and had to wait for one to connect or be retried.
+     */
+    private final Counter waits;
+
+    /**
+     * Endpoints created by the pool, no matter if for the minimum size, a waiting request or ahead of time.
+     */
+    private final Counter creations;
+
+    /**
+     * Endpoints which got disconnected because they have been idle for too long.
+     */
+    private final Counter idleEvictions;
+
+    PoolMetrics(final ServiceContext ctx) {
+      Meter meter = ctx.environment().meter();
+      this.waits = meter.counter(POOL_METRIC_NAME, tags(ctx, "wait"));
+      this.creations = meter.counter(POOL_METRIC_NAME, tags(ctx, "creation"));
+      this.idleEvictions = meter.counter(POOL_METRIC_NAME, tags(ctx, "idle_eviction"));
+    }
+
+    private static Map<String, String> tags(final ServiceContext ctx, final String event) {
+      Map<String, String> tags = new HashMap<>(4);
+      tags.put("cb.service", ctx.serviceType().ident());
+      tags.put("cb.remote_hostname", ctx.remoteHostname());
+      tags.put("cb.event", event);
+      return tags;
+    }
+  }
+
 }
@@ -30,6 +30,14 @@ public interface ServiceConfig {
 
   boolean pipelined();
 
+  /**
+   * The share of busy endpoints (between 0 and 1) at which the pool connects another endpoint ahead of time,
+   * or 0 if endpoints are only connected once a request needs them.
+   */
+  default double preconnectThreshold() {
+    return 0;
+  }
+
   default public Map<String, Object> exportAsMap() {
     Map<String, Object> exported = new LinkedHashMap<>();
     exported.put("min", minEndpoints());
@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.service.kv;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.config.BucketConfig;
+import com.couchbase.client.core.config.CouchbaseBucketConfig;
+import com.couchbase.client.core.config.NodeInfo;
+import com.couchbase.client.core.deps.io.netty.util.Timeout;
+import com.couchbase.client.core.error.InvalidArgumentException;
+import com.couchbase.client.core.msg.CancellationReason;
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.kv.KeyValueRequest;
+import com.couchbase.client.core.node.KeyValueLocator;
+import com.couchbase.client.core.node.NodeIdentifier;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Dispatches a large number of key value requests (i.e. gets, upserts or removes) as one bulk operation.
+ *
+ * <p>The requests are grouped by the node which owns their partition in the current {@link CouchbaseBucketConfig}.
+ * Each group is dispatched through its own bounded window: only a fixed number of requests per node are in flight
+ * at the same time, and every completed request lets the next one of its node through. This keeps the writes for
+ * each endpoint pipelined without handing the whole batch to the IO layer at once. The timeouts of the batch are
+ * registered with the {@link com.couchbase.client.core.Timer} per distinct timeout value instead of per request,
+ * and the results are streamed back as they complete.</p>
+ *
+ * <p>Retries, rerouting on config changes and all the other regular request semantics still apply to the
+ * individual requests.</p>
+ *
+ * @since 2.1.4
+ */
+@Stability.Volatile
+public class BulkKeyValue {
+
+  /**
+   * The default number of requests which are in flight per node at the same time.
+   */
+  public static final int DEFAULT_MAX_IN_FLIGHT_PER_NODE = 128;
+
+  private BulkKeyValue() {}
+
+  /**
+   * Dispatches all requests with the default window per node and streams their results in completion order.
+   *
+   * @param core the core to dispatch against.
+   * @param requests the requests to dispatch.
+   * @param <R> the type of response.
+   * @return a stream of all results, which completes once every request is completed.
+   * @see #dispatch(Core, List, int)
+   */
+  public static <R extends Response> Flux<Item<R>> dispatch(final Core core,
+                                                            final List<? extends KeyValueRequest<R>> requests) {
+    return dispatch(core, requests, DEFAULT_MAX_IN_FLIGHT_PER_NODE);
+  }
+
+  /**
+   * Dispatches all requests and streams their results in completion order.
+   *
+   * <p>Failed requests do not terminate the stream, their error is carried in the individual {@link Item}. This
+   * includes requests which could not be dispatched at all. Cancelling the subscription cancels all requests which
+   * are not completed yet, including the ones which have not been dispatched.</p>
+   *
+   * <p>All timeouts start when the stream is subscribed to, so requests which are still waiting for a slot in their
+   * window count towards their timeout as well.</p>
+   *
+   * @param core the core to dispatch against.
+   * @param requests the requests to dispatch.
+   * @param maxInFlightPerNode the maximum number of requests which are in flight per node at the same time.
+   * @param <R> the type of response.
+   * @return a stream of all results, which completes once every request is completed.
+   */
+  public static <R extends Response> Flux<Item<R>> dispatch(final Core core,
+                                                            final List<? extends KeyValueRequest<R>> requests,
+                                                            final int maxInFlightPerNode) {
+    if (maxInFlightPerNode < 1) {
+      throw InvalidArgumentException.fromMessage("The maximum number of requests in flight per node must be >= 1");
+    }
+
+    return Flux.defer(() -> {
+      final List<List<KeyValueRequest<R>>> groups = groupByNode(core, requests);
+      if (groups.isEmpty()) {
+        return Flux.<Item<R>>empty();
+      }
+
+      final List<Timeout> timeouts = core.context().environment().timer().registerBatch(requests);
+      return Flux
+        .fromIterable(groups)
+        .flatMap(
+          group -> Flux.fromIterable(group).flatMap(request -> send(core, request), maxInFlightPerNode),
+          groups.size()
+        )
+        .doFinally(signal -> {
+          for (Timeout timeout : timeouts) {
+            timeout.cancel();
+          }
+        });
+    }).doFinally(signal -> {
+      if (signal != SignalType.ON_COMPLETE) {
+        for (KeyValueRequest<R> request : requests) {
+          if (!request.completed()) {
+            request.cancel(CancellationReason.STOPPED_LISTENING);
+          }
+        }
+      }
+    });
+  }
+
+  /**
+   * Sends a single request (unless it is completed already) and emits its result once it completes.
+   *
+   * <p>This is the only callback which is attached to the request. If the request cannot be dispatched, it is
+   * failed with the cause so that its result is still emitted and the rest of the batch keeps going.</p>
+   */
+  private static <R extends Response> Mono<Item<R>> send(final Core core, final KeyValueRequest<R> request) {
+    return Mono.create(sink -> {
+      request.response().whenComplete((response, throwable) -> {
+        request.context().logicallyComplete();
+        sink.success(new Item<>(request, response, throwable));
+      });
+      if (!request.completed()) {
+        try {
+          core.send(request, false);
+        } catch (Throwable t) {
+          request.fail(t);
+        }
+      }
+    });
+  }
+
+  /**
+   * Groups the requests by the node which owns their active partition.
+   *
+   * <p>Requests which cannot be mapped to a node right now (i.e. because there is no config yet or it is not
+   * a couchbase bucket) are put into their own group at the end and are routed through the regular code path.</p>
+   *
+   * @param core the core to fetch the current configs from.
+   * @param requests the requests to group.
+   * @return the requests grouped by node.
+   */
+  static <R extends Response> List<List<KeyValueRequest<R>>> groupByNode(final Core core,
+                                                                         final List<? extends KeyValueRequest<R>> requests) {
+    final Map<String, BucketConfig> configs = new LinkedHashMap<>();
+    final Map<NodeIdentifier, List<KeyValueRequest<R>>> byNode = new LinkedHashMap<>();
+    final List<KeyValueRequest<R>> unrouted = new ArrayList<>();
+
+    for (KeyValueRequest<R> request : requests) {
+      String bucket = request.collectionIdentifier().bucket();
+      BucketConfig config = configs.computeIfAbsent(bucket, b -> core.clusterConfig().bucketConfig(b));
+      NodeIdentifier node = config instanceof CouchbaseBucketConfig
+        ? activeNode((CouchbaseBucketConfig) config, request)
+        : null;
+
+      if (node == null) {
+        unrouted.add(request);
+      } else {
+        byNode.computeIfAbsent(node, n -> new ArrayList<>()).add(request);
+      }
+    }
+
+    final List<List<KeyValueRequest<R>>> groups = new ArrayList<>(byNode.values());
+    if (!unrouted.isEmpty()) {
+      groups.add(unrouted);
+    }
+    return groups;
+  }
+
+  /**
+   * Returns the identifier of the node which owns the active partition of the request, null if not known.
+   */
+  private static NodeIdentifier activeNode(final CouchbaseBucketConfig config, final KeyValueRequest<?> request) {
+    int partition = KeyValueLocator.partitionForKey(request.key(), config.numberOfPartitions());
+    short nodeIndex = config.nodeIndexForActive(partition, false);
+    if (nodeIndex < 0) {
+      return null;
+    }
+    try {
+      NodeInfo nodeInfo = config.nodeAtIndex(nodeIndex);
+      return nodeInfo == null ? null : nodeInfo.identifier();
+    } catch (IndexOutOfBoundsException ex) {
+      return null;
+    }
+  }
+
+  /**
+   * The result of a single request in the bulk operation.
+   *
+   * @param <R> the type of response.
+   */
+  public static class Item<R extends Response> {
+
+    private final KeyValueRequest<R> request;
+    private final R response;
+    private final Throwable error;
+
+    Item(final KeyValueRequest<R> request, final R response, final Throwable error) {
+      this.request = request;
+      this.response = response;
+      this.error = error;
+    }
+
+    /**
+     * Returns the request this result belongs to.
+     */
+    public KeyValueRequest<R> request() {
+      return request;
+    }
+
+    /**
+     * Returns the response if the request completed successfully.
+     */
+    public Optional<R> response() {
+      return Optional.ofNullable(response);
+    }
+
+    /**
+     * Returns the error if the request failed.
+     */
+    public Optional<Throwable> error() {
+      return Optional.ofNullable(error);
+    }
+
+    @Override
+    public String toString() {
+      return "Item{" +
+        "request=" + request +
+        ", response=" + response +
+        ", error=" + error +
+        '}';
+    }
+  }
+
+}
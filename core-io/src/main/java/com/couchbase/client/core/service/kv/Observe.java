@@ -16,7 +16,6 @@
 
 package com.couchbase.client.core.service.kv;
 
-import com.couchbase.client.core.Reactor;
 import com.couchbase.client.core.cnc.RequestSpan;
 import com.couchbase.client.core.cnc.TracingIdentifiers;
 import com.couchbase.client.core.config.BucketConfig;
@@ -77,42 +76,54 @@ public class Observe {
     MutationToken mutationToken = ctx.mutationToken().get();
     String id = ctx.key();
 
-    List<ObserveViaSeqnoRequest> requests = new ArrayList<>();
+    List<Integer> copies = new ArrayList<>();
     if (ctx.persistTo() != ObservePersistTo.NONE) {
-      final RequestSpan span = ctx.environment().requestTracer()
-        .requestSpan(TracingIdentifiers.SPAN_REQUEST_KV_OBSERVE, parent);
-      requests.add(new ObserveViaSeqnoRequest(timeout, ctx, ctx.collectionIdentifier(), retryStrategy, 0, true,
-        mutationToken.partitionUUID(), id, span));
+      copies.add(0);
     }
-
     if (ctx.persistTo().touchesReplica() || ctx.replicateTo().touchesReplica()) {
-      for (short i = 1; i <= bucketReplicas; i++) {
-        final RequestSpan span = ctx.environment().requestTracer()
-          .requestSpan(TracingIdentifiers.SPAN_REQUEST_KV_OBSERVE, parent);
-        requests.add(new ObserveViaSeqnoRequest(timeout, ctx, ctx.collectionIdentifier(), retryStrategy, i, false,
-          mutationToken.partitionUUID(), id, span));
+      for (int i = 1; i <= bucketReplicas; i++) {
+        copies.add(i);
       }
     }
 
-    return Flux.fromIterable(requests)
-      .flatMap(request -> {
-        ctx.core().send(request);
-        return Reactor
-          .wrap(request, request.response(), true)
-          .onErrorResume(t-> Mono.empty())
-          .doFinally(signalType -> request.context().logicallyComplete());
-      })
+    // Concurrent polls on the same partition share their probes, since the response covers the whole partition.
+    return Flux.fromIterable(copies)
+      .flatMap(replica -> ctx.core().observeProbes()
+        .probe(ctx.collectionIdentifier().bucket(), mutationToken.partitionID(), replica,
+          mutationToken.partitionUUID(), timeout, () -> {
+            final RequestSpan span = ctx.environment().requestTracer()
+              .requestSpan(TracingIdentifiers.SPAN_REQUEST_KV_OBSERVE, parent);
+            return new ObserveViaSeqnoRequest(timeout, ctx, ctx.collectionIdentifier(), retryStrategy, replica,
+              replica == 0, mutationToken.partitionUUID(), id, span);
+          })
+        .onErrorResume(t -> Mono.empty())
+      )
       .map(response -> ObserveItem.fromMutationToken(mutationToken, response));
   }
 
 
+  /**
+   * Repeats the observe polls until the requirements are met.
+   *
+   * <p>The first repeat is delayed based on how long mutations on the bucket took to become durable recently, so
+   * that polls are not wasted while persistence is known to take longer.</p>
+   */
   private static Mono<Void> maybeRetry(Flux<ObserveItem> observedItems, final ObserveContext ctx) {
-    return observedItems
-      .scan(ObserveItem.empty(), ObserveItem::add)
-      .repeatWhen(Repeat.times(Long.MAX_VALUE).exponentialBackoff(Duration.ofNanos(10000), Duration.ofMillis(100)))
-      .skipWhile(status -> !status.check(ctx.persistTo(), ctx.replicateTo()))
-      .take(1)
-      .then();
+    final String bucket = ctx.collectionIdentifier().bucket();
+    final ObserveProbes probes = ctx.core().observeProbes();
+    return Mono.defer(() -> {
+      final long start = System.nanoTime();
+      return observedItems
+        .scan(ObserveItem.empty(), ObserveItem::add)
+        .repeatWhen(Repeat.times(Long.MAX_VALUE).exponentialBackoff(
+          probes.firstPollDelay(bucket),
+          ObserveProbes.MAX_POLL_DELAY
+        ))
+        .skipWhile(status -> !status.check(ctx.persistTo(), ctx.replicateTo()))
+        .take(1)
+        .doOnNext(status -> probes.recordDurableLatency(bucket, System.nanoTime() - start))
+        .then();
+    });
   }
 
   private static int validateReplicas(final BucketConfig bucketConfig, final ObservePersistTo persistTo,
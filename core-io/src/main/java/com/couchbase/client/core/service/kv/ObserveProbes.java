@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.service.kv;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.Reactor;
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.msg.kv.ObserveViaSeqnoRequest;
+import com.couchbase.client.core.msg.kv.ObserveViaSeqnoResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Shares observe probes between concurrent observe polls and tracks how long it takes for mutations to become
+ * durable.
+ *
+ * <p>Since an observe via seqno request returns the persisted and current sequence numbers of a whole partition,
+ * every poll waiting on a mutation of the same partition (and copy) can use the same response. While a probe is
+ * in-flight, other polls for the same partition join it instead of sending their own request, so that many
+ * concurrent durable writes do not multiply the observe traffic.</p>
+ *
+ * <p>One instance is owned by each {@link Core}. The durable latencies of a bucket are dropped once it is not part
+ * of the cluster config anymore, and all state is cleared when the core shuts down.</p>
+ *
+ * @since 2.1.4
+ */
+@Stability.Internal
+public final class ObserveProbes {
+
+  /**
+   * The lower and upper bounds of the delay before the first repeated poll.
+   */
+  static final Duration MIN_POLL_DELAY = Duration.ofNanos(10000);
+  static final Duration MAX_POLL_DELAY = Duration.ofMillis(100);
+
+  private final Core core;
+
+  private final Map<ProbeKey, ObserveViaSeqnoRequest> inFlight = new ConcurrentHashMap<>();
+
+  /**
+   * Holds a moving average (in nanoseconds) of how long it took until the observe requirements were met, per
+   * bucket.
+   */
+  private final Map<String, AtomicLong> durableLatencies = new ConcurrentHashMap<>();
+
+  public ObserveProbes(final Core core) {
+    this.core = core;
+  }
+
+  /**
+   * Sends an observe probe for the given partition and copy, or joins the one already in-flight.
+   *
+   * <p>The shared request keeps the timeout, retry strategy and parent span of the poll which created it. If a
+   * joining poll has an earlier deadline than the shared request, its result is timed out at its own deadline
+   * instead, so that the strictest timeout always applies.</p>
+   *
+   * @param bucket the name of the bucket.
+   * @param partition the partition to observe.
+   * @param replica 0 for the active, 1 to n for the replicas.
+   * @param vbucketUUID the partition uuid from the mutation token.
+   * @param timeout the timeout of the poll.
+   * @param requestSupplier creates the request if no probe is in-flight yet.
+   * @return a mono with the response, which does not cancel the shared request if cancelled.
+   */
+  Mono<ObserveViaSeqnoResponse> probe(final String bucket, final short partition, final int replica,
+                                      final long vbucketUUID, final Duration timeout,
+                                      final Supplier<ObserveViaSeqnoRequest> requestSupplier) {
+    final ProbeKey key = new ProbeKey(bucket, partition, replica, vbucketUUID);
+    ObserveViaSeqnoRequest shared = inFlight.get(key);
+    if (shared != null) {
+      return join(shared, timeout);
+    }
+
+    final ObserveViaSeqnoRequest request = requestSupplier.get();
+    final CompletableFuture<ObserveViaSeqnoResponse> response = request.response();
+    shared = inFlight.putIfAbsent(key, request);
+    if (shared != null) {
+      // lost the race against another poll, the request is never sent so only complete its span
+      request.context().logicallyComplete();
+      return join(shared, timeout);
+    }
+
+    response.whenComplete((r, t) -> {
+      inFlight.remove(key, request);
+      request.context().logicallyComplete();
+    });
+    core.send(request);
+    return Reactor.wrap(request, response, false);
+  }
+
+  /**
+   * Joins the shared request, applying the given timeout if it expires before the one of the shared request.
+   */
+  private Mono<ObserveViaSeqnoResponse> join(final ObserveViaSeqnoRequest shared, final Duration timeout) {
+    Mono<ObserveViaSeqnoResponse> joined = Reactor.wrap(shared, shared.response(), false);
+    long sharedDeadline = shared.createdAt() + shared.timeout().toNanos();
+    if (System.nanoTime() + timeout.toNanos() - sharedDeadline < 0) {
+      joined = joined.timeout(timeout, core.context().environment().scheduler());
+    }
+    return joined;
+  }
+
+  /**
+   * Returns the delay before the first repeated poll, derived from how long mutations took to become durable.
+   *
+   * <p>Polling again right away is wasted if persistence takes milliseconds, so the first repeat waits for a
+   * quarter of the average and backs off from there.</p>
+   *
+   * @param bucket the name of the bucket.
+   * @return the delay before repeating the first poll.
+   */
+  Duration firstPollDelay(final String bucket) {
+    AtomicLong average = durableLatencies.get(bucket);
+    long delay = average == null ? 0 : average.get() >> 2;
+    return Duration.ofNanos(Math.max(MIN_POLL_DELAY.toNanos(), Math.min(MAX_POLL_DELAY.toNanos(), delay)));
+  }
+
+  /**
+   * Records how long it took until the observe requirements have been met for a mutation.
+   *
+   * @param bucket the name of the bucket.
+   * @param latencyNanos the time it took in nanoseconds.
+   */
+  void recordDurableLatency(final String bucket, final long latencyNanos) {
+    AtomicLong average = durableLatencies.computeIfAbsent(bucket, k -> new AtomicLong());
+    average.accumulateAndGet(latencyNanos, (avg, latency) -> avg == 0 ? latency : avg + ((latency - avg) >> 3));
+  }
+
+  /**
+   * Drops the durable latencies of all buckets which are not part of the given set anymore.
+   *
+   * @param buckets the names of the buckets which are still open.
+   */
+  public void retainBuckets(final Set<String> buckets) {
+    durableLatencies.keySet().retainAll(buckets);
+  }
+
+  /**
+   * Drops all durable latencies, usually called when the core shuts down.
+   */
+  public void clear() {
+    durableLatencies.clear();
+  }
+
+  /**
+   * Returns the number of probes currently in-flight, mainly for testing purposes.
+   */
+  int inFlight() {
+    return inFlight.size();
+  }
+
+  /**
+   * Returns the number of buckets with a recorded durable latency, mainly for testing purposes.
+   */
+  int trackedBuckets() {
+    return durableLatencies.size();
+  }
+
+  private static class ProbeKey {
+
+    private final String bucket;
+    private final short partition;
+    private final int replica;
+    private final long vbucketUUID;
+
+    ProbeKey(final String bucket, final short partition, final int replica, final long vbucketUUID) {
+      this.bucket = bucket;
+      this.partition = partition;
+      this.replica = replica;
+      this.vbucketUUID = vbucketUUID;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      ProbeKey that = (ProbeKey) o;
+      return partition == that.partition &&
+        replica == that.replica &&
+        vbucketUUID == that.vbucketUUID &&
+        Objects.equals(bucket, that.bucket);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(bucket, partition, replica, vbucketUUID);
+    }
+  }
+
+}
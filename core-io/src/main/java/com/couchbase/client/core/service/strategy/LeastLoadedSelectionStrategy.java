@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.service.strategy;
+
+import com.couchbase.client.core.endpoint.Endpoint;
+import com.couchbase.client.core.endpoint.EndpointState;
+import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.service.EndpointSelectionStrategy;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Selects the less loaded of two randomly picked KV endpoints for idempotent requests ("power of two choices").
+ *
+ * <p>The load of an endpoint is derived from its number of in-flight requests weighted by its recent average
+ * response latency, so a hot partition is spread across all the connections of a node instead of always landing
+ * on the same one. Requests which are not idempotent (like mutations) are still pinned to the endpoint of their
+ * partition through the {@link PartitionSelectionStrategy}, so that mutations on the same document which are
+ * in-flight at the same time keep their order.</p>
+ *
+ * @since 2.1.4
+ */
+public class LeastLoadedSelectionStrategy implements EndpointSelectionStrategy {
+
+  private final PartitionSelectionStrategy partitionStrategy = new PartitionSelectionStrategy();
+
+  @Override
+  public <R extends Request<? extends Response>> Endpoint select(final R request, final List<Endpoint> endpoints) {
+    int size = endpoints.size();
+    if (size <= 1 || !request.idempotent()) {
+      return partitionStrategy.select(request, endpoints);
+    }
+
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int first = random.nextInt(size);
+    int second = random.nextInt(size - 1);
+    if (second >= first) {
+      second++;
+    }
+
+    Endpoint a = endpoints.get(first);
+    Endpoint b = endpoints.get(second);
+    boolean aUsable = usable(a);
+    boolean bUsable = usable(b);
+    if (aUsable && bUsable) {
+      return load(a) <= load(b) ? a : b;
+    } else if (aUsable) {
+      return a;
+    } else if (bUsable) {
+      return b;
+    }
+
+    // neither of the picked endpoints can take the request, so use the next one which can
+    for (int i = 1; i < size; i++) {
+      Endpoint endpoint = endpoints.get((first + i) % size);
+      if (usable(endpoint)) {
+        return endpoint;
+      }
+    }
+    return null;
+  }
+
+  private static boolean usable(final Endpoint endpoint) {
+    return endpoint != null && endpoint.state() == EndpointState.CONNECTED && endpoint.freeToWrite();
+  }
+
+  /**
+   * Calculates the load of an endpoint as its in-flight requests (plus the one to be sent) times the average
+   * latency, so that a slow connection with few requests is not preferred over a fast one with slightly more.
+   */
+  private static long load(final Endpoint endpoint) {
+    return (endpoint.outstandingRequests() + 1) * Math.max(1, endpoint.averageResponseLatency());
+  }
+
+}
@@ -16,6 +16,8 @@
 
 package com.couchbase.client.core.util;
 
+import java.nio.ByteBuffer;
+
 /**
  * Defines useful constants and methods with regards to bytes.
  */
@@ -26,4 +28,19 @@ public class Bytes {
    */
   public static final byte[] EMPTY_BYTE_ARRAY = new byte[] {};
 
+  /**
+   * Copies the remaining bytes of the buffer into a new array, without modifying the buffer position.
+   *
+   * @param buffer the buffer to copy.
+   * @return the copied bytes.
+   */
+  public static byte[] toByteArray(final ByteBuffer buffer) {
+    if (!buffer.hasRemaining()) {
+      return EMPTY_BYTE_ARRAY;
+    }
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return bytes;
+  }
+
 }
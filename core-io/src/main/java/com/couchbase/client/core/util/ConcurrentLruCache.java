@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.util;
+
+import com.couchbase.client.core.annotation.Stability;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * A concurrent cache which evicts the approximately least recently used entries after the max size is reached.
+ * <p>
+ * Unlike a synchronized {@link LRUCache}, lookups do not take a lock: every entry only remembers when it has been
+ * accessed last. Once the cache grows beyond its maximum capacity, a single writer evicts the least recently used
+ * entries in a batch, so the cost of sorting is amortized over many insertions.
+ *
+ * @since 2.1.4
+ */
+@Stability.Internal
+public class ConcurrentLruCache<K, V> {
+
+  private final ConcurrentHashMap<K, Node<V>> entries;
+  private final int maxCapacity;
+
+  /**
+   * The size the cache is reduced to once it overflows, slightly lower than the max capacity to amortize eviction.
+   */
+  private final int evictionTarget;
+
+  private final ReentrantLock evictionLock = new ReentrantLock();
+  private final Consumer<K> evictionListener;
+
+  /**
+   * Creates a new cache.
+   *
+   * @param maxCapacity the maximum number of entries to keep.
+   * @param evictionListener called with the key of every entry evicted because of the max capacity.
+   */
+  public ConcurrentLruCache(final int maxCapacity, final Consumer<K> evictionListener) {
+    if (maxCapacity < 1) {
+      throw new IllegalArgumentException("The max capacity must be at least 1, but is " + maxCapacity);
+    }
+    this.entries = new ConcurrentHashMap<>(Math.min(maxCapacity, 1024));
+    this.maxCapacity = maxCapacity;
+    this.evictionTarget = maxCapacity - Math.max(1, maxCapacity / 16) + 1;
+    this.evictionListener = evictionListener;
+  }
+
+  /**
+   * Returns the value for the given key, or null if not present.
+   */
+  public V get(final K key) {
+    Node<V> node = entries.get(key);
+    if (node == null) {
+      return null;
+    }
+    node.lastAccess = System.nanoTime();
+    return node.value;
+  }
+
+  /**
+   * Stores the value for the given key, evicting other entries if the cache grows beyond its capacity.
+   */
+  public void put(final K key, final V value) {
+    entries.put(key, new Node<>(value));
+    if (entries.size() > maxCapacity) {
+      evict();
+    }
+  }
+
+  /**
+   * Removes the entry for the given key if present.
+   */
+  public void remove(final K key) {
+    entries.remove(key);
+  }
+
+  /**
+   * Removes all entries (without notifying the eviction listener).
+   */
+  public void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Returns the number of entries currently in the cache.
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Evicts the least recently used entries until the size is back at the eviction target.
+   * <p>
+   * If another thread is already evicting, this one does not wait for it.
+   */
+  private void evict() {
+    if (!evictionLock.tryLock()) {
+      return;
+    }
+    try {
+      int toEvict = entries.size() - evictionTarget;
+      if (toEvict <= 0) {
+        return;
+      }
+
+      // The access times are captured first, since they keep changing while sorting.
+      List<Candidate<K, V>> candidates = new ArrayList<>(entries.size());
+      for (Map.Entry<K, Node<V>> entry : entries.entrySet()) {
+        candidates.add(new Candidate<>(entry.getKey(), entry.getValue()));
+      }
+      candidates.sort(Comparator.comparingLong(c -> c.lastAccess));
+      for (int i = 0; i < toEvict && i < candidates.size(); i++) {
+        Candidate<K, V> candidate = candidates.get(i);
+        if (entries.remove(candidate.key, candidate.node)) {
+          evictionListener.accept(candidate.key);
+        }
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private static class Node<V> {
+    final V value;
+
+    /**
+     * Deliberately not volatile: a stale access time only makes the eviction order slightly less accurate, but
+     * avoids a memory barrier on every lookup.
+     */
+    long lastAccess;
+
+    Node(final V value) {
+      this.value = value;
+      this.lastAccess = System.nanoTime();
+    }
+  }
+
+  private static class Candidate<K, V> {
+    final K key;
+    final Node<V> node;
+    final long lastAccess;
+
+    Candidate(final K key, final Node<V> node) {
+      this.key = key;
+      this.node = node;
+      this.lastAccess = node.lastAccess;
+    }
+  }
+
+}
@@ -20,6 +20,9 @@ import org.junit.jupiter.api.Test;
 import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -29,6 +32,7 @@ import static com.couchbase.client.util.Assertions.assertThreadNotRunning;
 import static com.couchbase.client.util.Assertions.assertThreadRunning;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 
@@ -106,4 +110,106 @@ class DefaultEventBusTest {
     assertEquals(eventsReceived.get(), eventsSent);
   }
 
+  /**
+   * With the park strategy the consumer must be signalled by the publisher, so even a very long idle
+   * duration must not delay the event delivery.
+   */
+  @Test
+  void parkedConsumerIsWokenUpByPublisher() {
+    assertWokenUpByPublisher(DefaultEventBus.WaitStrategy.PARK);
+  }
+
+  @Test
+  void spinningConsumerIsWokenUpByPublisher() {
+    assertWokenUpByPublisher(DefaultEventBus.WaitStrategy.SPIN_YIELD_PARK);
+  }
+
+  private static void assertWokenUpByPublisher(final DefaultEventBus.WaitStrategy waitStrategy) {
+    DefaultEventBus eventBus = DefaultEventBus
+      .builder(Schedulers.parallel())
+      .waitStrategy(waitStrategy)
+      .idleSleepDuration(Duration.ofHours(1))
+      .build();
+
+    AtomicInteger eventsReceived = new AtomicInteger();
+    eventBus.subscribe(event -> eventsReceived.incrementAndGet());
+    eventBus.start().block();
+
+    for (int i = 1; i <= 3; i++) {
+      // give the consumer thread a chance to go idle before publishing
+      waitUntilCondition(() -> eventBus.queueSize() == 0);
+      assertEquals(EventBus.PublishResult.SUCCESS, eventBus.publish(mock(Event.class)));
+      final int expected = i;
+      waitUntilCondition(() -> eventsReceived.get() == expected, Duration.ofSeconds(5));
+    }
+
+    eventBus.stop(Duration.ofSeconds(5)).block();
+  }
+
+  @Test
+  void dispatchesBatchesToBatchConsumers() {
+    DefaultEventBus eventBus = DefaultEventBus
+      .builder(Schedulers.parallel())
+      .maxBatchSize(10)
+      .build();
+
+    List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    AtomicInteger eventsReceived = new AtomicInteger();
+    eventBus.subscribe((BatchEventConsumer) events -> {
+      batchSizes.add(events.size());
+      eventsReceived.addAndGet(events.size());
+    });
+
+    eventBus.start().block();
+
+    int eventsSent = 1000;
+    for (int i = 0; i < eventsSent; i++) {
+      eventBus.publish(mock(Event.class));
+    }
+    eventBus.stop(Duration.ofSeconds(5)).block();
+
+    assertEquals(eventsSent, eventsReceived.get());
+    for (int size : batchSizes) {
+      assertTrue(size >= 1 && size <= 10);
+    }
+  }
+
+  @Test
+  void recordsPerSubscriberMetrics() {
+    DefaultEventBus eventBus = DefaultEventBus.create(Schedulers.parallel());
+
+    EventSubscription fast = eventBus.subscribe(event -> { });
+    EventSubscription slow = eventBus.subscribe(event -> {
+      try {
+        Thread.sleep(5);
+      } catch (InterruptedException e) {
+        // ignored
+      }
+    });
+
+    eventBus.start().block();
+    for (int i = 0; i < 3; i++) {
+      eventBus.publish(mock(Event.class));
+    }
+
+    DefaultEventBus.SubscriberMetrics fastMetrics = eventBus.subscriberMetrics(fast).get();
+    DefaultEventBus.SubscriberMetrics slowMetrics = eventBus.subscriberMetrics(slow).get();
+    // stopping interrupts the event bus thread, so wait until the sleeping subscriber is done
+    waitUntilCondition(() -> slowMetrics.dispatchedEvents() == 3 && fastMetrics.dispatchedEvents() == 3);
+    eventBus.stop(Duration.ofSeconds(5)).block();
+
+    assertEquals(3, fastMetrics.dispatchedEvents());
+    assertEquals(3, slowMetrics.dispatchedEvents());
+    assertTrue(slowMetrics.totalDispatchTime().compareTo(Duration.ofMillis(15)) >= 0);
+    assertTrue(slowMetrics.maxDispatchTime().compareTo(fastMetrics.maxDispatchTime()) > 0);
+
+    slow.unsubscribe();
+    assertFalse(eventBus.subscriberMetrics(slow).isPresent());
+  }
+
+  @Test
+  void rejectsInvalidBatchSize() {
+    assertThrows(IllegalArgumentException.class, () -> DefaultEventBus.builder(Schedulers.parallel()).maxBatchSize(0));
+  }
+
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.cnc.metrics;
+
+import com.couchbase.client.core.service.ServiceType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies the functionality of the {@link LatencyHistograms}.
+ */
+class LatencyHistogramsTest {
+
+  @Test
+  void registersNodesOnce() {
+    LatencyHistograms histograms = new LatencyHistograms();
+    assertSame(histograms.node(ServiceType.KV, "a"), histograms.node(ServiceType.KV, "a"));
+    assertTrue(histograms.node(ServiceType.KV, "a") != histograms.node(ServiceType.KV, "b"));
+    assertTrue(histograms.node(ServiceType.KV, "a") != histograms.node(ServiceType.QUERY, "a"));
+  }
+
+  @Test
+  void removesNodeOnceAllRegistrationsAreRemoved() {
+    LatencyHistograms histograms = new LatencyHistograms();
+    LatencyHistograms.NodeLatencies first = histograms.node(ServiceType.KV, "a");
+    LatencyHistograms.NodeLatencies second = histograms.node(ServiceType.KV, "a");
+    first.record(0x00, "get", TimeUnit.MICROSECONDS.toNanos(10), 0);
+
+    histograms.remove(ServiceType.KV, "a");
+    assertEquals(1, histograms.snapshot().size());
+    second.record(0x00, "get", TimeUnit.MICROSECONDS.toNanos(10), 0);
+
+    histograms.remove(ServiceType.KV, "a");
+    assertTrue(histograms.snapshot().isEmpty());
+    assertTrue(first != histograms.node(ServiceType.KV, "a"));
+
+    // removing an unknown node does nothing
+    histograms.remove(ServiceType.QUERY, "a");
+  }
+
+  @Test
+  void snapshotsPerNodeAndOperation() {
+    LatencyHistograms histograms = new LatencyHistograms();
+    LatencyHistograms.NodeLatencies fast = histograms.node(ServiceType.KV, "fast");
+    LatencyHistograms.NodeLatencies slow = histograms.node(ServiceType.KV, "slow");
+
+    for (int i = 1; i <= 100; i++) {
+      fast.record(0x00, "get", TimeUnit.MICROSECONDS.toNanos(i), i);
+      slow.record(0x00, "get", TimeUnit.MILLISECONDS.toNanos(i), 0);
+      slow.recordEncode(0x00, "get", TimeUnit.MICROSECONDS.toNanos(5));
+    }
+    fast.record(0x01, "upsert", TimeUnit.MICROSECONDS.toNanos(50), 0);
+
+    List<LatencySnapshot> snapshots = histograms.snapshot();
+    assertEquals(3, snapshots.size());
+
+    LatencySnapshot fastGet = find(snapshots, "fast", 0x00);
+    assertEquals("get", fastGet.operationName());
+    assertEquals(ServiceType.KV, fastGet.serviceType());
+    assertEquals(100, fastGet.dispatch().count());
+    assertEquals(100, fastGet.server().count());
+    assertEquals(0, fastGet.encode().count());
+    assertWithinPercent(Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(99)), fastGet.dispatch().p99());
+
+    LatencySnapshot slowGet = find(snapshots, "slow", 0x00);
+    assertEquals(100, slowGet.dispatch().count());
+    assertEquals(0, slowGet.server().count());
+    assertEquals(100, slowGet.encode().count());
+    assertWithinPercent(Duration.ofMillis(99), slowGet.dispatch().p99());
+    assertWithinPercent(Duration.ofMillis(100), slowGet.dispatch().max());
+
+    assertEquals("upsert", find(snapshots, "fast", 0x01).operationName());
+
+    // the interval is reset after every snapshot
+    assertTrue(histograms.snapshot().isEmpty());
+    fast.record(0x00, "get", TimeUnit.MICROSECONDS.toNanos(10), 0);
+    assertEquals(1, histograms.snapshot().size());
+  }
+
+  @Test
+  void recordsFromMultipleThreads() throws Exception {
+    LatencyHistograms histograms = new LatencyHistograms();
+    LatencyHistograms.NodeLatencies node = histograms.node(ServiceType.KV, "node");
+
+    int threads = 4;
+    int perThread = 10_000;
+    CountDownLatch latch = new CountDownLatch(threads);
+    for (int t = 0; t < threads; t++) {
+      new Thread(() -> {
+        for (int i = 0; i < perThread; i++) {
+          node.record(0x00, "get", TimeUnit.MICROSECONDS.toNanos(100), 10);
+        }
+        latch.countDown();
+      }).start();
+    }
+    assertTrue(latch.await(30, TimeUnit.SECONDS));
+
+    List<LatencySnapshot> snapshots = histograms.snapshot();
+    assertEquals(1, snapshots.size());
+    assertEquals(threads * perThread, snapshots.get(0).dispatch().count());
+    assertEquals(threads * perThread, snapshots.get(0).server().count());
+  }
+
+  @Test
+  void rejectsInvalidStripes() {
+    assertThrows(IllegalArgumentException.class, () -> new StripedLatencyRecorder(3));
+  }
+
+  private static LatencySnapshot find(final List<LatencySnapshot> snapshots, final String node, final int opcode) {
+    return snapshots
+      .stream()
+      .filter(s -> s.node().equals(node) && s.opcode() == opcode)
+      .findFirst()
+      .orElseThrow(() -> new AssertionError("No snapshot for " + node + " and opcode " + opcode));
+  }
+
+  private static void assertWithinPercent(final Duration expected, final Duration actual) {
+    long diff = Math.abs(expected.toNanos() - actual.toNanos());
+    assertTrue(diff <= expected.toNanos() / 100, "Expected " + expected + " but got " + actual);
+  }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.cnc.tracing;
+
+import com.couchbase.client.core.cnc.SimpleEventBus;
+import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.RequestContext;
+import com.couchbase.client.core.service.ServiceType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link ThresholdSampleHeap}.
+ */
+class ThresholdSampleHeapTest {
+
+  @Test
+  void keepsSlowestSamples() {
+    ThresholdSampleHeap heap = new ThresholdSampleHeap(10);
+    Random random = new Random(0);
+    List<Long> latencies = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      long latency = random.nextInt(1_000_000);
+      latencies.add(latency);
+      heap.record(sample(latency));
+    }
+
+    latencies.sort(Collections.reverseOrder());
+    ThresholdSample[] slowest = heap.slowestFirst();
+    assertEquals(10, slowest.length);
+    assertEquals(1000, heap.totalCount());
+    for (int i = 0; i < slowest.length; i++) {
+      assertEquals((long) latencies.get(i), slowest[i].totalNanos());
+    }
+
+    heap.clear();
+    assertTrue(heap.isEmpty());
+    assertEquals(0, heap.totalCount());
+    assertEquals(0, heap.slowestFirst().length);
+  }
+
+  @Test
+  void returnsAllSamplesIfNotFull() {
+    ThresholdSampleHeap heap = new ThresholdSampleHeap(10);
+    heap.record(sample(5));
+    heap.record(sample(20));
+    heap.record(sample(10));
+
+    ThresholdSample[] slowest = heap.slowestFirst();
+    assertEquals(3, slowest.length);
+    assertEquals(20, slowest[0].totalNanos());
+    assertEquals(10, slowest[1].totalNanos());
+    assertEquals(5, slowest[2].totalNanos());
+  }
+
+  @Test
+  void capturesRequestDetails() {
+    ThresholdSample sample = sample(1234);
+    assertEquals(ServiceType.KV, sample.serviceType());
+    assertEquals("get", sample.operationName());
+    assertEquals("0x1", sample.operationId());
+    assertEquals("chan", sample.lastChannelId());
+    assertEquals(1234, sample.totalNanos());
+  }
+
+  @Test
+  void keepsNoSamplesWithZeroCapacity() {
+    ThresholdSampleHeap heap = new ThresholdSampleHeap(0);
+    heap.record(sample(5));
+    heap.record(sample(20));
+
+    assertTrue(heap.isEmpty());
+    assertEquals(0, heap.slowestFirst().length);
+    assertEquals(2, heap.totalCount());
+  }
+
+  @Test
+  void allowsTracerWithZeroSampleSize() {
+    ThresholdRequestTracer tracer = ThresholdRequestTracer.builder(new SimpleEventBus(true)).sampleSize(0).build();
+    tracer.stop(Duration.ofSeconds(1)).block();
+  }
+
+  private static ThresholdSample sample(final long latency) {
+    Request<?> request = mock(Request.class);
+    RequestContext context = mock(RequestContext.class);
+    when(request.context()).thenReturn(context);
+    when(request.serviceType()).thenReturn(ServiceType.KV);
+    when(request.name()).thenReturn("get");
+    when(request.operationId()).thenReturn("0x1");
+    when(context.lastChannelId()).thenReturn("chan");
+    return ThresholdSample.capture(request, latency);
+  }
+
+}
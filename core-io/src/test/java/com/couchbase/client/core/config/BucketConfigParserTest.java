@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Verifies the functionality of the {@link BucketConfigParser}.
+ */
+class BucketConfigParserTest {
+
+  @Test
+  void scansRevisionAtStart() {
+    assertEquals(1073, BucketConfigParser.parseRevision("{\"rev\":1073,\"name\":\"default\"}"));
+  }
+
+  @Test
+  void scansRevisionAfterLargePartitionMap() {
+    assertEquals(42, BucketConfigParser.parseRevision(largeConfig(1024, 3, 42)));
+  }
+
+  @Test
+  void returnsNegativeIfRevisionNotFound() {
+    assertEquals(-1, BucketConfigParser.parseRevision("{\"name\":\"default\",\"nested\":{\"rev\":5}}"));
+    assertEquals(-1, BucketConfigParser.parseRevision("{\"rev\":\"5\"}"));
+    assertEquals(-1, BucketConfigParser.parseRevision("[]"));
+    assertEquals(-1, BucketConfigParser.parseRevision("{\"name\":"));
+    assertEquals(-1, BucketConfigParser.parseRevision(""));
+  }
+
+  /**
+   * Builds a config with a large vbucket map in front of the revision, so the scanner has to skip over it.
+   */
+  private static String largeConfig(final int numPartitions, final int numReplicas, final long rev) {
+    StringBuilder sb = new StringBuilder("{\"name\":\"default\",\"vBucketServerMap\":{\"numReplicas\":")
+      .append(numReplicas)
+      .append(",\"vBucketMap\":[");
+    for (int partition = 0; partition < numPartitions; partition++) {
+      if (partition > 0) {
+        sb.append(',');
+      }
+      sb.append('[');
+      for (int i = 0; i <= numReplicas; i++) {
+        if (i > 0) {
+          sb.append(',');
+        }
+        sb.append((partition + i) % (numReplicas + 1));
+      }
+      sb.append(']');
+    }
+    return sb.append("]},\"rev\":").append(rev).append('}').toString();
+  }
+
+}
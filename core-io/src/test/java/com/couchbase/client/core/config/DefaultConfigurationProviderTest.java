@@ -22,6 +22,7 @@ import com.couchbase.client.core.cnc.Event;
 import com.couchbase.client.core.cnc.SimpleEventBus;
 import com.couchbase.client.core.cnc.events.config.CollectionMapRefreshFailedEvent;
 import com.couchbase.client.core.cnc.events.config.CollectionMapRefreshIgnoredEvent;
+import com.couchbase.client.core.cnc.events.config.ConfigIgnoredEvent;
 import com.couchbase.client.core.env.Authenticator;
 import com.couchbase.client.core.env.CoreEnvironment;
 import com.couchbase.client.core.env.IoConfig;
@@ -167,6 +168,30 @@ class DefaultConfigurationProviderTest {
     assertEquals(1073, provider.config().bucketConfig("default").rev());
   }
 
+  @Test
+  void ignoresStaleConfigWithoutFullParse() {
+    Core core = mock(Core.class);
+    when(core.context()).thenReturn(new CoreContext(core, 1, ENVIRONMENT, mock(Authenticator.class)));
+
+    DefaultConfigurationProvider provider = new DefaultConfigurationProvider(core, SeedNode.LOCALHOST);
+
+    String bucket = "default";
+    String config = readResource(
+      "config_with_external.json",
+      DefaultConfigurationProviderTest.class
+    );
+    provider.proposeBucketConfig(new ProposedBucketConfigContext(bucket, config, ORIGIN));
+    EVENT_BUS.clear();
+
+    // only the revision is looked at, so the rest of the (broken) body is never parsed
+    provider.proposeBucketConfig(new ProposedBucketConfigContext(bucket, "{\"rev\":1000,\"name\":", ORIGIN));
+
+    assertEquals(1, EVENT_BUS.publishedEvents().size());
+    ConfigIgnoredEvent event = (ConfigIgnoredEvent) EVENT_BUS.publishedEvents().get(0);
+    assertEquals(ConfigIgnoredEvent.Reason.OLD_OR_SAME_REVISION, event.reason());
+    assertEquals(1073, provider.config().bucketConfig("default").rev());
+  }
+
   @Test
   void canUpdateConfigWithNewRev() {
     Core core = mock(Core.class);
@@ -23,13 +23,16 @@ import com.couchbase.client.core.service.ServiceType;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
 
+import java.security.MessageDigest;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
 
 import static com.couchbase.client.test.Util.readResource;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -135,6 +138,30 @@ class MemcachedBucketConfigTest {
         }
     }
 
+    /**
+     * Makes sure that the flattened ring picks exactly the same node as walking the sorted ketama map would,
+     * including exact hash matches and the wrap-around at the end of the ring.
+     */
+    @Test
+    void shouldPlaceKeysLikeSortedRing() throws Exception {
+        MemcachedBucketConfig config = readConfig("memcached_during_rebalance.json");
+        SortedMap<Long, NodeInfo> ring = config.ketamaNodes();
+
+        for (int i = 0; i < 10000; i++) {
+            byte[] key = ("key-" + i).getBytes(UTF_8);
+            MessageDigest md5 = MessageDigest.getInstance("MD5");
+            byte[] digest = md5.digest(key);
+            long hash = (((long) (digest[3] & 0xFF) << 24)
+                | ((long) (digest[2] & 0xFF) << 16)
+                | ((long) (digest[1] & 0xFF) << 8)
+                | (digest[0] & 0xFF)) & 0xffffffffL;
+
+            SortedMap<Long, NodeInfo> tailMap = ring.tailMap(hash);
+            NodeInfo expected = tailMap.isEmpty() ? ring.get(ring.firstKey()) : tailMap.get(tailMap.firstKey());
+            assertEquals(expected.identifier(), config.nodeForId(key));
+        }
+    }
+
     /**
      * Helper method to load the config.
      */
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty;
+
+import com.couchbase.client.core.cnc.ValueRecorder;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelHandlerContext;
+import com.couchbase.client.core.deps.io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Verifies the functionality of the {@link AdaptiveFlushConsolidationHandler}.
+ */
+class AdaptiveFlushConsolidationHandlerTest {
+
+  private final List<Long> batchSizes = new ArrayList<>();
+  private final List<Long> flushesPerWrite = new ArrayList<>();
+  private final AtomicInteger outstanding = new AtomicInteger();
+  private final AtomicInteger queuedTasks = new AtomicInteger();
+  private final Queue<Runnable> scheduledFlushes = new ArrayDeque<>();
+
+  private EmbeddedChannel channel(final int maxBatchSize) {
+    ValueRecorder batchSizeRecorder = batchSizes::add;
+    ValueRecorder flushesPerWriteRecorder = flushesPerWrite::add;
+    return new EmbeddedChannel(new AdaptiveFlushConsolidationHandler(maxBatchSize, outstanding::get,
+      batchSizeRecorder, flushesPerWriteRecorder) {
+      @Override
+      int queuedTasks(final ChannelHandlerContext ctx) {
+        return queuedTasks.get();
+      }
+
+      @Override
+      void scheduleFlush(final ChannelHandlerContext ctx, final Runnable flushTask) {
+        scheduledFlushes.add(flushTask);
+      }
+    });
+  }
+
+  /**
+   * Simulates a pipelined write, where the request is counted as outstanding once it got written.
+   */
+  private void writeAndFlush(final EmbeddedChannel channel, final Object msg) {
+    outstanding.incrementAndGet();
+    channel.writeAndFlush(msg);
+  }
+
+  private void runScheduledFlushes() {
+    Runnable task;
+    while ((task = scheduledFlushes.poll()) != null) {
+      task.run();
+    }
+  }
+
+  @Test
+  void flushesRightAwayWhenEventLoopIsIdle() {
+    EmbeddedChannel channel = channel(256);
+    outstanding.set(100);
+
+    writeAndFlush(channel, "a");
+    assertEquals("a", channel.readOutbound());
+    writeAndFlush(channel, "b");
+    assertEquals("b", channel.readOutbound());
+
+    assertEquals(2, batchSizes.size());
+    assertEquals(1L, batchSizes.get(0));
+    assertEquals(100L, flushesPerWrite.get(0));
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void batchesUpToOutstandingDepthWhenEventLoopIsBusy() {
+    EmbeddedChannel channel = channel(256);
+    queuedTasks.set(10);
+    outstanding.set(2);
+
+    writeAndFlush(channel, "a");
+    assertNull(channel.readOutbound());
+    writeAndFlush(channel, "b");
+    assertEquals(1, scheduledFlushes.size());
+
+    assertEquals("a", channel.readOutbound());
+    assertEquals("b", channel.readOutbound());
+    assertEquals(1, batchSizes.size());
+    assertEquals(2L, batchSizes.get(0));
+    assertEquals(50L, flushesPerWrite.get(0));
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void flushesWithoutOutstandingRequestsEvenIfEventLoopIsBusy() {
+    EmbeddedChannel channel = channel(256);
+    queuedTasks.set(10);
+
+    writeAndFlush(channel, "a");
+    assertEquals("a", channel.readOutbound());
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void honorsMaxBatchSize() {
+    EmbeddedChannel channel = channel(3);
+    queuedTasks.set(10);
+    outstanding.set(100);
+
+    for (int i = 0; i < 7; i++) {
+      writeAndFlush(channel, i);
+    }
+    assertEquals(2, batchSizes.size());
+    assertEquals(3L, batchSizes.get(0));
+    assertEquals(3L, batchSizes.get(1));
+
+    runScheduledFlushes();
+    assertEquals(3, batchSizes.size());
+    assertEquals(1L, batchSizes.get(2));
+    for (int i = 0; i < 7; i++) {
+      assertEquals(i, (int) channel.readOutbound());
+    }
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void flushesAfterReadCompletes() {
+    EmbeddedChannel channel = channel(256);
+    channel.pipeline().fireChannelRead("response");
+
+    writeAndFlush(channel, "a");
+    assertNull(channel.readOutbound());
+
+    channel.pipeline().fireChannelReadComplete();
+    assertEquals("a", channel.readOutbound());
+    channel.finishAndReleaseAll();
+  }
+
+}
@@ -31,6 +31,7 @@ import com.couchbase.client.core.service.ServiceType;
 import com.couchbase.client.core.util.HostAndPort;
 import com.couchbase.client.core.cnc.SimpleEventBus;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
 import com.couchbase.client.core.deps.io.netty.channel.ChannelDuplexHandler;
 import com.couchbase.client.core.deps.io.netty.channel.ChannelFuture;
 import com.couchbase.client.core.deps.io.netty.channel.ChannelHandlerContext;
@@ -43,6 +44,7 @@ import org.junit.jupiter.api.Test;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.time.Duration;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -54,7 +56,10 @@ import static com.couchbase.client.test.Util.waitUntilCondition;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -205,6 +210,49 @@ class ErrorMapLoadingHandlerTest extends AbstractKeyValueEmbeddedChannelTest {
     assertEquals(errorMap, maybeMap.get());
   }
 
+  /**
+   * Every channel loads the same error map, so the parsed map must be shared instead of parsed again.
+   */
+  @Test
+  void reusesParsedErrorMapWithSameVersionAndRevision() throws Exception {
+    ErrorMapLoadingHandler handler = new ErrorMapLoadingHandler(endpointContext);
+    channel.pipeline().addLast(handler);
+    channel.connect(new InetSocketAddress("1.2.3.4", 1234));
+    channel.pipeline().fireChannelActive();
+    channel.runPendingTasks();
+    ReferenceCountUtil.release(channel.readOutbound());
+
+    channel.writeInbound(decodeHexDump(readResource(
+      "success_errormap_response.txt",
+      ErrorMapLoadingHandlerTest.class
+    )));
+    channel.runPendingTasks();
+    ErrorMap loaded = channel.attr(ChannelAttributes.ERROR_MAP_KEY).get();
+    assertNotNull(loaded);
+
+    ByteBuf response = decodeHexDump(readResource(
+      "success_errormap_response.txt",
+      ErrorMapLoadingHandlerTest.class
+    ));
+    try {
+      byte[] json = ByteBufUtil.getBytes(MemcacheProtocol.body(response).get());
+      assertSame(loaded, ErrorMap.fromJsonCached(json));
+      assertNotSame(loaded, ErrorMap.fromJson(json));
+    } finally {
+      ReferenceCountUtil.release(response);
+    }
+
+    for (Map.Entry<Short, ErrorMap.ErrorCode> entry : loaded.errors().entrySet()) {
+      assertSame(entry.getValue(), loaded.errorCode(entry.getKey()));
+    }
+    assertNull(loaded.errorCode((short) 0xFFFF));
+
+    // the cached map is shared, so nobody must be able to modify it
+    assertThrows(UnsupportedOperationException.class, () -> loaded.errors().clear());
+    ErrorMap.ErrorCode anyCode = loaded.errors().values().iterator().next();
+    assertThrows(UnsupportedOperationException.class, () -> anyCode.attributes().clear());
+  }
+
   /**
    * Make sure that when the server returns a non-successful response we still handle
    * it and not crash.
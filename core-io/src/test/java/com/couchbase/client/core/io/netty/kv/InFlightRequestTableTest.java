@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty.kv;
+
+import com.couchbase.client.core.cnc.RequestSpan;
+import com.couchbase.client.core.msg.CancellationReason;
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.kv.KeyValueRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link InFlightRequestTable}.
+ */
+class InFlightRequestTableTest {
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void storesAndRemovesEntries() {
+    InFlightRequestTable table = new InFlightRequestTable();
+    KeyValueRequest<Response> request = mock(KeyValueRequest.class);
+    RequestSpan span = mock(RequestSpan.class);
+
+    table.put(42, request, span, 1234L);
+    assertEquals(1, table.size());
+
+    int slot = table.slot(42);
+    assertTrue(slot >= 0);
+    assertSame(request, table.request(slot));
+    assertSame(span, table.dispatchSpan(slot));
+    assertEquals(1234L, table.dispatchStart(slot));
+
+    table.removeAt(slot);
+    assertEquals(0, table.size());
+    assertEquals(-1, table.slot(42));
+    assertNull(table.remove(42));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void growsWhenFull() {
+    InFlightRequestTable table = new InFlightRequestTable(4);
+    assertEquals(4, table.capacity());
+
+    List<KeyValueRequest<Response>> requests = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      KeyValueRequest<Response> request = mock(KeyValueRequest.class);
+      requests.add(request);
+      table.put(i, request, null, i);
+    }
+
+    assertEquals(100, table.size());
+    assertTrue(table.capacity() >= 200);
+    assertEquals(100, table.requests().size());
+    for (int i = 0; i < 100; i++) {
+      int slot = table.slot(i);
+      assertSame(requests.get(i), table.request(slot));
+      assertEquals(i, table.dispatchStart(slot));
+    }
+  }
+
+  /**
+   * Runs random put/remove sequences with strided opaques (like many channels sharing the global opaque
+   * counter would produce) and verifies that the table always agrees with a regular map.
+   */
+  @Test
+  @SuppressWarnings("unchecked")
+  void matchesMapUnderRandomOperations() {
+    Random random = new Random(0);
+    InFlightRequestTable table = new InFlightRequestTable(8);
+    Map<Integer, KeyValueRequest<Response>> expected = new HashMap<>();
+
+    int nextOpaque = 0;
+    for (int i = 0; i < 20_000; i++) {
+      if (expected.isEmpty() || random.nextInt(3) != 0) {
+        nextOpaque += 1 + random.nextInt(16);
+        KeyValueRequest<Response> request = mock(KeyValueRequest.class);
+        table.put(nextOpaque, request, null, nextOpaque);
+        expected.put(nextOpaque, request);
+      } else {
+        int opaque = nextOpaque - random.nextInt(64);
+        assertSame(expected.remove(opaque), table.remove(opaque));
+      }
+      assertEquals(expected.size(), table.size());
+    }
+
+    for (Map.Entry<Integer, KeyValueRequest<Response>> entry : expected.entrySet()) {
+      int slot = table.slot(entry.getKey());
+      assertSame(entry.getValue(), table.request(slot));
+      assertEquals((long) entry.getKey(), table.dispatchStart(slot));
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void cancelsExpiredRequests() {
+    InFlightRequestTable table = new InFlightRequestTable();
+    KeyValueRequest<Response> expired = mock(KeyValueRequest.class);
+    KeyValueRequest<Response> pending = mock(KeyValueRequest.class);
+    when(expired.absoluteTimeout()).thenReturn(100L);
+    when(pending.absoluteTimeout()).thenReturn(200L);
+    table.put(1, expired, null, 0);
+    table.put(2, pending, null, 0);
+
+    assertEquals(0, table.cancelExpired(99));
+    verify(expired, never()).cancel(any());
+
+    assertEquals(1, table.cancelExpired(150));
+    verify(expired).cancel(CancellationReason.TIMEOUT);
+    verify(pending, never()).cancel(any());
+
+    // cancelled requests stay in the table so late responses can be reported as orphans
+    when(expired.completed()).thenReturn(true);
+    assertEquals(2, table.size());
+    assertEquals(0, table.cancelExpired(150));
+
+    assertEquals(1, table.cancelExpired(200));
+    verify(pending).cancel(CancellationReason.TIMEOUT);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void tracksPendingDeadlines() {
+    InFlightRequestTable table = new InFlightRequestTable();
+    assertFalse(table.hasPendingDeadlines());
+
+    KeyValueRequest<Response> first = mock(KeyValueRequest.class);
+    KeyValueRequest<Response> second = mock(KeyValueRequest.class);
+    when(first.absoluteTimeout()).thenReturn(100L);
+    when(second.absoluteTimeout()).thenReturn(200L);
+    table.put(1, first, null, 0);
+    table.put(2, second, null, 0);
+    assertTrue(table.hasPendingDeadlines());
+
+    table.remove(1);
+    assertTrue(table.hasPendingDeadlines());
+    table.remove(2);
+    assertFalse(table.hasPendingDeadlines());
+
+    // once every request in the table has timed out there is nothing left to sweep
+    table.put(1, first, null, 0);
+    assertEquals(1, table.cancelExpired(100));
+    assertEquals(1, table.size());
+    assertFalse(table.hasPendingDeadlines());
+  }
+
+}
@@ -18,12 +18,15 @@ package com.couchbase.client.core.io.netty.kv;
 
 import com.couchbase.client.core.Core;
 import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.cnc.metrics.LatencyHistograms;
 import com.couchbase.client.core.config.ConfigurationProvider;
 import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
 import com.couchbase.client.core.deps.io.netty.util.ReferenceCountUtil;
 import com.couchbase.client.core.deps.io.netty.util.ResourceLeakDetector;
 import com.couchbase.client.core.endpoint.EndpointContext;
 import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.env.IoConfig;
+import com.couchbase.client.core.env.KvTimeoutTracking;
 import com.couchbase.client.core.env.PasswordAuthenticator;
 import com.couchbase.client.core.error.RequestCanceledException;
 import com.couchbase.client.core.io.CollectionIdentifier;
@@ -44,10 +47,8 @@ import org.junit.jupiter.api.Test;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.EnumSet;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
@@ -57,6 +58,9 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -122,6 +126,32 @@ class KeyValueMessageHandlerTest {
 
   }
 
+  /**
+   * The encode latency is set by the transcoder in the client, so the handler must not overwrite it with the
+   * time it took to encode the frame.
+   */
+  @Test
+  void keepsTranscoderEncodeLatency() throws Exception {
+    EmbeddedChannel channel = new EmbeddedChannel(new KeyValueMessageHandler(null, CTX, Optional.of(BUCKET)));
+    channel.pipeline().fireChannelActive();
+
+    try {
+      GetRequest request = new GetRequest("key", Duration.ofSeconds(1), CTX, CID, null, null);
+      request.context().encodeLatency(1234);
+      channel.writeOutbound(request);
+      ReferenceCountUtil.release(channel.readOutbound());
+
+      ByteBuf getResponse = MemcacheProtocol.response(channel.alloc(), MemcacheProtocol.Opcode.GET, (byte) 0,
+        (short) 0, request.opaque(), 0, Unpooled.EMPTY_BUFFER, Unpooled.EMPTY_BUFFER, Unpooled.EMPTY_BUFFER);
+      channel.writeInbound(getResponse);
+
+      request.response().get();
+      assertEquals(1234, request.context().encodeLatency());
+    } finally {
+      channel.finishAndReleaseAll();
+    }
+  }
+
   /**
    * If an unknown response code is returned and the consulted error map indicates a retry, it should be passed to
    * the retry orchestrator for correct handling.
@@ -131,13 +161,11 @@ class KeyValueMessageHandlerTest {
     EmbeddedChannel channel = new EmbeddedChannel(new KeyValueMessageHandler(null, CTX, Optional.of(BUCKET)));
 
     ErrorMap errorMap = mock(ErrorMap.class);
-    Map<Short, ErrorMap.ErrorCode> errors = new HashMap<>();
     ErrorMap.ErrorCode code = mock(ErrorMap.ErrorCode.class);
-    errors.put((short) 0xFF, code);
     Set<ErrorMap.ErrorAttribute> attributes = new HashSet<>();
     attributes.add(ErrorMap.ErrorAttribute.RETRY_NOW);
     when(code.attributes()).thenReturn(attributes);
-    when(errorMap.errors()).thenReturn(errors);
+    when(errorMap.errorCode((short) 0xFF)).thenReturn(code);
     channel.attr(ChannelAttributes.ERROR_MAP_KEY).set(errorMap);
 
     channel.pipeline().fireChannelActive();
@@ -263,4 +291,106 @@ class KeyValueMessageHandlerTest {
     }
   }
 
-}
\ No newline at end of file
+  /**
+   * With endpoint deadlines, written requests are not registered with the timer but need to be timed out by
+   * the handler sweeping its in-flight requests.
+   */
+  @Test
+  void sweepsTimedOutRequestsWithEndpointDeadlines() throws Exception {
+    CoreEnvironment env = CoreEnvironment
+      .builder()
+      .eventBus(new SimpleEventBus(true))
+      .ioConfig(IoConfig.kvTimeoutTracking(KvTimeoutTracking.ENDPOINT_DEADLINES))
+      .build();
+    EndpointContext ctx = new EndpointContext(
+      new CoreContext(CTX.core(), 1, env, PasswordAuthenticator.create("foo", "bar")),
+      new HostAndPort("127.0.0.1", 1234), null, ServiceType.KV, Optional.empty(), Optional.empty(), Optional.empty()
+    );
+    EmbeddedChannel channel = new EmbeddedChannel(new KeyValueMessageHandler(null, ctx, Optional.of(BUCKET)));
+
+    try {
+      GetRequest shortTimeout = new GetRequest("key", Duration.ofMillis(1), ctx, CID, null, null);
+      GetRequest longTimeout = new GetRequest("key", Duration.ofMinutes(1), ctx, CID, null, null);
+      channel.writeAndFlush(shortTimeout);
+      channel.writeAndFlush(longTimeout);
+      ReferenceCountUtil.release(channel.readOutbound());
+      ReferenceCountUtil.release(channel.readOutbound());
+
+      Thread.sleep(KeyValueMessageHandler.DEADLINE_SWEEP_INTERVAL.toMillis() * 2);
+      channel.runPendingTasks();
+
+      assertTrue(shortTimeout.completed());
+      assertEquals(CancellationReason.TIMEOUT, shortTimeout.cancellationReason());
+      assertFalse(longTimeout.completed());
+    } finally {
+      channel.finishAndReleaseAll();
+      env.shutdown();
+    }
+  }
+
+  /**
+   * The deadline sweep must only be scheduled while requests are in flight, so idle channels do not keep a
+   * periodic task running on their event loop.
+   */
+  @Test
+  void onlySweepsDeadlinesWhileRequestsAreInFlight() throws Exception {
+    CoreEnvironment env = CoreEnvironment
+      .builder()
+      .eventBus(new SimpleEventBus(true))
+      .ioConfig(IoConfig.kvTimeoutTracking(KvTimeoutTracking.ENDPOINT_DEADLINES))
+      .build();
+    EndpointContext ctx = new EndpointContext(
+      new CoreContext(CTX.core(), 1, env, PasswordAuthenticator.create("foo", "bar")),
+      new HostAndPort("127.0.0.1", 1234), null, ServiceType.KV, Optional.empty(), Optional.empty(), Optional.empty()
+    );
+    EmbeddedChannel channel = new EmbeddedChannel(new KeyValueMessageHandler(null, ctx, Optional.of(BUCKET)));
+
+    try {
+      assertEquals(-1, channel.runScheduledPendingTasks());
+
+      GetRequest request = new GetRequest("key", Duration.ofMinutes(1), ctx, CID, null, null);
+      channel.writeAndFlush(request);
+      ReferenceCountUtil.release(channel.readOutbound());
+      assertTrue(channel.runScheduledPendingTasks() > 0);
+
+      ByteBuf getResponse = MemcacheProtocol.response(channel.alloc(), MemcacheProtocol.Opcode.GET, (byte) 0,
+        MemcacheProtocol.Status.SUCCESS.status(), request.opaque(), 0, Unpooled.EMPTY_BUFFER, Unpooled.EMPTY_BUFFER,
+        Unpooled.EMPTY_BUFFER);
+      channel.writeInbound(getResponse);
+      assertTrue(request.completed());
+
+      // the already scheduled sweep finds nothing to do and does not re-arm itself
+      Thread.sleep(KeyValueMessageHandler.DEADLINE_SWEEP_INTERVAL.toMillis() * 2);
+      channel.runScheduledPendingTasks();
+      assertEquals(-1, channel.runScheduledPendingTasks());
+    } finally {
+      channel.finishAndReleaseAll();
+      env.shutdown();
+    }
+  }
+
+  /**
+   * Every connection registers with the latency histograms of its node once active, and needs to remove its
+   * registration again once closed so that nodes which left the cluster do not stay around.
+   */
+  @Test
+  void removesNodeLatenciesWhenChannelCloses() {
+    LatencyHistograms histograms = spy(new LatencyHistograms());
+    ConfigurationProvider configurationProvider = CTX.core().configurationProvider();
+    Core core = mock(Core.class);
+    when(core.latencyHistograms()).thenReturn(Optional.of(histograms));
+    when(core.configurationProvider()).thenReturn(configurationProvider);
+    CoreContext coreContext = new CoreContext(core, 1, ENV, PasswordAuthenticator.create("foo", "bar"));
+    EndpointContext ctx = new EndpointContext(coreContext, new HostAndPort("127.0.0.1", 1234),
+      null, ServiceType.KV, Optional.empty(), Optional.empty(), Optional.empty());
+
+    EmbeddedChannel channel = new EmbeddedChannel(new KeyValueMessageHandler(null, ctx, Optional.of(BUCKET)));
+    channel.pipeline().fireChannelActive();
+    verify(histograms, times(1)).node(ServiceType.KV, "127.0.0.1:1234");
+
+    channel.finishAndReleaseAll();
+    verify(histograms, times(1)).remove(ServiceType.KV, "127.0.0.1:1234");
+    assertTrue(histograms.snapshot().isEmpty());
+  }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.io.netty.kv;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelHandlerContext;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelOutboundHandlerAdapter;
+import com.couchbase.client.core.deps.io.netty.util.ReferenceCountUtil;
+import com.couchbase.client.core.endpoint.EndpointContext;
+import com.couchbase.client.core.env.Authenticator;
+import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.env.TimeoutConfig;
+import com.couchbase.client.core.env.UserAgent;
+import com.couchbase.client.core.service.ServiceType;
+import com.couchbase.client.core.util.HostAndPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.couchbase.client.core.io.netty.kv.ProtocolVerifier.verifyRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link PipelinedBootstrapHandler}.
+ */
+class PipelinedBootstrapHandlerTest extends AbstractKeyValueEmbeddedChannelTest {
+
+  private EndpointContext endpointContext;
+  private final AtomicInteger flushes = new AtomicInteger();
+
+  @BeforeEach
+  @Override
+  protected void beforeEach() {
+    super.beforeEach();
+
+    CoreEnvironment env = mock(CoreEnvironment.class);
+    TimeoutConfig timeoutConfig = mock(TimeoutConfig.class);
+    when(env.eventBus()).thenReturn(eventBus);
+    when(env.timeoutConfig()).thenReturn(timeoutConfig);
+    when(env.userAgent()).thenReturn(new UserAgent("some", Optional.empty(), Optional.empty(), Optional.empty()));
+    when(timeoutConfig.connectTimeout()).thenReturn(Duration.ofMillis(1000));
+    CoreContext coreContext = new CoreContext(mock(Core.class), 1, env, mock(Authenticator.class));
+    endpointContext = new EndpointContext(coreContext, new HostAndPort("127.0.0.1", 1234),
+      null, ServiceType.KV, Optional.empty(), Optional.empty(), Optional.empty());
+
+    channel.pipeline().addLast(new ChannelOutboundHandlerAdapter() {
+      @Override
+      public void flush(final ChannelHandlerContext ctx) {
+        flushes.incrementAndGet();
+        ctx.flush();
+      }
+    });
+  }
+
+  /**
+   * All independent bootstrap requests must be sent with a single flush, before any response arrived.
+   */
+  @Test
+  void flushesBootstrapRequestsTogether() {
+    channel.pipeline().addLast(new PipelinedBootstrapHandler());
+    addBootstrapHandlers();
+
+    channel.connect(new InetSocketAddress("1.2.3.4", 1234));
+    channel.pipeline().fireChannelActive();
+
+    assertEquals(1, flushes.get());
+    verifyAndRelease(MemcacheProtocol.Opcode.HELLO);
+    verifyAndRelease(MemcacheProtocol.Opcode.ERROR_MAP);
+    assertNull(channel.pipeline().get(PipelinedBootstrapHandler.class));
+    assertTrue(ConnectTimings.toString(channel).contains("PipelinedBootstrapHandler"));
+  }
+
+  /**
+   * Without the handler the requests are still pipelined, but every one of them is flushed on its own.
+   */
+  @Test
+  void flushesEveryRequestWithoutHandler() {
+    addBootstrapHandlers();
+
+    channel.connect(new InetSocketAddress("1.2.3.4", 1234));
+    channel.pipeline().fireChannelActive();
+
+    assertEquals(2, flushes.get());
+    verifyAndRelease(MemcacheProtocol.Opcode.HELLO);
+    verifyAndRelease(MemcacheProtocol.Opcode.ERROR_MAP);
+  }
+
+  /**
+   * Flushes after the bootstrap requests went out must not be held back.
+   */
+  @Test
+  void passesThroughLaterFlushes() {
+    channel.pipeline().addLast(new PipelinedBootstrapHandler());
+    channel.pipeline().fireChannelActive();
+    assertEquals(0, flushes.get());
+
+    channel.flush();
+    assertEquals(1, flushes.get());
+  }
+
+  private void addBootstrapHandlers() {
+    channel.pipeline().addLast(new FeatureNegotiatingHandler(endpointContext, EnumSet.of(ServerFeature.XERROR)));
+    channel.pipeline().addLast(new ErrorMapLoadingHandler(endpointContext));
+  }
+
+  private void verifyAndRelease(final MemcacheProtocol.Opcode opcode) {
+    ByteBuf request = channel.readOutbound();
+    try {
+      verifyRequest(request, opcode.opcode(), opcode == MemcacheProtocol.Opcode.HELLO, false, true);
+    } finally {
+      ReferenceCountUtil.release(request);
+    }
+  }
+
+}
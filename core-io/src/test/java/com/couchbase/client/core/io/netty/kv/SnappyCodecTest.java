@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty.kv;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.deps.io.netty.buffer.UnpooledByteBufAllocator;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static com.couchbase.client.test.Util.readResource;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies the functionality of the {@link SnappyCodec}.
+ */
+class SnappyCodecTest {
+
+  private final byte[] json = readResource("dummy.json", GetRequest.class).getBytes(UTF_8);
+
+  @Test
+  void roundTripsHeapAndDirectBuffers() {
+    for (ByteBuf input : new ByteBuf[] { Unpooled.wrappedBuffer(json), Unpooled.directBuffer().writeBytes(json) }) {
+      ByteBuf compressed = SnappyCodec.compress(input, 0.83, UnpooledByteBufAllocator.DEFAULT);
+      assertNotNull(compressed);
+      assertTrue(compressed.readableBytes() < json.length);
+      assertEquals(json.length, input.readableBytes());
+
+      ByteBuf directCompressed = Unpooled.directBuffer().writeBytes(compressed, compressed.readerIndex(),
+        compressed.readableBytes());
+      for (ByteBuf source : new ByteBuf[] { compressed, directCompressed }) {
+        assertArrayEquals(json, SnappyCodec.decompressToArray(source));
+        ByteBuf decompressed = SnappyCodec.decompress(source, UnpooledByteBufAllocator.DEFAULT);
+        assertArrayEquals(json, ByteBufUtil.getBytes(decompressed));
+        decompressed.release();
+      }
+
+      compressed.release();
+      directCompressed.release();
+      input.release();
+    }
+  }
+
+  @Test
+  void skipsRandomInput() {
+    byte[] random = new byte[16 * 1024];
+    new Random(0).nextBytes(random);
+    ByteBuf input = Unpooled.wrappedBuffer(random);
+
+    assertFalse(SnappyCodec.likelyCompressible(input));
+    assertNull(SnappyCodec.compress(input, 1.0, UnpooledByteBufAllocator.DEFAULT));
+  }
+
+  @Test
+  void considersJsonCompressible() {
+    assertTrue(SnappyCodec.likelyCompressible(Unpooled.wrappedBuffer(json)));
+  }
+
+  @Test
+  void honorsMinRatio() {
+    assertNull(SnappyCodec.compress(Unpooled.wrappedBuffer(json), 0.01, UnpooledByteBufAllocator.DEFAULT));
+  }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.io.netty.kv.sasl;
+
+import com.couchbase.client.core.util.Bytes;
+import org.junit.jupiter.api.Test;
+
+import javax.security.auth.callback.Callback;
+import javax.security.auth.callback.CallbackHandler;
+import javax.security.auth.callback.NameCallback;
+import javax.security.auth.callback.PasswordCallback;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies the functionality of the {@link ScramSaslClient} against the SCRAM-SHA-256 example of RFC 7677.
+ */
+class ScramSaslClientTest {
+
+  private static final String CLIENT_NONCE = "rOprNGfwEbeRWgbNEkqO";
+  private static final String SERVER_FIRST = "r=rOprNGfwEbeRWgbNEkqO%hvYDpWUa2RaTCAfuxFIlj)hNlF$k0,"
+    + "s=W22ZaJ0SNY7soEsUEjb6gQ==,i=4096";
+  private static final String CLIENT_FINAL = "c=biws,r=rOprNGfwEbeRWgbNEkqO%hvYDpWUa2RaTCAfuxFIlj)hNlF$k0,"
+    + "p=dHzbZapWIk4jUhN+Ute9ytag9zjfMHgsqmmiz7AndVQ=";
+  private static final String SERVER_FINAL = "v=6rriTRBi23WpRR/wtup+mMhUZUn/dB5nLTJRsjl95G4=";
+
+  @Test
+  void authenticatesWithRfcExample() throws Exception {
+    ScramSaslClient client = createClient("pencil", null);
+
+    assertEquals("n,,n=user,r=" + CLIENT_NONCE, evaluate(client, Bytes.EMPTY_BYTE_ARRAY));
+    assertEquals(CLIENT_FINAL, evaluate(client, SERVER_FIRST.getBytes(UTF_8)));
+    evaluate(client, SERVER_FINAL.getBytes(UTF_8));
+    assertTrue(client.isComplete());
+  }
+
+  /**
+   * The second client reuses the salted password derived by the first one, so both must produce the same proof.
+   */
+  @Test
+  void reusesSaltedPasswordAcrossClients() throws Exception {
+    SaltedPasswordCache cache = new SaltedPasswordCache();
+    for (int i = 0; i < 2; i++) {
+      ScramSaslClient client = createClient("pencil", cache);
+      evaluate(client, Bytes.EMPTY_BYTE_ARRAY);
+      assertEquals(CLIENT_FINAL, evaluate(client, SERVER_FIRST.getBytes(UTF_8)));
+      assertEquals(1, cache.size());
+    }
+
+    cache.clear();
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void doesNotReuseSaltedPasswordIfPasswordChanged() throws Exception {
+    SaltedPasswordCache cache = new SaltedPasswordCache();
+    ScramSaslClient client = createClient("pencil", cache);
+    evaluate(client, Bytes.EMPTY_BYTE_ARRAY);
+    assertEquals(CLIENT_FINAL, evaluate(client, SERVER_FIRST.getBytes(UTF_8)));
+
+    ScramSaslClient changed = createClient("crayon", cache);
+    evaluate(changed, Bytes.EMPTY_BYTE_ARRAY);
+    assertNotEquals(CLIENT_FINAL, evaluate(changed, SERVER_FIRST.getBytes(UTF_8)));
+  }
+
+  private static ScramSaslClient createClient(final String password, final SaltedPasswordCache cache)
+    throws Exception {
+    CallbackHandler callbacks = (Callback[] cbs) -> {
+      for (Callback cb : cbs) {
+        if (cb instanceof NameCallback) {
+          ((NameCallback) cb).setName("user");
+        } else if (cb instanceof PasswordCallback) {
+          ((PasswordCallback) cb).setPassword(password.toCharArray());
+        }
+      }
+    };
+    return new ScramSaslClient(ScramSaslClientFactory.Mode.SCRAM_SHA256, callbacks, cache, CLIENT_NONCE);
+  }
+
+  private static String evaluate(final ScramSaslClient client, final byte[] challenge) throws Exception {
+    return new String(client.evaluateChallenge(challenge), UTF_8);
+  }
+
+}
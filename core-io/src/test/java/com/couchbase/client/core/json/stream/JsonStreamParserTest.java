@@ -18,6 +18,7 @@ package com.couchbase.client.core.json.stream;
 
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.deps.io.netty.buffer.UnpooledByteBufAllocator;
 import com.couchbase.client.core.deps.io.netty.util.ResourceLeakDetector;
 import org.junit.jupiter.api.Test;
 
@@ -25,6 +26,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static java.lang.Math.min;
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -273,18 +275,23 @@ class JsonStreamParserTest {
     }
 
     void check() throws IOException {
-      checkWithChunkSizeAndStreamWindow(Integer.MAX_VALUE);
+      check(() -> new CopyingStreamWindow(UnpooledByteBufAllocator.DEFAULT));
+      check(SlicingStreamWindow::new);
+    }
+
+    private void check(final Supplier<StreamWindow> window) throws IOException {
+      checkWithChunkSizeAndStreamWindow(Integer.MAX_VALUE, window.get());
 
       for (int i = 1; i <= min(32, json.length); i++) {
-        checkWithChunkSizeAndStreamWindow(i);
+        checkWithChunkSizeAndStreamWindow(i, window.get());
       }
     }
 
-    void checkWithChunkSizeAndStreamWindow(final int chunkSize) throws IOException {
+    void checkWithChunkSizeAndStreamWindow(final int chunkSize, final StreamWindow window) throws IOException {
       //System.out.println("testing with chunk size " + chunkSize);
       checks.forEach(c -> c.actual.clear()); // reset
 
-      try (JsonStreamParser parser = builder.build()) {
+      try (JsonStreamParser parser = builder.build(null, window)) {
         ByteBuf buf = Unpooled.wrappedBuffer(json);
 
         parser.feed(Unpooled.buffer()); // make sure empty chunk doesn't break anything
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.json.stream;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SlicingStreamWindowTest {
+
+  @Test
+  void slicesWithinSingleBufferShareMemory() {
+    SlicingStreamWindow window = new SlicingStreamWindow();
+    ByteBuf input = buffer("{\"a\":123}");
+    window.add(input);
+
+    ByteBuf slice = window.getSlice(5, 8);
+    assertEquals("123", slice.toString(UTF_8));
+    assertEquals(input.memoryAddress(), slice.unwrap().memoryAddress());
+
+    window.close();
+    assertEquals(0, input.refCnt());
+  }
+
+  @Test
+  void copiesRegionsSpanningBuffers() {
+    SlicingStreamWindow window = new SlicingStreamWindow();
+    window.add(buffer("[\"ab"));
+    window.add(Unpooled.buffer());
+    window.add(buffer("cd\","));
+    window.add(buffer("\"ef\"]"));
+
+    assertEquals("\"abcd\"", window.getSlice(1, 7).toString(UTF_8));
+    assertArrayEquals("\"abcd\",\"ef\"".getBytes(UTF_8), window.getBytes(1, 12));
+    window.close();
+  }
+
+  @Test
+  void releasesBuffersOnceWindowMovedPast() {
+    SlicingStreamWindow window = new SlicingStreamWindow();
+    ByteBuf first = buffer("abc");
+    ByteBuf second = buffer("def");
+    window.add(first);
+    window.add(second);
+
+    window.releaseBefore(2);
+    assertEquals(1, first.refCnt());
+    assertEquals("cd", window.getSlice(2, 4).toString(UTF_8));
+
+    window.releaseBefore(3);
+    assertEquals(0, first.refCnt());
+    assertEquals(1, second.refCnt());
+    assertThrows(IndexOutOfBoundsException.class, () -> window.getSlice(2, 4));
+    assertEquals("ef", window.getSlice(4, 6).toString(UTF_8));
+
+    assertThrows(IndexOutOfBoundsException.class, () -> window.releaseBefore(7));
+    window.releaseBefore(6);
+    assertEquals(0, second.refCnt());
+    window.close();
+  }
+
+  private static ByteBuf buffer(final String content) {
+    return Unpooled.directBuffer().writeBytes(content.getBytes(UTF_8));
+  }
+}
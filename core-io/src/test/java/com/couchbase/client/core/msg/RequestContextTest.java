@@ -19,14 +19,19 @@ package com.couchbase.client.core.msg;
 
 import com.couchbase.client.core.Core;
 import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.cnc.ValueRecorder;
 import com.couchbase.client.core.env.Authenticator;
+import com.couchbase.client.core.util.HostAndPort;
 import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -61,4 +66,18 @@ class RequestContextTest {
     assertEquals(payload, ctx.clientContext());
   }
 
-}
\ No newline at end of file
+  @Test
+  void recordsIntoPreResolvedResponseMetric() {
+    Request<?> request = mock(Request.class);
+    Core core = mock(Core.class);
+    RequestContext ctx = new RequestContext(new CoreContext(core, 1, null, mock(Authenticator.class)), request);
+
+    ValueRecorder recorder = mock(ValueRecorder.class);
+    ctx.lastDispatchedTo(new HostAndPort("127.0.0.1", 11210)).responseMetric(recorder);
+    ctx.logicallyComplete();
+
+    verify(recorder, times(1)).recordValue(anyLong());
+    verify(core, never()).responseMetric(any());
+  }
+
+}
@@ -23,14 +23,19 @@ import com.couchbase.client.core.io.CollectionIdentifier;
 import com.couchbase.client.core.io.CollectionMap;
 import com.couchbase.client.core.io.netty.kv.KeyValueChannelContext;
 import com.couchbase.client.core.io.netty.kv.MemcacheProtocol;
+import com.couchbase.client.core.msg.CancellationReason;
 import com.couchbase.client.core.retry.BestEffortRetryStrategy;
 import com.couchbase.client.core.retry.RetryStrategy;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.CompositeByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.PooledByteBufAllocator;
 import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
 import com.couchbase.client.core.deps.io.netty.buffer.UnpooledByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.channel.socket.nio.NioSocketChannel;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.util.Optional;
 
@@ -39,6 +44,9 @@ import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.datatype;
 import static com.couchbase.client.test.Util.readResource;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 
@@ -203,6 +211,52 @@ class CompressionTest {
     ReferenceCountUtil.release(encoded);
   }
 
+  @Test
+  void doesCompressLongBufferUpsert() {
+    for (ByteBuf content : new ByteBuf[] { Unpooled.copiedBuffer(longContent), Unpooled.directBuffer().writeBytes(longContent) }) {
+      UpsertRequest request = new UpsertRequest(key, content, expiry, flags, timeout,
+        coreContext, cid, retryStrategy, Optional.empty(), null);
+
+      ByteBuf encoded = request.encode(allocator, 0, ctx(true));
+      assertEquals(MemcacheProtocol.Datatype.SNAPPY.datatype(), datatype(encoded));
+      assertTrue(body(encoded).get().readableBytes() < longContent.length);
+      assertEquals(longContent.length, content.readableBytes());
+
+      ReferenceCountUtil.release(encoded);
+      request.cancel(CancellationReason.STOPPED_LISTENING);
+      assertEquals(0, content.refCnt());
+    }
+  }
+
+  @Test
+  void encodesBufferUpsertIntoFrameWhichTransportDoesNotCopy() throws Exception {
+    ByteBuf content = Unpooled.copiedBuffer(longContent);
+    UpsertRequest request = new UpsertRequest(key, content, expiry, flags, timeout,
+      coreContext, cid, retryStrategy, Optional.empty(), null);
+
+    ByteBuf encoded = request.encode(PooledByteBufAllocator.DEFAULT, 0, ctx(false));
+    assertEquals(0, datatype(encoded));
+    assertFalse(encoded instanceof CompositeByteBuf);
+    assertTrue(encoded.isDirect());
+    assertEquals(Unpooled.wrappedBuffer(longContent), body(encoded).get());
+
+    OutboundFilter transport = new OutboundFilter();
+    try {
+      assertSame(encoded, transport.filter(encoded));
+
+      ByteBuf heap = Unpooled.copiedBuffer(longContent);
+      Object copied = transport.filter(heap);
+      assertNotSame(heap, copied);
+      ReferenceCountUtil.release(copied);
+    } finally {
+      transport.closeSocket();
+    }
+
+    request.cancel(CancellationReason.STOPPED_LISTENING);
+    assertEquals(0, content.refCnt());
+    ReferenceCountUtil.release(encoded);
+  }
+
   @Test
   void doesNotCompressIfDisabledReplace() {
     ReplaceRequest request = new ReplaceRequest(key, longContent, expiry, flags, timeout,
@@ -254,4 +308,18 @@ class CompressionTest {
     );
   }
 
+  /**
+   * Exposes the filter the NIO transport applies to every outbound message, which copies everything that is not
+   * a direct buffer into a new direct buffer before it is written to the socket.
+   */
+  private static class OutboundFilter extends NioSocketChannel {
+    Object filter(final Object msg) {
+      return filterOutboundMessage(msg);
+    }
+
+    void closeSocket() throws IOException {
+      javaChannel().close();
+    }
+  }
+
 }
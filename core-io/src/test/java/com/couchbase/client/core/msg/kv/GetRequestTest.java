@@ -30,6 +30,7 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 
 /**
@@ -63,6 +64,56 @@ class GetRequestTest {
     assertEquals("2000000", Integer.toHexString(decoded.flags()));
   }
 
+  @Test
+  void decodeSuccessfulResponseIntoRetainedBuffer() {
+    ByteBuf response = decodeHexDump(readResource(
+      "get_response_success.txt",
+      GetRequestTest.class
+    ));
+
+    GetRequest request = new GetRequest(null, TIMEOUT, CTX, null, RETRY, null, true);
+    GetResponse decoded = request.decode(response, null);
+    response.release();
+
+    byte[] expected = ("{\"callsign\":\"AIRCALIN\",\"country\":\"France\","
+      + "\"iata\":\"SB\",\"icao\":\"ACI\",\"id\":139,"
+      + "\"name\":\"Air Caledonie International\",\"type\":\"airline\"}"
+    ).getBytes(UTF_8);
+
+    assertEquals(ResponseStatus.SUCCESS, decoded.status());
+    assertTrue(decoded.contentBuffer().isReadOnly());
+    assertEquals(1, decoded.contentBuffer().refCnt());
+    assertArrayEquals(expected, decoded.content());
+    assertEquals("2000000", Integer.toHexString(decoded.flags()));
+
+    assertTrue(decoded.contentBuffer().release());
+  }
+
+  @Test
+  void releasesRetainedBufferOfDuplicateResponse() {
+    GetRequest request = new GetRequest(null, TIMEOUT, CTX, null, RETRY, null, true);
+    GetResponse first = decodeRetained(request);
+    GetResponse second = decodeRetained(request);
+
+    request.succeed(first);
+    request.succeed(second);
+
+    assertEquals(1, first.contentBuffer().refCnt());
+    assertEquals(0, second.contentBuffer().refCnt());
+    assertTrue(first.contentBuffer().release());
+  }
+
+  @Test
+  void releasesRetainedBufferIfResponseFutureCancelled() {
+    GetRequest request = new GetRequest(null, TIMEOUT, CTX, null, RETRY, null, true);
+    GetResponse decoded = decodeRetained(request);
+
+    request.response().cancel(true);
+    request.succeed(decoded);
+
+    assertEquals(0, decoded.contentBuffer().refCnt());
+  }
+
   @Test
   void decodeNotFoundResponse() {
     ByteBuf response = decodeHexDump(readResource(
@@ -78,4 +129,14 @@ class GetRequestTest {
     assertEquals(0, decoded.flags());
   }
 
+  private static GetResponse decodeRetained(final GetRequest request) {
+    ByteBuf response = decodeHexDump(readResource(
+      "get_response_success.txt",
+      GetRequestTest.class
+    ));
+    GetResponse decoded = request.decode(response, null);
+    response.release();
+    return decoded;
+  }
+
 }
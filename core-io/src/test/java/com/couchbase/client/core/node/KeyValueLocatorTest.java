@@ -19,6 +19,7 @@ package com.couchbase.client.core.node;
 import com.couchbase.client.core.Core;
 import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.config.ClusterConfig;
+import com.couchbase.client.core.config.ConfigurationProvider;
 import com.couchbase.client.core.config.CouchbaseBucketConfig;
 import com.couchbase.client.core.config.NodeInfo;
 import com.couchbase.client.core.env.Authenticator;
@@ -29,6 +30,7 @@ import com.couchbase.client.core.msg.RequestContext;
 import com.couchbase.client.core.msg.TargetedRequest;
 import com.couchbase.client.core.msg.kv.CarrierBucketConfigRequest;
 import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.msg.kv.ReplicaGetRequest;
 import com.couchbase.client.core.msg.manager.BucketConfigRequest;
 import org.junit.jupiter.api.Test;
 
@@ -38,6 +40,11 @@ import java.util.Collections;
 import java.util.List;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -233,4 +240,176 @@ class KeyValueLocatorTest {
     verify(request, times(1)).cancel(CancellationReason.TARGET_NODE_REMOVED);
   }
 
+  /**
+   * The routing table is built when the config or the node list changes, so this test makes sure that an updated
+   * table picks up new nodes and that dispatching through it does not go back to the config.
+   */
+  @Test
+  @SuppressWarnings("unchecked")
+  void routesThroughTableBuiltOnUpdate() {
+    KeyValueLocator locator = new KeyValueLocator();
+
+    NodeInfo nodeInfo1 = new NodeInfo("http://foo:1234", "192.168.56.101:8091",
+      Collections.EMPTY_MAP, null);
+    NodeInfo nodeInfo2 = new NodeInfo("http://foo:1234", "192.168.56.102:8091",
+      Collections.EMPTY_MAP, null);
+
+    Node node1Mock = mock(Node.class);
+    when(node1Mock.identifier()).thenReturn(new NodeIdentifier("192.168.56.101", 8091));
+    Node node2Mock = mock(Node.class);
+    when(node2Mock.identifier()).thenReturn(new NodeIdentifier("192.168.56.102", 8091));
+    Node node3Mock = mock(Node.class);
+    when(node3Mock.identifier()).thenReturn(new NodeIdentifier("192.168.56.103", 8091));
+    List<Node> nodes = new ArrayList<>(Arrays.asList(node1Mock, node3Mock));
+
+    ClusterConfig configMock = mock(ClusterConfig.class);
+    CouchbaseBucketConfig bucketMock = mock(CouchbaseBucketConfig.class);
+    when(configMock.bucketConfig("bucket")).thenReturn(bucketMock);
+    when(configMock.bucketConfigs()).thenReturn(Collections.singletonMap("bucket", bucketMock));
+    when(bucketMock.nodes()).thenReturn(Arrays.asList(nodeInfo1, nodeInfo2));
+    when(bucketMock.numberOfPartitions()).thenReturn(1024);
+    when(bucketMock.numberOfReplicas()).thenReturn(1);
+    when(bucketMock.nodeAtIndex(0)).thenReturn(nodeInfo1);
+    when(bucketMock.nodeAtIndex(1)).thenReturn(nodeInfo2);
+    when(bucketMock.nodeIndexForActive(anyInt(), eq(false))).thenReturn((short) 1);
+    when(bucketMock.nodeIndexForReplica(anyInt(), eq(0), eq(false))).thenReturn((short) 0);
+
+    GetRequest getRequest = mock(GetRequest.class);
+    when(getRequest.bucket()).thenReturn("bucket");
+    when(getRequest.key()).thenReturn("key".getBytes(UTF_8));
+    when(getRequest.context()).thenReturn(mock(RequestContext.class));
+
+    CoreContext coreContext = mock(CoreContext.class);
+    when(coreContext.core()).thenReturn(mock(Core.class));
+    when(coreContext.core().configurationProvider()).thenReturn(mock(ConfigurationProvider.class));
+
+    // node 2 is not part of the managed nodes yet, so nothing can be routed to it.
+    locator.updateRoutingTables(configMock, nodes);
+    assertThrows(IllegalStateException.class, () -> locator.dispatch(getRequest, nodes, configMock, coreContext));
+    verify(node1Mock, never()).send(getRequest);
+    verify(node3Mock, never()).send(getRequest);
+
+    // once node 2 is added and the tables are updated, it is picked from the table alone.
+    nodes.add(node2Mock);
+    locator.updateRoutingTables(configMock, nodes);
+    clearInvocations(bucketMock);
+    locator.dispatch(getRequest, nodes, configMock, coreContext);
+    verify(node2Mock, times(1)).send(getRequest);
+    verify(bucketMock, never()).nodeAtIndex(anyInt());
+    verify(bucketMock, never()).nodeIndexForActive(anyInt(), anyBoolean());
+
+    // replica reads are routed through the replica part of the table.
+    ReplicaGetRequest replicaRequest = mock(ReplicaGetRequest.class);
+    when(replicaRequest.bucket()).thenReturn("bucket");
+    when(replicaRequest.key()).thenReturn("key".getBytes(UTF_8));
+    when(replicaRequest.replica()).thenReturn((short) 1);
+    when(replicaRequest.context()).thenReturn(mock(RequestContext.class));
+    locator.dispatch(replicaRequest, nodes, configMock, coreContext);
+    verify(node1Mock, times(1)).send(replicaRequest);
+    verify(bucketMock, never()).nodeAtIndex(anyInt());
+
+    // buckets which are gone from the config do not keep a table.
+    when(configMock.bucketConfigs()).thenReturn(Collections.emptyMap());
+    locator.updateRoutingTables(configMock, nodes);
+    locator.dispatch(getRequest, nodes, configMock, coreContext);
+    verify(node2Mock, times(2)).send(getRequest);
+    verify(bucketMock, times(1)).nodeAtIndex(1);
+  }
+
+  /**
+   * If a node is replaced by another one, the node list has the same size but the updated routing table must not
+   * keep pointing to the old node.
+   */
+  @Test
+  @SuppressWarnings("unchecked")
+  void updatesRoutingTableWhenNodeIsReplaced() {
+    KeyValueLocator locator = new KeyValueLocator();
+
+    NodeInfo nodeInfo1 = new NodeInfo("http://foo:1234", "192.168.56.101:8091",
+      Collections.EMPTY_MAP, null);
+    NodeInfo nodeInfo2 = new NodeInfo("http://foo:1234", "192.168.56.102:8091",
+      Collections.EMPTY_MAP, null);
+
+    Node node1Mock = mock(Node.class);
+    when(node1Mock.identifier()).thenReturn(new NodeIdentifier("192.168.56.101", 8091));
+    Node node2Mock = mock(Node.class);
+    when(node2Mock.identifier()).thenReturn(new NodeIdentifier("192.168.56.102", 8091));
+    Node newNode2Mock = mock(Node.class);
+    when(newNode2Mock.identifier()).thenReturn(new NodeIdentifier("192.168.56.102", 8091));
+    List<Node> nodes = new ArrayList<>(Arrays.asList(node1Mock, node2Mock));
+
+    ClusterConfig configMock = mock(ClusterConfig.class);
+    CouchbaseBucketConfig bucketMock = mock(CouchbaseBucketConfig.class);
+    when(configMock.bucketConfig("bucket")).thenReturn(bucketMock);
+    when(configMock.bucketConfigs()).thenReturn(Collections.singletonMap("bucket", bucketMock));
+    when(bucketMock.nodes()).thenReturn(Arrays.asList(nodeInfo1, nodeInfo2));
+    when(bucketMock.numberOfPartitions()).thenReturn(1024);
+    when(bucketMock.nodeAtIndex(0)).thenReturn(nodeInfo1);
+    when(bucketMock.nodeAtIndex(1)).thenReturn(nodeInfo2);
+    when(bucketMock.nodeIndexForActive(anyInt(), eq(false))).thenReturn((short) 1);
+
+    GetRequest getRequest = mock(GetRequest.class);
+    when(getRequest.bucket()).thenReturn("bucket");
+    when(getRequest.key()).thenReturn("key".getBytes(UTF_8));
+    when(getRequest.context()).thenReturn(mock(RequestContext.class));
+
+    CoreContext coreContext = mock(CoreContext.class);
+
+    locator.updateRoutingTables(configMock, nodes);
+    locator.dispatch(getRequest, nodes, configMock, coreContext);
+    verify(node2Mock, times(1)).send(getRequest);
+
+    nodes.set(1, newNode2Mock);
+    locator.updateRoutingTables(configMock, nodes);
+    locator.dispatch(getRequest, nodes, configMock, coreContext);
+    verify(newNode2Mock, times(1)).send(getRequest);
+    verify(node2Mock, times(1)).send(getRequest);
+  }
+
+  /**
+   * A table which has been built from a different config instance than the one used for dispatching is not
+   * used, the request is located through the config instead.
+   */
+  @Test
+  @SuppressWarnings("unchecked")
+  void ignoresRoutingTableOfOtherConfig() {
+    KeyValueLocator locator = new KeyValueLocator();
+
+    NodeInfo nodeInfo1 = new NodeInfo("http://foo:1234", "192.168.56.101:8091",
+      Collections.EMPTY_MAP, null);
+    NodeInfo nodeInfo2 = new NodeInfo("http://foo:1234", "192.168.56.102:8091",
+      Collections.EMPTY_MAP, null);
+
+    Node node1Mock = mock(Node.class);
+    when(node1Mock.identifier()).thenReturn(new NodeIdentifier("192.168.56.101", 8091));
+    Node node2Mock = mock(Node.class);
+    when(node2Mock.identifier()).thenReturn(new NodeIdentifier("192.168.56.102", 8091));
+    List<Node> nodes = new ArrayList<>(Arrays.asList(node1Mock, node2Mock));
+
+    ClusterConfig oldConfigMock = mock(ClusterConfig.class);
+    CouchbaseBucketConfig oldBucketMock = mock(CouchbaseBucketConfig.class);
+    when(oldConfigMock.bucketConfigs()).thenReturn(Collections.singletonMap("bucket", oldBucketMock));
+    when(oldBucketMock.numberOfPartitions()).thenReturn(1024);
+    when(oldBucketMock.nodeAtIndex(0)).thenReturn(nodeInfo1);
+    when(oldBucketMock.nodeIndexForActive(anyInt(), eq(false))).thenReturn((short) 0);
+    locator.updateRoutingTables(oldConfigMock, nodes);
+
+    ClusterConfig configMock = mock(ClusterConfig.class);
+    CouchbaseBucketConfig bucketMock = mock(CouchbaseBucketConfig.class);
+    when(configMock.bucketConfig("bucket")).thenReturn(bucketMock);
+    when(bucketMock.nodes()).thenReturn(Arrays.asList(nodeInfo1, nodeInfo2));
+    when(bucketMock.numberOfPartitions()).thenReturn(1024);
+    when(bucketMock.nodeAtIndex(1)).thenReturn(nodeInfo2);
+    when(bucketMock.nodeIndexForActive(anyInt(), eq(false))).thenReturn((short) 1);
+
+    GetRequest getRequest = mock(GetRequest.class);
+    when(getRequest.bucket()).thenReturn("bucket");
+    when(getRequest.key()).thenReturn("key".getBytes(UTF_8));
+    when(getRequest.context()).thenReturn(mock(RequestContext.class));
+
+    locator.dispatch(getRequest, nodes, configMock, mock(CoreContext.class));
+    verify(node2Mock, times(1)).send(getRequest);
+    verify(node1Mock, never()).send(getRequest);
+  }
+
 }
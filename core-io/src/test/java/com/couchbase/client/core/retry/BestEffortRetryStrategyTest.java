@@ -17,12 +17,16 @@
 package com.couchbase.client.core.retry;
 
 import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.RequestContext;
 import com.couchbase.client.core.msg.Response;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * Verifies the functionality of the {@link BestEffortRetryStrategy}.
@@ -45,4 +49,54 @@ class BestEffortRetryStrategyTest {
     assertEquals(RetryAction.noRetry(), retryAction);
   }
 
-}
\ No newline at end of file
+  @Test
+  void canBeOverriddenDisablesSyncPath() {
+    RetryStrategy customStrategy = new BestEffortRetryStrategy() {
+      @Override
+      public CompletableFuture<RetryAction> shouldRetry(Request<? extends Response> request, RetryReason reason) {
+        return super.shouldRetry(request, reason);
+      }
+    };
+
+    assertNull(customStrategy.shouldRetrySync(mockRequest(true, 0, null), RetryReason.UNKNOWN));
+  }
+
+  @Test
+  void syncPathMatchesAsyncPath() throws Exception {
+    verifySyncMatchesAsync(BestEffortRetryStrategy.INSTANCE);
+    verifySyncMatchesAsync(BestEffortRetryStrategy.withExponentialBackoff(
+      Duration.ofMillis(10), Duration.ofSeconds(2), 3
+    ));
+  }
+
+  @Test
+  void syncPathDoesNotRetryNonIdempotent() throws Exception {
+    Request<?> request = mockRequest(false, 0, null);
+    RetryStrategy strategy = BestEffortRetryStrategy.INSTANCE;
+    assertFalse(strategy.shouldRetry(request, RetryReason.UNKNOWN).get().duration().isPresent());
+    assertFalse(strategy.shouldRetrySync(request, RetryReason.UNKNOWN).duration().isPresent());
+  }
+
+  private static void verifySyncMatchesAsync(final RetryStrategy strategy) throws Exception {
+    Duration last = null;
+    for (int attempt = 0; attempt < 20; attempt++) {
+      Request<?> request = mockRequest(true, attempt, last);
+      RetryAction expected = strategy.shouldRetry(request, RetryReason.UNKNOWN).get();
+      RetryAction actual = strategy.shouldRetrySync(request, RetryReason.UNKNOWN);
+      assertNotNull(actual);
+      assertEquals(expected.duration(), actual.duration());
+      last = actual.duration().get();
+    }
+  }
+
+  private static Request<?> mockRequest(final boolean idempotent, final int attempts, final Duration last) {
+    Request<?> request = mock(Request.class);
+    RequestContext ctx = mock(RequestContext.class);
+    when(request.idempotent()).thenReturn(idempotent);
+    when(request.context()).thenReturn(ctx);
+    when(ctx.retryAttempts()).thenReturn(attempts);
+    when(ctx.lastRetryDuration()).thenReturn(last);
+    return request;
+  }
+
+}
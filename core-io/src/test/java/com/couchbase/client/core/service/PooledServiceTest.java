@@ -726,6 +726,79 @@ class PooledServiceTest {
     verify(mock1, atLeastOnce()).disconnect();
   }
 
+  /**
+   * Once a request got dispatched and enough endpoints are busy, another endpoint should be connected ahead of
+   * time without a request waiting for it.
+   */
+  @Test
+  void preconnectsEndpointIfBusyEndpointsCrossThreshold() {
+    Endpoint mock1 = mock(Endpoint.class);
+    when(mock1.state()).thenReturn(EndpointState.CONNECTED);
+    when(mock1.states()).thenReturn(DirectProcessor.create());
+    // free when selected, busy once the request got sent
+    when(mock1.outstandingRequests()).thenReturn(0L, 1L);
+
+    Endpoint mock2 = mock(Endpoint.class);
+    when(mock2.state()).thenReturn(EndpointState.CONNECTING);
+    when(mock2.states()).thenReturn(DirectProcessor.create());
+
+    final List<Endpoint> mocks = Arrays.asList(mock1, mock2);
+    final AtomicInteger invocation = new AtomicInteger();
+    MockedService service = new MockedService(
+      new MockedServiceConfig(1, 3, Duration.ofSeconds(30), false, 1.0),
+      () -> mocks.get(invocation.getAndIncrement()),
+      new FirstEndpointSelectionStrategy()
+    );
+    service.connect();
+    assertEquals(1, service.trackedEndpoints().size());
+
+    NoopRequest request = new NoopRequest(
+      Duration.ofSeconds(1),
+      serviceContext,
+      BestEffortRetryStrategy.INSTANCE,
+      CollectionIdentifier.fromDefault("bucket")
+    );
+    service.send(request);
+
+    verify(mock1, times(1)).send(request);
+    assertEquals(2, service.trackedEndpoints().size());
+    verify(mock2, times(1)).connect();
+    verify(mock2, never()).send(request);
+  }
+
+  /**
+   * If not enough endpoints are busy, no endpoint should be connected ahead of time.
+   */
+  @Test
+  void doesNotPreconnectBelowThreshold() {
+    Endpoint mock1 = mock(Endpoint.class);
+    when(mock1.state()).thenReturn(EndpointState.CONNECTED);
+    when(mock1.states()).thenReturn(DirectProcessor.create());
+    when(mock1.outstandingRequests()).thenReturn(0L);
+
+    final AtomicInteger invocation = new AtomicInteger();
+    MockedService service = new MockedService(
+      new MockedServiceConfig(1, 3, Duration.ofSeconds(30), false, 1.0),
+      () -> {
+        invocation.incrementAndGet();
+        return mock1;
+      },
+      new FirstEndpointSelectionStrategy()
+    );
+    service.connect();
+
+    NoopRequest request = new NoopRequest(
+      Duration.ofSeconds(1),
+      serviceContext,
+      BestEffortRetryStrategy.INSTANCE,
+      CollectionIdentifier.fromDefault("bucket")
+    );
+    service.send(request);
+
+    verify(mock1, times(1)).send(request);
+    assertEquals(1, invocation.get());
+  }
+
   class MockedService extends PooledService {
 
     List<Endpoint> trackedEndpoints = new ArrayList<>();
@@ -777,16 +850,22 @@ class PooledServiceTest {
     private final int max;
     private final Duration idle;
     private final boolean pipelined;
+    private final double preconnectThreshold;
 
     MockedServiceConfig(int min, int max) {
       this(min, max, Duration.ofSeconds(30), false);
     }
 
     MockedServiceConfig(int min, int max, Duration idle, boolean pipelined) {
+      this(min, max, idle, pipelined, 0);
+    }
+
+    MockedServiceConfig(int min, int max, Duration idle, boolean pipelined, double preconnectThreshold) {
       this.max = max;
       this.min = min;
       this.idle = idle;
       this.pipelined = pipelined;
+      this.preconnectThreshold = preconnectThreshold;
     }
 
     @Override
@@ -809,6 +888,11 @@ class PooledServiceTest {
       return pipelined;
     }
 
+    @Override
+    public double preconnectThreshold() {
+      return preconnectThreshold;
+    }
+
   }
 
   static class FirstEndpointSelectionStrategy implements EndpointSelectionStrategy {
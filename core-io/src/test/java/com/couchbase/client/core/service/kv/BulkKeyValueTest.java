@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.service.kv;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.config.ClusterConfig;
+import com.couchbase.client.core.config.CouchbaseBucketConfig;
+import com.couchbase.client.core.config.NodeInfo;
+import com.couchbase.client.core.env.Authenticator;
+import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.error.InvalidArgumentException;
+import com.couchbase.client.core.error.TimeoutException;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.msg.CancellationReason;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.msg.kv.GetResponse;
+import com.couchbase.client.core.node.KeyValueLocator;
+import com.couchbase.client.core.node.NodeIdentifier;
+import com.couchbase.client.core.retry.BestEffortRetryStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.couchbase.client.test.Util.waitUntilCondition;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link BulkKeyValue} dispatcher.
+ */
+class BulkKeyValueTest {
+
+  private static final int NUM_PARTITIONS = 1024;
+
+  private CoreEnvironment env;
+  private Core core;
+  private CoreContext ctx;
+  private final List<GetRequest> sent = new ArrayList<>();
+
+  @BeforeEach
+  void beforeEach() {
+    env = CoreEnvironment.create();
+    core = mock(Core.class);
+    ctx = new CoreContext(core, 1, env, mock(Authenticator.class));
+    when(core.context()).thenReturn(ctx);
+
+    NodeInfo node0 = mock(NodeInfo.class);
+    when(node0.identifier()).thenReturn(new NodeIdentifier("10.0.0.1", 8091));
+    NodeInfo node1 = mock(NodeInfo.class);
+    when(node1.identifier()).thenReturn(new NodeIdentifier("10.0.0.2", 8091));
+
+    CouchbaseBucketConfig bucketConfig = mock(CouchbaseBucketConfig.class);
+    when(bucketConfig.numberOfPartitions()).thenReturn(NUM_PARTITIONS);
+    when(bucketConfig.nodeIndexForActive(anyInt(), eq(false)))
+      .thenAnswer(i -> (short) ((int) i.getArgument(0) % 2));
+    when(bucketConfig.nodeAtIndex(0)).thenReturn(node0);
+    when(bucketConfig.nodeAtIndex(1)).thenReturn(node1);
+
+    ClusterConfig clusterConfig = mock(ClusterConfig.class);
+    when(clusterConfig.bucketConfig("bucket")).thenReturn(bucketConfig);
+    when(core.clusterConfig()).thenReturn(clusterConfig);
+
+    doAnswer(i -> sent.add(i.getArgument(0))).when(core).send(any(GetRequest.class), eq(false));
+  }
+
+  @AfterEach
+  void afterEach() {
+    env.shutdown();
+  }
+
+  private List<GetRequest> requests(final int num, final Duration timeout) {
+    List<GetRequest> requests = new ArrayList<>();
+    for (int i = 0; i < num; i++) {
+      requests.add(new GetRequest("key-" + i, timeout, ctx, CollectionIdentifier.fromDefault("bucket"),
+        BestEffortRetryStrategy.INSTANCE, null));
+    }
+    return requests;
+  }
+
+  private static int nodeIndex(final GetRequest request) {
+    return KeyValueLocator.partitionForKey(request.key(), NUM_PARTITIONS) % 2;
+  }
+
+  @Test
+  void dispatchesGroupedByNodeAndStreamsResults() {
+    List<GetRequest> requests = requests(100, Duration.ofSeconds(10));
+
+    List<BulkKeyValue.Item<GetResponse>> results = new ArrayList<>();
+    BulkKeyValue.dispatch(core, requests).subscribe(results::add);
+
+    assertEquals(requests.size(), sent.size());
+    int switches = 0;
+    for (int i = 1; i < sent.size(); i++) {
+      if (nodeIndex(sent.get(i)) != nodeIndex(sent.get(i - 1))) {
+        switches++;
+      }
+    }
+    assertEquals(1, switches);
+
+    GetResponse response = mock(GetResponse.class);
+    for (GetRequest request : requests) {
+      request.succeed(response);
+    }
+
+    assertEquals(requests.size(), results.size());
+    for (BulkKeyValue.Item<GetResponse> item : results) {
+      assertSame(response, item.response().get());
+      assertFalse(item.error().isPresent());
+    }
+  }
+
+  @Test
+  void timesOutOutstandingRequestsWithSharedTimeout() {
+    List<GetRequest> requests = requests(10, Duration.ofMillis(50));
+
+    GetResponse response = mock(GetResponse.class);
+    List<BulkKeyValue.Item<GetResponse>> results = BulkKeyValue
+      .dispatch(core, requests)
+      .doOnSubscribe(s -> env.scheduler().schedule(() -> requests.get(0).succeed(response)))
+      .collectList()
+      .block(Duration.ofSeconds(5));
+
+    assertEquals(requests.size(), results.size());
+    int timedOut = 0;
+    for (BulkKeyValue.Item<GetResponse> item : results) {
+      if (item.error().isPresent()) {
+        assertTrue(item.error().get() instanceof TimeoutException);
+        timedOut++;
+      }
+    }
+    assertTrue(timedOut >= requests.size() - 1);
+  }
+
+  @Test
+  void boundsRequestsInFlightPerNode() {
+    List<GetRequest> requests = requests(20, Duration.ofSeconds(10));
+
+    List<BulkKeyValue.Item<GetResponse>> results = new ArrayList<>();
+    BulkKeyValue.dispatch(core, requests, 2).subscribe(results::add);
+
+    assertEquals(4, sent.size());
+    assertEquals(2, sent.stream().filter(r -> nodeIndex(r) == 0).count());
+    assertEquals(2, sent.stream().filter(r -> nodeIndex(r) == 1).count());
+
+    GetRequest completed = sent.get(0);
+    completed.succeed(mock(GetResponse.class));
+    assertEquals(1, results.size());
+    assertEquals(5, sent.size());
+    assertEquals(nodeIndex(completed), nodeIndex(sent.get(4)));
+
+    GetResponse response = mock(GetResponse.class);
+    while (results.size() < requests.size()) {
+      for (GetRequest request : new ArrayList<>(sent)) {
+        request.succeed(response);
+      }
+    }
+    assertEquals(requests.size(), sent.size());
+  }
+
+  @Test
+  void timesOutEveryRequestAfterItsOwnTimeout() {
+    List<GetRequest> requests = requests(5, Duration.ofMillis(50));
+    requests.addAll(requests(5, Duration.ofSeconds(30)));
+
+    List<BulkKeyValue.Item<GetResponse>> results = new CopyOnWriteArrayList<>();
+    Disposable subscription = BulkKeyValue.dispatch(core, requests).subscribe(results::add);
+    try {
+      waitUntilCondition(() -> results.size() == 5);
+      for (BulkKeyValue.Item<GetResponse> item : results) {
+        assertEquals(Duration.ofMillis(50), item.request().timeout());
+        assertTrue(item.error().get() instanceof TimeoutException);
+      }
+      for (GetRequest request : requests.subList(5, 10)) {
+        assertFalse(request.completed());
+      }
+    } finally {
+      subscription.dispose();
+    }
+
+    for (GetRequest request : requests.subList(5, 10)) {
+      assertTrue(request.cancelled());
+      assertEquals(CancellationReason.STOPPED_LISTENING, request.cancellationReason());
+    }
+  }
+
+  @Test
+  void failsRequestWhichCannotBeDispatched() {
+    List<GetRequest> requests = requests(10, Duration.ofSeconds(10));
+    RuntimeException failure = new RuntimeException("dispatch failed");
+    doThrow(failure).when(core).send(requests.get(3), false);
+
+    List<BulkKeyValue.Item<GetResponse>> results = new ArrayList<>();
+    BulkKeyValue.dispatch(core, requests).subscribe(results::add);
+
+    assertEquals(requests.size() - 1, sent.size());
+    assertEquals(1, results.size());
+    assertSame(requests.get(3), results.get(0).request());
+    assertSame(failure, results.get(0).error().get());
+
+    GetResponse response = mock(GetResponse.class);
+    for (GetRequest request : sent) {
+      request.succeed(response);
+    }
+    assertEquals(requests.size(), results.size());
+  }
+
+  @Test
+  void cancelsRequestsWhichHaveNotBeenDispatched() {
+    List<GetRequest> requests = requests(10, Duration.ofSeconds(10));
+
+    Disposable subscription = BulkKeyValue.dispatch(core, requests, 1).subscribe();
+    assertEquals(2, sent.size());
+    subscription.dispose();
+
+    assertEquals(2, sent.size());
+    for (GetRequest request : requests) {
+      assertEquals(CancellationReason.STOPPED_LISTENING, request.cancellationReason());
+    }
+  }
+
+  @Test
+  void rejectsEmptyWindow() {
+    assertThrows(InvalidArgumentException.class, () -> BulkKeyValue.dispatch(core, requests(1, Duration.ofSeconds(1)), 0));
+  }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.service.kv;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.msg.RequestContext;
+import com.couchbase.client.core.msg.ResponseStatus;
+import com.couchbase.client.core.msg.kv.ObserveViaSeqnoRequest;
+import com.couchbase.client.core.msg.kv.ObserveViaSeqnoResponse;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link ObserveProbes}.
+ */
+class ObserveProbesTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  @Test
+  void sharesInFlightProbesForSamePartition() {
+    Core core = mock(Core.class);
+    ObserveProbes probes = new ObserveProbes(core);
+    ObserveViaSeqnoRequest request = mockRequest(TIMEOUT);
+
+    Mono<ObserveViaSeqnoResponse> first = probes.probe("bucket", (short) 1, 0, 1234L, TIMEOUT, () -> request);
+    Mono<ObserveViaSeqnoResponse> second = probes.probe("bucket", (short) 1, 0, 1234L, TIMEOUT, () -> {
+      throw new AssertionError("Must join the in-flight probe");
+    });
+    verify(core, times(1)).send(any());
+
+    ObserveViaSeqnoResponse response = new ObserveViaSeqnoResponse(ResponseStatus.SUCCESS, true, (short) 1, 1234L,
+      5, 5, Optional.empty(), Optional.empty());
+    request.response().complete(response);
+
+    assertSame(response, first.block());
+    assertSame(response, second.block());
+    assertEquals(0, probes.inFlight());
+  }
+
+  @Test
+  void sendsSeparateProbesForDifferentCopies() {
+    Core core = mock(Core.class);
+    ObserveProbes probes = new ObserveProbes(core);
+    ObserveViaSeqnoRequest active = mockRequest(TIMEOUT);
+    ObserveViaSeqnoRequest replica = mockRequest(TIMEOUT);
+
+    probes.probe("bucket", (short) 1, 0, 1234L, TIMEOUT, () -> active);
+    probes.probe("bucket", (short) 1, 1, 1234L, TIMEOUT, () -> replica);
+    verify(core, times(1)).send(active);
+    verify(core, times(1)).send(replica);
+
+    active.response().cancel(true);
+    replica.response().cancel(true);
+    assertEquals(0, probes.inFlight());
+  }
+
+  /**
+   * The shared request keeps the timeout of the poll which created it, so a joining poll with an earlier deadline
+   * must time out on its own while the shared request keeps going for everyone else.
+   */
+  @Test
+  void joiningPollKeepsItsStricterTimeout() {
+    Core core = mock(Core.class);
+    CoreContext ctx = mock(CoreContext.class);
+    CoreEnvironment env = mock(CoreEnvironment.class);
+    when(core.context()).thenReturn(ctx);
+    when(ctx.environment()).thenReturn(env);
+    when(env.scheduler()).thenReturn(Schedulers.parallel());
+    ObserveProbes probes = new ObserveProbes(core);
+    ObserveViaSeqnoRequest request = mockRequest(TIMEOUT);
+
+    Mono<ObserveViaSeqnoResponse> first = probes.probe("bucket", (short) 1, 0, 1234L, TIMEOUT, () -> request);
+    Mono<ObserveViaSeqnoResponse> strict = probes.probe("bucket", (short) 1, 0, 1234L, Duration.ofMillis(10),
+      () -> {
+        throw new AssertionError("Must join the in-flight probe");
+      });
+    Mono<ObserveViaSeqnoResponse> lenient = probes.probe("bucket", (short) 1, 0, 1234L, Duration.ofSeconds(30),
+      () -> {
+        throw new AssertionError("Must join the in-flight probe");
+      });
+
+    StepVerifier.create(strict).expectError(TimeoutException.class).verify(Duration.ofSeconds(5));
+    assertFalse(request.response().isDone());
+
+    ObserveViaSeqnoResponse response = new ObserveViaSeqnoResponse(ResponseStatus.SUCCESS, true, (short) 1, 1234L,
+      5, 5, Optional.empty(), Optional.empty());
+    request.response().complete(response);
+    assertSame(response, first.block());
+    assertSame(response, lenient.block());
+  }
+
+  @Test
+  void adaptsFirstPollDelayToDurableLatency() {
+    ObserveProbes probes = new ObserveProbes(mock(Core.class));
+    assertEquals(ObserveProbes.MIN_POLL_DELAY, probes.firstPollDelay("unknown-bucket"));
+
+    probes.recordDurableLatency("slow-bucket", Duration.ofMillis(40).toNanos());
+    assertEquals(Duration.ofMillis(10), probes.firstPollDelay("slow-bucket"));
+
+    probes.recordDurableLatency("very-slow-bucket", Duration.ofSeconds(10).toNanos());
+    assertTrue(probes.firstPollDelay("very-slow-bucket").compareTo(ObserveProbes.MAX_POLL_DELAY) <= 0);
+  }
+
+  @Test
+  void keepsDurableLatencyPerInstance() {
+    ObserveProbes probes = new ObserveProbes(mock(Core.class));
+    ObserveProbes otherProbes = new ObserveProbes(mock(Core.class));
+    probes.recordDurableLatency("shared-bucket", Duration.ofMillis(40).toNanos());
+    assertEquals(Duration.ofMillis(10), probes.firstPollDelay("shared-bucket"));
+    assertEquals(ObserveProbes.MIN_POLL_DELAY, otherProbes.firstPollDelay("shared-bucket"));
+  }
+
+  @Test
+  void dropsDurableLatencyOfClosedBuckets() {
+    ObserveProbes probes = new ObserveProbes(mock(Core.class));
+    probes.recordDurableLatency("open-bucket", Duration.ofMillis(40).toNanos());
+    probes.recordDurableLatency("closed-bucket", Duration.ofMillis(40).toNanos());
+
+    probes.retainBuckets(Collections.singleton("open-bucket"));
+    assertEquals(1, probes.trackedBuckets());
+    assertEquals(ObserveProbes.MIN_POLL_DELAY, probes.firstPollDelay("closed-bucket"));
+    assertEquals(Duration.ofMillis(10), probes.firstPollDelay("open-bucket"));
+
+    probes.clear();
+    assertEquals(0, probes.trackedBuckets());
+  }
+
+  private static ObserveViaSeqnoRequest mockRequest(final Duration timeout) {
+    ObserveViaSeqnoRequest request = mock(ObserveViaSeqnoRequest.class);
+    CompletableFuture<ObserveViaSeqnoResponse> response = new CompletableFuture<>();
+    when(request.response()).thenReturn(response);
+    when(request.context()).thenReturn(mock(RequestContext.class));
+    when(request.createdAt()).thenReturn(System.nanoTime());
+    when(request.timeout()).thenReturn(timeout);
+    return request;
+  }
+
+}
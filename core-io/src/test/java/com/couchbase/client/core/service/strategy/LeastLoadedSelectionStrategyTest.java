@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.service.strategy;
+
+import com.couchbase.client.core.endpoint.Endpoint;
+import com.couchbase.client.core.endpoint.EndpointState;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.msg.kv.UpsertRequest;
+import com.couchbase.client.core.service.EndpointSelectionStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link LeastLoadedSelectionStrategy}.
+ */
+class LeastLoadedSelectionStrategyTest {
+
+  @Test
+  void spreadsIdempotentRequestsAcrossEndpoints() {
+    EndpointSelectionStrategy strategy = new LeastLoadedSelectionStrategy();
+    Endpoint endpoint1 = endpoint(EndpointState.CONNECTED, 0, 1000);
+    Endpoint endpoint2 = endpoint(EndpointState.CONNECTED, 0, 1000);
+    List<Endpoint> endpoints = Arrays.asList(endpoint1, endpoint2);
+
+    GetRequest request = mock(GetRequest.class);
+    when(request.partition()).thenReturn((short) 12);
+    when(request.idempotent()).thenReturn(true);
+
+    // with only two endpoints both are always picked, so the one with fewer in-flight requests wins
+    when(endpoint1.outstandingRequests()).thenReturn(10L);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(endpoint2, strategy.select(request, endpoints));
+    }
+
+    when(endpoint1.outstandingRequests()).thenReturn(0L);
+    when(endpoint2.outstandingRequests()).thenReturn(10L);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(endpoint1, strategy.select(request, endpoints));
+    }
+  }
+
+  @Test
+  void weighsInFlightRequestsByLatency() {
+    EndpointSelectionStrategy strategy = new LeastLoadedSelectionStrategy();
+    Endpoint slow = endpoint(EndpointState.CONNECTED, 1, 100_000);
+    Endpoint fast = endpoint(EndpointState.CONNECTED, 5, 1_000);
+    List<Endpoint> endpoints = Arrays.asList(slow, fast);
+
+    GetRequest request = mock(GetRequest.class);
+    when(request.idempotent()).thenReturn(true);
+
+    for (int i = 0; i < 100; i++) {
+      assertEquals(fast, strategy.select(request, endpoints));
+    }
+  }
+
+  @Test
+  void skipsEndpointsWhichAreNotConnected() {
+    EndpointSelectionStrategy strategy = new LeastLoadedSelectionStrategy();
+    Endpoint endpoint1 = endpoint(EndpointState.DISCONNECTED, 0, 0);
+    Endpoint endpoint2 = endpoint(EndpointState.CONNECTING, 0, 0);
+    Endpoint endpoint3 = endpoint(EndpointState.CONNECTED, 100, 0);
+    List<Endpoint> endpoints = Arrays.asList(endpoint1, endpoint2, endpoint3);
+
+    GetRequest request = mock(GetRequest.class);
+    when(request.idempotent()).thenReturn(true);
+
+    for (int i = 0; i < 100; i++) {
+      assertEquals(endpoint3, strategy.select(request, endpoints));
+    }
+
+    when(endpoint3.state()).thenReturn(EndpointState.DISCONNECTED);
+    assertNull(strategy.select(request, endpoints));
+  }
+
+  @Test
+  void pinsNonIdempotentRequestsToPartition() {
+    EndpointSelectionStrategy strategy = new LeastLoadedSelectionStrategy();
+    Endpoint endpoint1 = endpoint(EndpointState.CONNECTED, 100, 1000);
+    Endpoint endpoint2 = endpoint(EndpointState.CONNECTED, 0, 1000);
+    Endpoint endpoint3 = endpoint(EndpointState.CONNECTED, 0, 1000);
+    List<Endpoint> endpoints = Arrays.asList(endpoint1, endpoint2, endpoint3);
+
+    UpsertRequest request = mock(UpsertRequest.class);
+    when(request.partition()).thenReturn((short) 12);
+    when(request.idempotent()).thenReturn(false);
+
+    for (int i = 0; i < 100; i++) {
+      assertEquals(endpoint1, strategy.select(request, endpoints));
+    }
+  }
+
+  private static Endpoint endpoint(final EndpointState state, final long outstanding, final long latency) {
+    Endpoint endpoint = mock(Endpoint.class);
+    when(endpoint.state()).thenReturn(state);
+    when(endpoint.freeToWrite()).thenReturn(true);
+    when(endpoint.outstandingRequests()).thenReturn(outstanding);
+    when(endpoint.averageResponseLatency()).thenReturn(latency);
+    return endpoint;
+  }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentLruCacheTest {
+
+  @Test
+  void storesAndRemovesEntries() {
+    ConcurrentLruCache<String, Integer> cache = new ConcurrentLruCache<>(10, key -> {});
+    assertNull(cache.get("a"));
+    cache.put("a", 1);
+    assertEquals(1, (int) cache.get("a"));
+    cache.remove("a");
+    assertNull(cache.get("a"));
+    cache.put("b", 2);
+    cache.clear();
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void evictsLeastRecentlyUsedEntries() throws Exception {
+    List<String> evicted = new ArrayList<>();
+    ConcurrentLruCache<String, Integer> cache = new ConcurrentLruCache<>(32, evicted::add);
+
+    for (int i = 0; i < 32; i++) {
+      cache.put("key" + i, i);
+    }
+    Thread.sleep(1);
+    // touch the first entry so that it becomes the most recently used one
+    cache.get("key0");
+    cache.put("key32", 32);
+
+    assertTrue(cache.size() <= 32);
+    assertEquals(33 - cache.size(), evicted.size());
+    assertFalse(evicted.contains("key0"));
+    assertFalse(evicted.contains("key32"));
+    assertTrue(evicted.contains("key1"));
+    assertEquals(0, (int) cache.get("key0"));
+  }
+
+  @Test
+  void rejectsInvalidCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new ConcurrentLruCache<String, String>(0, key -> {}));
+  }
+
+}
@@ -95,6 +95,24 @@ class KeyValueIntegrationTest extends JavaIntegrationTest {
     assertFalse(getResult.expiryTime().isPresent());
   }
 
+  @Test
+  void insertAndGetWithZeroCopy() {
+    String id = UUID.randomUUID().toString();
+    JsonObject content = JsonObject.create().put("foo", "bar");
+    collection.insert(id, content);
+
+    GetResult getResult = collection.get(id, getOptions().zeroCopy(true));
+    try {
+      assertTrue(getResult.contentBuffer().isPresent());
+      assertEquals(content, getResult.contentAsObject());
+      assertEquals(content, getResult.contentAs(JsonObject.class));
+    } finally {
+      assertTrue(getResult.release());
+    }
+    assertFalse(getResult.release());
+    assertThrows(IllegalStateException.class, getResult::contentAsObject);
+  }
+
   /**
    * Mock does not support Get Meta, so we need to ignore it there.
    */
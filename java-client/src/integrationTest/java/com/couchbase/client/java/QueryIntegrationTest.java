@@ -33,6 +33,7 @@ import com.couchbase.client.java.query.QueryResult;
 import com.couchbase.client.java.query.QueryStatus;
 import com.couchbase.client.java.query.ReactiveQueryResult;
 import com.couchbase.client.java.query.QueryScanConsistency;
+import com.couchbase.client.java.query.StreamingQueryResult;
 import com.couchbase.client.java.util.JavaIntegrationTest;
 import com.couchbase.client.test.Capabilities;
 import com.couchbase.client.test.ClusterType;
@@ -46,6 +47,8 @@ import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.couchbase.client.java.manager.query.QueryIndexManagerIntegrationTest.DISABLE_QUERY_TESTS_FOR_CLUSTER;
 import static com.couchbase.client.java.query.QueryOptions.queryOptions;
@@ -201,6 +204,33 @@ class QueryIntegrationTest extends JavaIntegrationTest {
         assertEquals(1, rows.size());
     }
 
+    @Test
+    void streamingSelect() {
+        StreamingQueryResult result = cluster.queryStreaming(
+          "select raw i from array_range(0, 1000) as i",
+          queryOptions()
+        );
+        List<Integer> rows;
+        try (Stream<Integer> stream = result.rowsAs(Integer.class)) {
+            rows = stream.collect(Collectors.toList());
+        }
+        assertEquals(1000, rows.size());
+        assertEquals(999, (int) rows.get(999));
+        assertEquals(QueryStatus.SUCCESS, result.metaData().status());
+    }
+
+    @Test
+    void streamingSelectCanBeClosedEarly() {
+        StreamingQueryResult result = cluster.queryStreaming(
+          "select raw i from array_range(0, 10000) as i",
+          queryOptions()
+        );
+        try (Stream<Integer> stream = result.rowsAs(Integer.class)) {
+            assertEquals(10, stream.limit(10).count());
+        }
+        assertEquals(QueryStatus.SUCCESS, result.metaData().status());
+    }
+
     @Test
     void noProfileRequestedGivesEmptyProfile() {
         String id = insertDoc();
@@ -24,6 +24,8 @@ import com.couchbase.client.java.collections.support.TestObject;
 import com.couchbase.client.java.json.JsonObject;
 import com.couchbase.client.java.kv.ArrayListOptions;
 import com.couchbase.client.java.util.JavaIntegrationTest;
+import com.couchbase.client.test.ClusterType;
+import com.couchbase.client.test.IgnoreWhen;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -438,4 +440,30 @@ class CouchbaseArrayListTest extends JavaIntegrationTest {
         list.clear();
         assertThrows(ConcurrentModificationException.class, () -> it.add(5));
     }
+
+    @Test
+    void localSnapshotSeesOwnMutations() {
+        CouchbaseArrayList<Long> list = new CouchbaseArrayList<>(uuid, collection, Long.class,
+          ArrayListOptions.arrayListOptions().localSnapshot(Duration.ofMinutes(1)));
+        assertTrue(list.isEmpty());
+        list.addAll(Arrays.asList(1L, 2L, 3L));
+        assertEquals(3, list.size());
+        list.addAll(1, Arrays.asList(4L, 5L));
+        assertEquals(Arrays.asList(1L, 4L, 5L, 2L, 3L), list);
+        list.remove(0);
+        assertEquals(4L, (long) list.get(0));
+    }
+
+    @Test
+    @IgnoreWhen( clusterTypes = ClusterType.MOCKED )
+    void localSnapshotRevalidatesOtherMutations() {
+        CouchbaseArrayList<Long> list = new CouchbaseArrayList<>(uuid, collection, Long.class,
+          ArrayListOptions.arrayListOptions().localSnapshot(Duration.ZERO));
+        CouchbaseArrayList<Long> other = new CouchbaseArrayList<>(uuid, collection, Long.class, options);
+        list.add(1L);
+        assertEquals(1, list.size());
+        other.add(2L);
+        assertEquals(2, list.size());
+        assertEquals(2L, (long) list.get(1));
+    }
 }
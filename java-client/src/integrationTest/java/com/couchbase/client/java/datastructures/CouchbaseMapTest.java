@@ -228,4 +228,19 @@ class CouchbaseMapTest extends JavaIntegrationTest {
         assertFalse(map.isEmpty());
         assertFalse(map2.isEmpty());
     }
+
+    @Test
+    void putAllWithLocalSnapshot() {
+        Map<String, Integer> values = new HashMap<>();
+        for (int i = 0; i < 40; i++) {
+            values.put("key" + i, i);
+        }
+        Map<String, Integer> map = collection.map(uuid, Integer.class,
+          MapOptions.mapOptions().localSnapshot(Duration.ofMinutes(1)));
+        map.putAll(values);
+        assertEquals(40, map.size());
+        assertEquals(7, (int) map.get("key7"));
+        assertTrue(map.containsKey("key39"));
+        assertEquals(values, new HashMap<>(map));
+    }
 }
@@ -239,7 +239,7 @@ public class AsyncCluster {
     this.environment = environment;
     this.core = Core.create(environment.get(), authenticator, seedNodes);
     this.searchIndexManager = new AsyncSearchIndexManager(core);
-    this.queryAccessor = new QueryAccessor(core);
+    this.queryAccessor = new QueryAccessor(core, environment.get().preparedStatementCacheSize());
     this.userManager = new AsyncUserManager(core);
     this.bucketManager = new AsyncBucketManager(core);
     this.queryIndexManager = new AsyncQueryIndexManager(this);
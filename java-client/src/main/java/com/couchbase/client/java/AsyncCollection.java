@@ -21,6 +21,9 @@ import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.cnc.RequestSpan;
 import com.couchbase.client.core.cnc.TracingIdentifiers;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufOutputStream;
+import com.couchbase.client.core.deps.io.netty.buffer.PooledByteBufAllocator;
 import com.couchbase.client.core.config.BucketConfig;
 import com.couchbase.client.core.config.CouchbaseBucketConfig;
 import com.couchbase.client.core.env.TimeoutConfig;
@@ -283,7 +286,8 @@ public class AsyncCollection {
     RetryStrategy retryStrategy = opts.retryStrategy().orElse(environment.retryStrategy());
 
     RequestSpan span = environment.requestTracer().requestSpan(TracingIdentifiers.SPAN_REQUEST_KV_GET, opts.parentSpan().orElse(null));
-    GetRequest request = new GetRequest(id, timeout, coreContext, collectionIdentifier, retryStrategy, span);
+    GetRequest request = new GetRequest(id, timeout, coreContext, collectionIdentifier, retryStrategy, span,
+      opts.zeroCopy());
     request.context().clientContext(opts.clientContext());
     return request;
   }
@@ -857,17 +861,33 @@ public class AsyncCollection {
       .requestTracer()
       .requestSpan(TracingIdentifiers.SPAN_REQUEST_ENCODING, span);
     long start = System.nanoTime();
-    Transcoder.EncodedValue encoded;
+    Transcoder.EncodedValue encoded = null;
+    ByteBuf encodedBuffer = null;
+    int flags;
     try {
-      encoded = transcoder.encode(content);
+      if (transcoder.streamingEncode()) {
+        encodedBuffer = PooledByteBufAllocator.DEFAULT.heapBuffer();
+        try {
+          flags = transcoder.encode(content, new ByteBufOutputStream(encodedBuffer));
+        } catch (RuntimeException ex) {
+          encodedBuffer.release();
+          throw ex;
+        }
+      } else {
+        encoded = transcoder.encode(content);
+        flags = encoded.flags();
+      }
     } finally {
       encodeSpan.end();
     }
     long end = System.nanoTime();
 
     long expiry = opts.expiry().encode(environment.eventBus());
-    final UpsertRequest request = new UpsertRequest(id, encoded.encoded(), expiry, encoded.flags(),
-      timeout, coreContext, collectionIdentifier, retryStrategy, opts.durabilityLevel(), span);
+    final UpsertRequest request = encodedBuffer != null
+      ? new UpsertRequest(id, encodedBuffer, expiry, flags, timeout, coreContext, collectionIdentifier, retryStrategy,
+        opts.durabilityLevel(), span)
+      : new UpsertRequest(id, encoded.encoded(), expiry, flags, timeout, coreContext, collectionIdentifier,
+        retryStrategy, opts.durabilityLevel(), span);
     request.context()
       .clientContext(opts.clientContext())
       .encodeLatency(end - start);
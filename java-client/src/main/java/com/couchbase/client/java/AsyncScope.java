@@ -104,7 +104,7 @@ public class AsyncScope {
     this.bucketName = bucketName;
     this.core = core;
     this.environment = environment;
-    this.queryAccessor = new QueryAccessor(core);
+    this.queryAccessor = new QueryAccessor(core, environment.preparedStatementCacheSize());
   }
 
   /**
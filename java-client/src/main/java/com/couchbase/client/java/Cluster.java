@@ -29,6 +29,7 @@ import com.couchbase.client.core.error.TimeoutException;
 import com.couchbase.client.core.msg.search.SearchRequest;
 import com.couchbase.client.java.analytics.AnalyticsOptions;
 import com.couchbase.client.java.analytics.AnalyticsResult;
+import com.couchbase.client.java.analytics.StreamingAnalyticsResult;
 import com.couchbase.client.java.diagnostics.DiagnosticsOptions;
 import com.couchbase.client.java.diagnostics.PingOptions;
 import com.couchbase.client.java.diagnostics.WaitUntilReadyOptions;
@@ -40,9 +41,11 @@ import com.couchbase.client.java.manager.search.SearchIndexManager;
 import com.couchbase.client.java.manager.user.UserManager;
 import com.couchbase.client.java.query.QueryOptions;
 import com.couchbase.client.java.query.QueryResult;
+import com.couchbase.client.java.query.StreamingQueryResult;
 import com.couchbase.client.java.search.SearchOptions;
 import com.couchbase.client.java.search.SearchQuery;
 import com.couchbase.client.java.search.result.SearchResult;
+import com.couchbase.client.java.search.result.StreamingSearchResult;
 
 import java.time.Duration;
 import java.util.Map;
@@ -443,6 +446,58 @@ public class Cluster {
     return block(asyncCluster.searchQuery(indexName, query, options));
   }
 
+  /**
+   * Performs a query against the query (N1QL) services and streams the rows while they are consumed.
+   * <p>
+   * Unlike {@link #query(String, QueryOptions)}, the rows are not collected into memory before this method returns,
+   * so results of arbitrary size can be processed with a bounded amount of memory.
+   *
+   * @param statement the N1QL query statement as a raw string.
+   * @param options the custom options for this query.
+   * @return the {@link StreamingQueryResult} once the response header arrives successfully.
+   * @throws TimeoutException if the operation times out before getting a result.
+   * @throws CouchbaseException for all other error reasons (acts as a base type and catch-all).
+   */
+  @Stability.Volatile
+  public StreamingQueryResult queryStreaming(final String statement, final QueryOptions options) {
+    return block(reactiveCluster.query(statement, options).map(StreamingQueryResult::new).toFuture());
+  }
+
+  /**
+   * Performs an analytics query and streams the rows while they are consumed.
+   * <p>
+   * Unlike {@link #analyticsQuery(String, AnalyticsOptions)}, the rows are not collected into memory before this
+   * method returns, so results of arbitrary size can be processed with a bounded amount of memory.
+   *
+   * @param statement the query statement as a raw string.
+   * @param options the custom options for this query.
+   * @return the {@link StreamingAnalyticsResult} once the response header arrives successfully.
+   * @throws TimeoutException if the operation times out before getting a result.
+   * @throws CouchbaseException for all other error reasons (acts as a base type and catch-all).
+   */
+  @Stability.Volatile
+  public StreamingAnalyticsResult analyticsQueryStreaming(final String statement, final AnalyticsOptions options) {
+    return block(reactiveCluster.analyticsQuery(statement, options).map(StreamingAnalyticsResult::new).toFuture());
+  }
+
+  /**
+   * Performs a Full Text Search (FTS) query and streams the rows while they are consumed.
+   * <p>
+   * Unlike {@link #searchQuery(String, SearchQuery, SearchOptions)}, the rows are not collected into memory before
+   * this method returns, so results of arbitrary size can be processed with a bounded amount of memory.
+   *
+   * @param query the query, in the form of a {@link SearchQuery}
+   * @param options the custom options for this query.
+   * @return the {@link StreamingSearchResult} once the response header arrives successfully.
+   * @throws TimeoutException if the operation times out before getting a result.
+   * @throws CouchbaseException for all other error reasons (acts as a base type and catch-all).
+   */
+  @Stability.Volatile
+  public StreamingSearchResult searchQueryStreaming(final String indexName, final SearchQuery query,
+                                                    final SearchOptions options) {
+    return block(reactiveCluster.searchQuery(indexName, query, options).map(StreamingSearchResult::new).toFuture());
+  }
+
   /**
    * Opens a {@link Bucket} with the given name.
    *
@@ -228,7 +228,9 @@ public class ReactiveCollection {
 
       if (opts.projections().isEmpty() && !opts.withExpiry()) {
         GetRequest request = asyncCollection.fullGetRequest(id, opts);
-        return Reactor.wrap(request, GetAccessor.get(core, request, transcoder), true);
+        return Reactor
+          .wrap(request, GetAccessor.get(core, request, transcoder), true)
+          .doOnDiscard(GetResult.class, GetResult::release);
       } else {
         SubdocGetRequest request = asyncCollection.subdocGetRequest(id, opts);
         return Reactor.wrap(request, GetAccessor.subdocGet(core, request, transcoder), true);
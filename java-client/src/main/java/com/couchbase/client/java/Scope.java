@@ -23,9 +23,11 @@ import com.couchbase.client.core.error.TimeoutException;
 import com.couchbase.client.core.io.CollectionIdentifier;
 import com.couchbase.client.java.analytics.AnalyticsOptions;
 import com.couchbase.client.java.analytics.AnalyticsResult;
+import com.couchbase.client.java.analytics.StreamingAnalyticsResult;
 import com.couchbase.client.java.env.ClusterEnvironment;
 import com.couchbase.client.java.query.QueryOptions;
 import com.couchbase.client.java.query.QueryResult;
+import com.couchbase.client.java.query.StreamingQueryResult;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -194,4 +196,33 @@ public class Scope {
   public AnalyticsResult analyticsQuery(final String statement, final AnalyticsOptions options) {
     return block(async().analyticsQuery(statement, options));
   }
+
+  /**
+   * Performs a N1QL query with custom {@link QueryOptions} in a Scope and streams the rows while they are consumed.
+   *
+   * @param statement the N1QL query statement as a raw string.
+   * @param options the custom options for this query.
+   * @return the {@link StreamingQueryResult} once the response header arrives successfully.
+   * @throws TimeoutException if the operation times out before getting a result.
+   * @throws CouchbaseException for all other error reasons (acts as a base type and catch-all).
+   */
+  @Stability.Volatile
+  public StreamingQueryResult queryStreaming(final String statement, final QueryOptions options) {
+    return block(reactiveScope.query(statement, options).map(StreamingQueryResult::new).toFuture());
+  }
+
+  /**
+   * Performs an Analytics query with custom {@link AnalyticsOptions} on a scope and streams the rows while they
+   * are consumed.
+   *
+   * @param statement the Analytics query statement as a raw string.
+   * @param options the custom options for this query.
+   * @return the {@link StreamingAnalyticsResult} once the response header arrives successfully.
+   * @throws TimeoutException if the operation times out before getting a result.
+   * @throws CouchbaseException for all other error reasons (acts as a base type and catch-all).
+   */
+  @Stability.Volatile
+  public StreamingAnalyticsResult analyticsQueryStreaming(final String statement, final AnalyticsOptions options) {
+    return block(reactiveScope.analyticsQuery(statement, options).map(StreamingAnalyticsResult::new).toFuture());
+  }
 }
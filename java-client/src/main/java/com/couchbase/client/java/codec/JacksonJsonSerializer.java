@@ -22,6 +22,7 @@ import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.encryption.CryptoManager;
 import com.couchbase.client.core.error.DecodingFailureException;
 import com.couchbase.client.core.error.EncodingFailureException;
+import com.couchbase.client.core.util.Bytes;
 import com.couchbase.client.java.encryption.annotation.Encrypted;
 import com.couchbase.client.java.encryption.databind.jackson.EncryptionModule;
 import com.couchbase.client.java.json.JsonObject;
@@ -29,6 +30,11 @@ import com.couchbase.client.java.json.JsonValueModule;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 import static com.couchbase.client.core.logging.RedactableArgument.redactUser;
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -124,6 +130,19 @@ public class JacksonJsonSerializer implements JsonSerializer {
     }
   }
 
+  @Override
+  public void serialize(final Object input, final OutputStream output) {
+    try {
+      if (input instanceof byte[]) {
+        output.write((byte[]) input);
+      } else {
+        mapper.writeValue(output, input);
+      }
+    } catch (Throwable t) {
+      throw new EncodingFailureException("Serializing of content + " + redactUser(input) + " to JSON failed.", t);
+    }
+  }
+
   @Override
   public <T> T deserialize(final Class<T> target, final byte[] input) {
     if (target.equals(byte[].class)) {
@@ -149,6 +168,40 @@ public class JacksonJsonSerializer implements JsonSerializer {
     }
   }
 
+  @Override
+  public <T> T deserialize(final Class<T> target, final ByteBuffer input) {
+    if (target.equals(byte[].class)) {
+      return (T) Bytes.toByteArray(input);
+    }
+
+    try {
+      return readValue(input, mapper.getTypeFactory().constructType(target));
+    } catch (Throwable e) {
+      throw new DecodingFailureException("Deserialization of content into target " + target
+          + " failed; encoded = " + redactUser(UTF_8.decode(input.duplicate()).toString()), e);
+    }
+  }
+
+  @Override
+  public <T> T deserialize(final TypeRef<T> target, final ByteBuffer input) {
+    try {
+      return readValue(input, mapper.getTypeFactory().constructType(target.type()));
+    } catch (Throwable e) {
+      throw new DecodingFailureException("Deserialization of content into target " + target
+          + " failed; encoded = " + redactUser(UTF_8.decode(input.duplicate()).toString()), e);
+    }
+  }
+
+  /**
+   * Reads the value straight from the backing array if accessible, or streams it from the buffer otherwise.
+   */
+  private <T> T readValue(final ByteBuffer input, final JavaType type) throws IOException {
+    if (input.hasArray()) {
+      return mapper.readValue(input.array(), input.arrayOffset() + input.position(), input.remaining(), type);
+    }
+    return mapper.readValue(new ByteBufferBackedInputStream(input.duplicate()), type);
+  }
+
   /**
    * Throws something if the user-provided Jackson library is absent or broken.
    *
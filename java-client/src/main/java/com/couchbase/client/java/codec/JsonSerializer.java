@@ -17,6 +17,12 @@
 package com.couchbase.client.java.codec;
 
 import com.couchbase.client.core.error.DecodingFailureException;
+import com.couchbase.client.core.error.EncodingFailureException;
+import com.couchbase.client.core.util.Bytes;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 /**
  * The {@link JsonSerializer} handles the serialization and deserialization of raw json data into java objects.
@@ -31,6 +37,23 @@ public interface JsonSerializer {
    */
   byte[] serialize(Object input);
 
+  /**
+   * Serializes the given input straight into the output stream.
+   * <p>
+   * The default implementation serializes into a byte array and writes it to the stream, serializers that can
+   * stream their output should override it.
+   *
+   * @param input the object as input.
+   * @param output the stream to write the serialized output to.
+   */
+  default void serialize(Object input, OutputStream output) {
+    try {
+      output.write(serialize(input));
+    } catch (IOException ex) {
+      throw new EncodingFailureException("Writing the serialized content to the output failed.", ex);
+    }
+  }
+
   /**
    * Deserializes raw input into the target class.
    *
@@ -52,4 +75,36 @@ public interface JsonSerializer {
   default <T> T deserialize(TypeRef<T> target, byte[] input) {
     throw new DecodingFailureException(getClass().getSimpleName() + " does not support decoding via TypeRef.");
   }
+
+  /**
+   * Deserializes raw input from a buffer into the target class.
+   * <p>
+   * The buffer is only valid for the duration of this call and must not be modified. The default implementation
+   * copies the remaining bytes and delegates to {@link #deserialize(Class, byte[])}, serializers that can read
+   * from the buffer directly should override it.
+   *
+   * @param target the target class.
+   * @param input the raw input, positioned at the start of the content.
+   * @param <T> the generic type to deserialize into.
+   * @return the deserialized output.
+   */
+  default <T> T deserialize(Class<T> target, ByteBuffer input) {
+    return deserialize(target, Bytes.toByteArray(input));
+  }
+
+  /**
+   * Deserializes raw input from a buffer into the target type.
+   * <p>
+   * The buffer is only valid for the duration of this call and must not be modified. The default implementation
+   * copies the remaining bytes and delegates to {@link #deserialize(TypeRef, byte[])}.
+   *
+   * @param target the target type.
+   * @param input the raw input, positioned at the start of the content.
+   * @param <T> the type to deserialize into.
+   * @return the deserialized output.
+   */
+  default <T> T deserialize(TypeRef<T> target, ByteBuffer input) {
+    return deserialize(target, Bytes.toByteArray(input));
+  }
+
 }
@@ -20,6 +20,9 @@ import com.couchbase.client.core.error.InvalidArgumentException;
 import com.couchbase.client.core.msg.kv.CodecFlags;
 import com.couchbase.client.java.CommonOptions;
 
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
 import static java.util.Objects.requireNonNull;
 
 public class JsonTranscoder implements Transcoder {
@@ -36,6 +39,23 @@ public class JsonTranscoder implements Transcoder {
 
   @Override
   public EncodedValue encode(final Object input) {
+    checkEncodable(input);
+    return new EncodedValue(serializer.serialize(input), CodecFlags.JSON_COMPAT_FLAGS);
+  }
+
+  @Override
+  public int encode(final Object input, final OutputStream output) {
+    checkEncodable(input);
+    serializer.serialize(input, output);
+    return CodecFlags.JSON_COMPAT_FLAGS;
+  }
+
+  @Override
+  public boolean streamingEncode() {
+    return true;
+  }
+
+  private static void checkEncodable(final Object input) {
     if (input instanceof CommonOptions.BuiltCommonOptions || input instanceof CommonOptions) {
       throw InvalidArgumentException.fromMessage("No content provided, cannot " +
         "encode " + input.getClass().getSimpleName() + " as content!");
@@ -46,8 +66,6 @@ public class JsonTranscoder implements Transcoder {
         "If you want to store already encoded JSON, use the RawJsonTranscoder, otherwise store it " +
         "with the RawBinaryTranscoder!");
     }
-
-    return new EncodedValue(serializer.serialize(input), CodecFlags.JSON_COMPAT_FLAGS);
   }
 
   @Override
@@ -65,4 +83,19 @@ public class JsonTranscoder implements Transcoder {
     return serializer.deserialize(target, input);
   }
 
+  @Override
+  public <T> T decode(final Class<T> target, final ByteBuffer input, int flags) {
+    if (target.equals(byte[].class)) {
+      throw InvalidArgumentException.fromMessage("byte[] input is not supported for the JsonTranscoder!. " +
+        "If you want to read already encoded JSON, use the RawJsonTranscoder, otherwise read it " +
+        "with the RawBinaryTranscoder!");
+    }
+    return serializer.deserialize(target, input);
+  }
+
+  @Override
+  public <T> T decode(TypeRef<T> target, ByteBuffer input, int flags) {
+    return serializer.deserialize(target, input);
+  }
+
 }
@@ -16,7 +16,14 @@
 
 package com.couchbase.client.java.codec;
 
+import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.error.DecodingFailureException;
+import com.couchbase.client.core.error.EncodingFailureException;
+import com.couchbase.client.core.util.Bytes;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 /**
  * The transcoder is responsible for transcoding KV binary packages between their binary and their java object
@@ -32,6 +39,36 @@ public interface Transcoder {
    */
   EncodedValue encode(Object input);
 
+  /**
+   * Encodes the given input straight into the output stream, based on the data format.
+   * <p>
+   * The default implementation encodes into a byte array and writes it to the stream. Transcoders which can write
+   * their output without the intermediate array should override it together with {@link #streamingEncode()}.
+   *
+   * @param input the input object to encode.
+   * @param output the stream to write the wire representation of the payload to.
+   * @return the flags to be used on the wire.
+   */
+  @Stability.Volatile
+  default int encode(Object input, OutputStream output) {
+    EncodedValue encoded = encode(input);
+    try {
+      output.write(encoded.encoded());
+    } catch (IOException ex) {
+      throw new EncodingFailureException("Writing the encoded content to the output failed.", ex);
+    }
+    return encoded.flags();
+  }
+
+  /**
+   * Returns true if {@link #encode(Object, OutputStream)} writes its output without going through an intermediate
+   * byte array, so that callers should prefer it over {@link #encode(Object)}.
+   */
+  @Stability.Volatile
+  default boolean streamingEncode() {
+    return false;
+  }
+
   /**
    * Decodes the wire representation into the entity based on the data format.
    *
@@ -54,6 +91,37 @@ public interface Transcoder {
     throw new DecodingFailureException(getClass().getSimpleName() + " does not support decoding via TypeRef.");
   }
 
+  /**
+   * Decodes the wire representation from a buffer into the entity based on the data format.
+   * <p>
+   * The buffer is a read-only view into the network buffer and only valid for the duration of this call. The
+   * default implementation copies the remaining bytes and delegates to {@link #decode(Class, byte[], int)},
+   * transcoders that can decode from the buffer directly should override it.
+   *
+   * @param target the target type to decode.
+   * @param input the wire representation to decode.
+   * @param flags the flags on the wire
+   * @return the decoded entity.
+   */
+  default <T> T decode(Class<T> target, ByteBuffer input, int flags) {
+    return decode(target, Bytes.toByteArray(input), flags);
+  }
+
+  /**
+   * Decodes the wire representation from a buffer into the entity based on the data format.
+   * <p>
+   * The buffer is a read-only view into the network buffer and only valid for the duration of this call. The
+   * default implementation copies the remaining bytes and delegates to {@link #decode(TypeRef, byte[], int)}.
+   *
+   * @param target the target type to decode.
+   * @param input the wire representation to decode.
+   * @param flags the flags on the wire
+   * @return the decoded entity.
+   */
+  default <T> T decode(TypeRef<T> target, ByteBuffer input, int flags) {
+    return decode(target, Bytes.toByteArray(input), flags);
+  }
+
   /**
    * Represents the tuple of encoded value and flags to be used on the wire.
    */
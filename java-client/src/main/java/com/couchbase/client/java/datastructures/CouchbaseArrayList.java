@@ -44,6 +44,7 @@ import com.couchbase.client.java.kv.LookupInSpec;
 import com.couchbase.client.java.kv.MutateInResult;
 import com.couchbase.client.java.kv.MutateInSpec;
 import com.couchbase.client.java.kv.MutationResult;
+import com.couchbase.client.java.kv.StoreSemantics;
 
 import static com.couchbase.client.core.util.Validators.notNull;
 import static com.couchbase.client.core.util.Validators.notNullOrEmpty;
@@ -70,6 +71,7 @@ public class CouchbaseArrayList<E> extends AbstractList<E> {
     private final LookupInOptions lookupInOptions;
     private final InsertOptions insertOptions;
     private final Class<E> entityTypeClass;
+    private final DocumentSnapshot<List<Object>> snapshot;
 
     /**
      * Create a new {@link Collection Couchbase-backed} List, backed by the document identified by <code>id</code>
@@ -99,6 +101,10 @@ public class CouchbaseArrayList<E> extends AbstractList<E> {
         this.getOptions = optionsIn.getOptions();
         this.lookupInOptions = optionsIn.lookupInOptions();
         this.insertOptions = optionsIn.insertOptions();
+        this.snapshot = optionsIn.localSnapshot()
+          .map(interval -> new DocumentSnapshot<>(collection, id, interval, getOptions, optionsIn.existsOptions(),
+            CouchbaseArrayList::decodeSnapshot, Collections::emptyList))
+          .orElse(null);
     }
 
     @Override
@@ -107,6 +113,13 @@ public class CouchbaseArrayList<E> extends AbstractList<E> {
         if (index < 0) {
             throw new IndexOutOfBoundsException("Index: " + index);
         }
+        if (snapshot != null) {
+            List<Object> current = snapshot.content();
+            if (index >= current.size()) {
+                throw new IndexOutOfBoundsException("Index: " + index);
+            }
+            return DocumentSnapshot.convert(collection, current.get(index), entityTypeClass);
+        }
         String idx = "[" + index + "]";
 
         try {
@@ -129,6 +142,9 @@ public class CouchbaseArrayList<E> extends AbstractList<E> {
 
     @Override
     public int size() {
+        if (snapshot != null) {
+            return snapshot.content().size();
+        }
         try {
             final LookupInResult result = collection.lookupIn(
               id,
@@ -143,6 +159,9 @@ public class CouchbaseArrayList<E> extends AbstractList<E> {
 
     @Override
     public boolean isEmpty() {
+        if (snapshot != null) {
+            return snapshot.content().isEmpty();
+        }
         try {
             LookupInResult current = collection.lookupIn(
               id,
@@ -179,6 +198,7 @@ public class CouchbaseArrayList<E> extends AbstractList<E> {
                   Collections.singletonList(MutateInSpec.replace(idx, element)),
                   arrayListOptions.mutateInOptions().cas(returnCas)
                 );
+                invalidateSnapshot();
                 return result;
             } catch (DocumentNotFoundException e) {
                 createEmptyList();
@@ -210,6 +230,7 @@ public class CouchbaseArrayList<E> extends AbstractList<E> {
                       Collections.singletonList(MutateInSpec.arrayInsert("[" + index + "]", Collections.singletonList(element))),
                       arrayListOptions.mutateInOptions()
                     );
+                    invalidateSnapshot();
                     return;
                 } catch (DocumentNotFoundException e) {
                     // empty list, create empty one and try again
@@ -244,6 +265,7 @@ public class CouchbaseArrayList<E> extends AbstractList<E> {
                   Collections.singletonList(MutateInSpec.remove(idx)),
                   arrayListOptions.mutateInOptions().cas(returnCas)
                 );
+                invalidateSnapshot();
                 return result;
             } catch (DocumentNotFoundException e) {
                 // ArrayList will throw if underlying list was cleared before a remove.
@@ -261,6 +283,69 @@ public class CouchbaseArrayList<E> extends AbstractList<E> {
         );
     }
 
+    @Override
+    public boolean add(E element) {
+        collection.mutateIn(
+          id,
+          Collections.singletonList(MutateInSpec.arrayAppend("", Collections.singletonList(element))),
+          arrayListOptions.mutateInOptions().storeSemantics(StoreSemantics.UPSERT)
+        );
+        invalidateSnapshot();
+        return true;
+    }
+
+    /**
+     * Appends all elements to the end of the list with a single mutation, instead of one per element.
+     */
+    @Override
+    public boolean addAll(java.util.Collection<? extends E> c) {
+        if (c.isEmpty()) {
+            return false;
+        }
+        collection.mutateIn(
+          id,
+          Collections.singletonList(MutateInSpec.arrayAppend("", new ArrayList<>(c))),
+          arrayListOptions.mutateInOptions().storeSemantics(StoreSemantics.UPSERT)
+        );
+        invalidateSnapshot();
+        return true;
+    }
+
+    /**
+     * Inserts all elements at the given position with a single mutation, instead of one per element.
+     */
+    @Override
+    public boolean addAll(int index, java.util.Collection<? extends E> c) {
+        //fail fast on negative values, as they are interpreted as "starting from the back of the array" otherwise
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        if (c.isEmpty()) {
+            return false;
+        }
+        int retry = 0;
+        try {
+            while (retry < 2) {
+                try {
+                    collection.mutateIn(
+                      id,
+                      Collections.singletonList(MutateInSpec.arrayInsert("[" + index + "]", new ArrayList<>(c))),
+                      arrayListOptions.mutateInOptions()
+                    );
+                    invalidateSnapshot();
+                    return true;
+                } catch (DocumentNotFoundException e) {
+                    // empty list, create empty one and try again
+                    createEmptyList();
+                    retry += 1;
+                }
+            }
+        } catch (PathNotFoundException e) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        return false;
+    }
+
     @Override
     public boolean contains(Object o) {
         // This grabs entire list locally, to search for o
@@ -286,6 +371,7 @@ public class CouchbaseArrayList<E> extends AbstractList<E> {
        } catch (DocumentNotFoundException e) {
            // could be we called this twice, that's ok
        }
+       invalidateSnapshot();
     }
 
     private class CouchbaseListIterator implements ListIterator<E> {
@@ -298,6 +384,22 @@ public class CouchbaseArrayList<E> extends AbstractList<E> {
 
         @SuppressWarnings("unchecked")
         CouchbaseListIterator(int index) {
+            if (snapshot != null) {
+                List<Object> current;
+                synchronized (snapshot) {
+                    current = snapshot.content();
+                    this.cas = snapshot.cas();
+                }
+                List<E> list = new ArrayList<>(current.size());
+                for (Object value : current) {
+                    list.add(DocumentSnapshot.convert(collection, value, entityTypeClass));
+                }
+                this.delegate = list.listIterator(index);
+                this.lastVisited = -1;
+                this.cursor = index;
+                return;
+            }
+
             JsonArray current;
             try {
                 GetResult result = collection.get(id, getOptions);
@@ -369,6 +471,7 @@ public class CouchbaseArrayList<E> extends AbstractList<E> {
                 );
                 //update the cas so that several removes in a row can work
                 this.cas = updated.cas();
+                invalidateSnapshot();
                 //also correctly reset the state:
                 delegate.remove();
                 this.cursor = lastVisited;
@@ -395,6 +498,7 @@ public class CouchbaseArrayList<E> extends AbstractList<E> {
                 );
                 //update the cas so that several mutations in a row can work
                 this.cas = updated.cas();
+                invalidateSnapshot();
                 //also correctly reset the state:
                 delegate.set(e);
             } catch (CasMismatchException | DocumentNotFoundException ex) {
@@ -416,6 +520,7 @@ public class CouchbaseArrayList<E> extends AbstractList<E> {
                 );
                 //update the cas so that several mutations in a row can work
                 this.cas = updated.cas();
+                invalidateSnapshot();
                 //also correctly reset the state:
                 delegate.add(e);
                 this.cursor++;
@@ -437,6 +542,28 @@ public class CouchbaseArrayList<E> extends AbstractList<E> {
         }
     }
 
+    /**
+     * Helper method to decode the list content for the local snapshot.
+     */
+    private static List<Object> decodeSnapshot(final GetResult result) {
+        JsonArray current = result.contentAs(JsonArray.class);
+        //Care not to use toList, as it will convert internal JsonObject/JsonArray to Map/List
+        List<Object> list = new ArrayList<>(current.size());
+        for (Object value : current) {
+            list.add(value);
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Helper method to mark the local snapshot (if enabled) as outdated after a mutation.
+     */
+    private void invalidateSnapshot() {
+        if (snapshot != null) {
+            snapshot.invalidate();
+        }
+    }
+
     /**
      * Helper method to create an empty list (an empty document with a toplevel array).
      */
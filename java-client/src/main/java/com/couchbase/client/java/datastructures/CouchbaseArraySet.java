@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 import com.couchbase.client.core.annotation.Stability;
@@ -66,6 +67,7 @@ public class CouchbaseArraySet<T> extends AbstractSet<T> {
     private ArraySetOptions.Built arraySetOptions;
     private final GetOptions getOptions;
     private final LookupInOptions lookupInOptions;
+    private final DocumentSnapshot<List<Object>> snapshot;
 
     /**
      * Create a new {@link CouchbaseArraySet}, backed by the document identified by <code>id</code>
@@ -94,10 +96,17 @@ public class CouchbaseArraySet<T> extends AbstractSet<T> {
         this.arraySetOptions = arrayOpts.build();
         this.getOptions = optionsIn.getOptions();
         this.lookupInOptions = optionsIn.lookupInOptions();
+        this.snapshot = optionsIn.localSnapshot()
+          .map(interval -> new DocumentSnapshot<>(collection, id, interval, getOptions, optionsIn.existsOptions(),
+            CouchbaseArraySet::decodeSnapshot, Collections::emptyList))
+          .orElse(null);
     }
 
     @Override
     public int size() {
+        if (snapshot != null) {
+            return snapshot.content().size();
+        }
         try {
             LookupInResult result = collection.lookupIn(
               id,
@@ -112,6 +121,9 @@ public class CouchbaseArraySet<T> extends AbstractSet<T> {
 
     @Override
     public boolean isEmpty() {
+        if (snapshot != null) {
+            return snapshot.content().isEmpty();
+        }
         try {
             LookupInResult current = collection.lookupIn(
               id,
@@ -128,6 +140,14 @@ public class CouchbaseArraySet<T> extends AbstractSet<T> {
     public boolean contains(Object t) {
         //TODO subpar implementation for a Set, use ARRAY_CONTAINS when available
         enforcePrimitive(t);
+        if (snapshot != null) {
+            for (Object in : snapshot.content()) {
+                if (safeEquals(in, t)) {
+                    return true;
+                }
+            }
+            return false;
+        }
         try {
             GetResult result = collection.get(id, getOptions);
 
@@ -158,6 +178,7 @@ public class CouchbaseArraySet<T> extends AbstractSet<T> {
               Collections.singletonList(MutateInSpec.arrayAddUnique("", t)),
               arraySetOptions.mutateInOptions().storeSemantics(StoreSemantics.UPSERT)
             );
+            invalidateSnapshot();
             return true;
         } catch (PathExistsException ex) {
             return false;
@@ -192,6 +213,7 @@ public class CouchbaseArraySet<T> extends AbstractSet<T> {
                       Collections.singletonList(MutateInSpec.remove(path)),
                       arraySetOptions.mutateInOptions().cas(cas)
                     );
+                    invalidateSnapshot();
                     return true;
                 }
             } catch (CasMismatchException e) {
@@ -210,6 +232,7 @@ public class CouchbaseArraySet<T> extends AbstractSet<T> {
     @Override
     public void clear() {
         collection.remove(id);
+        invalidateSnapshot();
     }
 
     /**
@@ -225,6 +248,26 @@ public class CouchbaseArraySet<T> extends AbstractSet<T> {
         }
     }
 
+    /**
+     * Helper method to decode the set content for the local snapshot.
+     */
+    private static List<Object> decodeSnapshot(final GetResult result) {
+        List<Object> list = new ArrayList<>();
+        for (Object value : result.contentAs(JsonArray.class)) {
+            list.add(value);
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Helper method to mark the local snapshot (if enabled) as outdated after a mutation.
+     */
+    private void invalidateSnapshot() {
+        if (snapshot != null) {
+            snapshot.invalidate();
+        }
+    }
+
     private boolean safeEquals(Object expected, Object tested) {
         if (expected == null) {
             return tested == null;
@@ -240,6 +283,18 @@ public class CouchbaseArraySet<T> extends AbstractSet<T> {
 
         @SuppressWarnings("unchecked")
         CouchbaseArraySetIterator() {
+            if (snapshot != null) {
+                List<Object> current;
+                synchronized (snapshot) {
+                    current = snapshot.content();
+                    this.cas = snapshot.cas();
+                }
+                this.delegate = new ArrayList<>((List<E>) current).iterator();
+                this.lastVisited = -1;
+                this.cursor = 0;
+                return;
+            }
+
             JsonArray current;
             try {
                 GetResult result = collection.get(id);
@@ -293,6 +348,7 @@ public class CouchbaseArraySet<T> extends AbstractSet<T> {
                   arraySetOptions.mutateInOptions().cas(cas));
                 //update the cas so that several removes in a row can work
                 this.cas = updated.cas();
+                invalidateSnapshot();
                 //also correctly reset the state:
                 delegate.remove();
                 this.cursor = lastVisited;
@@ -16,8 +16,11 @@
 package com.couchbase.client.java.datastructures;
 
 import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -36,12 +39,14 @@ import com.couchbase.client.core.error.CasMismatchException;
 import com.couchbase.client.core.error.DocumentExistsException;
 import com.couchbase.client.core.error.subdoc.PathNotFoundException;
 import com.couchbase.client.java.kv.GetOptions;
+import com.couchbase.client.java.kv.GetResult;
 import com.couchbase.client.java.kv.InsertOptions;
 import com.couchbase.client.java.kv.LookupInOptions;
 import com.couchbase.client.java.kv.LookupInResult;
 import com.couchbase.client.java.kv.LookupInSpec;
 import com.couchbase.client.java.kv.MapOptions;
 import com.couchbase.client.java.kv.MutateInSpec;
+import com.couchbase.client.java.kv.StoreSemantics;
 
 import static com.couchbase.client.core.util.Validators.notNull;
 import static com.couchbase.client.core.util.Validators.notNullOrEmpty;
@@ -64,6 +69,11 @@ import static com.couchbase.client.core.util.Validators.notNullOrEmpty;
 @Stability.Committed
 public class CouchbaseMap<E> extends AbstractMap<String, E> {
 
+    /**
+     * The maximum number of entries written with a single mutation in {@link #putAll(Map)}.
+     */
+    private static final int MAX_PUT_ALL_SPECS = 16;
+
     private final String id;
     private final Collection collection;
     private final Class<E> entityTypeClass;
@@ -71,6 +81,7 @@ public class CouchbaseMap<E> extends AbstractMap<String, E> {
     private final GetOptions getOptions;
     private final LookupInOptions lookupInOptions;
     private final InsertOptions insertOptions;
+    private final DocumentSnapshot<Map<String, Object>> snapshot;
 
     /**
      * Create a new {@link CouchbaseMap}, backed by the document identified by <code>id</code>
@@ -99,6 +110,10 @@ public class CouchbaseMap<E> extends AbstractMap<String, E> {
         this.getOptions = optionsIn.getOptions();
         this.lookupInOptions = optionsIn.lookupInOptions();
         this.insertOptions = optionsIn.insertOptions();
+        this.snapshot = optionsIn.localSnapshot()
+          .map(interval -> new DocumentSnapshot<Map<String, Object>>(collection, id, interval, getOptions,
+            optionsIn.existsOptions(), CouchbaseMap::decodeSnapshot, Collections::emptyMap))
+          .orElse(null);
     }
 
     @Override
@@ -126,6 +141,7 @@ public class CouchbaseMap<E> extends AbstractMap<String, E> {
                 collection.mutateIn(id,
                         Collections.singletonList(MutateInSpec.upsert(key, value)),
                         mapOptions.mutateInOptions().cas(returnCas));
+                invalidateSnapshot();
                 return result;
             } catch (CasMismatchException ex) {
                 //will need to retry get-and-set
@@ -141,6 +157,9 @@ public class CouchbaseMap<E> extends AbstractMap<String, E> {
     @Override
     public E get(Object key) {
         String idx = checkKey(key);
+        if (snapshot != null) {
+            return DocumentSnapshot.convert(collection, snapshot.content().get(idx), entityTypeClass);
+        }
         try {
             return collection.lookupIn(id,
                     Collections.singletonList(LookupInSpec.get(idx)),
@@ -166,6 +185,7 @@ public class CouchbaseMap<E> extends AbstractMap<String, E> {
                 collection.mutateIn(id,
                         Collections.singletonList(MutateInSpec.remove(idx)),
                         mapOptions.mutateInOptions().cas(returnCas));
+                invalidateSnapshot();
                 return result;
             } catch (DocumentNotFoundException | PathNotFoundException e) {
                 return null;
@@ -180,15 +200,55 @@ public class CouchbaseMap<E> extends AbstractMap<String, E> {
         );
     }
 
+    /**
+     * Writes all entries with as few mutations as possible, instead of one lookup and mutation per entry.
+     * <p>
+     * Unlike {@link #put(String, Object)}, the previous values are not needed here so the entries are upserted
+     * without a CAS. If the map is large, the entries are written in chunks of {@link #MAX_PUT_ALL_SPECS}.
+     */
+    @Override
+    public void putAll(Map<? extends String, ? extends E> m) {
+        if (m.isEmpty()) {
+            return;
+        }
+        List<MutateInSpec> specs = new ArrayList<>(Math.min(m.size(), MAX_PUT_ALL_SPECS));
+        for (Map.Entry<? extends String, ? extends E> entry : m.entrySet()) {
+            specs.add(MutateInSpec.upsert(checkKey(entry.getKey()), entry.getValue()));
+            if (specs.size() == MAX_PUT_ALL_SPECS) {
+                upsertAll(specs);
+                specs = new ArrayList<>(MAX_PUT_ALL_SPECS);
+            }
+        }
+        if (!specs.isEmpty()) {
+            upsertAll(specs);
+        }
+    }
+
+    private void upsertAll(final List<MutateInSpec> specs) {
+        try {
+            collection.mutateIn(id, specs, mapOptions.mutateInOptions().storeSemantics(StoreSemantics.UPSERT));
+        } finally {
+            invalidateSnapshot();
+        }
+    }
+
     @Override
     public void clear() {
         //optimized version over AbstractMap's (which uses the entry set)
         collection.remove(id);
+        invalidateSnapshot();
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public Set<Entry<String, E>> entrySet() {
+        if (snapshot != null) {
+            Map<String, E> data = new HashMap<>();
+            for (Map.Entry<String, Object> entry : snapshot.content().entrySet()) {
+                data.put(entry.getKey(), DocumentSnapshot.convert(collection, entry.getValue(), entityTypeClass));
+            }
+            return new CouchbaseEntrySet(data);
+        }
         JsonObject obj;
         try {
             obj = collection.get(id, getOptions).contentAsObject();
@@ -202,6 +262,9 @@ public class CouchbaseMap<E> extends AbstractMap<String, E> {
     @Override
     public boolean containsKey(Object key) {
         String idx = checkKey(key);
+        if (snapshot != null) {
+            return snapshot.content().containsKey(idx);
+        }
         try {
             return collection.lookupIn(id,
                     Collections.singletonList(LookupInSpec.exists(idx)),
@@ -220,6 +283,9 @@ public class CouchbaseMap<E> extends AbstractMap<String, E> {
 
     @Override
     public int size() {
+        if (snapshot != null) {
+            return snapshot.content().size();
+        }
         try {
             LookupInResult current = collection.lookupIn(id,
                     Collections.singletonList(LookupInSpec.count("")),
@@ -230,6 +296,27 @@ public class CouchbaseMap<E> extends AbstractMap<String, E> {
         }
     }
 
+    /**
+     * Helper method to decode the map content for the local snapshot.
+     */
+    private static Map<String, Object> decodeSnapshot(final GetResult result) {
+        JsonObject current = result.contentAsObject();
+        Map<String, Object> map = new HashMap<>(current.size());
+        for (String name : current.getNames()) {
+            map.put(name, current.get(name));
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Helper method to mark the local snapshot (if enabled) as outdated after a mutation.
+     */
+    private void invalidateSnapshot() {
+        if (snapshot != null) {
+            snapshot.invalidate();
+        }
+    }
+
     private String checkKey(final Object key) {
         if (key == null) {
             throw new NullPointerException("Unsupported null key");
@@ -16,9 +16,11 @@
 package com.couchbase.client.java.datastructures;
 
 import java.util.AbstractQueue;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Queue;
 
 import com.couchbase.client.core.annotation.Stability;
@@ -68,6 +70,7 @@ public class CouchbaseQueue<E> extends AbstractQueue<E> {
     private final Class<E> entityTypeClass;
     private final QueueOptions.Built queueOptions;
     private final LookupInOptions lookupInOptions;
+    private final DocumentSnapshot<List<Object>> snapshot;
 
     /**
      * Create a new {@link Collection Couchbase-backed} Queue, backed by the document identified by <code>id</code>
@@ -94,6 +97,10 @@ public class CouchbaseQueue<E> extends AbstractQueue<E> {
         optionsIn.copyInto(opts);
         this.queueOptions = opts.build();
         this.lookupInOptions = optionsIn.lookupInOptions();
+        this.snapshot = optionsIn.localSnapshot()
+          .map(interval -> new DocumentSnapshot<>(collection, id, interval, optionsIn.getOptions(),
+            optionsIn.existsOptions(), CouchbaseQueue::decodeSnapshot, Collections::emptyList))
+          .orElse(null);
     }
 
     @Override
@@ -101,6 +108,9 @@ public class CouchbaseQueue<E> extends AbstractQueue<E> {
 
     @Override
     public int size() {
+        if (snapshot != null) {
+            return snapshot.content().size();
+        }
         try {
             LookupInResult result = collection.lookupIn(id,
                     Collections.singletonList(LookupInSpec.count("")),
@@ -114,6 +124,7 @@ public class CouchbaseQueue<E> extends AbstractQueue<E> {
     @Override
     public void clear() {
         collection.remove(id);
+        invalidateSnapshot();
     }
 
     @Override
@@ -124,6 +135,35 @@ public class CouchbaseQueue<E> extends AbstractQueue<E> {
         collection.mutateIn(id,
                 Collections.singletonList(MutateInSpec.arrayPrepend("", Collections.singletonList(e))),
                 queueOptions.mutateInOptions().storeSemantics(StoreSemantics.UPSERT));
+        invalidateSnapshot();
+        return true;
+    }
+
+    /**
+     * Offers all elements with a single mutation, instead of one per element.
+     * <p>
+     * The elements are polled in the order of the given collection, as if they would have been offered one by one.
+     */
+    @Override
+    public boolean addAll(java.util.Collection<? extends E> c) {
+        if (c == this) {
+            throw new IllegalArgumentException("Cannot add a queue to itself");
+        }
+        List<E> values = new ArrayList<>(c);
+        if (values.isEmpty()) {
+            return false;
+        }
+        for (E e : values) {
+            if (e == null) {
+                throw new NullPointerException("Unsupported null value");
+            }
+        }
+        // offer uses ARRAY_PREPEND, so the first element needs to end up last in the array
+        Collections.reverse(values);
+        collection.mutateIn(id,
+                Collections.singletonList(MutateInSpec.arrayPrepend("", values)),
+                queueOptions.mutateInOptions().storeSemantics(StoreSemantics.UPSERT));
+        invalidateSnapshot();
         return true;
     }
 
@@ -140,6 +180,7 @@ public class CouchbaseQueue<E> extends AbstractQueue<E> {
                 collection.mutateIn(id,
                         Collections.singletonList(MutateInSpec.remove(idx)),
                         queueOptions.mutateInOptions().cas(returnCas));
+                invalidateSnapshot();
                 return current;
             } catch (DocumentNotFoundException | PathNotFoundException ex) {
                 return null;
@@ -156,6 +197,12 @@ public class CouchbaseQueue<E> extends AbstractQueue<E> {
 
     @Override
     public E peek() {
+        if (snapshot != null) {
+            List<Object> current = snapshot.content();
+            return current.isEmpty()
+              ? null
+              : DocumentSnapshot.convert(collection, current.get(current.size() - 1), entityTypeClass);
+        }
         try {
             LookupInResult result = collection.lookupIn(
               id,
@@ -169,6 +216,26 @@ public class CouchbaseQueue<E> extends AbstractQueue<E> {
 
     }
 
+    /**
+     * Helper method to decode the queue content for the local snapshot.
+     */
+    private static List<Object> decodeSnapshot(final GetResult result) {
+        List<Object> list = new ArrayList<>();
+        for (Object value : result.contentAsArray()) {
+            list.add(value);
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Helper method to mark the local snapshot (if enabled) as outdated after a mutation.
+     */
+    private void invalidateSnapshot() {
+        if (snapshot != null) {
+            snapshot.invalidate();
+        }
+    }
+
     public class CouchbaseQueueIterator<E> implements Iterator<E> {
 
         private long cas;
@@ -220,6 +287,7 @@ public class CouchbaseQueue<E> extends AbstractQueue<E> {
                         queueOptions.mutateInOptions().cas(this.cas));
                 //update the cas
                 this.cas = result.cas();
+                invalidateSnapshot();
                 //ok the remove succeeded in DB, let's reflect that in the iterator's backing collection and state
                 delegate.remove();
                 doneRemove = true;
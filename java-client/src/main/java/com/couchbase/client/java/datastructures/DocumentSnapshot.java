@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.java.datastructures;
+
+import com.couchbase.client.core.error.DocumentNotFoundException;
+import com.couchbase.client.java.Collection;
+import com.couchbase.client.java.codec.JsonSerializer;
+import com.couchbase.client.java.kv.ExistsOptions;
+import com.couchbase.client.java.kv.ExistsResult;
+import com.couchbase.client.java.kv.GetOptions;
+import com.couchbase.client.java.kv.GetResult;
+
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A local, CAS-validated copy of the document backing one of the datastructures.
+ *
+ * <p>The copy is fetched on first use and then handed out as-is until the revalidation interval elapsed. After
+ * that, only the CAS of the document is looked up on the server and the document is fetched again only if it
+ * changed. Mutations through the owning datastructure need to {@link #invalidate()} the copy.</p>
+ *
+ * @param <T> the decoded type of the document.
+ * @since 3.1.4
+ */
+class DocumentSnapshot<T> {
+
+    private final Collection collection;
+    private final String id;
+    private final long revalidationIntervalNanos;
+    private final GetOptions getOptions;
+    private final ExistsOptions existsOptions;
+    private final Function<GetResult, T> decoder;
+    private final Supplier<T> empty;
+
+    private T content;
+    private long cas;
+    private boolean valid;
+    private long validatedAt;
+
+    DocumentSnapshot(final Collection collection, final String id, final Duration revalidationInterval,
+                     final GetOptions getOptions, final ExistsOptions existsOptions,
+                     final Function<GetResult, T> decoder, final Supplier<T> empty) {
+        this.collection = collection;
+        this.id = id;
+        this.revalidationIntervalNanos = revalidationInterval.toNanos();
+        this.getOptions = getOptions;
+        this.existsOptions = existsOptions;
+        this.decoder = decoder;
+        this.empty = empty;
+    }
+
+    /**
+     * Returns the current content of the document, revalidating or fetching it if needed.
+     * <p>
+     * The returned content must not be modified by the caller.
+     */
+    synchronized T content() {
+        long now = System.nanoTime();
+        if (valid) {
+            if (now - validatedAt < revalidationIntervalNanos) {
+                return content;
+            }
+            ExistsResult current = collection.exists(id, existsOptions);
+            if ((current.exists() ? current.cas() : 0) == cas) {
+                validatedAt = now;
+                return content;
+            }
+        }
+
+        try {
+            GetResult result = collection.get(id, getOptions);
+            content = decoder.apply(result);
+            cas = result.cas();
+        } catch (DocumentNotFoundException e) {
+            content = empty.get();
+            cas = 0;
+        }
+        valid = true;
+        validatedAt = now;
+        return content;
+    }
+
+    /**
+     * Returns the CAS of the document the current content has been decoded from (0 if the document does not exist).
+     * <p>
+     * Must be called right after {@link #content()} to belong to the same version.
+     */
+    synchronized long cas() {
+        return cas;
+    }
+
+    /**
+     * Marks the local copy as outdated, so it is fetched again on the next access.
+     */
+    synchronized void invalidate() {
+        valid = false;
+        content = null;
+    }
+
+    /**
+     * Converts a raw JSON value from the local copy into the entity type of the datastructure.
+     */
+    @SuppressWarnings("unchecked")
+    static <E> E convert(final Collection collection, final Object raw, final Class<E> entityType) {
+        if (raw == null || entityType.isInstance(raw)) {
+            return (E) raw;
+        }
+        JsonSerializer serializer = collection.environment().jsonSerializer();
+        return serializer.deserialize(entityType, serializer.serialize(raw));
+    }
+}
@@ -16,8 +16,10 @@
 
 package com.couchbase.client.java.env;
 
+import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.encryption.CryptoManager;
 import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.error.InvalidArgumentException;
 import com.couchbase.client.java.ClusterOptions;
 import com.couchbase.client.java.codec.DefaultJsonSerializer;
 import com.couchbase.client.java.codec.JacksonJsonSerializer;
@@ -44,15 +46,22 @@ import static com.couchbase.client.core.util.Validators.notNull;
  */
 public class ClusterEnvironment extends CoreEnvironment {
 
+  /**
+   * The default maximum number of prepared statements cached per cluster or scope.
+   */
+  public static final int DEFAULT_PREPARED_STATEMENT_CACHE_SIZE = 5000;
+
   private final JsonSerializer jsonSerializer;
   private final Transcoder transcoder;
   private final Optional<CryptoManager> cryptoManager;
+  private final int preparedStatementCacheSize;
 
   private ClusterEnvironment(Builder builder) {
     super(builder);
     this.jsonSerializer = defaultIfNull(builder.jsonSerializer, () -> newDefaultSerializer(builder.cryptoManager));
     this.transcoder = defaultIfNull(builder.transcoder, () -> JsonTranscoder.create(jsonSerializer));
     this.cryptoManager = Optional.ofNullable(builder.cryptoManager);
+    this.preparedStatementCacheSize = builder.preparedStatementCacheSize;
   }
 
   /**
@@ -134,11 +143,20 @@ public class ClusterEnvironment extends CoreEnvironment {
     return cryptoManager;
   }
 
+  /**
+   * Returns the maximum number of prepared statements which are cached (per cluster or scope).
+   */
+  @Stability.Volatile
+  public int preparedStatementCacheSize() {
+    return preparedStatementCacheSize;
+  }
+
   public static class Builder extends CoreEnvironment.Builder<Builder> {
 
     private JsonSerializer jsonSerializer;
     private Transcoder transcoder;
     private CryptoManager cryptoManager;
+    private int preparedStatementCacheSize = DEFAULT_PREPARED_STATEMENT_CACHE_SIZE;
 
     Builder() {
       super();
@@ -201,6 +219,25 @@ public class ClusterEnvironment extends CoreEnvironment {
       return this;
     }
 
+    /**
+     * Sets the maximum number of prepared statements (queries with adhoc set to false) which are cached.
+     * <p>
+     * Once the cache is full, the least recently used statements are evicted and need to be prepared again on
+     * their next use. The cache is kept per cluster or scope. Defaults to
+     * {@value ClusterEnvironment#DEFAULT_PREPARED_STATEMENT_CACHE_SIZE}.
+     *
+     * @param preparedStatementCacheSize the maximum number of cached prepared statements.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    @Stability.Volatile
+    public Builder preparedStatementCacheSize(final int preparedStatementCacheSize) {
+      if (preparedStatementCacheSize < 1) {
+        throw InvalidArgumentException.fromMessage("PreparedStatementCacheSize must be at least 1");
+      }
+      this.preparedStatementCacheSize = preparedStatementCacheSize;
+      return this;
+    }
+
     /**
      * Turns this builder into a real {@link ClusterEnvironment}.
      *
@@ -19,10 +19,16 @@ package com.couchbase.client.java.kv;
 import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.java.CommonOptions;
 
+import java.time.Duration;
+import java.util.Optional;
+
+import static com.couchbase.client.core.util.Validators.notNull;
+
 public abstract class CommonDatastructureOptions<SELF extends CommonDatastructureOptions<SELF>> extends CommonOptions<SELF> {
 
     private static final int DEFAULT_CAS_MISMATCH_RETRIES = 10;
     private int casMismatchRetries;
+    private Duration localSnapshot;
 
     protected CommonDatastructureOptions() {
         this.casMismatchRetries = DEFAULT_CAS_MISMATCH_RETRIES;
@@ -34,6 +40,25 @@ public abstract class CommonDatastructureOptions<SELF extends CommonDatastructur
         return self();
     }
 
+    /**
+     * Keeps a local copy of the backing document for read operations, instead of fetching them from the server
+     * every time.
+     * <p>
+     * The copy is used as-is for the given interval after it has been fetched or revalidated. Afterwards, its CAS
+     * is compared with the one on the server through a metadata-only lookup, and the document is only fetched again
+     * if it has been modified in the meantime. Use {@link Duration#ZERO} to always revalidate the copy.
+     * <p>
+     * Note that within the interval, modifications through other instances (or applications) are not visible.
+     *
+     * @param revalidationInterval how long the local copy is used before it is revalidated.
+     * @return this options builder for chaining purposes.
+     */
+    @Stability.Volatile
+    public SELF localSnapshot(Duration revalidationInterval) {
+        this.localSnapshot = notNull(revalidationInterval, "RevalidationInterval");
+        return self();
+    }
+
     @Stability.Internal
     public abstract class BuiltCommonDatastructureOptions extends BuiltCommonOptions {
 
@@ -41,6 +66,10 @@ public abstract class CommonDatastructureOptions<SELF extends CommonDatastructur
             return casMismatchRetries;
         }
 
+        public Optional<Duration> localSnapshot() {
+            return Optional.ofNullable(localSnapshot);
+        }
+
         // We need to create various specific Options, which use the CommonOptions base, so
         // lets do that here
         public LookupInOptions lookupInOptions() {
@@ -65,6 +94,13 @@ public abstract class CommonDatastructureOptions<SELF extends CommonDatastructur
 
         }
 
+        public ExistsOptions existsOptions() {
+            return ExistsOptions.existsOptions()
+                    .retryStrategy(this.retryStrategy().orElse(null))
+                    .clientContext(this.clientContext())
+                    .timeout(this.timeout().orElse(null));
+        }
+
         public InsertOptions insertOptions() {
             return InsertOptions.insertOptions()
                     .retryStrategy(this.retryStrategy().orElse(null))
@@ -83,6 +119,7 @@ public abstract class CommonDatastructureOptions<SELF extends CommonDatastructur
             c.retryStrategy(this.retryStrategy().orElse(null));
             c.timeout(this.timeout().orElse(null));
             c.clientContext(this.clientContext());
+            c.localSnapshot = localSnapshot;
         }
     }
 }
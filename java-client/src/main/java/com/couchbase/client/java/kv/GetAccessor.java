@@ -32,6 +32,7 @@ import com.couchbase.client.java.codec.Transcoder;
 
 import java.time.Instant;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 
 import static com.couchbase.client.core.error.DefaultErrorUtil.keyValueStatusToException;
@@ -51,15 +52,33 @@ public enum GetAccessor {
    */
   public static CompletableFuture<GetResult> get(final Core core, final GetRequest request, final Transcoder transcoder) {
     core.send(request);
-    return request
+    CompletableFuture<GetResult> result = request
       .response()
       .thenApply(response -> {
         if (response.status().success()) {
+          if (response.contentBuffer() != null) {
+            return new GetResult(response.contentBuffer(), response.flags(), response.cas(), Optional.empty(), transcoder);
+          }
           return new GetResult(response.content(), response.flags(), response.cas(), Optional.empty(), transcoder);
         }
         throw keyValueStatusToException(request, response);
       })
       .whenComplete((t, e) -> request.context().logicallyComplete());
+
+    if (request.retainContent()) {
+      result.whenComplete((r, e) -> {
+        if (e instanceof CancellationException) {
+          // The caller is not listening anymore, so the retained content is never handed out and needs to be
+          // released here once (and if) it arrives.
+          request.response().thenAccept(response -> {
+            if (response.contentBuffer() != null) {
+              response.contentBuffer().release();
+            }
+          });
+        }
+      });
+    }
+    return result;
   }
 
   /**
@@ -45,6 +45,11 @@ public class GetOptions extends CommonOptions<GetOptions> {
    */
   private boolean withExpiry;
 
+  /**
+   * If the content should be exposed as a retained network buffer instead of being copied.
+   */
+  private boolean zeroCopy;
+
   /**
    * Holds a possible projection.
    */
@@ -80,6 +85,23 @@ public class GetOptions extends CommonOptions<GetOptions> {
     return this;
   }
 
+  /**
+   * If set to true, the document body is not copied out of the network buffer but decoded straight from it.
+   * <p>
+   * This reduces allocations for large documents, but the returned {@link GetResult} then holds on to pooled
+   * network memory and <strong>must</strong> be released through {@link GetResult#release()} once it is not needed
+   * anymore. Note that this setting only applies to full document fetches, it is ignored if
+   * {@link #withExpiry(boolean)} or projections are used.
+   *
+   * @param zeroCopy true if the content should be retained as a network buffer.
+   * @return the {@link GetOptions} to allow method chaining.
+   */
+  @Stability.Volatile
+  public GetOptions zeroCopy(final boolean zeroCopy) {
+    this.zeroCopy = zeroCopy;
+    return this;
+  }
+
   /**
    * Allows to specify a custom list paths to fetch from the document instead of the whole.
    * <p>
@@ -144,6 +166,10 @@ public class GetOptions extends CommonOptions<GetOptions> {
       return withExpiry;
     }
 
+    public boolean zeroCopy() {
+      return zeroCopy;
+    }
+
     public List<String> projections() {
       return projections == null ? emptyList() : projections;
     }
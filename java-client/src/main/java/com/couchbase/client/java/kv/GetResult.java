@@ -22,11 +22,13 @@ import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
 import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
 import com.couchbase.client.core.error.CasMismatchException;
 import com.couchbase.client.core.msg.kv.CodecFlags;
+import com.couchbase.client.core.util.Bytes;
 import com.couchbase.client.java.codec.Transcoder;
 import com.couchbase.client.java.codec.TypeRef;
 import com.couchbase.client.java.json.JsonArray;
 import com.couchbase.client.java.json.JsonObject;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
@@ -48,6 +50,11 @@ public class GetResult {
    */
   protected final byte[] content;
 
+  /**
+   * The retained content buffer if fetched with {@link GetOptions#zeroCopy(boolean)}, null otherwise.
+   */
+  private final ByteBuf contentBuffer;
+
   /**
    * The flags from the kv operation.
    */
@@ -77,6 +84,24 @@ public class GetResult {
   GetResult(final byte[] content, final int flags, final long cas, final Optional<Instant> expiry, Transcoder transcoder) {
     this.cas = cas;
     this.content = content;
+    this.contentBuffer = null;
+    this.flags = flags;
+    this.expiry = expiry;
+    this.transcoder = transcoder;
+  }
+
+  /**
+   * Creates a new {@link GetResult} which is backed by a retained, read-only network buffer.
+   *
+   * @param contentBuffer the retained content buffer, owned by this result from now on.
+   * @param cas the cas from the doc.
+   * @param expiry the expiry if fetched from the doc.
+   */
+  GetResult(final ByteBuf contentBuffer, final int flags, final long cas, final Optional<Instant> expiry,
+            final Transcoder transcoder) {
+    this.cas = cas;
+    this.content = null;
+    this.contentBuffer = contentBuffer;
     this.flags = flags;
     this.expiry = expiry;
     this.transcoder = transcoder;
@@ -145,6 +170,9 @@ public class GetResult {
    * @param target the target class to decode the encoded content into.
    */
   public <T> T contentAs(final Class<T> target) {
+    if (contentBuffer != null) {
+      return transcoder.decode(target, contentBufferView(), flags);
+    }
     return transcoder.decode(target, content, flags);
   }
 
@@ -158,9 +186,56 @@ public class GetResult {
    * @param target the type to decode the encoded content into.
    */
   public <T> T contentAs(final TypeRef<T> target) {
+    if (contentBuffer != null) {
+      return transcoder.decode(target, contentBufferView(), flags);
+    }
     return transcoder.decode(target, content, flags);
   }
 
+  /**
+   * Returns a read-only view of the encoded content if this result has been fetched with
+   * {@link GetOptions#zeroCopy(boolean)}.
+   * <p>
+   * The view points straight into the network buffer and is only valid until {@link #release()} is called.
+   *
+   * @return the read-only content view, or empty if the content is held as a regular byte array.
+   */
+  @Stability.Volatile
+  public Optional<ByteBuffer> contentBuffer() {
+    return contentBuffer == null ? Optional.empty() : Optional.of(contentBufferView());
+  }
+
+  /**
+   * Releases the network buffer backing this result if it has been fetched with {@link GetOptions#zeroCopy(boolean)}.
+   * <p>
+   * Results fetched with zero-copy enabled must be released once they are not needed anymore, otherwise the
+   * pooled network memory leaks. After this call the content cannot be decoded anymore. For all other results
+   * this method is a no-op.
+   *
+   * @return true if a buffer has been released by this call.
+   */
+  @Stability.Volatile
+  public boolean release() {
+    return contentBuffer != null && contentBuffer.refCnt() > 0 && contentBuffer.release();
+  }
+
+  private ByteBuffer contentBufferView() {
+    if (contentBuffer.refCnt() == 0) {
+      throw new IllegalStateException("The content of this GetResult has already been released.");
+    }
+    return contentBuffer.nioBuffer();
+  }
+
+  /**
+   * Returns the raw encoded content, copying it if this result is backed by a network buffer.
+   */
+  private byte[] encodedContent() {
+    if (contentBuffer == null) {
+      return content;
+    }
+    return contentBuffer.refCnt() > 0 ? ByteBufUtil.getBytes(contentBuffer) : Bytes.EMPTY_BYTE_ARRAY;
+  }
+
   @Override
   public String toString() {
     return "GetResult{" +
@@ -175,6 +250,7 @@ public class GetResult {
    * Converts the content to a string representation if possible (for toString).
    */
   protected String convertContentToString() {
+    byte[] content = encodedContent();
     if (content.length == 0) {
       return "";
     }
@@ -201,13 +277,14 @@ public class GetResult {
     return flags == getResult.flags &&
       cas == getResult.cas &&
       Arrays.equals(content, getResult.content) &&
+      contentBuffer == getResult.contentBuffer &&
       Objects.equals(expiry, getResult.expiry) &&
       Objects.equals(transcoder, getResult.transcoder);
   }
 
   @Override
   public int hashCode() {
-    int result = Objects.hash(flags, cas, expiry, transcoder);
+    int result = Objects.hash(flags, cas, expiry, transcoder, System.identityHashCode(contentBuffer));
     result = 31 * result + Arrays.hashCode(content);
     return result;
   }
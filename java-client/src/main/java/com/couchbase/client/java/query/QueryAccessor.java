@@ -19,10 +19,15 @@ package com.couchbase.client.java.query;
 import com.couchbase.client.core.Core;
 import com.couchbase.client.core.Reactor;
 import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.Counter;
+import com.couchbase.client.core.cnc.Meter;
 import com.couchbase.client.core.cnc.RequestSpan;
 import com.couchbase.client.core.cnc.events.request.PreparedStatementRetriedEvent;
 import com.couchbase.client.core.config.ClusterCapabilities;
+import com.couchbase.client.core.config.BucketConfig;
 import com.couchbase.client.core.config.ClusterConfig;
+import com.couchbase.client.core.config.NodeInfo;
+import com.couchbase.client.core.config.PortInfo;
 import com.couchbase.client.core.env.CoreEnvironment;
 import com.couchbase.client.core.error.CouchbaseException;
 import com.couchbase.client.core.error.PreparedStatementFailureException;
@@ -34,8 +39,9 @@ import com.couchbase.client.core.node.NodeIdentifier;
 import com.couchbase.client.core.retry.RetryReason;
 import com.couchbase.client.core.retry.RetryStrategy;
 import com.couchbase.client.core.service.ServiceType;
-import com.couchbase.client.core.util.LRUCache;
+import com.couchbase.client.core.util.ConcurrentLruCache;
 import com.couchbase.client.java.codec.JsonSerializer;
+import com.couchbase.client.java.env.ClusterEnvironment;
 import com.couchbase.client.java.json.JsonObject;
 import reactor.core.publisher.Mono;
 import reactor.util.annotation.Nullable;
@@ -43,6 +49,8 @@ import reactor.util.annotation.Nullable;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -65,32 +73,60 @@ import static com.couchbase.client.java.query.QueryOptions.queryOptions;
  */
 @Stability.Internal
 public class QueryAccessor {
+
     /**
-     * The maximum number of prepared queries that will be kept around if the cache is enabled.
+     * The name of the counters for prepared statement cache hits, misses and evictions.
      */
-    private static final int QUERY_CACHE_SIZE = 5000;
-
+    private static final String CACHE_METRIC_NAME = "cb.prepared_statement_cache";
     /**
      * Holds the query cache.
      */
-    private final Map<String, QueryCacheEntry> queryCache = Collections.synchronizedMap(
-      new LRUCache<>(QUERY_CACHE_SIZE)
-    );
+    private final ConcurrentLruCache<String, QueryCacheEntry> queryCache;
 
     private final Core core;
 
+    /**
+     * The prepared statement cache counters, resolved from the meter on first use.
+     */
+    private volatile CacheMetrics cacheMetrics;
+
     /**
      * Caches the value if enhanced prepared is enabled for fastpath config checking.
      */
     private volatile boolean enhancedPreparedEnabled = false;
 
+    /**
+     * The nodes running the query service in the last config seen, to detect topology changes.
+     */
+    private volatile Set<NodeIdentifier> queryNodes = Collections.emptySet();
+
     public QueryAccessor(final Core core) {
+        this(core, ClusterEnvironment.DEFAULT_PREPARED_STATEMENT_CACHE_SIZE);
+    }
+
+    public QueryAccessor(final Core core, final int preparedStatementCacheSize) {
         this.core = core;
+        this.queryCache = new ConcurrentLruCache<>(
+          preparedStatementCacheSize,
+          key -> cacheMetrics().evictions.incrementBy(1)
+        );
 
         core
           .configurationProvider()
           .configs()
-          .subscribe(this::updateEnhancedPreparedEnabled);
+          .subscribe(config -> {
+              updateEnhancedPreparedEnabled(config);
+              invalidateOnTopologyChange(config);
+          });
+    }
+
+    private CacheMetrics cacheMetrics() {
+        CacheMetrics metrics = cacheMetrics;
+        if (metrics == null) {
+            metrics = new CacheMetrics(core.context().environment().meter());
+            cacheMetrics = metrics;
+        }
+        return metrics;
     }
 
     /**
@@ -110,6 +146,41 @@ public class QueryAccessor {
         enhancedPreparedEnabled = caps != null && caps.contains(ClusterCapabilities.ENHANCED_PREPARED_STATEMENTS);
     }
 
+    /**
+     * Clears the prepared statement cache if the set of query nodes changed.
+     *
+     * <p>Prepared statements are held by the query nodes, so a node which joined the cluster does not know them
+     * and a failed over node takes them with it. Rather than running into failed executions and retrying, the
+     * statements are prepared again.</p>
+     *
+     * @param config the config to check.
+     */
+    private void invalidateOnTopologyChange(final ClusterConfig config) {
+        Set<NodeIdentifier> current = new HashSet<>();
+        if (config.globalConfig() != null) {
+            for (PortInfo portInfo : config.globalConfig().portInfos()) {
+                if (portInfo.ports().containsKey(ServiceType.QUERY) || portInfo.sslPorts().containsKey(ServiceType.QUERY)) {
+                    current.add(portInfo.identifier());
+                }
+            }
+        }
+        for (BucketConfig bucketConfig : config.bucketConfigs().values()) {
+            for (NodeInfo nodeInfo : bucketConfig.nodes()) {
+                if (nodeInfo.services().containsKey(ServiceType.QUERY) || nodeInfo.sslServices().containsKey(ServiceType.QUERY)) {
+                    current.add(nodeInfo.identifier());
+                }
+            }
+        }
+
+        if (!current.equals(queryNodes)) {
+            boolean initial = queryNodes.isEmpty();
+            queryNodes = current;
+            if (!initial) {
+                queryCache.clear();
+            }
+        }
+    }
+
     /**
      * Performs a N1QL query and returns the result as a future.
      *
@@ -187,9 +258,13 @@ public class QueryAccessor {
         boolean enhancedEnabled = enhancedPreparedEnabled;
 
         if (cacheEntry != null && cacheEntryStillValid(cacheEntry, enhancedEnabled)) {
+            cacheMetrics().hits.incrementBy(1);
             return queryInternal(buildExecuteRequest(cacheEntry, request, options), options, true, serializer)
                 .onErrorResume(new PreparedRetryFunction(request, options, serializer));
-        } else if (enhancedEnabled) {
+        }
+
+        cacheMetrics().misses.incrementBy(1);
+        if (enhancedEnabled) {
             return queryInternal(buildPrepareRequest(request, options), options, true, serializer)
               .flatMap(qr -> {
                   Optional<String> preparedName = qr.header().prepared();
@@ -312,6 +387,29 @@ public class QueryAccessor {
         return (enhancedEnabled && !entry.fullPlan) || (!enhancedEnabled && entry.fullPlan);
     }
 
+    /**
+     * Holds the counters for prepared statement cache hits, misses and evictions.
+     */
+    private static class CacheMetrics {
+
+        private final Counter hits;
+        private final Counter misses;
+        private final Counter evictions;
+
+        CacheMetrics(final Meter meter) {
+            this.hits = meter.counter(CACHE_METRIC_NAME, tags("hit"));
+            this.misses = meter.counter(CACHE_METRIC_NAME, tags("miss"));
+            this.evictions = meter.counter(CACHE_METRIC_NAME, tags("eviction"));
+        }
+
+        private static Map<String, String> tags(final String outcome) {
+            Map<String, String> tags = new HashMap<>(2);
+            tags.put("cb.service", ServiceType.QUERY.ident());
+            tags.put("cb.outcome", outcome);
+            return tags;
+        }
+    }
+
     /**
      * Holds a cache entry, which might either be the full plan or just the name, depending on the
      * cluster state.
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.java.query;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.error.DecodingFailureException;
+import com.couchbase.client.java.codec.TypeRef;
+import com.couchbase.client.java.json.JsonObject;
+
+import java.util.stream.Stream;
+
+import static com.couchbase.client.java.AsyncUtils.block;
+
+/**
+ * The result of a N1QL query, where the rows are streamed from the server while they are consumed.
+ * <p>
+ * Unlike the {@link QueryResult}, the rows are not collected upfront. Only a small number of rows is buffered
+ * ahead of the consumer, and reading from the network is paused if the consumer falls behind. This allows to
+ * process results which would not fit into memory at once.
+ * <p>
+ * The rows can only be consumed once. If the returned {@link Stream} is not consumed fully, it must be closed so
+ * that the remaining rows are discarded.
+ *
+ * @since 3.1.4
+ */
+@Stability.Volatile
+public class StreamingQueryResult {
+
+    /**
+     * The number of rows which are requested ahead of the consumer.
+     */
+    private static final int ROWS_PREFETCH = 128;
+
+    /**
+     * The underlying reactive result which does the actual streaming.
+     */
+    private final ReactiveQueryResult reactive;
+
+    /**
+     * Creates a new StreamingQueryResult.
+     *
+     * @param reactive the reactive result to stream from.
+     */
+    @Stability.Internal
+    public StreamingQueryResult(final ReactiveQueryResult reactive) {
+        this.reactive = reactive;
+    }
+
+    /**
+     * Returns a {@link Stream} of the rows as they arrive, decoded into {@link JsonObject}.
+     *
+     * @throws DecodingFailureException (while consuming) if any row could not be decoded successfully.
+     */
+    public Stream<JsonObject> rowsAsObject() {
+        return rowsAs(JsonObject.class);
+    }
+
+    /**
+     * Returns a {@link Stream} of the rows as they arrive, decoded into the requested entity class.
+     *
+     * @param target target class for converting the query row.
+     * @throws DecodingFailureException (while consuming) if any row could not be decoded successfully.
+     */
+    public <T> Stream<T> rowsAs(final Class<T> target) {
+        return reactive.rowsAs(target).toStream(ROWS_PREFETCH);
+    }
+
+    /**
+     * Returns a {@link Stream} of the rows as they arrive, decoded into the requested entity type.
+     *
+     * @param target target type for converting the query row.
+     * @throws DecodingFailureException (while consuming) if any row could not be decoded successfully.
+     */
+    public <T> Stream<T> rowsAs(final TypeRef<T> target) {
+        return reactive.rowsAs(target).toStream(ROWS_PREFETCH);
+    }
+
+    /**
+     * Returns the {@link QueryMetaData} giving access to the additional metadata associated with this query.
+     * <p>
+     * Note that the metadata is only available once all rows have been received, so this method blocks until the
+     * rows have been consumed (or discarded).
+     */
+    public QueryMetaData metaData() {
+        return block(reactive.metaData().toFuture());
+    }
+
+}
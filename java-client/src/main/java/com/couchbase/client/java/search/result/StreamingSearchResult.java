@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.java.search.result;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.java.search.SearchMetaData;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static com.couchbase.client.java.AsyncUtils.block;
+
+/**
+ * The result of a Full Text Search (FTS) query, where the rows are streamed from the server while they are consumed.
+ * <p>
+ * Unlike the {@link SearchResult}, the rows are not collected upfront. Only a small number of rows is buffered
+ * ahead of the consumer, and reading from the network is paused if the consumer falls behind.
+ * <p>
+ * The rows can only be consumed once. If the returned {@link Stream} is not consumed fully, it must be closed so
+ * that the remaining rows are discarded.
+ *
+ * @since 3.1.4
+ */
+@Stability.Volatile
+public class StreamingSearchResult {
+
+    /**
+     * The number of rows which are requested ahead of the consumer.
+     */
+    private static final int ROWS_PREFETCH = 128;
+
+    /**
+     * The underlying reactive result which does the actual streaming.
+     */
+    private final ReactiveSearchResult reactive;
+
+    /**
+     * Creates a new StreamingSearchResult.
+     *
+     * @param reactive the reactive result to stream from.
+     */
+    @Stability.Internal
+    public StreamingSearchResult(final ReactiveSearchResult reactive) {
+        this.reactive = reactive;
+    }
+
+    /**
+     * Returns a {@link Stream} of the FTS result rows as they arrive.
+     */
+    public Stream<SearchRow> rows() {
+        return reactive.rows().toStream(ROWS_PREFETCH);
+    }
+
+    /**
+     * Returns any additional meta information associated with the FTS query.
+     * <p>
+     * Note that the metadata is only available once all rows have been received, so this method blocks until the
+     * rows have been consumed (or discarded).
+     */
+    public SearchMetaData metaData() {
+        return block(reactive.metaData().toFuture());
+    }
+
+    /**
+     * Returns the facets of the FTS query.
+     * <p>
+     * Like the metadata, the facets are only available once all rows have been received.
+     */
+    public Map<String, SearchFacetResult> facets() {
+        return block(reactive.facets().toFuture());
+    }
+
+}
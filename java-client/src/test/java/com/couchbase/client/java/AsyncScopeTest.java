@@ -38,7 +38,10 @@ class AsyncScopeTest {
     when(configProvider.configs()).thenReturn(configs);
     when(core.configurationProvider()).thenReturn(configProvider);
 
-    AsyncScope scope = new AsyncScope("scope", "bucket", core, mock(ClusterEnvironment.class));
+    ClusterEnvironment environment = mock(ClusterEnvironment.class);
+    when(environment.preparedStatementCacheSize()).thenReturn(ClusterEnvironment.DEFAULT_PREPARED_STATEMENT_CACHE_SIZE);
+
+    AsyncScope scope = new AsyncScope("scope", "bucket", core, environment);
 
     AsyncCollection collection1 = scope.defaultCollection();
     AsyncCollection collection2 = scope.defaultCollection();
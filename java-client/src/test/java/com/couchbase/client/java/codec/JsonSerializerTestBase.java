@@ -21,6 +21,8 @@ import com.couchbase.client.java.json.JsonArray;
 import com.couchbase.client.java.json.JsonObject;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashSet;
@@ -60,6 +62,30 @@ abstract class JsonSerializerTestBase {
     assertEquals(decoded, decodedWithTypeRef);
   }
 
+  @Test
+  void encodesJsonObjectIntoStream() {
+    JsonObject input = JsonObject.create().put("foo", "bar");
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    serializer().serialize(input, output);
+    assertArrayEquals(serializer().serialize(input), output.toByteArray());
+  }
+
+  @Test
+  void decodesJsonObjectFromBuffer() {
+    byte[] input = "xx{\"foo\":\"bar\"}".getBytes(UTF_8);
+    ByteBuffer heap = ByteBuffer.wrap(input, 2, input.length - 2);
+    ByteBuffer direct = ByteBuffer.allocateDirect(input.length);
+    direct.put(input).position(2);
+
+    for (ByteBuffer buffer : Arrays.asList(heap, direct, heap.asReadOnlyBuffer())) {
+      int position = buffer.position();
+      assertEquals(JsonObject.create().put("foo", "bar"), serializer().deserialize(JsonObject.class, buffer));
+      assertEquals(JsonObject.create().put("foo", "bar"), serializer().deserialize(new TypeRef<JsonObject>() {
+      }, buffer));
+      assertEquals(position, buffer.position());
+    }
+  }
+
   @Test
   void encodesJsonArray() {
     JsonArray input = JsonArray.from("1", true, 2);
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2021 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.deps.io.netty.util.ResourceLeakDetector;
+import com.couchbase.client.core.io.netty.kv.MemcacheProtocol;
+import com.couchbase.client.core.msg.kv.CodecFlags;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.msg.kv.GetResponse;
+import com.couchbase.client.core.retry.BestEffortRetryStrategy;
+import com.couchbase.client.java.codec.DefaultJsonSerializer;
+import com.couchbase.client.java.codec.JsonTranscoder;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Verifies that the retained content of zero-copy gets is released if nobody receives it.
+ */
+class GetAccessorTest {
+
+  static {
+    ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.PARANOID);
+  }
+
+  @Test
+  void releasesRetainedContentIfCancelledBeforeResponse() {
+    GetRequest request = zeroCopyRequest();
+    CompletableFuture<GetResult> result = GetAccessor.get(mock(Core.class), request, JsonTranscoder.create(DefaultJsonSerializer.create()));
+
+    assertTrue(result.cancel(true));
+    GetResponse response = decodeResponse(request);
+    request.succeed(response);
+
+    assertEquals(0, response.contentBuffer().refCnt());
+  }
+
+  @Test
+  void handsOverRetainedContentIfNotCancelled() {
+    GetRequest request = zeroCopyRequest();
+    CompletableFuture<GetResult> result = GetAccessor.get(mock(Core.class), request, JsonTranscoder.create(DefaultJsonSerializer.create()));
+
+    GetResponse response = decodeResponse(request);
+    request.succeed(response);
+
+    GetResult getResult = result.join();
+    assertEquals("bar", getResult.contentAsObject().getString("foo"));
+    assertEquals(1, response.contentBuffer().refCnt());
+    assertTrue(getResult.release());
+  }
+
+  private static GetRequest zeroCopyRequest() {
+    return new GetRequest("key", Duration.ofSeconds(1), mock(CoreContext.class), null,
+      BestEffortRetryStrategy.INSTANCE, null, true);
+  }
+
+  private static GetResponse decodeResponse(final GetRequest request) {
+    ByteBuf extras = Unpooled.buffer().writeInt(CodecFlags.JSON_COMPAT_FLAGS);
+    ByteBuf body = Unpooled.copiedBuffer("{\"foo\":\"bar\"}", UTF_8);
+    ByteBuf response = MemcacheProtocol.response(ByteBufAllocator.DEFAULT, MemcacheProtocol.Opcode.GET, (byte) 0,
+      (short) 0, 1, 0, extras, Unpooled.EMPTY_BUFFER, body);
+    try {
+      return request.decode(response, null);
+    } finally {
+      response.release();
+      extras.release();
+      body.release();
+    }
+  }
+
+}